@@ -46,4 +46,24 @@ tasks.register<JavaExec>("interactive") {
             throw GradleException("PAGERDUTY_API_TOKEN environment variable not set")
         }
     }
-}
\ No newline at end of file
+}
+// Full sync as a performance check: page latency and throughput against the runs recorded in
+// baselines/ - fails the build on a significant regression (exit code 5)
+tasks.register<JavaExec>("syncBaseline") {
+    group = "verification"
+    description = "Run a full sync and compare its latency and throughput with the stored baseline"
+    mainClass.set("me.riddle.fintech.api.EntryPoint")
+    classpath = sourceSets["main"].runtimeClasspath
+    args = listOf(
+        "sync",
+        "--output", layout.buildDirectory.file("baseline/pagerduty_users.ndjson").get().asFile.path,
+        "--baseline", "baselines/sync.json"
+    ) + (project.findProperty("syncArgs")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: emptyList())
+
+    doFirst {
+        if (System.getenv("PAGERDUTY_API_TOKEN") == null) {
+            throw GradleException("PAGERDUTY_API_TOKEN environment variable not set")
+        }
+        layout.buildDirectory.dir("baseline").get().asFile.mkdirs()
+    }
+}
@@ -0,0 +1,441 @@
+package me.riddle.fintech.api;
+
+import me.riddle.fintech.application.service.baseline.BaselineStore;
+import me.riddle.fintech.application.service.baseline.RegressionDetector;
+import me.riddle.fintech.application.service.baseline.RegressionDetector.LatencySlo;
+import me.riddle.fintech.application.service.baseline.RegressionDetector.Thresholds;
+import me.riddle.fintech.application.service.baseline.RunResult;
+import me.riddle.fintech.application.service.baseline.RunResult.Key;
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.application.service.dto.PagerDutyUserService;
+import me.riddle.fintech.application.service.export.ExportFormat;
+import me.riddle.fintech.application.service.export.ParallelUserExporter;
+import me.riddle.fintech.application.service.monitor.LatencyHistogram;
+import me.riddle.fintech.application.service.sync.ConcurrentUserFetch;
+import me.riddle.fintech.application.service.sync.IncrementalUserSync;
+import me.riddle.fintech.application.service.sync.ResumableUserSync;
+import me.riddle.fintech.application.service.sync.UserDelta;
+import me.riddle.fintech.application.service.transport.HttpTransport;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.store.HashedUser;
+import me.riddle.fintech.domain.model.store.UserSnapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+import static me.riddle.fintech.api.CommandLineArgs.integer;
+import static me.riddle.fintech.api.CommandLineArgs.value;
+
+/**
+ * Headless full sync for cron jobs and pipelines: fetch the whole directory, export it, optionally
+ * write a snapshot, print one {@code key=value} summary line and exit with a meaningful code.
+ * <p>
+ * The export is written next to its destination and moved into place when complete, so readers
+ * never see a partial file. Pages are fetched concurrently; if the directory shifts during the
+ * fetch, the run falls back to a sequential, resumable fetch that copies it exactly.
+ * With {@code --baseline}, the run's page latency and throughput are checked for regressions
+ * against earlier runs, which makes the command a repeatable performance check as well.
+ * <p>
+ * With {@code --incremental} - the nightly mode - only users added, changed or removed since the
+ * {@code --snapshot} are written, as an NDJSON delta, and the snapshot is then brought up to date.
+ * Users are hashed as their pages are parsed, so an unchanged directory costs the fetch and a
+ * comparison of hashes, nothing more.
+ */
+public class BatchSyncCommand {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_FETCH_FAILED = 3;
+    public static final int EXIT_WRITE_FAILED = 4;
+    public static final int EXIT_REGRESSION = 5;
+    public static final int EXIT_INTERRUPTED = 130;
+
+    static final String USAGE = """
+            Usage: sync [options]
+              --concurrency N    page requests in flight, 1-16 (default 4)
+              --page-size N      users per request, 2-100 (default 100)
+              --format F         csv, json, ndjson or binary (default ndjson)
+              --gzip             compress the export
+              --output PATH      export file (default pagerduty_users.<format>[.gz])
+              --snapshot PATH    also write a binary snapshot for warm starts and incremental syncs
+              --incremental      write only the users added, changed or removed since --snapshot, as an
+                                 NDJSON delta (default output pagerduty_users.delta.ndjson[.gz]), then
+                                 update the snapshot
+              --baseline PATH    compare page latency and throughput with earlier runs, then record this one
+              --slo-p99 MS       fail if the p99 page latency exceeds MS milliseconds
+              --help             show this help
+
+            Exit codes: 0 ok, 2 usage, 3 API fetch failed, 4 writing output failed,
+                        5 regression against the baseline or SLO missed (the export is still written), 130 interrupted
+            """;
+
+    /**
+     * Parsed command line.
+     */
+    public record Options(int concurrency, int pageSize, ExportFormat format, boolean gzip,
+                          Path output, Path snapshot, Path baseline, Integer sloP99Millis, boolean incremental) {
+
+        public Options {
+            if (concurrency < 1 || concurrency > 16) {
+                throw new IllegalArgumentException("Concurrency must be between 1 and 16");
+            }
+            if (pageSize < 2 || pageSize > 100) {
+                throw new IllegalArgumentException("Page size must be between 2 and 100");
+            }
+            if (sloP99Millis != null && sloP99Millis <= 0) {
+                throw new IllegalArgumentException("SLO must be positive");
+            }
+            Objects.requireNonNull(format, "Format cannot be null");
+            Objects.requireNonNull(output, "Output cannot be null");
+            if (incremental && snapshot == null) {
+                throw new IllegalArgumentException("--incremental needs --snapshot to compare against");
+            }
+            if (incremental && format != ExportFormat.NDJSON) {
+                throw new IllegalArgumentException("--incremental writes an NDJSON delta");
+            }
+            if (incremental && (baseline != null || sloP99Millis != null)) {
+                throw new IllegalArgumentException("--incremental cannot be combined with --baseline or --slo-p99");
+            }
+        }
+
+        /**
+         * @throws IllegalArgumentException on unknown or malformed options, with a message for the user
+         */
+        public static Options parse(String... args) {
+            var concurrency = 4;
+            var pageSize = 100;
+            var format = ExportFormat.NDJSON;
+            var gzip = false;
+            Path output = null;
+            Path snapshot = null;
+            Path baseline = null;
+            Integer sloP99Millis = null;
+            var incremental = false;
+
+            for (int i = 0; i < args.length; i++) {
+                var option = args[i];
+                switch (option) {
+                    case "--concurrency" -> concurrency = integer(option, value(args, ++i, option));
+                    case "--page-size" -> pageSize = integer(option, value(args, ++i, option));
+                    case "--format" -> format = format(value(args, ++i, option));
+                    case "--gzip" -> gzip = true;
+                    case "--output" -> output = Path.of(value(args, ++i, option));
+                    case "--snapshot" -> snapshot = Path.of(value(args, ++i, option));
+                    case "--baseline" -> baseline = Path.of(value(args, ++i, option));
+                    case "--slo-p99" -> sloP99Millis = integer(option, value(args, ++i, option));
+                    case "--incremental" -> incremental = true;
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+
+            if (output == null) {
+                output = Path.of((incremental ? "pagerduty_users.delta." : "pagerduty_users.") + format.extension(gzip));
+            }
+            return new Options(concurrency, pageSize, format, gzip, output, snapshot, baseline, sloP99Millis,
+                    incremental);
+        }
+
+        private static ExportFormat format(String value) {
+            try {
+                return ExportFormat.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format: " + value + " (csv, json, ndjson or binary)");
+            }
+        }
+    }
+
+    private final Options options;
+    private final PageFetcher fetcher;
+    private final String transport;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final LatencyHistogram pageLatency = new LatencyHistogram();
+    private boolean fellBack;
+
+    /**
+     * @param transport {@link HttpTransport.Kind#id() id} of the transport behind the fetcher - runs are
+     *                  only compared with baseline runs over the same one
+     */
+    public BatchSyncCommand(Options options, PageFetcher fetcher, String transport, PrintStream out, PrintStream err) {
+        this.options = Objects.requireNonNull(options, "Options cannot be null");
+        this.fetcher = new TimedFetcher(Objects.requireNonNull(fetcher, "Fetcher cannot be null"));
+        this.transport = Objects.requireNonNull(transport, "Transport cannot be null");
+        this.out = Objects.requireNonNull(out, "Output cannot be null");
+        this.err = Objects.requireNonNull(err, "Error output cannot be null");
+    }
+
+    /**
+     * Parse the arguments and run - the entry point for {@code EntryPoint sync ...}.
+     *
+     * @return process exit code
+     */
+    public static int run(String[] args, PagerDutyUserService service) {
+        return run(args, service, service.transportKind().id());
+    }
+
+    static int run(String[] args, PageFetcher fetcher, String transport) {
+        if (List.of(args).contains("--help")) {
+            System.out.print(USAGE);
+            return EXIT_OK;
+        }
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("sync: " + e.getMessage());
+            System.err.print(USAGE);
+            return EXIT_USAGE;
+        }
+        return new BatchSyncCommand(options, fetcher, transport, System.out, System.err).run();
+    }
+
+    /**
+     * @return process exit code
+     */
+    public int run() {
+        var startTime = System.nanoTime();
+        try {
+            if (options.incremental()) {
+                return runIncremental(startTime);
+            }
+            List<PagerDutyUser> users;
+            int pages;
+            try {
+                var fetched = fetch();
+                users = fetched.users();
+                pages = fetched.pages();
+            } catch (IOException e) {
+                err.println("sync: fetching users failed: " + e.getMessage());
+                return EXIT_FETCH_FAILED;
+            }
+            var fetchNanos = System.nanoTime() - startTime;
+
+            var exportStart = System.nanoTime();
+            long bytes;
+            try {
+                bytes = export(users);
+                if (options.snapshot() != null) {
+                    UserSnapshot.write(options.snapshot(), users);
+                }
+            } catch (IOException e) {
+                err.println("sync: writing output failed: " + e.getMessage());
+                return EXIT_WRITE_FAILED;
+            }
+            var exportNanos = System.nanoTime() - exportStart;
+            var totalNanos = System.nanoTime() - startTime;
+
+            // Fetch throughput - what the baseline compares, so the summary reports the same number
+            var fetchUsersPerSecond = users.size() / Math.max(1e-9, fetchNanos / 1e9);
+            String status;
+            int exitCode;
+            IOException baselineFailure = null;
+            try {
+                var ok = evaluate(fetchUsersPerSecond);
+                status = ok ? "ok" : "regressed";
+                exitCode = ok ? EXIT_OK : EXIT_REGRESSION;
+            } catch (IOException e) {
+                baselineFailure = e;
+                status = "baseline_unavailable";
+                exitCode = EXIT_WRITE_FAILED;
+            }
+
+            out.printf(Locale.ROOT, "status=%s users=%d pages=%d fetch_ms=%d export_ms=%d total_ms=%d "
+                            + "fetch_users_per_sec=%.0f page_p50_ms=%.1f page_p99_ms=%.1f bytes=%d output=%s%s%n",
+                    status, users.size(), pages, fetchNanos / 1_000_000, exportNanos / 1_000_000,
+                    totalNanos / 1_000_000, fetchUsersPerSecond,
+                    pageLatency.valueAtPercentile(50) / 1e3, pageLatency.valueAtPercentile(99) / 1e3, bytes,
+                    options.output(), options.snapshot() != null ? " snapshot=" + options.snapshot() : "");
+            if (baselineFailure != null) {
+                err.println("sync: baseline unavailable: " + baselineFailure.getMessage());
+            }
+            return exitCode;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("sync: interrupted");
+            return EXIT_INTERRUPTED;
+        }
+    }
+
+    private int runIncremental(long startTime) throws InterruptedException {
+        var sync = new IncrementalUserSync(fetcher, options.snapshot(), options.pageSize());
+        UserDelta delta;
+        try {
+            delta = sync.run();
+        } catch (IOException e) {
+            err.println("sync: fetching users failed: " + e.getMessage());
+            return EXIT_FETCH_FAILED;
+        }
+        var fetchNanos = System.nanoTime() - startTime;
+
+        long bytes;
+        try {
+            bytes = writeAtomically(delta::writeNdjson);
+            // Only once the delta is safely written - a failed run reports the same changes again
+            sync.commit();
+        } catch (IOException e) {
+            err.println("sync: writing output failed: " + e.getMessage());
+            return EXIT_WRITE_FAILED;
+        }
+        var totalNanos = System.nanoTime() - startTime;
+
+        out.printf(Locale.ROOT, "status=ok mode=incremental users=%d added=%d changed=%d removed=%d unchanged=%d "
+                        + "fetch_ms=%d total_ms=%d bytes=%d output=%s snapshot=%s%n",
+                delta.added().size() + delta.changed().size() + delta.unchanged(), delta.added().size(),
+                delta.changed().size(), delta.removed().size(), delta.unchanged(), fetchNanos / 1_000_000,
+                totalNanos / 1_000_000, bytes, options.output(), options.snapshot());
+        return EXIT_OK;
+    }
+
+    private ConcurrentUserFetch.Result fetch() throws IOException, InterruptedException {
+        if (options.concurrency() > 1) {
+            var result = new ConcurrentUserFetch(fetcher, options.pageSize(), options.concurrency()).fetchAll();
+            if (result.isConsistent()) {
+                return result;
+            }
+            err.printf("sync: directory changed at %d page boundaries during the concurrent fetch - refetching sequentially%n",
+                    result.boundaryMismatches());
+            fellBack = true;
+        }
+
+        // Exact and resumable: a failed cron run continues where it stopped
+        var log = options.output().resolveSibling(options.output().getFileName() + ".sync.log");
+        var sync = new ResumableUserSync(fetcher, log, options.pageSize());
+        var users = new ArrayList<PagerDutyUser>();
+        var checkpoint = sync.run((page, replayed) -> users.addAll(page.data()));
+        sync.reset();
+        return new ConcurrentUserFetch.Result(users, checkpoint.pages(), checkpoint.duplicates(), 0);
+    }
+
+    /**
+     * Judge this run's page latency and fetch throughput against the baseline and SLO, then record
+     * it - unless it regressed, which would make the next regression look normal.
+     *
+     * @return false on a regression or a missed SLO
+     */
+    private boolean evaluate(double usersPerSecond) throws IOException {
+        if (options.baseline() == null && options.sloP99Millis() == null) {
+            return true;
+        }
+        var slos = options.sloP99Millis() != null
+                ? List.of(new LatencySlo(99, Duration.ofMillis(options.sloP99Millis())))
+                : List.<LatencySlo>of();
+        // Pages per latency sample - a concurrent fetch never batches more pages than it has workers
+        var batch = options.concurrency() > 1
+                ? Math.min(fetcher.batchSize(), options.concurrency())
+                : fetcher.batchSize();
+        var run = new RunResult(new Key("sync", options.pageSize(), options.concurrency(), batch, transport),
+                Instant.now(), pageLatency, usersPerSecond);
+        var store = options.baseline() != null ? new BaselineStore(options.baseline()) : null;
+        // A sequential refetch measured something else - judge the SLO only, and keep it out of the baseline
+        var comparable = store != null && !fellBack;
+
+        var verdict = new RegressionDetector(Thresholds.DEFAULT, slos)
+                .compare(run, comparable ? store.runs(run.key()) : List.of());
+        err.println(verdict.summary());
+        if (comparable && !verdict.regressed()) {
+            store.append(run);
+        }
+        return verdict.ok();
+    }
+
+    private interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Write {@code content} next to the output and move it into place - readers never see a partial file.
+     */
+    private long writeAtomically(Content content) throws IOException {
+        var output = options.output().toAbsolutePath();
+        var partial = output.resolveSibling(output.getFileName() + ".part");
+        try {
+            try (OutputStream stream = options.gzip()
+                    ? new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)))
+                    : new BufferedOutputStream(Files.newOutputStream(partial))) {
+                content.writeTo(stream);
+            }
+            Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        return Files.size(output);
+    }
+
+    /**
+     * Records the latency of every page request - or batch of pipelined ones - whichever way the page is fetched.
+     */
+    private final class TimedFetcher implements PageFetcher {
+
+        private final PageFetcher fetcher;
+
+        TimedFetcher(PageFetcher fetcher) {
+            this.fetcher = fetcher;
+        }
+
+        @Override
+        public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException, InterruptedException {
+            var started = System.nanoTime();
+            var page = fetcher.fetchPage(offset, limit);
+            record(started);
+            return page;
+        }
+
+        @Override
+        public PagedResponse<HashedUser> fetchHashedPage(int offset, int limit) throws IOException, InterruptedException {
+            var started = System.nanoTime();
+            var page = fetcher.fetchHashedPage(offset, limit);
+            record(started);
+            return page;
+        }
+
+        /**
+         * Pipelined pages arrive together, so a batch is one sample - timing each of its pages with the
+         * whole batch would count the slowest response once per page.
+         */
+        @Override
+        public List<PagedResponse<PagerDutyUser>> fetchPages(int offset, int stride, int limit, int pages)
+                throws IOException, InterruptedException {
+            var started = System.nanoTime();
+            var batch = fetcher.fetchPages(offset, stride, limit, pages);
+            record(started);
+            return batch;
+        }
+
+        @Override
+        public int batchSize() {
+            return fetcher.batchSize();
+        }
+
+        private void record(long started) {
+            synchronized (pageLatency) {
+                pageLatency.recordNanos(System.nanoTime() - started);
+            }
+        }
+    }
+
+    private long export(List<PagerDutyUser> users) throws IOException, InterruptedException {
+        var output = options.output().toAbsolutePath();
+        var partial = output.resolveSibling(output.getFileName() + ".part");
+        try {
+            new ParallelUserExporter(options.concurrency(), ParallelUserExporter.DEFAULT_CHUNK_SIZE)
+                    .export(users, options.format(), partial, options.gzip());
+            Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        return Files.size(output);
+    }
+}
@@ -0,0 +1,378 @@
+package me.riddle.fintech.api;
+
+import com.sun.net.httpserver.HttpServer;
+import me.riddle.fintech.application.service.baseline.BaselineStore;
+import me.riddle.fintech.application.service.baseline.RegressionDetector;
+import me.riddle.fintech.application.service.baseline.RegressionDetector.LatencySlo;
+import me.riddle.fintech.application.service.baseline.RegressionDetector.Verdict;
+import me.riddle.fintech.application.service.baseline.RunResult;
+import me.riddle.fintech.application.service.baseline.RunResult.Key;
+import me.riddle.fintech.application.service.dto.PagerDutyUserService;
+import me.riddle.fintech.application.service.monitor.ProbeStats;
+import me.riddle.fintech.application.service.monitor.PrometheusText;
+import me.riddle.fintech.application.service.monitor.SyntheticMonitor;
+import me.riddle.fintech.application.service.monitor.SyntheticMonitor.Probe;
+import me.riddle.fintech.application.service.monitor.SyntheticMonitor.ProbeReport;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static me.riddle.fintech.api.CommandLineArgs.integer;
+import static me.riddle.fintech.api.CommandLineArgs.value;
+
+/**
+ * The canary as a long-running synthetic monitor: probes the users API on a fixed schedule,
+ * keeps per-probe latency percentiles and availability over 1, 5 and 15 minute windows, and
+ * publishes them in the Prometheus text format - rewritten to a file every report interval and,
+ * optionally, served on {@code /metrics}. With a baseline or SLO, every 15 minutes each probe's
+ * latency is also judged by the {@link RegressionDetector}. Runs until the process is stopped.
+ */
+public class CanaryDaemon {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_METRICS_FAILED = 4;
+
+    static final List<Duration> WINDOWS = List.of(Duration.ofMinutes(1), Duration.ofMinutes(5), Duration.ofMinutes(15));
+
+    static final String USAGE = """
+            Usage: daemon [options]
+              --interval N         seconds between runs of each probe (default 30)
+              --report-interval N  seconds between metrics updates (default 15)
+              --offsets LIST       comma-separated offsets to probe getUsersPage at (default 0,100,500)
+              --limit N            users per probed page, 1-100 (default 25)
+              --user-id ID         user to probe getUser with, repeatable (default: sampled from the first page)
+              --metrics-file PATH  Prometheus text file, rewritten atomically (default pagerduty_canary.prom)
+              --metrics-port N     also serve the metrics on http://localhost:N/metrics
+              --baseline PATH      every 15 minutes, compare each probe with its stored baseline and flag regressions
+              --slo-p99 MS         also flag probes whose p99 over 15 minutes exceeds MS milliseconds
+              --help               show this help
+            """;
+
+    /**
+     * Parsed command line.
+     */
+    public record Options(Duration interval, Duration reportInterval, List<Integer> offsets, int limit,
+                          List<String> userIds, Path metricsFile, Integer metricsPort, Path baseline,
+                          Integer sloP99Millis) {
+
+        public Options {
+            if (interval.toSeconds() < 1 || reportInterval.toSeconds() < 1) {
+                throw new IllegalArgumentException("Intervals must be at least one second");
+            }
+            if (offsets.isEmpty() || offsets.stream().anyMatch(offset -> offset < 0)) {
+                throw new IllegalArgumentException("Offsets must not be negative");
+            }
+            if (limit < 1 || limit > 100) {
+                throw new IllegalArgumentException("Limit must be between 1 and 100");
+            }
+            if (metricsPort != null && (metricsPort < 1 || metricsPort > 65535)) {
+                throw new IllegalArgumentException("Metrics port must be between 1 and 65535");
+            }
+            if (sloP99Millis != null && sloP99Millis <= 0) {
+                throw new IllegalArgumentException("SLO must be positive");
+            }
+            offsets = List.copyOf(offsets);
+            userIds = List.copyOf(userIds);
+            Objects.requireNonNull(metricsFile, "Metrics file cannot be null");
+        }
+
+        /**
+         * @throws IllegalArgumentException on unknown or malformed options, with a message for the user
+         */
+        public static Options parse(String... args) {
+            var interval = Duration.ofSeconds(30);
+            var reportInterval = Duration.ofSeconds(15);
+            List<Integer> offsets = List.of(0, 100, 500);
+            var limit = 25;
+            var userIds = new ArrayList<String>();
+            var metricsFile = Path.of("pagerduty_canary.prom");
+            Integer metricsPort = null;
+            Path baseline = null;
+            Integer sloP99Millis = null;
+
+            for (int i = 0; i < args.length; i++) {
+                var option = args[i];
+                switch (option) {
+                    case "--interval" -> interval = Duration.ofSeconds(integer(option, value(args, ++i, option)));
+                    case "--report-interval" ->
+                            reportInterval = Duration.ofSeconds(integer(option, value(args, ++i, option)));
+                    case "--offsets" -> {
+                        var list = value(args, ++i, option);
+                        offsets = Arrays.stream(list.split(",")).map(offset -> integer(option, offset.trim())).toList();
+                    }
+                    case "--limit" -> limit = integer(option, value(args, ++i, option));
+                    case "--user-id" -> userIds.add(value(args, ++i, option));
+                    case "--metrics-file" -> metricsFile = Path.of(value(args, ++i, option));
+                    case "--metrics-port" -> metricsPort = integer(option, value(args, ++i, option));
+                    case "--baseline" -> baseline = Path.of(value(args, ++i, option));
+                    case "--slo-p99" -> sloP99Millis = integer(option, value(args, ++i, option));
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            return new Options(interval, reportInterval, offsets, limit, userIds, metricsFile, metricsPort,
+                    baseline, sloP99Millis);
+        }
+    }
+
+    /**
+     * The calls the probes make - {@link PagerDutyUserService} in production. Closed when the daemon stops.
+     */
+    public interface UsersApi extends AutoCloseable {
+        List<String> userIds(int offset, int limit) throws IOException, InterruptedException;
+
+        void getUser(String id) throws IOException, InterruptedException;
+
+        /**
+         * Transport the calls go through, which keys the baseline - {@code "custom"} unless known.
+         */
+        default String transport() {
+            return "custom";
+        }
+
+        @Override
+        default void close() {
+        }
+
+        static UsersApi of(PagerDutyUserService service) {
+            return new UsersApi() {
+                @Override
+                public List<String> userIds(int offset, int limit) throws IOException, InterruptedException {
+                    return service.getUsersPage(offset, limit).data().stream().map(PagerDutyUser::id).toList();
+                }
+
+                @Override
+                public void getUser(String id) throws IOException, InterruptedException {
+                    service.getUser(id);
+                }
+
+                @Override
+                public String transport() {
+                    return service.transportKind().id();
+                }
+
+                @Override
+                public void close() {
+                    service.close();
+                }
+            };
+        }
+    }
+
+    private final Options options;
+    private final UsersApi api;
+    private final PrintStream out;
+    private final AtomicReference<List<String>> sampleIds = new AtomicReference<>(List.of());
+    private final AtomicInteger nextSample = new AtomicInteger();
+    private final BaselineStore baselineStore;
+    private final RegressionDetector detector;
+    private long lastEvaluation = System.nanoTime();
+
+    public CanaryDaemon(Options options, UsersApi api, PrintStream out) {
+        this.options = Objects.requireNonNull(options, "Options cannot be null");
+        this.api = Objects.requireNonNull(api, "API cannot be null");
+        this.out = Objects.requireNonNull(out, "Output cannot be null");
+        sampleIds.set(options.userIds());
+        this.baselineStore = options.baseline() != null ? new BaselineStore(options.baseline()) : null;
+        this.detector = new RegressionDetector(RegressionDetector.Thresholds.DEFAULT, options.sloP99Millis() != null
+                ? List.of(new LatencySlo(99, Duration.ofMillis(options.sloP99Millis())))
+                : List.of());
+    }
+
+    /**
+     * Parse the arguments and run until stopped - the entry point for {@code EntryPoint daemon ...}.
+     *
+     * @return process exit code
+     */
+    public static int run(String[] args, PagerDutyUserService service) {
+        if (List.of(args).contains("--help")) {
+            System.out.print(USAGE);
+            return EXIT_OK;
+        }
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("daemon: " + e.getMessage());
+            System.err.print(USAGE);
+            return EXIT_USAGE;
+        }
+        return new CanaryDaemon(options, UsersApi.of(service), System.out).runUntilStopped();
+    }
+
+    /**
+     * One probe per page offset, plus {@code get_user} cycling through the sample ids.
+     */
+    List<Probe> probes() {
+        var probes = new ArrayList<Probe>();
+        for (var offset : options.offsets()) {
+            probes.add(new Probe("users_page_offset_" + offset, () -> {
+                var ids = api.userIds(offset, options.limit());
+                if (options.userIds().isEmpty() && !ids.isEmpty() && sampleIds.get().isEmpty()) {
+                    sampleIds.compareAndSet(List.of(), ids.subList(0, Math.min(5, ids.size())));
+                }
+            }));
+        }
+        probes.add(new Probe("get_user", () -> {
+            var ids = sampleIds.get();
+            if (ids.isEmpty()) {
+                // Nothing sampled yet - learn an id as part of this run
+                ids = api.userIds(0, 5);
+                if (ids.isEmpty()) {
+                    throw new IOException("Directory is empty - no user to probe");
+                }
+                sampleIds.compareAndSet(List.of(), ids);
+            }
+            api.getUser(ids.get(Math.floorMod(nextSample.getAndIncrement(), ids.size())));
+        }));
+        return probes;
+    }
+
+    /**
+     * @return process exit code
+     */
+    public int runUntilStopped() {
+        var monitor = new SyntheticMonitor(probes(), WINDOWS);
+        HttpServer server;
+        try {
+            server = options.metricsPort() != null ? serve(monitor, options.metricsPort()) : null;
+        } catch (IOException e) {
+            monitor.close();
+            System.err.println("daemon: cannot serve metrics on port " + options.metricsPort() + ": " + e.getMessage());
+            return EXIT_METRICS_FAILED;
+        }
+
+        monitor.start(options.interval(), options.reportInterval(), reports -> report(monitor, reports));
+        out.printf("Canary daemon: %d probes every %ds, metrics to %s%s. Stop with Ctrl+C.%n",
+                options.offsets().size() + 1, options.interval().toSeconds(), options.metricsFile(),
+                server != null ? " and http://localhost:" + options.metricsPort() + "/metrics" : "");
+
+        var stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(Thread.ofPlatform().unstarted(() -> {
+            stop(monitor, server);
+            stopped.countDown();
+        }));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stop(monitor, server);
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Summary lines, the metrics file and - when due - the baseline verdicts. A failure is logged here
+     * and rethrown for the monitor to count; the count is exported as {@code canary_report_failures}.
+     */
+    void report(SyntheticMonitor monitor, List<ProbeReport> reports) throws IOException {
+        try {
+            summarise(reports);
+            PrometheusText.write(options.metricsFile(), reports, monitor.reportFailures());
+            if (evaluationDue()) {
+                var windows = new LinkedHashMap<String, ProbeStats.Window>();
+                reports.stream().map(ProbeReport::probe).distinct()
+                        .forEach(probe -> windows.put(probe, monitor.window(probe, WINDOWS.getLast())));
+                evaluate(windows).forEach(verdict -> out.println(verdict.summary()));
+            }
+        } catch (IOException | RuntimeException e) {
+            out.printf("daemon: report failed (%d so far): %s%n", monitor.reportFailures() + 1, e);
+            throw e;
+        }
+    }
+
+    /**
+     * True once per longest window, so consecutive evaluations never share a probe run.
+     */
+    private boolean evaluationDue() {
+        if (baselineStore == null && options.sloP99Millis() == null) {
+            return false;
+        }
+        var now = System.nanoTime();
+        if (now - lastEvaluation < WINDOWS.getLast().toNanos()) {
+            return false;
+        }
+        lastEvaluation = now;
+        return true;
+    }
+
+    /**
+     * Judge each probe's window against its baseline and the SLO. Runs that did not regress join
+     * the baseline - a regressed run would make the next regression look normal.
+     */
+    List<Verdict> evaluate(Map<String, ProbeStats.Window> windows) throws IOException {
+        var verdicts = new ArrayList<Verdict>();
+        for (var entry : windows.entrySet()) {
+            var latency = entry.getValue().latency();
+            if (latency.count() == 0) {
+                continue;
+            }
+            var probe = entry.getKey();
+            var key = new Key(probe, probe.equals("get_user") ? 1 : options.limit(), 1, 1, api.transport());
+            var run = new RunResult(key, Instant.now(), latency, Double.NaN);
+            var baseline = baselineStore != null ? baselineStore.runs(key) : List.<RunResult>of();
+            var verdict = detector.compare(run, baseline);
+            if (baselineStore != null && !verdict.regressed()) {
+                baselineStore.append(run);
+            }
+            verdicts.add(verdict);
+        }
+        return verdicts;
+    }
+
+    private void stop(SyntheticMonitor monitor, HttpServer server) {
+        if (server != null) {
+            server.stop(0);
+        }
+        monitor.close();
+        api.close();
+    }
+
+    private static HttpServer serve(SyntheticMonitor monitor, int port) throws IOException {
+        var server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            try (exchange) {
+                var body = PrometheusText.render(monitor.report(), monitor.reportFailures())
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        });
+        server.setExecutor(null);     // the server's own dispatcher thread - a scrape is cheap
+        server.start();
+        return server;
+    }
+
+    /**
+     * One line per probe for the shortest window.
+     */
+    private void summarise(List<ProbeReport> reports) {
+        var shortest = WINDOWS.getFirst();
+        for (var report : reports) {
+            if (report.window().equals(shortest)) {
+                out.printf(Locale.ROOT, "%-24s %s: %4d runs, %6.2f%% up, p50 %5d ms, p99 %5d ms%s%n",
+                        report.probe(), PrometheusText.windowLabel(shortest), report.requests(),
+                        report.requests() == 0 ? 100.0 : report.availability() * 100,
+                        report.p50Micros() / 1_000, report.p99Micros() / 1_000,
+                        report.failures() > 0 && report.lastError() != null ? " - last error: " + report.lastError() : "");
+            }
+        }
+    }
+}
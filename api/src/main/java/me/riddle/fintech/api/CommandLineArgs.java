@@ -0,0 +1,26 @@
+package me.riddle.fintech.api;
+
+/**
+ * Option value helpers shared by the headless commands. Errors are {@link IllegalArgumentException}s
+ * with a message meant for the user.
+ */
+final class CommandLineArgs {
+
+    private CommandLineArgs() {
+    }
+
+    static String value(String[] args, int index, String option) {
+        if (index >= args.length || args[index].startsWith("--")) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    static int integer(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " expects a number, got: " + value);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package me.riddle.fintech.api;
 
+import me.riddle.fintech.application.service.dto.PagerDutyUserService;
+
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class EntryPoint {
@@ -30,16 +33,36 @@ public class EntryPoint {
             System.exit(1);
         }
 
-        try {
-            // Check for command line arguments
-            boolean interactiveMode = args.length > 0 &&
-                    (args[0].equalsIgnoreCase("-i") || args[0].equalsIgnoreCase("--interactive"));
+        // Headless full sync for cron and pipelines - exit code and one summary line, no prompts
+        if (args.length > 0 && args[0].equalsIgnoreCase("sync")) {
+            int exitCode;
+            try (var service = new PagerDutyUserService(apiToken)) {
+                exitCode = BatchSyncCommand.run(Arrays.copyOfRange(args, 1, args.length), service);
+            }
+            System.exit(exitCode);
+        }
+
+        // Synthetic monitoring - probes on a schedule until stopped, metrics to a file and/or /metrics
+        if (args.length > 0 && args[0].equalsIgnoreCase("daemon")) {
+            // The daemon also closes the service when a signal stops it
+            int exitCode;
+            try (var service = new PagerDutyUserService(apiToken)) {
+                exitCode = CanaryDaemon.run(Arrays.copyOfRange(args, 1, args.length), service);
+            }
+            if (exitCode != CanaryDaemon.EXIT_OK) {
+                System.exit(exitCode);
+            }
+            return;     // stopped by a signal - the JVM is already shutting down
+        }
 
-            PagingUserCanary canary = new PagingUserCanary(apiToken);
+        // Check for command line arguments
+        boolean interactiveMode = args.length > 0 &&
+                (args[0].equalsIgnoreCase("-i") || args[0].equalsIgnoreCase("--interactive"));
 
+        try (PagingUserCanary canary = new PagingUserCanary(apiToken)) {
             if (interactiveMode) {
                 System.out.println("Starting interactive mode...");
-                canary.runInteractive(apiToken);
+                canary.runInteractive();
             } else {
                 // Check if running in a terminal that supports interaction
                 if (System.console() != null) {
@@ -53,7 +76,7 @@ public class EntryPoint {
                     String choice = scanner.nextLine().trim();
 
                     if ("2".equals(choice)) {
-                        canary.runInteractive(apiToken);
+                        canary.runInteractive();
                     } else {
                         canary.runDemo();
                     }
@@ -1,17 +1,36 @@
 package me.riddle.fintech.api;
 
+import me.riddle.fintech.api.TerminalRenderer.Frame;
+import me.riddle.fintech.application.service.cache.PageCache;
+import me.riddle.fintech.application.service.cache.UserRangeBuffer;
 import me.riddle.fintech.application.service.dto.PagerDutyUserService;
+import me.riddle.fintech.application.service.export.ExportFormat;
+import me.riddle.fintech.application.service.export.ParallelUserExporter;
+import me.riddle.fintech.application.service.export.StreamingUserExporter;
+import me.riddle.fintech.application.service.search.UserSearchIndex;
+import me.riddle.fintech.application.service.stats.DirectorySketch;
+import me.riddle.fintech.application.service.stats.DirectoryStatistics;
+import me.riddle.fintech.application.service.stats.DirectoryStatistics.Dimension;
+import me.riddle.fintech.application.service.sync.BackgroundUserLoad;
+import me.riddle.fintech.application.service.sync.ResumableUserSync;
 import me.riddle.fintech.domain.model.dto.PagedResponse;
 import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.store.UserSnapshot;
 
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Full-featured interactive PagerDuty API canary with visual pagination.
  */
-public class InteractivePagerDutyCanary {
+public class InteractivePagerDutyCanary implements AutoCloseable {
 
     private static final String ANSI_RESET = "\u001B[0m";
     private static final String ANSI_BOLD = "\u001B[1m";
@@ -21,32 +40,100 @@ public class InteractivePagerDutyCanary {
     private static final String ANSI_CYAN = "\u001B[36m";
     private static final String ANSI_RED = "\u001B[31m";
 
+    private static final Path DEFAULT_SNAPSHOT = Path.of("pagerduty_users.snapshot");
+    private static final Path SYNC_LOG = Path.of("pagerduty_users.sync.log");
+    private static final int SEARCH_LIMIT = 25;
+    private static final int CACHED_PAGES = 32;
+    private static final Duration CACHED_PAGE_MAX_AGE = Duration.ofMinutes(2);
+
     private final PagerDutyUserService service;
+    private final boolean ownsService;
     private final Scanner scanner;
+    private final TerminalRenderer renderer;
+    // Everything below the rendered screen - prompts, results, messages
+    private final PrintStream out;
+    private final Path snapshotPath;
 
     // Pagination state
     private int currentOffset = 0;
     private int pageSize = 10;
     private PagedResponse<PagerDutyUser> currentPage;
-    private final List<PagerDutyUser> allLoadedUsers = new ArrayList<>();
+    // Every user fetched so far by offset - any page size or number is sliced from it when covered
+    private final UserRangeBuffer userBuffer;
+    // Recently viewed pages, plus background prefetch of the ones likely to be viewed next
+    private final PageCache pageCache;
+    private final ExecutorService prefetchExecutor;
+    // Appended to by the background load while the menu reads it
+    private final List<PagerDutyUser> allLoadedUsers = Collections.synchronizedList(new ArrayList<>());
+    private final UserSearchIndex searchIndex = new UserSearchIndex();
+    // True while allLoadedUsers mirrors the whole directory - local search is then authoritative
+    private volatile boolean directoryComplete;
 
     // Statistics
     private int totalApiCalls = 0;
     private long totalApiTime = 0;
-    private final Map<String, Integer> timeZoneStats = new HashMap<>();
-    private final Map<String, Integer> roleStats = new HashMap<>();
+    private final DirectoryStatistics statistics = new DirectoryStatistics();
+    // Bounded-memory approximations - pages are fed into one sketch; guarded by sketchLock
+    private DirectorySketch sketch = new DirectorySketch();
+    private final Object sketchLock = new Object();
+
+    // Full load running in the background, and how the last one ended
+    private volatile BackgroundUserLoad load;
+    private volatile String loadStatus;
+
+    // Warm start: set by the background revalidation of a loaded snapshot
+    private volatile String snapshotStatus;
 
     public InteractivePagerDutyCanary(String apiToken) {
-        this.service = new PagerDutyUserService(apiToken);
+        this(apiToken, DEFAULT_SNAPSHOT);
+    }
+
+    public InteractivePagerDutyCanary(String apiToken, Path snapshotPath) {
+        this(new PagerDutyUserService(apiToken), true, snapshotPath);
+    }
+
+    /**
+     * Explore through a service owned by the caller - {@link #close()} leaves it open.
+     */
+    InteractivePagerDutyCanary(PagerDutyUserService service) {
+        this(service, false, DEFAULT_SNAPSHOT);
+    }
+
+    private InteractivePagerDutyCanary(PagerDutyUserService service, boolean ownsService, Path snapshotPath) {
+        this.service = Objects.requireNonNull(service, "Service cannot be null");
+        this.ownsService = ownsService;
         this.scanner = new Scanner(System.in);
+        this.renderer = TerminalRenderer.forSystemOut();
+        this.out = renderer.console();
+        this.snapshotPath = snapshotPath;
+        this.userBuffer = new UserRangeBuffer(this::fetchPage, CACHED_PAGE_MAX_AGE);
+        this.prefetchExecutor = Executors.newFixedThreadPool(2, Thread.ofVirtual().name("page-prefetch-", 0).factory());
+        this.pageCache = new PageCache(userBuffer, CACHED_PAGES, CACHED_PAGE_MAX_AGE, prefetchExecutor);
+    }
+
+    /**
+     * Stop prefetching and the background load, and close the service when this explorer created it.
+     */
+    @Override
+    public void close() {
+        // A prefetch still in flight is abandoned - nobody will view its page
+        prefetchExecutor.shutdownNow();
+        var running = load;
+        if (running != null) {
+            running.cancel();
+        }
+        if (ownsService) {
+            service.close();
+        }
     }
 
     public void run() throws IOException, InterruptedException {
         printWelcome();
+        warmStartFromSnapshot();
 
         while (true) {
             printMenu();
-            var choice = scanner.nextLine().trim().toLowerCase();
+            var choice = readLine().trim().toLowerCase();
 
             try {
                 switch (choice) {
@@ -74,63 +161,75 @@ public class InteractivePagerDutyCanary {
                 }
             }
 
-            System.out.println("\nPress Enter to continue...");
-            scanner.nextLine();
+            out.println("\nPress Enter to continue...");
+            readLine();
         }
     }
 
     private void printWelcome() {
-        clearScreen();
-        System.out.println(ANSI_BOLD + ANSI_BLUE + """
+        var frame = new Frame();
+        frame.println(ANSI_BOLD + ANSI_BLUE + """
             ╔══════════════════════════════════════════════════════╗
             ║      PagerDuty User Explorer - Interactive Canary    ║
             ╚══════════════════════════════════════════════════════╝
             """ + ANSI_RESET);
-        System.out.println("Loading initial data...\n");
+        frame.println("Loading initial data...\n");
+        renderer.render(frame);
     }
 
     private void printMenu() throws IOException, InterruptedException {
-        clearScreen();
-
         // Load current page if not loaded
         if (currentPage == null) {
             loadPage(currentOffset);
         }
 
-        System.out.println(ANSI_BOLD + ANSI_CYAN + "═══ PagerDuty User Explorer ═══" + ANSI_RESET);
-        System.out.printf("Page %d | Showing %d-%d of %s users%n",
+        var frame = new Frame();
+        frame.println(ANSI_BOLD + ANSI_CYAN + "═══ PagerDuty User Explorer ═══" + ANSI_RESET);
+        frame.printf("Page %d | Showing %d-%d of %s users%n",
                 getCurrentPageNumber(),
                 currentOffset + 1,
                 currentOffset + currentPage.itemCount(),
                 currentPage.total() != null ? currentPage.total().toString() : "?"
         );
-        System.out.println("─".repeat(50));
+        if (snapshotStatus != null) {
+            frame.println(ANSI_CYAN + "Snapshot: " + snapshotStatus + ANSI_RESET);
+        }
+        var running = load;
+        if (running != null && running.isRunning()) {
+            frame.println(ANSI_YELLOW + "Loading: " + describe(running.progress()) + ANSI_RESET);
+        } else if (loadStatus != null) {
+            frame.println(ANSI_CYAN + "Last load: " + loadStatus + ANSI_RESET);
+        }
+        frame.println("─".repeat(50));
 
         // Show current page preview
         if (!currentPage.isEmpty()) {
-            System.out.println(ANSI_YELLOW + "Current page preview:" + ANSI_RESET);
+            frame.println(ANSI_YELLOW + "Current page preview:" + ANSI_RESET);
             currentPage.data().stream()
                     .limit(3)
-                    .forEach(user -> System.out.printf("  • %s (%s)%n",
+                    .forEach(user -> frame.printf("  • %s (%s)%n",
                             user.name() != null ? user.name() : "Unknown",
                             user.email() != null ? user.email() : "No email"));
             if (currentPage.itemCount() > 3) {
-                System.out.println("  ... and " + (currentPage.itemCount() - 3) + " more");
+                frame.println("  ... and " + (currentPage.itemCount() - 3) + " more");
             }
         }
 
-        System.out.println("\n" + ANSI_BOLD + "Options:" + ANSI_RESET);
-        System.out.println("  1. View current page (detailed)");
-        System.out.println("  2. Next page →");
-        System.out.println("  3. Previous page ←");
-        System.out.println("  4. Jump to page");
-        System.out.println("  5. Change page size (current: " + pageSize + ")");
-        System.out.println("  6. Search for user");
-        System.out.println("  7. Load all users");
-        System.out.println("  8. Show statistics");
-        System.out.println("  9. Export data");
-        System.out.println("  Q. Quit");
-        System.out.print("\nChoice: ");
+        frame.println("\n" + ANSI_BOLD + "Options:" + ANSI_RESET);
+        frame.println("  1. View current page (detailed)");
+        frame.println("  2. Next page →");
+        frame.println("  3. Previous page ←");
+        frame.println("  4. Jump to page");
+        frame.println("  5. Change page size (current: " + pageSize + ")");
+        frame.println("  6. Search for user");
+        frame.println(running != null && running.isRunning()
+                ? "  7. Watch / cancel loading"
+                : "  7. Load all users");
+        frame.println("  8. Show statistics");
+        frame.println("  9. Export data");
+        frame.println("  Q. Quit");
+        frame.print("\nChoice: ");
+        renderer.render(frame);
     }
 
     private void viewCurrentPage() {
@@ -139,47 +238,48 @@ public class InteractivePagerDutyCanary {
             return;
         }
 
-        clearScreen();
-        System.out.println(ANSI_BOLD + ANSI_GREEN +
+        var frame = new Frame();
+        frame.println(ANSI_BOLD + ANSI_GREEN +
                 String.format("═══ Page %d - Detailed View ═══", getCurrentPageNumber()) +
                 ANSI_RESET);
-        System.out.println();
+        frame.println();
 
         int index = 1;
         for (var user : currentPage.data()) {
-            printUserDetailed(index++, user);
-            System.out.println("─".repeat(70));
+            printUserDetailed(frame, index++, user);
+            frame.println("─".repeat(70));
         }
 
-        printPageNavigation();
+        printPageNavigation(frame);
+        renderer.render(frame);
     }
 
-    private void printUserDetailed(int index, PagerDutyUser user) {
-        System.out.printf(ANSI_BOLD + "%d. %s" + ANSI_RESET + " (ID: %s)%n",
+    private void printUserDetailed(Frame frame, int index, PagerDutyUser user) {
+        frame.printf(ANSI_BOLD + "%d. %s" + ANSI_RESET + " (ID: %s)%n",
                 index,
                 user.name() != null ? user.name() : "Unknown User",
                 user.id());
 
-        System.out.printf("   Email: %s%n", user.email() != null ? user.email() : "N/A");
-        System.out.printf("   Role: %s | Type: %s%n",
+        frame.printf("   Email: %s%n", user.email() != null ? user.email() : "N/A");
+        frame.printf("   Role: %s | Type: %s%n",
                 user.role() != null ? user.role() : "N/A",
                 user.type());
 
         if (user.jobTitle() != null) {
-            System.out.printf("   Job Title: %s%n", user.jobTitle());
+            frame.printf("   Job Title: %s%n", user.jobTitle());
         }
 
         if (user.timeZone() != null) {
-            System.out.printf("   Time Zone: %s%n", user.timeZone());
+            frame.printf("   Time Zone: %s%n", user.timeZone());
         }
 
         if (user.invitationSent() != null) {
-            System.out.printf("   Status: %s%n",
+            frame.printf("   Status: %s%n",
                     user.invitationSent() ? "Active" : "Invitation Pending");
         }
 
         if (user.hasUnknownFields()) {
-            System.out.printf("   " + ANSI_YELLOW + "Unknown fields: %s" + ANSI_RESET + "%n",
+            frame.printf("   " + ANSI_YELLOW + "Unknown fields: %s" + ANSI_RESET + "%n",
                     user.unknownFields().keySet());
         }
     }
@@ -205,9 +305,9 @@ public class InteractivePagerDutyCanary {
     }
 
     private void jumpToPage() throws IOException, InterruptedException {
-        System.out.print("Enter page number: ");
+        out.print("Enter page number: ");
         try {
-            int pageNum = Integer.parseInt(scanner.nextLine().trim());
+            int pageNum = Integer.parseInt(readLine().trim());
             if (pageNum < 1) {
                 printError("Page number must be positive");
                 return;
@@ -222,16 +322,16 @@ public class InteractivePagerDutyCanary {
     }
 
     private void changePageSize() throws IOException, InterruptedException {
-        System.out.print("Enter new page size (1-100): ");
+        out.print("Enter new page size (1-100): ");
         try {
-            int newSize = Integer.parseInt(scanner.nextLine().trim());
+            int newSize = Integer.parseInt(readLine().trim());
             if (newSize < 1 || newSize > 100) {
                 printError("Page size must be between 1 and 100");
                 return;
             }
 
             pageSize = newSize;
-            currentOffset = 0; // Reset to first page
+            currentOffset -= currentOffset % pageSize;     // stay on the page holding the first user shown
             loadPage(currentOffset);
             printSuccess("Page size changed to " + pageSize);
         } catch (NumberFormatException e) {
@@ -239,163 +339,377 @@ public class InteractivePagerDutyCanary {
         }
     }
 
-    private void searchUser() {
-        System.out.print("Enter search term (name or email): ");
-        var searchTerm = scanner.nextLine().trim().toLowerCase();
+    private void searchUser() throws IOException, InterruptedException {
+        out.print("Enter search term (name, email, job title or ID): ");
+        var searchTerm = readLine().trim();
 
         if (searchTerm.isEmpty()) {
             printWarning("Search term cannot be empty");
             return;
         }
 
-        System.out.println("\nSearching...");
+        // Partial local set - show what is already loaded, let the API filter the rest
+        if (!directoryComplete) {
+            if (searchIndex.size() > 0) {
+                var partial = searchIndex.search(searchTerm, SEARCH_LIMIT);
+                out.printf("%nAmong %d users loaded so far: %d match%s%n",
+                        searchIndex.size(), partial.size(), partial.size() == 1 ? "" : "es");
+                partial.forEach(user ->
+                        out.printf("  • %s (%s) - ID: %s%n",
+                                user.name(), user.email(), user.id()));
+            }
+            searchOnServer(searchTerm);
+            return;
+        }
 
-        // Search in loaded users first
-        var localResults = allLoadedUsers.stream()
-                .filter(user ->
-                        (user.name() != null && user.name().toLowerCase().contains(searchTerm)) ||
-                                (user.email() != null && user.email().toLowerCase().contains(searchTerm))
-                )
-                .toList();
+        // Indexed search over loaded users - no per-query scan or lower-casing
+        var startTime = System.nanoTime();
+        var localResults = searchIndex.search(searchTerm, SEARCH_LIMIT);
+        var elapsedMicros = (System.nanoTime() - startTime) / 1_000;
 
         if (!localResults.isEmpty()) {
-            System.out.println("\nFound in loaded users:");
+            out.printf("%nFound in loaded users (%d in %d µs):%n", localResults.size(), elapsedMicros);
             localResults.forEach(user ->
-                    System.out.printf("  • %s (%s) - ID: %s%n",
+                    out.printf("  • %s (%s) - ID: %s%n",
                             user.name(), user.email(), user.id()));
+        } else {
+            out.printf("%nNo match among %d loaded users%n", searchIndex.size());
+        }
+    }
+
+    private void searchOnServer(String searchTerm) throws IOException, InterruptedException {
+        out.println("\nSearching PagerDuty...");
+
+        var startTime = System.currentTimeMillis();
+        var results = service.searchUsers(searchTerm, 0, SEARCH_LIMIT);
+        var duration = System.currentTimeMillis() - startTime;
+        totalApiCalls++;
+        totalApiTime += duration;
+
+        if (results.isEmpty()) {
+            out.printf("%nNo users match \"%s\" [API call took %d ms]%n", searchTerm, duration);
+            return;
         }
 
-        System.out.println("\nNote: Full search requires loading all users (option 7)");
+        out.printf("%nFound on server (%d%s in %d ms):%n", results.itemCount(),
+                results.total() != null ? " of " + results.total() : "", duration);
+        results.data().forEach(user ->
+                out.printf("  • %s (%s) - ID: %s%n",
+                        user.name(), user.email(), user.id()));
+        if (results.hasMorePages()) {
+            printWarning("More matches available - refine the search term");
+        }
     }
 
-    private void loadAllUsers() throws IOException, InterruptedException {
-        System.out.println(ANSI_YELLOW + "Loading all users... This may take a while." + ANSI_RESET);
-        System.out.println("Press Ctrl+C to cancel\n");
+    private void loadAllUsers() {
+        var running = load;
+        if (running != null && running.isRunning()) {
+            watchLoad(running);
+            return;
+        }
 
-        allLoadedUsers.clear();
-        var offset = 0;
-        var limit = 100; // Max for faster loading
-        var pageNum = 0;
+        // Max page size for faster loading, pause between pages for rate limiting
+        var sync = new ResumableUserSync(this::fetchPage, SYNC_LOG, 100, Duration.ofMillis(100));
+        try {
+            if (sync.checkpoint().complete()) {
+                sync.reset();   // Finished but not cleared - fetch fresh data rather than replay it
+            }
+        } catch (IOException e) {
+            printError("Cannot start a fresh load - sync log " + SYNC_LOG + ": " + e.getMessage());
+            return;
+        }
 
-        while (true) {
-            pageNum++;
-            System.out.printf("\rLoading page %d... ", pageNum);
-            System.out.flush();
+        directoryComplete = false;
+        allLoadedUsers.clear();
+        searchIndex.clear();
+        statistics.reset();     // a reload must not double-count
+        synchronized (sketchLock) {
+            sketch = new DirectorySketch();
+        }
+        loadStatus = null;
 
-            var page = fetchPage(offset, limit);
+        load = BackgroundUserLoad.start(sync, (page, replayed) -> {
             allLoadedUsers.addAll(page.data());
+            searchIndex.addAll(page.data());
+            statistics.acceptAll(page.data());
+            synchronized (sketchLock) {
+                sketch.acceptAll(page.data());
+            }
+        }, finished -> onLoadFinished(finished, sync));
+
+        printSuccess("Loading all users in the background - browsing and search keep working");
+        out.println("Choose 7 again to watch progress or cancel; a cancelled load resumes where it stopped");
+    }
+
+    /**
+     * Live progress line until Enter; "c" cancels the load, keeping the users loaded so far.
+     */
+    private void watchLoad(BackgroundUserLoad running) {
+        out.println("Press Enter to stop watching, or c + Enter to cancel the load\n");
+        var ticker = Thread.ofVirtual().name("load-progress").start(() -> {
+            try {
+                while (running.isRunning()) {
+                    out.print("\r" + describe(running.progress()) + "   ");
+                    out.flush();
+                    Thread.sleep(500);
+                }
+                out.print("\r" + describe(running.progress()) + " - finished   ");
+                out.flush();
+            } catch (InterruptedException e) {
+                // stopped watching
+            }
+        });
+
+        var answer = readLine().trim();
+        ticker.interrupt();
+        out.println();
+        if (answer.equalsIgnoreCase("c") && running.isRunning()) {
+            running.cancel();
+            printWarning("Cancelling after the page in flight - users loaded so far are kept");
+        }
+    }
+
+    /**
+     * Runs on the loading thread - only records state, the menu prints it.
+     */
+    private void onLoadFinished(BackgroundUserLoad finished, ResumableUserSync sync) {
+        var progress = finished.progress();
+        switch (finished.state()) {
+            case COMPLETED -> {
+                var checkpoint = finished.checkpoint();
+                String resetFailure = null;
+                try {
+                    sync.reset();
+                } catch (IOException e) {
+                    resetFailure = e.getMessage();     // the next load clears the finished log first
+                }
+                directoryComplete = true;
+                userBuffer.load(loadedUsers());
+                pageCache.invalidate();     // the pages browsed so far may predate the load
+
+                var status = new StringBuilder(String.format("%d users in %d pages, %d s",
+                        allLoadedUsers.size(), checkpoint.pages(), progress.elapsed().toSeconds()));
+                if (progress.replayedPages() > 0) {
+                    status.append(", resumed - ").append(progress.replayedPages()).append(" pages from the sync log");
+                }
+                if (checkpoint.duplicates() > 0 || checkpoint.refetches() > 0) {
+                    status.append(String.format(", directory changed during load: %d duplicates dropped, %d windows re-fetched",
+                            checkpoint.duplicates(), checkpoint.refetches()));
+                }
+                if (resetFailure != null) {
+                    status.append(", sync log not removed: ").append(resetFailure);
+                }
+                loadStatus = status.toString();
+                saveSnapshot();
+            }
+            case CANCELLED -> loadStatus = String.format("cancelled after %d users - kept, choose 7 to resume",
+                    progress.users());
+            case FAILED -> loadStatus = String.format("failed after %d users (%s) - kept, choose 7 to resume",
+                    progress.users(), finished.failure().getMessage());
+            case RUNNING -> throw new IllegalStateException("Load finished while running");
+        }
+    }
+
+    private static String describe(BackgroundUserLoad.Progress progress) {
+        var line = new StringBuilder(String.format("%d%s users, %d pages, %.0f users/s",
+                progress.users(), progress.total() != null ? " of " + progress.total() : "",
+                progress.pages(), progress.usersPerSecond()));
+        var eta = progress.eta();
+        if (eta != null) {
+            line.append(String.format(", ETA %d:%02d", eta.toMinutes(), eta.toSecondsPart()));
+        }
+        return line.toString();
+    }
+
+    private void warmStartFromSnapshot() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return;
+        }
 
-            updateStatistics(page.data());
+        try {
+            var startTime = System.currentTimeMillis();
+            var snapshot = UserSnapshot.open(snapshotPath);
+            var users = snapshot.toList();
+            allLoadedUsers.addAll(users);
+            searchIndex.addAll(users);
+            statistics.acceptAll(users);
+            sketch.acceptAll(users);
+            directoryComplete = true;
+            userBuffer.load(users);
+
+            var age = Duration.between(snapshot.createdAt(), Instant.now());
+            printSuccess(String.format("Warm start: %d users from %s in %d ms (%d min old)",
+                    snapshot.size(), snapshotPath, System.currentTimeMillis() - startTime, age.toMinutes()));
+
+            snapshotStatus = "revalidating " + snapshot.size() + " users...";
+            revalidateInBackground(snapshot.size());
+        } catch (IOException | RuntimeException e) {
+            printWarning("Ignoring unreadable snapshot " + snapshotPath + ": " + e.getMessage());
+        }
+    }
 
-            if (!page.hasMorePages()) {
-                break;
+    /**
+     * Cheap staleness check - one single-user page is enough to compare the directory total.
+     */
+    private void revalidateInBackground(int snapshotSize) {
+        Thread.ofVirtual().name("snapshot-revalidation").start(() -> {
+            try {
+                var probe = service.getUsersPage(0, 1);
+                if (probe.total() == null) {
+                    snapshotStatus = snapshotSize + " users (API does not report a total)";
+                } else if (probe.total() == snapshotSize) {
+                    snapshotStatus = snapshotSize + " users, up to date";
+                } else {
+                    directoryComplete = false;      // searches go to the server until reloaded
+                    userBuffer.invalidate();
+                    pageCache.invalidate();
+                    snapshotStatus = snapshotSize + " users, STALE - API reports " + probe.total()
+                            + " (reload with option 7)";
+                }
+            } catch (IOException e) {
+                snapshotStatus = snapshotSize + " users, revalidation failed: " + e.getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+        });
+    }
 
-            offset = page.nextOffset();
-            //noinspection BusyWait
-            Thread.sleep(100); // Rate limiting
+    /**
+     * A copy of the loaded users, taken under the list's lock - iterating the synchronized list itself
+     * races with a background load still appending to it.
+     */
+    private List<PagerDutyUser> loadedUsers() {
+        synchronized (allLoadedUsers) {
+            return new ArrayList<>(allLoadedUsers);
         }
+    }
 
-        System.out.println(ANSI_GREEN + "\n✓ Loaded " + allLoadedUsers.size() +
-                " users in " + pageNum + " pages" + ANSI_RESET);
+    private void saveSnapshot() {
+        try {
+            var users = loadedUsers();
+            UserSnapshot.write(snapshotPath, users);
+            snapshotStatus = users.size() + " users, saved to " + snapshotPath;
+        } catch (IOException e) {
+            printWarning("Could not write snapshot " + snapshotPath + ": " + e.getMessage());
+        }
     }
 
     private void showStatistics() {
-        clearScreen();
-        System.out.println(ANSI_BOLD + ANSI_CYAN + "═══ Statistics ═══" + ANSI_RESET);
+        var frame = new Frame();
+        frame.println(ANSI_BOLD + ANSI_CYAN + "═══ Statistics ═══" + ANSI_RESET);
 
-        System.out.printf("\nAPI Calls: %d%n", totalApiCalls);
+        frame.printf("\nAPI Calls: %d%n", totalApiCalls);
         if (totalApiCalls > 0) {
-            System.out.printf("Average Response Time: %d ms%n", totalApiTime / totalApiCalls);
+            frame.printf("Average Response Time: %d ms%n", totalApiTime / totalApiCalls);
         }
+        frame.printf("Page Cache: %d hits, %d misses, %d prefetched%n",
+                pageCache.hits(), pageCache.misses(), pageCache.prefetches());
+        frame.printf("User Buffer: %d users from %d range requests%n", userBuffer.cached(), userBuffer.fetches());
+
+        frame.printf("\nTotal Users Loaded: %d%n", allLoadedUsers.size());
+
+        var snapshot = statistics.snapshot();
+        printTop(frame, "Users by Time Zone", snapshot, Dimension.TIME_ZONE, 10, 30);
+        printTop(frame, "Users by Role", snapshot, Dimension.ROLE, Integer.MAX_VALUE, 20);
+        printTop(frame, "Users by Job Title", snapshot, Dimension.JOB_TITLE, 10, 30);
+        printTop(frame, "Invitation Status", snapshot, Dimension.INVITATION_STATUS, Integer.MAX_VALUE, 20);
+        printTop(frame, "Unmodelled API Fields", snapshot, Dimension.UNKNOWN_FIELD, 10, 30);
 
-        System.out.printf("\nTotal Users Loaded: %d%n", allLoadedUsers.size());
+        synchronized (sketchLock) {
+            printSketch(frame);
+        }
+        renderer.render(frame);
+    }
 
-        if (!timeZoneStats.isEmpty()) {
-            System.out.println("\n" + ANSI_YELLOW + "Users by Time Zone:" + ANSI_RESET);
-            timeZoneStats.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .limit(10)
-                    .forEach(entry ->
-                            System.out.printf("  %-30s: %d%n", entry.getKey(), entry.getValue()));
+    private void printSketch(Frame frame) {
+        if (sketch.users() > 0) {
+            frame.printf("%n%sApproximate (sketches, %d KiB):%s%n", ANSI_YELLOW, sketch.memoryBytes() / 1024, ANSI_RESET);
+            frame.printf("  Distinct emails     : ~%d (±%.1f%%)%n", sketch.distinctEmails(), sketch.distinctError() * 100);
+            frame.printf("  Distinct domains    : ~%d (±%.1f%%)%n", sketch.distinctDomains(), sketch.distinctError() * 100);
+            frame.println("  Top job titles (count may overestimate by the ± shown):");
+            sketch.top(Dimension.JOB_TITLE, 5).forEach(entry ->
+                    frame.printf("    %-28s: ~%d (±%d)%n", entry.key(), entry.count(), entry.error()));
         }
+    }
 
-        if (!roleStats.isEmpty()) {
-            System.out.println("\n" + ANSI_YELLOW + "Users by Role:" + ANSI_RESET);
-            roleStats.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .forEach(entry ->
-                            System.out.printf("  %-20s: %d%n", entry.getKey(), entry.getValue()));
+    private static void printTop(Frame frame, String title, DirectoryStatistics.Snapshot snapshot, Dimension dimension,
+                                 int limit, int width) {
+        var top = snapshot.top(dimension, limit);
+        if (top.isEmpty()) {
+            return;
         }
+        frame.println("\n" + ANSI_YELLOW + title + ":" + ANSI_RESET);
+        top.forEach(entry -> frame.printf("  %-" + width + "s: %d%n", entry.getKey(), entry.getValue()));
     }
 
     private void exportData() {
-        if (allLoadedUsers.isEmpty()) {
-            printWarning("No data to export. Load users first (option 7)");
+        out.print("Export format ((c)sv/(j)son/(n)djson/(b)inary): ");
+        var choice = readLine().trim().toLowerCase();
+
+        var format = switch (choice) {
+            case "csv", "c" -> ExportFormat.CSV;
+            case "json", "j" -> ExportFormat.JSON;
+            case "ndjson", "n" -> ExportFormat.NDJSON;
+            case "binary", "b" -> ExportFormat.BINARY;
+            default -> null;
+        };
+        if (format == null) {
+            printError("Invalid format. Choose 'csv', 'json', 'ndjson' or 'binary'");
             return;
         }
 
-        System.out.print("Export format ((c)sv/(j)son): ");
-        var format = scanner.nextLine().trim().toLowerCase();
+        out.print("Compress with gzip? (y/N): ");
+        var gzip = readLine().trim().equalsIgnoreCase("y");
 
         try {
-            var filename = "pagerduty_users_" + Instant.now().getEpochSecond();
-
-            switch (format) {
-                case "csv", "c" -> exportToCsv(filename + ".csv");
-                case "json", "j" -> exportToJson(filename + ".json");
-                default -> printError("Invalid format. Choose 'csv' or 'json'");
-            }
+            var filename = "pagerduty_users_" + Instant.now().getEpochSecond() + "." + format.extension(gzip);
+            export(format, gzip, filename);
         } catch (Exception e) {
             printError("Export failed: " + e.getMessage());
         }
     }
 
-    private void exportToCsv(String filename) throws IOException {
-        try (var writer = new java.io.PrintWriter(filename)) {
-            writer.println("ID,Name,Email,Role,TimeZone,Status,JobTitle");
+    /**
+     * Loaded directory: formatted on every core. Otherwise streamed page by page from the API.
+     */
+    private void export(ExportFormat format, boolean gzip, String filename) throws IOException, InterruptedException {
+        var startTime = System.currentTimeMillis();
+        long exported;
 
-            for (var user : allLoadedUsers) {
-                writer.printf("%s,%s,%s,%s,%s,%s,%s%n",
-                        escapeCsv(user.id()),
-                        escapeCsv(user.name()),
-                        escapeCsv(user.email()),
-                        escapeCsv(user.role()),
-                        escapeCsv(user.timeZone()),
-                        user.invitationSent() != null ? user.invitationSent() : "",
-                        escapeCsv(user.jobTitle())
-                );
+        if (directoryComplete) {
+            exported = new ParallelUserExporter().export(loadedUsers(), format, Path.of(filename), gzip);
+        } else {
+            out.println("Streaming from the API - no full load needed");
+            try (var writer = format.open(Path.of(filename), gzip)) {
+                new StreamingUserExporter(this::fetchPage, 100, Duration.ofMillis(100))
+                        .export(writer, (count, total) -> {
+                            out.printf("\rExported %d of %s users... ", count, total != null ? total : "?");
+                            out.flush();
+                        });
+                out.println();
+                exported = writer.count();
             }
         }
 
-        printSuccess("Exported " + allLoadedUsers.size() + " users to " + filename);
-    }
-
-    private void exportToJson(String filename) throws IOException {
-        var mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-        mapper.writerWithDefaultPrettyPrinter()
-                .writeValue(new java.io.File(filename), allLoadedUsers);
-
-        printSuccess("Exported " + allLoadedUsers.size() + " users to " + filename);
-    }
-
-    private String escapeCsv(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+        printSuccess("Exported " + exported + " users to " + filename
+                + " in " + (System.currentTimeMillis() - startTime) + " ms");
     }
 
     private void loadPage(int offset) throws IOException, InterruptedException {
+        var buffered = userBuffer.covers(offset, pageSize);
+        var hitsBefore = pageCache.hits();
         var startTime = System.currentTimeMillis();
-        currentPage = fetchPage(offset, pageSize);
+        currentPage = pageCache.navigate(offset, pageSize);
         var duration = System.currentTimeMillis() - startTime;
 
+        if (buffered || pageCache.hits() > hitsBefore) {
+            out.printf(ANSI_CYAN + "  [Served from memory in %d ms]" + ANSI_RESET + "%n", duration);
+            return;
+        }
         totalApiCalls++;
         totalApiTime += duration;
 
-        System.out.printf(ANSI_CYAN + "  [API call took %d ms]" + ANSI_RESET + "%n", duration);
+        out.printf(ANSI_CYAN + "  [API call took %d ms]" + ANSI_RESET + "%n", duration);
     }
 
     private PagedResponse<PagerDutyUser> fetchPage(int offset, int limit)
@@ -403,65 +717,59 @@ public class InteractivePagerDutyCanary {
         return service.getUsersPage(offset, limit);
     }
 
-    private void updateStatistics(List<PagerDutyUser> users) {
-        for (var user : users) {
-            if (user.timeZone() != null) {
-                timeZoneStats.merge(user.timeZone(), 1, Integer::sum);
-            }
-            if (user.role() != null) {
-                roleStats.merge(user.role(), 1, Integer::sum);
-            }
-        }
+    /**
+     * Keyboard input, accounted for by the renderer - the terminal echoes it below the frame.
+     */
+    private String readLine() {
+        var line = scanner.nextLine();
+        renderer.inputLine();
+        return line;
     }
 
     private int getCurrentPageNumber() {
         return (currentOffset / pageSize) + 1;
     }
 
-    private void printPageNavigation() {
-        System.out.println("\n" + ANSI_CYAN);
+    private void printPageNavigation(Frame frame) {
+        frame.println("\n" + ANSI_CYAN);
         if (currentOffset > 0) {
-            System.out.print("[← Previous] ");
+            frame.print("[← Previous] ");
         }
-        System.out.print("Page " + getCurrentPageNumber());
+        frame.print("Page " + getCurrentPageNumber());
         if (currentPage != null && currentPage.hasMorePages()) {
-            System.out.print(" [Next →]");
+            frame.print(" [Next →]");
         }
-        System.out.println(ANSI_RESET);
-    }
-
-    private void clearScreen() {
-        System.out.print("\033[H\033[2J");
-        System.out.flush();
+        frame.println(ANSI_RESET);
     }
 
     private void printSuccess(String message) {
-        System.out.println(ANSI_GREEN + "✓ " + message + ANSI_RESET);
+        out.println(ANSI_GREEN + "✓ " + message + ANSI_RESET);
     }
 
     private void printWarning(String message) {
-        System.out.println(ANSI_YELLOW + "⚠ " + message + ANSI_RESET);
+        out.println(ANSI_YELLOW + "⚠ " + message + ANSI_RESET);
     }
 
     private void printError(String message) {
-        System.out.println(ANSI_RED + "✗ " + message + ANSI_RESET);
+        out.println(ANSI_RED + "✗ " + message + ANSI_RESET);
     }
 
     private void printGoodbye() {
-        clearScreen();
-        System.out.println(ANSI_BOLD + ANSI_BLUE + """
+        var frame = new Frame();
+        frame.println(ANSI_BOLD + ANSI_BLUE + """
             
             Thank you for using PagerDuty User Explorer!
             
             Statistics for this session:
             """ + ANSI_RESET);
 
-        System.out.printf("  • API calls made: %d%n", totalApiCalls);
-        System.out.printf("  • Users examined: %d%n", allLoadedUsers.size());
+        frame.printf("  • API calls made: %d%n", totalApiCalls);
+        frame.printf("  • Users examined: %d%n", allLoadedUsers.size());
         if (totalApiCalls > 0) {
-            System.out.printf("  • Avg response time: %d ms%n", totalApiTime / totalApiCalls);
+            frame.printf("  • Avg response time: %d ms%n", totalApiTime / totalApiCalls);
         }
 
-        System.out.println("\nGoodbye! 👋\n");
+        frame.println("\nGoodbye! 👋\n");
+        renderer.render(frame);
     }
 }
\ No newline at end of file
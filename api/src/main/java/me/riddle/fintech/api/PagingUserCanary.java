@@ -1,19 +1,26 @@
 package me.riddle.fintech.api;
 
 import me.riddle.fintech.application.service.dto.PagerDutyUserService;
+import me.riddle.fintech.application.service.sync.ResumableUserSync;
 import me.riddle.fintech.domain.model.dto.PagedResponse;
 import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.dto.UserField;
+import me.riddle.fintech.domain.model.store.ColumnarUserStore;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * Demonstrates paging through PagerDuty users API.
  * Do not convert to record, private fields are intentional.
  */
 @SuppressWarnings("ClassCanBeRecord")
-public class PagingUserCanary {
+public class PagingUserCanary implements AutoCloseable {
+
+    private static final Path SYNC_LOG = Path.of("pagerduty_users.demo.sync.log");
 
     private final PagerDutyUserService userService;
 
@@ -41,42 +48,60 @@ public class PagingUserCanary {
 
     /**
      * Fetch all users across multiple pages.
+     * Resumable: a failed run (e.g. rate limited) picks up at the first page it never fetched.
      * Easter Egg: This method is intentionally left unused.
      */
     @SuppressWarnings("unused")
     public void demonstrateFullPagination() throws IOException, InterruptedException {
         System.out.println("\n=== Fetching All Users with Pagination ===");
 
-        List<PagerDutyUser> allUsers = new ArrayList<>();
-        int offset = 0;
-        int pageSize = 25;
-        int pageNumber = 0;
-
-        while (true) {
-            pageNumber++;
-            System.out.printf("Fetching page %d (offset=%d)...%n", pageNumber, offset);
+        // Packed off-heap - the full directory does not stay on the heap
+        ColumnarUserStore.Builder allUsers = ColumnarUserStore.builder();
+        ResumableUserSync sync = new ResumableUserSync(userService::getUsersPage, SYNC_LOG, 25);
 
-            PagedResponse<PagerDutyUser> page = userService.getUsersPage(offset, pageSize);
+        sync.run((page, replayed) -> {
             allUsers.addAll(page.data());
+            System.out.printf("%s page at offset=%d: %d users (total so far: %d)%n",
+                    replayed ? "Replayed" : "Fetched", page.offset(), page.itemCount(), allUsers.size());
+        });
+        sync.reset();   // Completed - the next demo starts from scratch
 
-            System.out.printf("  Retrieved %d users (total so far: %d)%n",
-                    page.itemCount(), allUsers.size());
+        ColumnarUserStore directory = allUsers.build();
+        System.out.printf("\nTotal users retrieved: %d (%d KiB off-heap)%n",
+                directory.size(), directory.offHeapBytes() / 1024);
 
-            if (!page.hasMorePages()) {
-                break;
+        // Show some statistics
+        long activeUsers = 0;
+        if (!directory.isEmpty()) {
+            var view = directory.view(0);
+            for (int i = 0; i < directory.size(); i++) {
+                if (!Boolean.FALSE.equals(view.moveTo(i).invitationSent())) {
+                    activeUsers++;
+                }
             }
-
-            offset = page.nextOffset();
         }
 
-        System.out.printf("\nTotal users retrieved: %d%n", allUsers.size());
+        System.out.printf("Active users (invitation sent): %d%n", activeUsers);
+    }
 
-        // Show some statistics
-        long activeUsers = allUsers.stream()
-                .filter(user -> !Boolean.FALSE.equals(user.invitationSent()))
-                .count();
+    /**
+     * Aggregate-only pass: count users per time zone, parsing nothing but the time zone.
+     * Easter Egg: This method is intentionally left unused.
+     */
+    @SuppressWarnings("unused")
+    public void demonstrateProjectedStatistics() throws IOException, InterruptedException {
+        System.out.println("\n=== Users per Time Zone (projected parse) ===");
 
-        System.out.printf("Active users (invitation sent): %d%n", activeUsers);
+        Map<String, Integer> byTimeZone = new TreeMap<>();
+        PagedResponse<PagerDutyUser> page;
+        int offset = 0;
+        do {
+            page = userService.getUsersPageProjected(offset, 100, Set.of(UserField.TIME_ZONE));
+            page.data().forEach(user -> byTimeZone.merge(String.valueOf(user.timeZone()), 1, Integer::sum));
+            offset = page.nextOffset();
+        } while (page.hasMorePages());
+
+        byTimeZone.forEach((timeZone, count) -> System.out.printf("  %-30s: %d%n", timeZone, count));
     }
 
     /**
@@ -121,10 +146,16 @@ public class PagingUserCanary {
 
 
     /**
-     * Run interactive mode.
+     * Run interactive mode over this canary's service.
      */
-    public void runInteractive(String apiToken) throws IOException, InterruptedException {
-        var interactive = new InteractivePagerDutyCanary(apiToken);
-        interactive.run();
+    public void runInteractive() throws IOException, InterruptedException {
+        try (var interactive = new InteractivePagerDutyCanary(userService)) {
+            interactive.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        userService.close();
     }
 }
\ No newline at end of file
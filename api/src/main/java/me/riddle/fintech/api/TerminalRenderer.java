@@ -0,0 +1,261 @@
+package me.riddle.fintech.api;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Draws explorer screens as whole frames. A {@link Frame} is composed in memory, then written to
+ * the terminal with a single write and flush - no clear-screen flash, no per-line round trips.
+ * When the previous frame is still on screen only the lines that changed are rewritten.
+ * <p>
+ * Diffing needs to know where the previous frame's lines are. Everything else written while it is
+ * displayed must therefore go through {@link #console()}, and every line read from the keyboard
+ * must be reported with {@link #inputLine()}, because the terminal echoes it. If all of that might
+ * have scrolled the frame (the terminal height is read from {@code stty}, falling back to 24 rows),
+ * the next frame is drawn in full. Thread-safe.
+ */
+public class TerminalRenderer {
+
+    private static final String ESC = "\u001B[";
+    private static final String HOME = ESC + "H";
+    private static final String CLEAR_LINE_END = ESC + "K";
+    private static final String CLEAR_SCREEN_END = ESC + "J";
+    private static final Pattern ANSI_SEQUENCE = Pattern.compile("\u001B\\[[0-9;?]*[A-Za-z]");
+
+    private final PrintStream out;
+    private final PrintStream console;
+    private final int height;
+    private final int width;
+
+    private List<String> previous;
+    // Rows written below the current frame since it was rendered, an overestimate
+    private int rowsSince;
+    private int column;
+
+    public TerminalRenderer(PrintStream out, int height, int width) {
+        if (height <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Terminal size must be positive");
+        }
+        this.out = Objects.requireNonNull(out, "Output cannot be null");
+        this.height = height;
+        this.width = width;
+        this.console = new PrintStream(new RowCounter(out), true, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renderer for {@link System#out}, sized to the controlling terminal.
+     */
+    public static TerminalRenderer forSystemOut() {
+        var size = terminalSize();
+        return new TerminalRenderer(System.out, size[0], size[1]);
+    }
+
+    /**
+     * Screen content under construction - the familiar {@code print}/{@code printf} API.
+     */
+    public static final class Frame {
+        private final StringBuilder text = new StringBuilder(4096);
+
+        public Frame print(String value) {
+            text.append(value);
+            return this;
+        }
+
+        public Frame println(String value) {
+            text.append(value).append('\n');
+            return this;
+        }
+
+        public Frame println() {
+            text.append('\n');
+            return this;
+        }
+
+        public Frame printf(String format, Object... args) {
+            text.append(String.format(format, args));
+            return this;
+        }
+
+        List<String> lines() {
+            return List.of(text.toString().split("\n", -1));
+        }
+    }
+
+    /**
+     * Stream for everything shown below the current frame - messages, prompts, results.
+     */
+    public PrintStream console() {
+        return console;
+    }
+
+    /**
+     * Record that the user entered a line - the terminal echoed it below the frame.
+     */
+    public synchronized void inputLine() {
+        rowsSince++;
+        column = 0;
+    }
+
+    /**
+     * Forget the previous frame - the next one is drawn in full.
+     */
+    public synchronized void invalidate() {
+        previous = null;
+    }
+
+    /**
+     * Show the frame, leaving the cursor at its end (after a trailing prompt, if it has one).
+     */
+    public synchronized void render(Frame frame) {
+        var lines = frame.lines();
+        var buffer = new StringBuilder(lines.size() * 64);
+
+        if (previous == null || rows(previous) + rowsSince + 1 >= height || rows(lines) >= height) {
+            buffer.append(HOME);
+            for (int i = 0; i < lines.size(); i++) {
+                buffer.append(lines.get(i)).append(CLEAR_LINE_END);
+                if (i < lines.size() - 1) {
+                    buffer.append('\n');
+                }
+            }
+            buffer.append(CLEAR_SCREEN_END);
+        } else {
+            diff(lines, buffer);
+        }
+
+        console.flush();
+        var bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+        out.flush();
+
+        previous = lines;
+        rowsSince = 0;
+        column = visibleLength(lines.getLast()) % width;
+    }
+
+    /**
+     * Rewrite only the lines whose text or position changed, then clear everything below.
+     */
+    private void diff(List<String> lines, StringBuilder buffer) {
+        var row = 1;
+        var previousRow = 1;
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i);
+            // The previous last line also holds whatever was typed or printed after it
+            var unchanged = i < previous.size() - 1 && row == previousRow && line.equals(previous.get(i));
+            if (!unchanged) {
+                buffer.append(ESC).append(row).append(";1H").append(line).append(CLEAR_LINE_END);
+            }
+            row += rows(line);
+            if (i < previous.size()) {
+                previousRow += rows(previous.get(i));
+            }
+        }
+
+        // Below the frame: the rest of the previous frame and anything printed after it
+        buffer.append(ESC).append(row).append(";1H").append(CLEAR_SCREEN_END);
+        var last = visibleLength(lines.getLast());
+        var lastRow = row - rows(lines.getLast()) + last / width;
+        buffer.append(ESC).append(lastRow).append(';').append(last % width + 1).append('H');
+    }
+
+    private int rows(List<String> lines) {
+        var rows = 0;
+        for (var line : lines) {
+            rows += rows(line);
+        }
+        return rows;
+    }
+
+    private int rows(String line) {
+        return Math.max(1, (visibleLength(line) + width - 1) / width);
+    }
+
+    /**
+     * Terminal columns the line takes up, ignoring escape sequences.
+     */
+    static int visibleLength(String line) {
+        var text = line.indexOf('\u001B') < 0 ? line : ANSI_SEQUENCE.matcher(line).replaceAll("");
+        return text.codePointCount(0, text.length());
+    }
+
+    /**
+     * Counts rows written to the console, escape sequences included - an overestimate is safe.
+     */
+    private final class RowCounter extends FilterOutputStream {
+
+        RowCounter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            count(b);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            for (int i = offset; i < offset + length; i++) {
+                count(bytes[i]);
+            }
+            out.write(bytes, offset, length);
+        }
+
+        private void count(int b) {
+            synchronized (TerminalRenderer.this) {
+                if (b == '\n') {
+                    rowsSince++;
+                    column = 0;
+                } else if (b == '\r') {
+                    column = 0;
+                } else if ((b & 0xC0) != 0x80 && ++column > width) {     // UTF-8 continuation bytes take no column
+                    rowsSince++;
+                    column = 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return rows and columns of the controlling terminal, 24x80 when it cannot be determined
+     */
+    private static int[] terminalSize() {
+        if (System.console() != null) {
+            try {
+                var process = new ProcessBuilder("stty", "size")
+                        .redirectInput(Redirect.INHERIT)
+                        .redirectError(Redirect.DISCARD)
+                        .start();
+                var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.US_ASCII).trim();
+                if (process.waitFor(1, TimeUnit.SECONDS) && process.exitValue() == 0) {
+                    var parts = output.split("\\s+");
+                    if (parts.length == 2) {
+                        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // not a Unix terminal - fall through
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new int[]{parse(System.getenv("LINES"), 24), parse(System.getenv("COLUMNS"), 80)};
+    }
+
+    private static int parse(String value, int fallback) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package me.riddle.fintech.api;
+
+import me.riddle.fintech.api.BatchSyncCommand.Options;
+import me.riddle.fintech.application.service.baseline.BaselineStore;
+import me.riddle.fintech.application.service.baseline.RunResult.Key;
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.application.service.export.ExportFormat;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.store.UserSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSyncCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private static PageFetcher directory(List<PagerDutyUser> users) {
+        return (offset, limit) -> {
+            var end = Math.min(users.size(), offset + limit);
+            var data = offset < end ? List.copyOf(users.subList(offset, end)) : List.<PagerDutyUser>of();
+            return new PagedResponse<>(limit, offset, end < users.size(), null, data);
+        };
+    }
+
+    private static List<PagerDutyUser> users(int count) {
+        var users = new ArrayList<PagerDutyUser>();
+        for (int i = 0; i < count; i++) {
+            users.add(new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user"));
+        }
+        return users;
+    }
+
+    private int run(Options options, PageFetcher fetcher) {
+        return new BatchSyncCommand(options, fetcher, "stub",
+                new PrintStream(out, true, StandardCharsets.UTF_8),
+                new PrintStream(err, true, StandardCharsets.UTF_8)).run();
+    }
+
+    @Test
+    void testParseDefaults() {
+        var options = Options.parse();
+
+        assertEquals(4, options.concurrency());
+        assertEquals(100, options.pageSize());
+        assertEquals(ExportFormat.NDJSON, options.format());
+        assertFalse(options.gzip());
+        assertEquals(Path.of("pagerduty_users.ndjson"), options.output());
+        assertNull(options.snapshot());
+    }
+
+    @Test
+    void testParseAllOptions() {
+        var options = Options.parse("--concurrency", "8", "--page-size", "50", "--format", "binary", "--gzip",
+                "--output", "out/users.pdub.gz", "--snapshot", "users.snapshot");
+
+        assertEquals(8, options.concurrency());
+        assertEquals(50, options.pageSize());
+        assertEquals(ExportFormat.BINARY, options.format());
+        assertTrue(options.gzip());
+        assertEquals(Path.of("out/users.pdub.gz"), options.output());
+        assertEquals(Path.of("users.snapshot"), options.snapshot());
+        assertNull(options.baseline());
+        assertNull(options.sloP99Millis());
+    }
+
+    @Test
+    void testParseBaselineOptions() {
+        var options = Options.parse("--baseline", "baselines/sync.json", "--slo-p99", "800");
+
+        assertEquals(Path.of("baselines/sync.json"), options.baseline());
+        assertEquals(800, options.sloP99Millis());
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--slo-p99", "0"));
+    }
+
+    @Test
+    void testSlowerRunFailsAgainstTheBaseline() throws IOException {
+        var users = users(100);
+        var baseline = tempDir.resolve("baseline.json");
+        var arguments = new String[]{"--page-size", "10", "--output", tempDir.resolve("users.ndjson").toString(),
+                "--baseline", baseline.toString()};
+        for (int i = 0; i < 3; i++) {
+            assertEquals(BatchSyncCommand.EXIT_OK, run(Options.parse(arguments), directory(users)));
+        }
+        var fast = directory(users);
+        PageFetcher slow = (offset, limit) -> {
+            Thread.sleep(20);
+            return fast.fetchPage(offset, limit);
+        };
+        out.reset();
+
+        var exitCode = run(Options.parse(arguments), slow);
+
+        assertEquals(BatchSyncCommand.EXIT_REGRESSION, exitCode);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("status=regressed users=100 "));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("REGRESSION"));
+        assertEquals(100, Files.readAllLines(tempDir.resolve("users.ndjson")).size(), "the export is still written");
+        assertEquals(3, new BaselineStore(baseline).runs(new Key("sync", 10, 4, 1, "stub")).size(), "regressed run not recorded");
+    }
+
+    @Test
+    void testPipelinedBatchIsOneLatencySample() throws IOException {
+        var directory = directory(users(100));
+        var requests = new AtomicInteger();
+        var fetcher = new PageFetcher() {
+            @Override
+            public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException, InterruptedException {
+                requests.incrementAndGet();
+                return directory.fetchPage(offset, limit);
+            }
+
+            @Override
+            public List<PagedResponse<PagerDutyUser>> fetchPages(int offset, int stride, int limit, int pages)
+                    throws IOException, InterruptedException {
+                requests.incrementAndGet();
+                var batch = new ArrayList<PagedResponse<PagerDutyUser>>();
+                for (int page = 0; page < pages; page++) {
+                    batch.add(directory.fetchPage(offset + page * stride, limit));
+                }
+                return batch;
+            }
+
+            @Override
+            public int batchSize() {
+                return 8;
+            }
+        };
+        var baseline = tempDir.resolve("baseline.json");
+
+        var exitCode = run(Options.parse("--page-size", "10", "--output", tempDir.resolve("users.ndjson").toString(),
+                "--baseline", baseline.toString()), fetcher);
+
+        assertEquals(BatchSyncCommand.EXIT_OK, exitCode, err.toString(StandardCharsets.UTF_8));
+        var runs = new BaselineStore(baseline).runs(new Key("sync", 10, 4, 4, "stub"));
+        assertEquals(1, runs.size(), "keyed on the batches the concurrent fetch sent");
+        assertEquals(requests.get(), runs.getFirst().latency().count(), "one sample per batch, not per page");
+    }
+
+    @Test
+    void testUnreadableBaselineStillPrintsTheSummary() throws IOException {
+        var baseline = tempDir.resolve("baseline.json");
+        Files.writeString(baseline, "{ not json");
+        var output = tempDir.resolve("users.ndjson");
+
+        var exitCode = run(Options.parse("--output", output.toString(), "--baseline", baseline.toString()),
+                directory(users(10)));
+
+        assertEquals(BatchSyncCommand.EXIT_WRITE_FAILED, exitCode);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("status=baseline_unavailable users=10 "), out.toString());
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("baseline unavailable"));
+        assertEquals(10, Files.readAllLines(output).size());
+    }
+
+    @Test
+    void testSloBreachWithoutBaseline() {
+        PageFetcher slow = (offset, limit) -> {
+            Thread.sleep(5);
+            return directory(users(20)).fetchPage(offset, limit);
+        };
+
+        var exitCode = run(Options.parse("--output", tempDir.resolve("users.ndjson").toString(), "--slo-p99", "1"), slow);
+
+        assertEquals(BatchSyncCommand.EXIT_REGRESSION, exitCode);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("SLO missed: p99 <= 1 ms"));
+    }
+
+    @Test
+    void testParseDefaultOutputFollowsFormat() {
+        assertEquals(Path.of("pagerduty_users.csv.gz"), Options.parse("--format", "CSV", "--gzip").output());
+    }
+
+    @Test
+    void testParseRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--verbose"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--concurrency"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--concurrency", "--gzip"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--concurrency", "many"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--concurrency", "0"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--page-size", "101"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--format", "xml"));
+    }
+
+    @Test
+    void testUsageErrorExitCode() {
+        assertEquals(BatchSyncCommand.EXIT_USAGE, BatchSyncCommand.run(new String[]{"--bogus"}, directory(List.of()), "stub"));
+    }
+
+    @Test
+    void testSyncExportsSnapshotsAndSummarises() throws IOException {
+        var users = users(250);
+        var output = tempDir.resolve("users.ndjson");
+        var snapshot = tempDir.resolve("users.snapshot");
+
+        var exitCode = run(Options.parse("--page-size", "20", "--output", output.toString(),
+                "--snapshot", snapshot.toString()), directory(users));
+
+        assertEquals(BatchSyncCommand.EXIT_OK, exitCode, err.toString(StandardCharsets.UTF_8));
+        assertEquals(250, Files.readAllLines(output).size());
+        assertFalse(Files.exists(tempDir.resolve("users.ndjson.part")));
+        assertEquals(250, UserSnapshot.open(snapshot).size());
+
+        var summary = out.toString(StandardCharsets.UTF_8).trim();
+        assertTrue(summary.startsWith("status=ok users=250 pages=14 "), summary);
+        assertTrue(summary.contains("bytes=" + Files.size(output)), summary);
+        assertTrue(summary.contains(" fetch_users_per_sec="), summary);
+        assertEquals("", err.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testShiftingDirectoryFallsBackToSequentialFetch() throws IOException {
+        var users = users(100);
+        var requests = new int[1];
+        var base = directory(users);
+        PageFetcher shifting = (offset, limit) -> {
+            synchronized (requests) {
+                if (requests[0]++ == 2) {
+                    users.remove(3);
+                }
+                return base.fetchPage(offset, limit);
+            }
+        };
+        var output = tempDir.resolve("users.ndjson");
+
+        var exitCode = run(Options.parse("--page-size", "10", "--output", output.toString()), shifting);
+
+        assertEquals(BatchSyncCommand.EXIT_OK, exitCode);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("refetching sequentially"));
+        assertEquals(99, Files.readAllLines(output).size());
+        assertFalse(Files.exists(tempDir.resolve("users.ndjson.sync.log")), "log removed after a complete sync");
+    }
+
+    @Test
+    void testParseIncrementalOptions() {
+        var options = Options.parse("--incremental", "--snapshot", "users.snapshot");
+
+        assertTrue(options.incremental());
+        assertEquals(Path.of("pagerduty_users.delta.ndjson"), options.output());
+        assertFalse(Options.parse().incremental());
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--incremental"));
+        assertThrows(IllegalArgumentException.class, () ->
+                Options.parse("--incremental", "--snapshot", "s", "--format", "csv"));
+        assertThrows(IllegalArgumentException.class, () ->
+                Options.parse("--incremental", "--snapshot", "s", "--baseline", "b.json"));
+    }
+
+    @Test
+    void testIncrementalSyncWritesOnlyTheDelta() throws IOException {
+        var users = users(30);
+        var output = tempDir.resolve("delta.ndjson");
+        var snapshot = tempDir.resolve("users.snapshot");
+        var arguments = new String[]{"--incremental", "--page-size", "10", "--output", output.toString(),
+                "--snapshot", snapshot.toString()};
+
+        assertEquals(BatchSyncCommand.EXIT_OK, run(Options.parse(arguments), directory(users)),
+                err.toString(StandardCharsets.UTF_8));
+        assertEquals(30, Files.readAllLines(output).size(), "first run: everyone is added");
+        assertEquals(30, UserSnapshot.open(snapshot).size());
+
+        users.set(4, new PagerDutyUser("P4", "Renamed", "u4@example.com", "user"));
+        out.reset();
+
+        assertEquals(BatchSyncCommand.EXIT_OK, run(Options.parse(arguments), directory(users)));
+
+        var delta = Files.readAllLines(output);
+        assertEquals(1, delta.size());
+        assertTrue(delta.get(0).contains("Renamed"), delta.get(0));
+        var summary = out.toString(StandardCharsets.UTF_8).trim();
+        assertTrue(summary.startsWith("status=ok mode=incremental users=30 added=0 changed=1 removed=0 unchanged=29 "),
+                summary);
+        assertFalse(Files.exists(tempDir.resolve("delta.ndjson.part")));
+    }
+
+    @Test
+    void testFetchFailureKeepsPreviousExport() throws IOException {
+        var output = tempDir.resolve("users.ndjson");
+        Files.writeString(output, "previous\n");
+        PageFetcher failing = (offset, limit) -> {
+            throw new IOException("Failed to get users: 401");
+        };
+
+        var exitCode = run(Options.parse("--output", output.toString()), failing);
+
+        assertEquals(BatchSyncCommand.EXIT_FETCH_FAILED, exitCode);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("401"));
+        assertEquals("previous\n", Files.readString(output));
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteFailureExitCode() {
+        var output = tempDir.resolve("missing").resolve("users.ndjson");
+
+        var exitCode = run(Options.parse("--output", output.toString()), directory(users(5)));
+
+        assertEquals(BatchSyncCommand.EXIT_WRITE_FAILED, exitCode);
+    }
+}
@@ -0,0 +1,201 @@
+package me.riddle.fintech.api;
+
+import me.riddle.fintech.api.CanaryDaemon.Options;
+import me.riddle.fintech.api.CanaryDaemon.UsersApi;
+import me.riddle.fintech.application.service.baseline.BaselineStore;
+import me.riddle.fintech.application.service.baseline.RunResult.Key;
+import me.riddle.fintech.application.service.monitor.LatencyHistogram;
+import me.riddle.fintech.application.service.monitor.ProbeStats.Window;
+import me.riddle.fintech.application.service.monitor.SyntheticMonitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CanaryDaemonTest {
+
+    /**
+     * Records calls; the directory holds users P0..P(size-1).
+     */
+    private static class StubApi implements UsersApi {
+        final List<String> calls = new ArrayList<>();
+        final int size;
+
+        StubApi(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public List<String> userIds(int offset, int limit) {
+            calls.add("page " + offset + "/" + limit);
+            var ids = new ArrayList<String>();
+            for (int i = offset; i < Math.min(size, offset + limit); i++) {
+                ids.add("P" + i);
+            }
+            return ids;
+        }
+
+        @Override
+        public void getUser(String id) throws IOException {
+            calls.add("user " + id);
+            if (Integer.parseInt(id.substring(1)) >= size) {
+                throw new IOException("Failed to get user: 404");
+            }
+        }
+    }
+
+    private static CanaryDaemon daemon(Options options, UsersApi api) {
+        return new CanaryDaemon(options, api, new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testParseDefaults() {
+        var options = Options.parse();
+
+        assertEquals(Duration.ofSeconds(30), options.interval());
+        assertEquals(Duration.ofSeconds(15), options.reportInterval());
+        assertEquals(List.of(0, 100, 500), options.offsets());
+        assertEquals(25, options.limit());
+        assertTrue(options.userIds().isEmpty());
+        assertEquals(Path.of("pagerduty_canary.prom"), options.metricsFile());
+        assertNull(options.metricsPort());
+    }
+
+    @Test
+    void testParseAllOptions() {
+        var options = Options.parse("--interval", "60", "--report-interval", "5", "--offsets", "0, 250",
+                "--limit", "10", "--user-id", "PABC", "--user-id", "PDEF",
+                "--metrics-file", "/var/lib/node_exporter/canary.prom", "--metrics-port", "9400");
+
+        assertEquals(Duration.ofMinutes(1), options.interval());
+        assertEquals(Duration.ofSeconds(5), options.reportInterval());
+        assertEquals(List.of(0, 250), options.offsets());
+        assertEquals(10, options.limit());
+        assertEquals(List.of("PABC", "PDEF"), options.userIds());
+        assertEquals(Path.of("/var/lib/node_exporter/canary.prom"), options.metricsFile());
+        assertEquals(9400, options.metricsPort());
+    }
+
+    @Test
+    void testParseRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--interval", "0"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--offsets", "0,-1"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--offsets", "0,x"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--limit", "101"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--metrics-port", "70000"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--user-id"));
+        assertThrows(IllegalArgumentException.class, () -> Options.parse("--daemonize"));
+    }
+
+    @Test
+    void testOneProbePerOffsetPlusGetUser() {
+        var probes = daemon(Options.parse("--offsets", "0,100"), new StubApi(10)).probes();
+
+        assertEquals(List.of("users_page_offset_0", "users_page_offset_100", "get_user"),
+                probes.stream().map(probe -> probe.name()).toList());
+    }
+
+    @Test
+    void testGetUserCyclesThroughIdsSampledFromThePageProbe() throws Exception {
+        var api = new StubApi(10);
+        var probes = daemon(Options.parse("--offsets", "0", "--limit", "3"), api).probes();
+
+        probes.get(0).action().run();
+        for (int i = 0; i < 4; i++) {
+            probes.get(1).action().run();
+        }
+
+        assertEquals(List.of("page 0/3", "user P0", "user P1", "user P2", "user P0"), api.calls);
+    }
+
+    @Test
+    void testGetUserLearnsIdsItselfWhenNoPageProbeSucceeded() throws Exception {
+        var api = new StubApi(10);
+        var probes = daemon(Options.parse("--offsets", "500"), api).probes();
+
+        probes.get(1).action().run();
+
+        assertEquals(List.of("page 0/5", "user P0"), api.calls);
+    }
+
+    @Test
+    void testConfiguredUserIdsAreProbed() throws Exception {
+        var api = new StubApi(10);
+        var probes = daemon(Options.parse("--user-id", "P7"), api).probes();
+
+        probes.getFirst().action().run();
+        probes.getLast().action().run();
+
+        assertEquals(List.of("page 0/25", "user P7"), api.calls);
+    }
+
+    @Test
+    void testEvaluationRecordsBaselineAndFlagsRegressions(@TempDir Path tempDir) throws Exception {
+        var baseline = tempDir.resolve("canary-baseline.json");
+        var daemon = daemon(Options.parse("--baseline", baseline.toString(), "--limit", "10"), new StubApi(10));
+
+        for (int run = 0; run < 3; run++) {
+            var verdicts = daemon.evaluate(Map.of("users_page_offset_0", window(100, run)));
+            assertTrue(verdicts.getFirst().ok(), verdicts.getFirst().summary());
+        }
+        var slow = daemon.evaluate(Map.of("users_page_offset_0", window(300, 9)));
+
+        assertTrue(slow.getFirst().regressed(), slow.getFirst().summary());
+        assertEquals(new Key("users_page_offset_0", 10, 1, 1, "custom"), slow.getFirst().key());
+        assertEquals(3, new BaselineStore(baseline).runs(slow.getFirst().key()).size());
+    }
+
+    @Test
+    void testEvaluationSkipsProbesWithoutSamples() throws Exception {
+        var daemon = daemon(Options.parse("--slo-p99", "50"), new StubApi(10));
+
+        var verdicts = daemon.evaluate(Map.of("get_user", new Window(Duration.ofMinutes(15), 3, 3, new LatencyHistogram()),
+                "users_page_offset_0", window(100, 1)));
+
+        assertEquals(1, verdicts.size());
+        assertTrue(verdicts.getFirst().sloBreached());
+    }
+
+    /**
+     * 15 minutes of runs around {@code medianMillis}.
+     */
+    private static Window window(double medianMillis, long seed) {
+        var random = new Random(seed);
+        var latency = new LatencyHistogram();
+        for (int i = 0; i < 30; i++) {
+            latency.recordMicros((long) (medianMillis * 1_000 * Math.exp(0.2 * random.nextGaussian())));
+        }
+        return new Window(Duration.ofMinutes(15), 30, 0, latency);
+    }
+
+    @Test
+    void testFailedReportIsLoggedAndRethrown(@TempDir Path tempDir) {
+        var out = new ByteArrayOutputStream();
+        var options = Options.parse("--metrics-file", tempDir.resolve("missing").resolve("canary.prom").toString());
+        var daemon = new CanaryDaemon(options, new StubApi(10), new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        try (var monitor = new SyntheticMonitor(daemon.probes(), CanaryDaemon.WINDOWS)) {
+            assertThrows(IOException.class, () -> daemon.report(monitor, monitor.report()));
+        }
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("daemon: report failed (1 so far): "), out.toString());
+    }
+
+    @Test
+    void testGetUserFailsOnEmptyDirectory() {
+        var probes = daemon(Options.parse(), new StubApi(0)).probes();
+
+        assertThrows(IOException.class, () -> probes.getLast().action().run());
+    }
+}
@@ -8,7 +8,8 @@ class PagingUserCanaryTest {
 
     @Test
     void testCanaryCreation() {
-        PagingUserCanary canary = new PagingUserCanary("test-token");
-        assertNotNull(canary);
+        try (PagingUserCanary canary = new PagingUserCanary("test-token")) {
+            assertNotNull(canary);
+        }
     }
 }
\ No newline at end of file
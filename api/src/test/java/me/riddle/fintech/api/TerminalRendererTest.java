@@ -0,0 +1,124 @@
+package me.riddle.fintech.api;
+
+import me.riddle.fintech.api.TerminalRenderer.Frame;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TerminalRendererTest {
+
+    /**
+     * Terminal stand-in that counts write calls.
+     */
+    private static class Terminal extends OutputStream {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        int writes;
+
+        @Override
+        public void write(int b) {
+            writes++;
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes++;
+            bytes.write(b, off, len);
+        }
+
+        String take() {
+            var text = bytes.toString(StandardCharsets.UTF_8);
+            bytes.reset();
+            writes = 0;
+            return text;
+        }
+    }
+
+    private static Frame menu(String status) {
+        return new Frame()
+                .println("═══ Explorer ═══")
+                .println("Status: " + status)
+                .println("  1. Next page")
+                .print("Choice: ");
+    }
+
+    @Test
+    void testFirstFrameIsOneWrite() {
+        var terminal = new Terminal();
+        var renderer = new TerminalRenderer(new PrintStream(terminal, false, StandardCharsets.UTF_8), 24, 80);
+
+        renderer.render(menu("idle"));
+
+        assertEquals(1, terminal.writes);
+        var output = terminal.take();
+        assertTrue(output.startsWith("\u001B[H"));
+        assertTrue(output.contains("Status: idle"));
+        assertTrue(output.contains("Choice: "));
+        assertFalse(output.contains("\u001B[2J"), "no clear-screen flash");
+    }
+
+    @Test
+    void testOnlyChangedLinesAreRedrawn() {
+        var terminal = new Terminal();
+        var renderer = new TerminalRenderer(new PrintStream(terminal, false, StandardCharsets.UTF_8), 24, 80);
+        renderer.render(menu("idle"));
+        terminal.take();
+
+        renderer.console().println("✓ Moved to page 2");
+        renderer.inputLine();
+        terminal.take();
+        renderer.render(menu("loading"));
+
+        var output = terminal.take();
+        assertTrue(output.contains("\u001B[2;1HStatus: loading"));
+        assertFalse(output.contains("Explorer"));
+        assertFalse(output.contains("Next page"));
+        // The prompt line is always rewritten - the typed choice was echoed onto it
+        assertTrue(output.contains("\u001B[4;1HChoice: \u001B[K"));
+        // Clears the message below the frame and puts the cursor back after the prompt
+        assertTrue(output.contains("\u001B[5;1H\u001B[J"));
+        assertTrue(output.endsWith("\u001B[4;9H"));
+    }
+
+    @Test
+    void testScrolledFrameIsRedrawnInFull() {
+        var terminal = new Terminal();
+        var renderer = new TerminalRenderer(new PrintStream(terminal, false, StandardCharsets.UTF_8), 10, 80);
+        renderer.render(menu("idle"));
+        terminal.take();
+
+        for (int i = 0; i < 8; i++) {
+            renderer.console().println("result " + i);
+        }
+        terminal.take();
+        renderer.render(menu("idle"));
+
+        var output = terminal.take();
+        assertTrue(output.startsWith("\u001B[H"));
+        assertTrue(output.contains("Explorer"));
+    }
+
+    @Test
+    void testWrappedLinesShiftTheRowsBelow() {
+        var terminal = new Terminal();
+        var renderer = new TerminalRenderer(new PrintStream(terminal, false, StandardCharsets.UTF_8), 24, 20);
+        renderer.render(menu("idle"));
+        terminal.take();
+
+        renderer.render(menu("a status long enough to wrap"));
+
+        var output = terminal.take();
+        assertTrue(output.contains("\u001B[4;1H  1. Next page"), output);
+        assertTrue(output.contains("\u001B[5;1HChoice: "), output);
+    }
+
+    @Test
+    void testVisibleLengthIgnoresColours() {
+        assertEquals(7, TerminalRenderer.visibleLength("\u001B[1m\u001B[32m✓ Ready\u001B[0m"));
+    }
+}
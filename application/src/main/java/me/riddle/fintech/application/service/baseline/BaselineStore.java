@@ -0,0 +1,140 @@
+package me.riddle.fintech.application.service.baseline;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.application.service.baseline.RunResult.Key;
+import me.riddle.fintech.application.service.monitor.LatencyHistogram;
+import me.riddle.fintech.application.service.transport.HttpTransport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Past runs, kept in a small JSON file - one entry per run with its percentiles (for people and
+ * diffs) and its full latency histogram (for the {@link RegressionDetector}). Only the most recent
+ * runs of each {@link Key} are kept. The file is rewritten atomically on every append, so a crash
+ * never leaves it half-written. Not safe for concurrent writers.
+ */
+public class BaselineStore {
+
+    public static final int DEFAULT_RUNS_KEPT = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path file;
+    private final int runsKept;
+
+    public BaselineStore(Path file) {
+        this(file, DEFAULT_RUNS_KEPT);
+    }
+
+    public BaselineStore(Path file, int runsKept) {
+        if (runsKept <= 0) {
+            throw new IllegalArgumentException("Runs kept must be positive");
+        }
+        this.file = Objects.requireNonNull(file, "File cannot be null");
+        this.runsKept = runsKept;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * @return stored runs of {@code key}, oldest first; empty when there is no baseline yet
+     */
+    public List<RunResult> runs(Key key) throws IOException {
+        return read().stream()
+                .map(StoredRun::toRunResult)
+                .filter(run -> run.key().equals(key))
+                .toList();
+    }
+
+    /**
+     * Add a run, dropping the oldest runs of its key beyond the retention limit.
+     */
+    public void append(RunResult run) throws IOException {
+        var runs = new ArrayList<>(read());
+        runs.add(StoredRun.of(run));
+
+        var ofKey = runs.stream().filter(stored -> stored.key().equals(run.key())).count();
+        for (var iterator = runs.iterator(); ofKey > runsKept && iterator.hasNext(); ) {
+            if (iterator.next().key().equals(run.key())) {
+                iterator.remove();
+                ofKey--;
+            }
+        }
+
+        var target = file.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        var partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(partial.toFile(), new StoredFile(1, runs));
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private List<StoredRun> read() throws IOException {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        var stored = objectMapper.readValue(file.toFile(), StoredFile.class);
+        if (stored.version() != 1) {
+            throw new IOException("Unsupported baseline version " + stored.version() + " in " + file);
+        }
+        return stored.runs() != null ? stored.runs() : List.of();
+    }
+
+    private record StoredFile(
+            @JsonProperty("version") int version,
+            @JsonProperty("runs") List<StoredRun> runs
+    ) {
+    }
+
+    private record StoredRun(
+            @JsonProperty("operation") String operation,
+            @JsonProperty("pageSize") int pageSize,
+            @JsonProperty("concurrency") int concurrency,
+            @JsonProperty("batch") Integer batch,
+            @JsonProperty("transport") String transport,
+            @JsonProperty("recordedAt") String recordedAt,
+            @JsonProperty("throughput") Double throughput,
+            @JsonProperty("count") long count,
+            @JsonProperty("p50Micros") long p50Micros,
+            @JsonProperty("p90Micros") long p90Micros,
+            @JsonProperty("p99Micros") long p99Micros,
+            @JsonProperty("maxMicros") long maxMicros,
+            @JsonProperty("sumMicros") long sumMicros,
+            @JsonProperty("buckets") Map<Integer, Long> buckets
+    ) {
+
+        static StoredRun of(RunResult run) {
+            var latency = run.latency();
+            return new StoredRun(run.key().operation(), run.key().pageSize(), run.key().concurrency(),
+                    run.key().batch(), run.key().transport(), run.recordedAt().toString(), Double.isNaN(run.throughput()) ? null : run.throughput(),
+                    latency.count(), latency.valueAtPercentile(50), latency.valueAtPercentile(90),
+                    latency.valueAtPercentile(99), latency.maxMicros(), latency.sumMicros(), latency.buckets());
+        }
+
+        Key key() {
+            // Runs stored before the transport was recorded all went through HttpClient, then the default, and
+            // those stored before the batch was recorded timed every request on its own
+            return new Key(operation, pageSize, concurrency, batch != null ? batch : 1,
+                    transport != null ? transport : HttpTransport.Kind.HTTP_CLIENT.id());
+        }
+
+        RunResult toRunResult() {
+            return new RunResult(key(), Instant.parse(recordedAt),
+                    LatencyHistogram.of(buckets != null ? buckets : Map.of(), sumMicros, maxMicros),
+                    throughput != null ? throughput : Double.NaN);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package me.riddle.fintech.application.service.baseline;
+
+import me.riddle.fintech.application.service.baseline.RunResult.Key;
+import me.riddle.fintech.application.service.monitor.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Compares a run against the stored runs of the same {@link Key} and evaluates latency SLOs.
+ * <p>
+ * A metric only counts as regressed when all three hold, so noise and tiny shifts are not flagged:
+ * <ul>
+ *     <li>Significant: for p50 and p99, more of the run's latencies exceed the baseline's
+ *     percentile than chance allows - an exact binomial test, as under no change each latency
+ *     exceeds the baseline p99 with probability 1%. For throughput, the run falls below the 99%
+ *     prediction interval of the baseline runs (needs {@link Thresholds#minThroughputRuns()}).</li>
+ *     <li>Large enough: the relative change reaches the metric's minimum effect.</li>
+ *     <li>Unprecedented: worse than every single baseline run, so ordinary day-to-day spread
+ *     between runs does not count.</li>
+ * </ul>
+ */
+public class RegressionDetector {
+
+    /**
+     * @param alpha              one-sided significance level of the latency tests
+     * @param p50Increase        minimum relative p50 increase that counts, e.g. 0.10 for +10%
+     * @param p99Increase        minimum relative p99 increase that counts
+     * @param throughputDrop     minimum relative throughput drop that counts
+     * @param minThroughputRuns  baseline runs needed before throughput is judged
+     */
+    public record Thresholds(double alpha, double p50Increase, double p99Increase, double throughputDrop,
+                             int minThroughputRuns) {
+
+        public static final Thresholds DEFAULT = new Thresholds(0.01, 0.10, 0.25, 0.10, 3);
+
+        public Thresholds {
+            if (alpha <= 0 || alpha >= 1) {
+                throw new IllegalArgumentException("Alpha must be between 0 and 1");
+            }
+            if (p50Increase < 0 || p99Increase < 0 || throughputDrop < 0 || throughputDrop >= 1) {
+                throw new IllegalArgumentException("Minimum effects must not be negative, throughput drop below 1");
+            }
+            if (minThroughputRuns < 2) {
+                throw new IllegalArgumentException("Throughput needs at least two baseline runs");
+            }
+        }
+    }
+
+    /**
+     * Latency objective, e.g. p99 at most 800 ms.
+     */
+    public record LatencySlo(double percentile, Duration limit) {
+
+        public LatencySlo {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+            Objects.requireNonNull(limit, "Limit cannot be null");
+        }
+
+        @Override
+        public String toString() {
+            return "p" + format(percentile) + " <= " + limit.toMillis() + " ms";
+        }
+    }
+
+    public enum Metric {
+        P50, P99, THROUGHPUT
+    }
+
+    /**
+     * One metric compared with the baseline. Latencies in microseconds, throughput per second.
+     *
+     * @param change  relative change, positive is worse
+     * @param pValue  of the significance test, NaN where none applies
+     */
+    public record Finding(Metric metric, double baseline, double current, double change, double pValue,
+                          boolean regressed, String note) {
+    }
+
+    /**
+     * @param sloBreaches objectives the run missed, e.g. {@code p99 <= 800 ms: 1250 ms}
+     */
+    public record Verdict(Key key, int baselineRuns, List<Finding> findings, List<String> sloBreaches) {
+
+        public boolean regressed() {
+            return findings.stream().anyMatch(Finding::regressed);
+        }
+
+        public boolean sloBreached() {
+            return !sloBreaches.isEmpty();
+        }
+
+        public boolean ok() {
+            return !regressed() && !sloBreached();
+        }
+
+        /**
+         * One line per finding, for logs and terminals.
+         */
+        public String summary() {
+            var text = new StringBuilder();
+            text.append(key).append(": ").append(ok() ? "OK" : "FAILED")
+                    .append(" against ").append(baselineRuns).append(" baseline run(s)");
+            for (var finding : findings) {
+                text.append(String.format(Locale.ROOT, "%n  %-10s %12s -> %-12s %+7.1f%%%s%s",
+                        finding.metric(), value(finding.metric(), finding.baseline()),
+                        value(finding.metric(), finding.current()), finding.change() * 100,
+                        Double.isNaN(finding.pValue()) ? "" : String.format(Locale.ROOT, "  p=%.4f", finding.pValue()),
+                        finding.regressed() ? "  REGRESSION" : finding.note() != null ? "  (" + finding.note() + ")" : ""));
+            }
+            for (var breach : sloBreaches) {
+                text.append(System.lineSeparator()).append("  SLO missed: ").append(breach);
+            }
+            return text.toString();
+        }
+
+        private static String value(Metric metric, double value) {
+            if (Double.isNaN(value)) {
+                return "-";
+            }
+            return metric == Metric.THROUGHPUT
+                    ? String.format(Locale.ROOT, "%.1f/s", value)
+                    : String.format(Locale.ROOT, "%.1f ms", value / 1_000);
+        }
+    }
+
+    // One-sided 99% Student t quantiles for 1..30 degrees of freedom
+    private static final double[] T_99 = {
+            31.821, 6.965, 4.541, 3.747, 3.365, 3.143, 2.998, 2.896, 2.821, 2.764,
+            2.718, 2.681, 2.650, 2.624, 2.602, 2.583, 2.567, 2.552, 2.539, 2.528,
+            2.518, 2.508, 2.500, 2.492, 2.485, 2.479, 2.473, 2.467, 2.462, 2.457};
+
+    private final Thresholds thresholds;
+    private final List<LatencySlo> slos;
+
+    public RegressionDetector() {
+        this(Thresholds.DEFAULT, List.of());
+    }
+
+    public RegressionDetector(Thresholds thresholds, List<LatencySlo> slos) {
+        this.thresholds = Objects.requireNonNull(thresholds, "Thresholds cannot be null");
+        this.slos = List.copyOf(slos);
+    }
+
+    /**
+     * @param baseline earlier runs; those of another key are ignored
+     */
+    public Verdict compare(RunResult run, List<RunResult> baseline) {
+        var comparable = baseline.stream().filter(past -> past.key().equals(run.key())).toList();
+        var findings = new ArrayList<Finding>();
+
+        if (!comparable.isEmpty() && run.latency().count() > 0) {
+            var pooled = new LatencyHistogram();
+            comparable.forEach(past -> pooled.add(past.latency()));
+            findings.add(latency(Metric.P50, 50, thresholds.p50Increase(), run, comparable, pooled));
+            findings.add(latency(Metric.P99, 99, thresholds.p99Increase(), run, comparable, pooled));
+        }
+        if (!Double.isNaN(run.throughput())) {
+            var throughput = throughput(run, comparable);
+            if (throughput != null) {
+                findings.add(throughput);
+            }
+        }
+
+        var breaches = new ArrayList<String>();
+        for (var slo : slos) {
+            var value = run.latency().valueAtPercentile(slo.percentile());
+            if (run.latency().count() > 0 && value > slo.limit().toNanos() / 1_000) {
+                breaches.add(slo + ": " + value / 1_000 + " ms");
+            }
+        }
+        return new Verdict(run.key(), comparable.size(), findings, breaches);
+    }
+
+    private Finding latency(Metric metric, double percentile, double minIncrease, RunResult run,
+                            List<RunResult> baseline, LatencyHistogram pooled) {
+        var baselineValue = pooled.valueAtPercentile(percentile);
+        var current = run.latency().valueAtPercentile(percentile);
+        var change = baselineValue > 0 ? (double) (current - baselineValue) / baselineValue : 0;
+
+        var exceeding = run.latency().countAbove(baselineValue);
+        var pValue = binomialUpperTail(run.latency().count(), exceeding, 1 - percentile / 100);
+        var worstRun = baseline.stream().mapToLong(past -> past.latency().valueAtPercentile(percentile)).max().orElse(0);
+
+        var significant = pValue < thresholds.alpha();
+        var large = change >= minIncrease;
+        var unprecedented = current > worstRun;
+        String note = null;
+        if (significant && large && !unprecedented) {
+            note = "within the spread of past runs";
+        } else if (significant && !large) {
+            note = "significant but small";
+        }
+        return new Finding(metric, baselineValue, current, change, pValue, significant && large && unprecedented, note);
+    }
+
+    private Finding throughput(RunResult run, List<RunResult> baseline) {
+        var values = baseline.stream().mapToDouble(RunResult::throughput).filter(value -> !Double.isNaN(value)).toArray();
+        if (values.length == 0) {
+            return null;
+        }
+        var mean = Arrays.stream(values).average().orElseThrow();
+        var change = mean > 0 ? (mean - run.throughput()) / mean : 0;
+
+        if (values.length < thresholds.minThroughputRuns()) {
+            return new Finding(Metric.THROUGHPUT, mean, run.throughput(), change, Double.NaN, false,
+                    "needs " + thresholds.minThroughputRuns() + " baseline runs");
+        }
+        var variance = 0.0;
+        for (var value : values) {
+            variance += (value - mean) * (value - mean);
+        }
+        var deviation = Math.sqrt(variance / (values.length - 1));
+        var degrees = values.length - 1;
+        var t = degrees <= T_99.length ? T_99[degrees - 1] : 2.326;
+        var lowerBound = mean - t * deviation * Math.sqrt(1 + 1.0 / values.length);
+
+        var slowest = Arrays.stream(values).min().orElseThrow();
+        var significant = run.throughput() < lowerBound;
+        var large = change >= thresholds.throughputDrop();
+        var unprecedented = run.throughput() < slowest;
+        String note = null;
+        if (significant && !large) {
+            note = "significant but small";
+        }
+        return new Finding(Metric.THROUGHPUT, mean, run.throughput(), change, Double.NaN,
+                significant && large && unprecedented, note);
+    }
+
+    /**
+     * P(X >= k) for X ~ Binomial(n, p), exact, summed in log space so large n cannot underflow.
+     */
+    static double binomialUpperTail(long n, long k, double p) {
+        if (k <= 0) {
+            return 1;
+        }
+        if (k > n) {
+            return 0;
+        }
+        var logP = Math.log(p);
+        var logQ = Math.log1p(-p);
+        // log P(X = i), stepped from i = 0
+        var logPmf = n * logQ;
+        var logTail = Double.NEGATIVE_INFINITY;
+        for (long i = 0; i <= n; i++) {
+            if (i >= k) {
+                logTail = logSumExp(logTail, logPmf);
+            }
+            if (i < n) {
+                logPmf += Math.log(n - i) - Math.log(i + 1) + logP - logQ;
+            }
+        }
+        return Math.min(1, Math.exp(logTail));
+    }
+
+    private static double logSumExp(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) {
+            return b;
+        }
+        var max = Math.max(a, b);
+        return max + Math.log(Math.exp(a - max) + Math.exp(b - max));
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
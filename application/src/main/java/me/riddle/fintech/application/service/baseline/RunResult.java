@@ -0,0 +1,47 @@
+package me.riddle.fintech.application.service.baseline;
+
+import me.riddle.fintech.application.service.monitor.LatencyHistogram;
+import me.riddle.fintech.application.service.transport.HttpTransport;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Outcome of one canary or benchmark run: its latency distribution and, where the run measures it,
+ * throughput. Runs are only ever compared with runs of the same {@link Key}.
+ *
+ * @param throughput operations per second, NaN when the run does not measure it
+ */
+public record RunResult(Key key, Instant recordedAt, LatencyHistogram latency, double throughput) {
+
+    /**
+     * What was measured, and how: an operation only compares with itself at the same page size,
+     * concurrency and batch size, over the same HTTP transport.
+     *
+     * @param batch     requests sent together per latency sample - 1 when each request is timed on its own
+     * @param transport {@link HttpTransport.Kind#id() id} of the transport the run used
+     */
+    public record Key(String operation, int pageSize, int concurrency, int batch, String transport) {
+
+        public Key {
+            Objects.requireNonNull(operation, "Operation cannot be null");
+            Objects.requireNonNull(transport, "Transport cannot be null");
+            if (pageSize < 0 || concurrency < 1 || batch < 1) {
+                throw new IllegalArgumentException(
+                        "Page size must not be negative, concurrency and batch size must be positive");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return operation + " (page size " + pageSize + ", concurrency " + concurrency + ", batch " + batch
+                    + ", " + transport + ")";
+        }
+    }
+
+    public RunResult {
+        Objects.requireNonNull(key, "Key cannot be null");
+        Objects.requireNonNull(recordedAt, "Time cannot be null");
+        Objects.requireNonNull(latency, "Latency cannot be null");
+    }
+}
@@ -0,0 +1,206 @@
+package me.riddle.fintech.application.service.cache;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps the most recently used pages in memory and fetches likely next pages in the background.
+ * After every {@link #navigate navigation} the neighbours are prefetched - next, previous, and the
+ * page one more "stride" away when the user is jumping by a fixed distance - so sequential browsing
+ * and repeated jumps are served from memory. A page still being prefetched is awaited rather than
+ * fetched twice; a failed prefetch is forgotten and the page fetched again on demand, so any error
+ * surfaces on the caller's thread.
+ * <p>
+ * Pages older than {@code maxAge} are refetched. Thread-safe.
+ */
+public class PageCache implements PageFetcher {
+
+    private record Key(int offset, int limit) {
+    }
+
+    private record Entry(CompletableFuture<PagedResponse<PagerDutyUser>> page, long fetchedAt) {
+    }
+
+    private final PageFetcher fetcher;
+    private final Executor executor;
+    private final long maxAgeNanos;
+    private final Map<Key, Entry> pages;
+
+    private long hits;
+    private long misses;
+    private long prefetches;
+    private Integer lastOffset;
+
+    public PageCache(PageFetcher fetcher, int capacity, Duration maxAge, Executor executor) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.fetcher = Objects.requireNonNull(fetcher, "Fetcher cannot be null");
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+        this.maxAgeNanos = maxAge.toNanos();
+        this.pages = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Cached page, or fetched on the calling thread and cached.
+     */
+    @Override
+    public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException, InterruptedException {
+        var key = new Key(offset, limit);
+        var entry = lookup(key);
+
+        if (entry != null) {
+            var page = await(entry.page());
+            if (page != null) {
+                synchronized (this) {
+                    hits++;
+                }
+                return page;
+            }
+            synchronized (this) {
+                pages.remove(key, entry);     // prefetch failed - retry below, where errors propagate
+            }
+        }
+
+        var page = fetcher.fetchPage(offset, limit);
+        synchronized (this) {
+            misses++;
+            pages.put(key, new Entry(CompletableFuture.completedFuture(page), System.nanoTime()));
+        }
+        return page;
+    }
+
+    /**
+     * Fetch the page the user moved to, then prefetch where they are likely to go next.
+     */
+    public PagedResponse<PagerDutyUser> navigate(int offset, int limit) throws IOException, InterruptedException {
+        var page = fetchPage(offset, limit);
+
+        Integer stride;
+        synchronized (this) {
+            stride = lastOffset == null ? null : offset - lastOffset;
+            lastOffset = offset;
+        }
+
+        if (page.hasMorePages()) {
+            prefetch(page.nextOffset(), limit);
+        }
+        if (offset > 0) {
+            prefetch(Math.max(0, offset - limit), limit);
+        }
+        if (stride != null && Math.abs(stride) > limit) {
+            var predicted = offset + stride;
+            if (predicted >= 0 && (page.total() == null || predicted < page.total())) {
+                prefetch(predicted, limit);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Start fetching the page in the background unless it is cached or already on its way.
+     */
+    public void prefetch(int offset, int limit) {
+        var key = new Key(offset, limit);
+        var future = new CompletableFuture<PagedResponse<PagerDutyUser>>();
+        var entry = new Entry(future, System.nanoTime());
+
+        synchronized (this) {
+            var existing = pages.get(key);
+            if (existing != null && isFresh(existing)) {
+                return;
+            }
+            pages.put(key, entry);
+            prefetches++;
+        }
+
+        executor.execute(() -> {
+            try {
+                future.complete(fetcher.fetchPage(offset, limit));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+            if (future.isCompletedExceptionally()) {
+                synchronized (this) {
+                    pages.remove(key, entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop every page, e.g. after the directory is known to have changed.
+     */
+    public synchronized void invalidate() {
+        pages.clear();
+        lastOffset = null;
+    }
+
+    /**
+     * Pages served from memory, including ones that were awaited while being prefetched.
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Pages fetched on the caller's thread.
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Background fetches started.
+     */
+    public synchronized long prefetches() {
+        return prefetches;
+    }
+
+    public synchronized int size() {
+        return pages.size();
+    }
+
+    private synchronized Entry lookup(Key key) {
+        var entry = pages.get(key);
+        if (entry != null && !isFresh(entry)) {
+            pages.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.fetchedAt() <= maxAgeNanos;
+    }
+
+    /**
+     * @return the page, or null if the fetch behind it failed
+     */
+    private static PagedResponse<PagerDutyUser> await(CompletableFuture<PagedResponse<PagerDutyUser>> page)
+            throws InterruptedException {
+        try {
+            return page.get();
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+}
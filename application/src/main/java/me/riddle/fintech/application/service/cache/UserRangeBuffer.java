@@ -0,0 +1,174 @@
+package me.riddle.fintech.application.service.cache;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Users indexed by their directory offset, filled in as ranges are fetched.
+ * A page of any size at any offset is sliced from memory when the buffer covers it; otherwise only the
+ * missing ranges are fetched, always as maximal ({@value #FETCH_SIZE}-user) requests, so changing the
+ * page size or going back never repeats an API call.
+ * <p>
+ * Slices may combine ranges fetched at different times - {@link #invalidate()} when the directory
+ * is known to have changed. Users held longer than {@code maxAge} count as missing and are fetched
+ * again, so a {@link PageCache} in front refetching its expired pages gets fresh users, not these.
+ * Thread-safe; fetches run outside the lock.
+ */
+public class UserRangeBuffer implements PageFetcher {
+
+    public static final int FETCH_SIZE = 100;
+
+    private final PageFetcher fetcher;
+    private final long maxAgeNanos;
+
+    private PagerDutyUser[] users = new PagerDutyUser[FETCH_SIZE];
+    // System.nanoTime() each user was fetched at
+    private long[] fetchedAt = new long[FETCH_SIZE];
+    private int cached;
+    // Directory size, once a fetch has reached the last page; -1 until then
+    private int end = -1;
+    private Integer total;
+    private long fetches;
+
+    public UserRangeBuffer(PageFetcher fetcher, Duration maxAge) {
+        this.fetcher = Objects.requireNonNull(fetcher, "Fetcher cannot be null");
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * Slice the page from memory, fetching whatever part of it is missing first.
+     */
+    @Override
+    public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException, InterruptedException {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset must not be negative and limit must be positive");
+        }
+
+        // Judge age as of the call, so users fetched by it are never too old to serve
+        var now = System.nanoTime();
+        while (true) {
+            int missing;
+            synchronized (this) {
+                missing = firstMissing(offset, limit, now);
+                if (missing < 0) {
+                    return slice(offset, limit);
+                }
+            }
+
+            var page = fetcher.fetchPage(missing, FETCH_SIZE);
+            if (page.isEmpty() && page.hasMorePages()) {
+                throw new IOException("Empty page at offset " + missing + " claims more users follow");
+            }
+            store(missing, page);
+        }
+    }
+
+    /**
+     * Replace the contents with the complete directory, e.g. after a full load.
+     */
+    public synchronized void load(List<? extends PagerDutyUser> directory) {
+        users = directory.toArray(new PagerDutyUser[Math.max(FETCH_SIZE, directory.size())]);
+        fetchedAt = new long[users.length];
+        Arrays.fill(fetchedAt, System.nanoTime());
+        cached = directory.size();
+        end = directory.size();
+        total = directory.size();
+    }
+
+    /**
+     * Forget everything buffered.
+     */
+    public synchronized void invalidate() {
+        users = new PagerDutyUser[FETCH_SIZE];
+        fetchedAt = new long[FETCH_SIZE];
+        cached = 0;
+        end = -1;
+        total = null;
+    }
+
+    /**
+     * Whether the page can be served without an API call.
+     */
+    public synchronized boolean covers(int offset, int limit) {
+        return firstMissing(offset, limit, System.nanoTime()) < 0;
+    }
+
+    /**
+     * Users held in memory.
+     */
+    public synchronized int cached() {
+        return cached;
+    }
+
+    /**
+     * Range requests made to the underlying fetcher.
+     */
+    public synchronized long fetches() {
+        return fetches;
+    }
+
+    /**
+     * @return first offset of the page not buffered yet or expired, or -1 when the page is covered
+     */
+    private int firstMissing(int offset, int limit, long now) {
+        var to = upperBound(offset, limit);
+        for (int i = offset; i < to; i++) {
+            if (i >= users.length || users[i] == null || now - fetchedAt[i] > maxAgeNanos) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int upperBound(int offset, int limit) {
+        var to = offset + limit;
+        return end >= 0 ? Math.min(to, end) : to;
+    }
+
+    private PagedResponse<PagerDutyUser> slice(int offset, int limit) {
+        var to = Math.max(offset, upperBound(offset, limit));
+        var data = to > offset ? Arrays.asList(users).subList(offset, to) : List.<PagerDutyUser>of();
+        var more = end < 0 || to < end;
+        return new PagedResponse<>(limit, offset, more, total, data);
+    }
+
+    private synchronized void store(int offset, PagedResponse<PagerDutyUser> page) {
+        fetches++;
+        var now = System.nanoTime();
+        var data = page.data();
+        var to = offset + data.size();
+        if (to > users.length) {
+            users = Arrays.copyOf(users, Math.max(to, users.length * 2));
+            fetchedAt = Arrays.copyOf(fetchedAt, users.length);
+        }
+        for (int i = 0; i < data.size(); i++) {
+            if (users[offset + i] == null) {
+                cached++;
+            }
+            users[offset + i] = data.get(i);
+            fetchedAt[offset + i] = now;
+        }
+
+        if (!page.hasMorePages()) {
+            end = to;
+            for (int i = to; i < users.length; i++) {       // the directory shrank - drop what is past the end
+                if (users[i] != null) {
+                    users[i] = null;
+                    cached--;
+                }
+            }
+        } else if (end >= 0 && to >= end) {
+            end = -1;       // the directory grew
+        }
+        if (page.total() != null) {
+            total = page.total();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package me.riddle.fintech.application.service.dto;
+
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.store.HashedUser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Source of user pages - usually the {@link PagerDutyUserService} itself, or {@code service::getUsersPage}.
+ * Lets bulk jobs run against the live service, a cache, or a test stub alike.
+ */
+@FunctionalInterface
+public interface PageFetcher {
+
+    PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException, InterruptedException;
+
+    /**
+     * A page with every user's content hash. By default the users are hashed after the fetch; the
+     * service hashes them while parsing the response.
+     */
+    default PagedResponse<HashedUser> fetchHashedPage(int offset, int limit) throws IOException, InterruptedException {
+        var page = fetchPage(offset, limit);
+        return new PagedResponse<>(page.limit(), page.offset(), page.more(), page.total(),
+                page.data().stream().map(HashedUser::of).toList());
+    }
+
+    /**
+     * {@code pages} pages of {@code limit} users at {@code offset}, {@code offset + stride}, ... in that
+     * order. By default fetched one after another; the service sends them all at once over a transport
+     * that pipelines.
+     */
+    default List<PagedResponse<PagerDutyUser>> fetchPages(int offset, int stride, int limit, int pages)
+            throws IOException, InterruptedException {
+        var result = new ArrayList<PagedResponse<PagerDutyUser>>(pages);
+        for (int page = 0; page < pages; page++) {
+            result.add(fetchPage(offset + page * stride, limit));
+        }
+        return result;
+    }
+
+    /**
+     * Pages {@link #fetchPages} usefully fetches at once - 1 when it fetches them one after another.
+     */
+    default int batchSize() {
+        return 1;
+    }
+}
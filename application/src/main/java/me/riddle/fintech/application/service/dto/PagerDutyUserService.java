@@ -1,39 +1,96 @@
 package me.riddle.fintech.application.service.dto;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import me.riddle.fintech.application.service.transport.HttpClientTransport;
+import me.riddle.fintech.application.service.transport.HttpTransport;
+import me.riddle.fintech.application.service.transport.RequestTemplate;
 import me.riddle.fintech.domain.model.dto.PagedResponse;
 import me.riddle.fintech.domain.model.dto.PagerDutyUser;
 import me.riddle.fintech.domain.model.dto.PagerDutyUsersResponse;
+import me.riddle.fintech.domain.model.dto.UserField;
+import me.riddle.fintech.domain.model.dto.UserInclude;
+import me.riddle.fintech.domain.model.store.HashedUser;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Simple service for retrieving PagerDuty users via their API.
+ * The HTTP stack is pluggable - see {@link HttpTransport.Kind#fromEnvironment()}.
+ * <p>
+ * Requests are built from a {@link RequestTemplate} prepared once - base URL and headers - plus a
+ * target composed in a builder the calling thread reuses, also for every page of a batch, and
+ * responses are parsed straight from the transport's buffer. Over the default {@code socket}
+ * transport a page request allocates next to nothing beyond the users it returns.
+ * <p>
+ * Close the service to release the connections of a transport it created itself; a transport passed
+ * in stays open for its owner to close.
  */
-public class PagerDutyUserService {
-    private static final String BASE_URL = "https://api.pagerduty.com";         // NiceToHave: Maybe push to config file in refactoring.
+public class PagerDutyUserService implements PageFetcher, AutoCloseable {
+    public static final String BASE_URL = "https://api.pagerduty.com";          // NiceToHave: Maybe push to config file in refactoring.
     private static final Duration TIMEOUT = Duration.ofSeconds(30);             // NiceToHave: Current default - does remote support HEAD requests for parameters?
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
 
-    private final HttpClient httpClient;
+    // Room for a page request's target; the builder is reused by every request its thread sends
+    private static final int TARGET_CAPACITY = 64;
+    private static final ThreadLocal<StringBuilder> TARGET = ThreadLocal.withInitial(() -> new StringBuilder(TARGET_CAPACITY));
+    private static final Map<Set<UserInclude>, String> INCLUDE_PARAMETERS = new ConcurrentHashMap<>();
+
+    private final HttpTransport transport;
+    private final boolean ownsTransport;
+    private final RequestTemplate api;
     private final ObjectMapper objectMapper;
-    private final String apiToken;
+    private final ObjectReader usersReader;
+    private final UsersPageParser<HashedUser> hashedUsersParser;
+    private final HttpTransport.BodyParser<PagedResponse<PagerDutyUser>> usersPageParser;
 
+    /**
+     * Uses the transport named by {@code -Dpagerduty.transport} or {@code PAGERDUTY_TRANSPORT}.
+     */
     public PagerDutyUserService(String apiToken) {
-        this(apiToken, HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build());
+        this(apiToken, HttpTransport.Kind.fromEnvironment().create(CONNECT_TIMEOUT), BASE_URL, true);
+    }
+
+    public PagerDutyUserService(String apiToken, HttpTransport transport) {
+        this(apiToken, transport, BASE_URL);
+    }
+
+    /**
+     * @param baseUrl e.g. a local mock of the API, without a trailing slash
+     */
+    public PagerDutyUserService(String apiToken, HttpTransport transport, String baseUrl) {
+        this(apiToken, transport, baseUrl, false);
+    }
+
+    private PagerDutyUserService(String apiToken, HttpTransport transport, String baseUrl, boolean ownsTransport) {
+        this.transport = Objects.requireNonNull(transport, "Transport cannot be null");
+        this.ownsTransport = ownsTransport;
+        this.api = new RequestTemplate(baseUrl, Map.of("Authorization", "Token token=" + apiToken, "Accept", "application/json"));
+        this.objectMapper = new ObjectMapper();
+        this.usersReader = objectMapper.readerFor(PagerDutyUsersResponse.class);
+        var userReader = objectMapper.readerFor(PagerDutyUser.class);
+        this.hashedUsersParser = new UsersPageParser<>(parser -> HashedUser.of(userReader.readValue(parser)));
+        this.usersPageParser = usersPage(this::readUsersPage);
     }
 
     // Package-private constructor for testing
     PagerDutyUserService(String apiToken, HttpClient httpClient) {
-        this.apiToken = apiToken;
-        this.httpClient = httpClient;
-        this.objectMapper = new ObjectMapper();
+        this(apiToken, new HttpClientTransport(httpClient));
     }
 
     /**
@@ -42,23 +99,24 @@ public class PagerDutyUserService {
      */
     @SuppressWarnings("UnusedReturnValue")
     public PagerDutyUser getUser(String userId) throws IOException, InterruptedException {
-        var request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/users/" + userId))
-                .timeout(TIMEOUT)
-                .header("Authorization", "Token token=" + apiToken)
-                .header("Accept", "application/json")
-                .GET()
-                .build();
-
-        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-        if (response.statusCode() != 200) {
-            throw new IOException("Failed to get user: " + response.statusCode());
-        }
+        return getUser(userId, Set.of());
+    }
 
-        // PagerDuty wraps single user in a "user" field
-        var rootNode = objectMapper.readTree(response.body());
-        return objectMapper.treeToValue(rootNode.get("user"), PagerDutyUser.class);
+    /**
+     * Get a single user with related resources expanded inline - see {@link PagerDutyUser#related}.
+     */
+    public PagerDutyUser getUser(String userId, Set<UserInclude> includes) throws IOException, InterruptedException {
+        var target = appendIncludes(target().append("/users/").append(userId), includes, '?');
+        return send(target, (status, body) -> {
+            if (status != 200) {
+                throw new IOException("Failed to get user: " + status);
+            }
+            // PagerDuty wraps single user in a "user" field
+            try (var parser = jsonParser(body)) {
+                var rootNode = objectMapper.readTree(parser);
+                return objectMapper.treeToValue(rootNode.get("user"), PagerDutyUser.class);
+            }
+        });
     }
 
     /**
@@ -68,26 +126,196 @@ public class PagerDutyUserService {
     @SuppressWarnings("UnusedReturnValue")
     public PagedResponse<PagerDutyUser> getUsersPage(int offset, int limit)
             throws IOException, InterruptedException {
+        return getUsersPage(offset, limit, Set.of());
+    }
 
-        if (limit <= 0 || limit > 100) {
-            throw new IllegalArgumentException("Limit must be between 1 and 100");
+    /**
+     * Get a page of users with related resources expanded inline.
+     * A page of 100 users with their contact methods costs one request instead of 101.
+     */
+    public PagedResponse<PagerDutyUser> getUsersPage(int offset, int limit, Set<UserInclude> includes)
+            throws IOException, InterruptedException {
+        checkLimit(limit);
+        var target = appendIncludes(target().append("/users?offset=").append(offset).append("&limit=").append(limit),
+                includes, '&');
+        return send(target, usersPageParser);
+    }
+
+    /**
+     * Get a page of users, each with its content hash computed as it is parsed - for incremental syncs.
+     */
+    public PagedResponse<HashedUser> getUsersPageHashed(int offset, int limit) throws IOException, InterruptedException {
+        checkLimit(limit);
+        var target = target().append("/users?offset=").append(offset).append("&limit=").append(limit);
+        return send(target, (status, body) -> {
+            if (status != 200) {
+                throw new IOException("Failed to get users: " + status);
+            }
+            try (var parser = jsonParser(body)) {
+                return hashedUsersParser.parse(parser);
+            }
+        });
+    }
+
+    @Override
+    public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException, InterruptedException {
+        return getUsersPage(offset, limit);
+    }
+
+    @Override
+    public PagedResponse<HashedUser> fetchHashedPage(int offset, int limit) throws IOException, InterruptedException {
+        return getUsersPageHashed(offset, limit);
+    }
+
+    /**
+     * Get {@code pages} consecutive pages starting at {@code offset} in one go - a pipelining
+     * transport sends all requests up front. Pages come back in offset order; pages past the end
+     * of the directory are empty.
+     */
+    public List<PagedResponse<PagerDutyUser>> getUsersPages(int offset, int limit, int pages)
+            throws IOException, InterruptedException {
+        return fetchPages(offset, limit, limit, pages);
+    }
+
+    /**
+     * Pages at {@code offset}, {@code offset + stride}, ... in one go, as {@link #getUsersPages} - the
+     * bulk fetchers use it with overlapping pages.
+     */
+    @Override
+    public List<PagedResponse<PagerDutyUser>> fetchPages(int offset, int stride, int limit, int pages)
+            throws IOException, InterruptedException {
+
+        checkLimit(limit);
+        if (pages <= 0 || stride <= 0) {
+            throw new IllegalArgumentException("Pages and stride must be positive");
         }
 
-        var request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/users?offset=" + offset + "&limit=" + limit))
-                .timeout(TIMEOUT)
-                .header("Authorization", "Token token=" + apiToken)
-                .header("Accept", "application/json")
-                .GET()
-                .build();
+        return transport.getAll(api, pages,
+                page -> target().append("/users?offset=").append(offset + page * stride).append("&limit=").append(limit),
+                TIMEOUT.multipliedBy(pages), usersPageParser);
+    }
 
-        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    @Override
+    public int batchSize() {
+        return transport.batchSize();
+    }
 
-        if (response.statusCode() != 200) {
-            throw new IOException("Failed to get users: " + response.statusCode());
+    /**
+     * The HTTP stack requests go through - runs over different ones are not comparable.
+     */
+    public HttpTransport.Kind transportKind() {
+        return transport.kind();
+    }
+
+    /**
+     * Get a page of users with only the given fields parsed - for aggregate jobs that need 2-3 fields.
+     * Unselected and unknown fields are skipped while streaming, so returned users carry nulls for them
+     * and no unknown fields. {@link UserField#ID} and {@link UserField#TYPE} are always present.
+     */
+    public PagedResponse<PagerDutyUser> getUsersPageProjected(int offset, int limit, Set<UserField> fields)
+            throws IOException, InterruptedException {
+        checkLimit(limit);
+        var projection = new ProjectedUsersParser(fields);
+        var target = target().append("/users?offset=").append(offset).append("&limit=").append(limit);
+        return send(target, usersPage(body -> {
+            try (var parser = jsonParser(body)) {
+                return projection.parse(parser);
+            }
+        }));
+    }
+
+    /**
+     * Server-side search - PagerDuty filters users by name or email ({@code query} parameter),
+     * so finding someone costs a page or two instead of a full-directory load.
+     */
+    public PagedResponse<PagerDutyUser> searchUsers(String query, int offset, int limit)
+            throws IOException, InterruptedException {
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
         }
 
-        var usersResponse = objectMapper.readValue(response.body(), PagerDutyUsersResponse.class);
-        return usersResponse.toPagedResponse();
+        checkLimit(limit);
+        var encoded = URLEncoder.encode(query.strip(), StandardCharsets.UTF_8).replace("+", "%20");
+        var target = target().append("/users?query=").append(encoded).append("&offset=").append(offset)
+                .append("&limit=").append(limit);
+        return send(target, usersPageParser);
+    }
+
+    /**
+     * Close the transport if this service created it.
+     */
+    @Override
+    public void close() {
+        if (ownsTransport) {
+            transport.close();
+        }
+    }
+
+    /**
+     * Append {@code include[]=...} pairs, brackets percent-encoded as {@link URI} requires, after
+     * {@code separator}. Nothing if nothing is included. Built once per combination of includes.
+     */
+    private static StringBuilder appendIncludes(StringBuilder target, Set<UserInclude> includes, char separator) {
+        if (includes.isEmpty()) {
+            return target;
+        }
+        var parameters = INCLUDE_PARAMETERS.get(includes);
+        if (parameters == null) {
+            parameters = EnumSet.copyOf(includes).stream()
+                    .map(include -> "include%5B%5D=" + include.fieldName())
+                    .collect(Collectors.joining("&"));
+            INCLUDE_PARAMETERS.putIfAbsent(EnumSet.copyOf(includes), parameters);
+        }
+        return target.append(separator).append(parameters);
+    }
+
+    /**
+     * This thread's target buffer, emptied - transports do not keep a target once its request is sent.
+     */
+    private static StringBuilder target() {
+        var target = TARGET.get();
+        target.setLength(0);
+        return target;
+    }
+
+    private PagedResponse<PagerDutyUser> readUsersPage(ByteBuffer body) throws IOException {
+        try (var parser = jsonParser(body)) {
+            return usersReader.<PagerDutyUsersResponse>readValue(parser).toPagedResponse();
+        }
+    }
+
+    private interface PageParser {
+        PagedResponse<PagerDutyUser> parse(ByteBuffer body) throws IOException;
+    }
+
+    private static HttpTransport.BodyParser<PagedResponse<PagerDutyUser>> usersPage(PageParser pageParser) {
+        return (status, body) -> {
+            if (status != 200) {
+                throw new IOException("Failed to get users: " + status);
+            }
+            return pageParser.parse(body);
+        };
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0 || limit > 100) {
+            throw new IllegalArgumentException("Limit must be between 1 and 100");
+        }
+    }
+
+    private <T> T send(CharSequence target, HttpTransport.BodyParser<T> parser) throws IOException, InterruptedException {
+        return transport.get(api, target, TIMEOUT, parser);
+    }
+
+    /**
+     * Parse straight from the transport's buffer - no intermediate String.
+     */
+    private JsonParser jsonParser(ByteBuffer body) throws IOException {
+        var factory = objectMapper.getFactory();
+        if (body.hasArray()) {
+            return factory.createParser(body.array(), body.arrayOffset() + body.position(), body.remaining());
+        }
+        return factory.createParser(new ByteBufferBackedInputStream(body));
     }
-}
\ No newline at end of file
+}
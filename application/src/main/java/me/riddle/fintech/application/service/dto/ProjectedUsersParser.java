@@ -0,0 +1,84 @@
+package me.riddle.fintech.application.service.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.dto.UserField;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming parser for a users page that only materializes the requested fields.
+ * Everything else - unselected strings, nested objects like contact methods, unknown fields -
+ * is skipped at the token level, so no text is decoded and no maps or trees are built for it.
+ * Users come back with unselected fields null and no unknown fields.
+ * {@link UserField#ID} and {@link UserField#TYPE} are always read, the record requires them; a user
+ * missing either fails the page with an {@link IOException}.
+ */
+final class ProjectedUsersParser {
+
+    private static final UserField[] FIELDS = UserField.values();
+
+    private final boolean[] selected = new boolean[FIELDS.length];
+    private final UsersPageParser<PagerDutyUser> page = new UsersPageParser<>(this::parseUser);
+
+    ProjectedUsersParser(Set<UserField> fields) {
+        for (var field : fields) {
+            selected[field.ordinal()] = true;
+        }
+        selected[UserField.ID.ordinal()] = true;
+        selected[UserField.TYPE.ordinal()] = true;
+    }
+
+    /**
+     * Parse a page from an open parser, positioned before the page object. The caller closes it.
+     */
+    PagedResponse<PagerDutyUser> parse(JsonParser parser) throws IOException {
+        return page.parse(parser);
+    }
+
+    private PagerDutyUser parseUser(JsonParser parser) throws IOException {
+        var values = new String[FIELDS.length];
+        Boolean invitationSent = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = UserField.forJsonName(parser.currentName());
+            var token = parser.nextToken();
+
+            if (field == null || !selected[field.ordinal()] || !token.isScalarValue()) {
+                parser.skipChildren();      // no-op for scalars - their text is never decoded
+            } else if (field == UserField.INVITATION_SENT) {
+                invitationSent = token == JsonToken.VALUE_NULL ? null : parser.getValueAsBoolean();
+            } else {
+                values[field.ordinal()] = token == JsonToken.VALUE_NULL ? null : parser.getText();
+            }
+        }
+
+        if (values[UserField.ID.ordinal()] == null) {
+            throw new IOException("User without id at " + parser.currentLocation());
+        }
+        if (values[UserField.TYPE.ordinal()] == null) {
+            throw new IOException("User without type at " + parser.currentLocation());
+        }
+
+        return new PagerDutyUser(
+                values[UserField.ID.ordinal()],
+                values[UserField.NAME.ordinal()],
+                values[UserField.EMAIL.ordinal()],
+                values[UserField.SUMMARY.ordinal()],
+                values[UserField.TYPE.ordinal()],
+                values[UserField.SELF.ordinal()],
+                values[UserField.HTML_URL.ordinal()],
+                values[UserField.AVATAR_URL.ordinal()],
+                values[UserField.COLOR.ordinal()],
+                values[UserField.ROLE.ordinal()],
+                values[UserField.DESCRIPTION.ordinal()],
+                invitationSent,
+                values[UserField.JOB_TITLE.ordinal()],
+                values[UserField.TIME_ZONE.ordinal()],
+                Map.of());
+    }
+}
@@ -0,0 +1,74 @@
+package me.riddle.fintech.application.service.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for the envelope of a users page - limit, offset, more, total - that hands each
+ * user object to a {@link UserReader}, so callers decide how much of a user to build.
+ */
+final class UsersPageParser<T> {
+
+    /**
+     * Reads one user, from its {@code START_OBJECT} through its {@code END_OBJECT}.
+     */
+    @FunctionalInterface
+    interface UserReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    private final UserReader<T> userReader;
+
+    UsersPageParser(UserReader<T> userReader) {
+        this.userReader = userReader;
+    }
+
+    /**
+     * Parse a page from an open parser, positioned before the page object. The caller closes it.
+     */
+    PagedResponse<T> parse(JsonParser parser) throws IOException {
+        expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+        List<T> users = List.of();
+        int limit = 0, offset = 0;
+        var more = false;
+        Integer total = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var name = parser.currentName();
+            var token = parser.nextToken();
+            switch (name) {
+                case "users" -> users = token == JsonToken.VALUE_NULL ? List.of() : parseUsers(parser, token);
+                case "limit" -> limit = parser.getValueAsInt();
+                case "offset" -> offset = parser.getValueAsInt();
+                case "more" -> more = parser.getValueAsBoolean();
+                case "total" -> total = token == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+                default -> parser.skipChildren();
+            }
+        }
+        return new PagedResponse<>(limit, offset, more, total, users);
+    }
+
+    private List<T> parseUsers(JsonParser parser, JsonToken token) throws IOException {
+        expect(parser, token, JsonToken.START_ARRAY);
+
+        var users = new ArrayList<T>();
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(parser, token, JsonToken.START_OBJECT);
+            users.add(userReader.read(parser));
+        }
+        return users;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Malformed users page: expected " + expected + " but got " + actual
+                    + " at " + parser.currentLocation());
+        }
+    }
+}
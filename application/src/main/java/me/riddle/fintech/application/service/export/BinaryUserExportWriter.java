@@ -0,0 +1,168 @@
+package me.riddle.fintech.application.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static me.riddle.fintech.application.service.export.BinaryUserFormat.*;
+
+/**
+ * Writes the compact binary interchange format described in {@link BinaryUserFormat}.
+ * Repeated values are stored once and referenced by a varint id, field names are implicit and every
+ * record is length-prefixed, which makes files far smaller than JSON and cheap to re-read with
+ * {@link BinaryUserReader}. Takes ownership of the channel.
+ */
+public class BinaryUserExportWriter implements UserExportWriter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_FRAME_HEADER = 1 + 5;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private ByteBuffer record = ByteBuffer.allocate(1024);
+    private long count;
+
+    public BinaryUserExportWriter(WritableByteChannel channel) throws IOException {
+        this.channel = Objects.requireNonNull(channel, "Channel cannot be null");
+        out.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+    }
+
+    /**
+     * Create (or truncate) the file and write the header.
+     */
+    public static BinaryUserExportWriter open(Path file) throws IOException {
+        return new BinaryUserExportWriter(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public void write(PagerDutyUser user) throws IOException {
+        record.clear();
+        inline(user.id());
+        inline(user.name());
+        inline(user.email());
+        inline(user.summary());
+        pooled(user.type());
+        inline(user.self());
+        inline(user.htmlUrl());
+        inline(user.avatarUrl());
+        pooled(user.color());
+        pooled(user.role());
+        inline(user.description());
+        pooled(user.jobTitle());
+        pooled(user.timeZone());
+
+        ensureRecord(1 + 5);
+        record.put(user.invitationSent() == null ? INVITATION_NULL
+                : user.invitationSent() ? INVITATION_TRUE : INVITATION_FALSE);
+
+        putVarint(record, user.unknownFields().size());
+        for (var field : user.unknownFields().entrySet()) {
+            pooled(field.getKey());
+            var json = objectMapper.writeValueAsBytes(field.getValue());
+            ensureRecord(5 + json.length);
+            putVarint(record, json.length);
+            record.put(json);
+        }
+
+        frame(TAG_USER, record.flip());
+        count++;
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            record.clear();
+            putVarint(record, (int) count);
+            frame(TAG_END, record.flip());
+            drain();
+        }
+    }
+
+    private void inline(String value) {
+        if (value == null) {
+            ensureRecord(1);
+            putVarint(record, REF_NULL);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureRecord(1 + 5 + bytes.length);
+        putVarint(record, REF_INLINE);
+        putVarint(record, bytes.length);
+        record.put(bytes);
+    }
+
+    /**
+     * Reference a dictionary string, defining it first if it is new.
+     */
+    private void pooled(String value) throws IOException {
+        if (value == null) {
+            inline(null);
+            return;
+        }
+
+        var id = dictionary.get(value);
+        if (id == null) {
+            if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+                inline(value);
+                return;
+            }
+            id = dictionary.size();
+            dictionary.put(value, id);
+            frame(TAG_STRING, ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8)));
+        }
+        ensureRecord(5);
+        putVarint(record, id + REF_DICTIONARY);
+    }
+
+    private void frame(byte tag, ByteBuffer payload) throws IOException {
+        if (out.remaining() < MAX_FRAME_HEADER + payload.remaining()) {
+            drain();
+        }
+        out.put(tag);
+        putVarint(out, payload.remaining());
+
+        // Payloads larger than the whole buffer go out in pieces
+        while (payload.hasRemaining()) {
+            if (!out.hasRemaining()) {
+                drain();
+            }
+            var slice = payload.slice(payload.position(), Math.min(payload.remaining(), out.remaining()));
+            out.put(slice);
+            payload.position(payload.position() + slice.capacity());
+        }
+    }
+
+    private void ensureRecord(int bytes) {
+        if (record.remaining() < bytes) {
+            record = ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + bytes))
+                    .put(record.flip());
+        }
+    }
+
+    private void drain() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+}
@@ -0,0 +1,67 @@
+package me.riddle.fintech.application.service.export;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the binary interchange format, shared by {@link BinaryUserExportWriter} and {@link BinaryUserReader}.
+ * <pre>
+ * header  : int magic "PDUB", short version, short flags (0)
+ * frames  : byte tag, varint length, payload
+ *   'S'   string definition - UTF-8 bytes; gets the next dictionary id (0, 1, 2, ...)
+ *   'U'   user record - 13 strings (known fields in record order, invitation_sent excluded),
+ *         byte invitation_sent (0 null, 1 false, 2 true), varint unknown-field count,
+ *         then per unknown field: string ref key, varint length + JSON value
+ *   'E'   end - payload is the varint user count
+ * string  : varint, 0 = null, 1 = inline (varint length + UTF-8 follow), n = dictionary id n - 2
+ * </pre>
+ * Low-cardinality values (type, role, color, time zone, job title, unknown-field keys) go through the
+ * dictionary; unique ones (ids, names, emails, URLs) are inlined so the writer's dictionary stays small.
+ * Dictionary strings are defined in their own frames before the first record that uses them, so a reader
+ * can skip a user record by its length without losing dictionary entries.
+ */
+final class BinaryUserFormat {
+
+    static final int MAGIC = 0x50445542;   // "PDUB"
+    static final short VERSION = 1;
+
+    static final byte TAG_STRING = 'S';
+    static final byte TAG_USER = 'U';
+    static final byte TAG_END = 'E';
+
+    static final int REF_NULL = 0;
+    static final int REF_INLINE = 1;
+    static final int REF_DICTIONARY = 2;
+
+    /** Past this many entries new values are inlined - bounds writer and reader memory */
+    static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    static final byte INVITATION_NULL = 0;
+    static final byte INVITATION_FALSE = 1;
+    static final byte INVITATION_TRUE = 2;
+
+    private BinaryUserFormat() {
+    }
+
+    /**
+     * Unsigned LEB128.
+     */
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            var b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Varint longer than 5 bytes");
+    }
+}
@@ -0,0 +1,243 @@
+package me.riddle.fintech.application.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static me.riddle.fintech.application.service.export.BinaryUserFormat.*;
+
+/**
+ * Reads the binary interchange format written by {@link BinaryUserExportWriter}.
+ * Works directly on a (memory-mapped) buffer: the file is never copied onto the heap, dictionary
+ * entries are just offsets into it and each one is decoded to a {@code String} at most once,
+ * on first use. {@link #skip()} steps over a record by its length prefix without decoding it.
+ * Not thread-safe.
+ */
+public class BinaryUserReader {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ByteBuffer buffer;
+    private int[] offsets = new int[256];
+    private int[] lengths = new int[256];
+    private String[] decoded = new String[256];
+    private int strings;
+    private byte[] scratch = new byte[256];
+    private long records;
+    private int recordEnd;
+    private boolean ended;
+
+    public BinaryUserReader(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.duplicate();
+        try {
+            var magic = this.buffer.getInt();
+            var version = this.buffer.getShort();
+            this.buffer.getShort();     // flags, none defined yet
+            if (magic != MAGIC) {
+                throw new IOException("Not a binary user export");
+            }
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary user export version " + version);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Not a binary user export", e);
+        }
+    }
+
+    /**
+     * Memory-map the file.
+     */
+    public static BinaryUserReader open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file)) {
+            return new BinaryUserReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return the next user, or null at the end of the export
+     */
+    public PagerDutyUser read() throws IOException {
+        if (!advance(true)) {
+            return null;
+        }
+        var user = decodeUser();
+        if (buffer.position() > recordEnd) {
+            throw new IOException("Corrupt binary user record " + records + ": runs past its frame");
+        }
+        buffer.position(recordEnd);     // tolerate fields appended by a later minor version
+        return user;
+    }
+
+    /**
+     * Step over the next user without decoding it.
+     *
+     * @return false at the end of the export
+     */
+    public boolean skip() throws IOException {
+        return advance(false);
+    }
+
+    /**
+     * Users read or skipped so far.
+     */
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Position on the next user record, registering dictionary strings on the way.
+     * When {@code decode} is false the record is skipped; otherwise the buffer is left at its payload.
+     */
+    private boolean advance(boolean decode) throws IOException {
+        if (ended) {
+            return false;
+        }
+        try {
+            while (true) {
+                var tag = buffer.get();
+                var length = length();
+                var payload = buffer.position();
+
+                switch (tag) {
+                    case TAG_STRING -> {
+                        define(payload, length);
+                        buffer.position(payload + length);
+                    }
+                    case TAG_USER -> {
+                        records++;
+                        recordEnd = payload + length;
+                        if (!decode) {
+                            buffer.position(recordEnd);
+                        }
+                        return true;
+                    }
+                    case TAG_END -> {
+                        var count = varint();
+                        if (count != records) {
+                            throw new IOException("Corrupt binary user export: " + records + " records, trailer says " + count);
+                        }
+                        ended = true;
+                        return false;
+                    }
+                    default -> throw new IOException("Corrupt binary user export: unknown frame '" + (char) tag
+                            + "' at byte " + (payload - 1));
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated binary user export at byte " + buffer.position(), e);
+        }
+    }
+
+    private PagerDutyUser decodeUser() throws IOException {
+        try {
+            var id = string();
+            var name = string();
+            var email = string();
+            var summary = string();
+            var type = string();
+            var self = string();
+            var htmlUrl = string();
+            var avatarUrl = string();
+            var color = string();
+            var role = string();
+            var description = string();
+            var jobTitle = string();
+            var timeZone = string();
+            var invitationSent = switch (buffer.get()) {
+                case INVITATION_TRUE -> Boolean.TRUE;
+                case INVITATION_FALSE -> Boolean.FALSE;
+                default -> null;
+            };
+
+            // Every entry takes at least two bytes, so a count beyond what is left is corrupt
+            var unknownCount = length();
+            Map<String, Object> unknownFields = unknownCount == 0 ? Map.of() : new HashMap<>(unknownCount * 2);
+            for (int i = 0; i < unknownCount; i++) {
+                var key = string();
+                var json = bytes(length());
+                unknownFields.put(key, objectMapper.readValue(json, 0, json.length, Object.class));
+            }
+
+            return new PagerDutyUser(id, name, email, summary, type, self, htmlUrl, avatarUrl,
+                    color, role, description, invitationSent, jobTitle, timeZone, unknownFields);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt binary user record " + records, e);
+        }
+    }
+
+    private String string() throws IOException {
+        var ref = varint();
+        if (ref == REF_NULL) {
+            return null;
+        }
+        if (ref == REF_INLINE) {
+            var length = length();
+            var value = decode(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        var id = ref - REF_DICTIONARY;
+        if (id < 0 || id >= strings) {
+            throw new IOException("Corrupt binary user record " + records + ": undefined string " + id);
+        }
+        if (decoded[id] == null) {
+            decoded[id] = decode(offsets[id], lengths[id]);
+        }
+        return decoded[id];
+    }
+
+    private int varint() throws IOException {
+        try {
+            return getVarint(buffer);
+        } catch (IllegalStateException e) {
+            throw new IOException("Corrupt binary user export at byte " + buffer.position() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A length prefix, checked against the bytes left - a corrupt one must not size an array or move the position.
+     */
+    private int length() throws IOException {
+        var length = varint();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Truncated or corrupt binary user export at byte " + buffer.position()
+                    + ": length " + length + " with " + buffer.remaining() + " bytes left");
+        }
+        return length;
+    }
+
+    private void define(int offset, int length) {
+        if (strings == offsets.length) {
+            offsets = Arrays.copyOf(offsets, strings * 2);
+            lengths = Arrays.copyOf(lengths, strings * 2);
+            decoded = Arrays.copyOf(decoded, strings * 2);
+        }
+        offsets[strings] = offset;
+        lengths[strings] = length;
+        strings++;
+    }
+
+    private String decode(int offset, int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(offset, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private byte[] bytes(int length) {
+        var bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,183 @@
+package me.riddle.fintech.application.service.export;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * RFC 4180 CSV: CRLF line endings, fields quoted only when they contain a comma, quote, CR or LF,
+ * embedded quotes doubled. Rows are UTF-8 encoded straight into one large direct buffer that is
+ * drained to the channel when full - no per-row formatting, strings or byte arrays.
+ * Takes ownership of the channel.
+ */
+public class CsvUserExportWriter implements UserExportWriter {
+
+    static final String HEADER = "ID,Name,Email,Role,TimeZone,Status,JobTitle";
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long count;
+
+    public CsvUserExportWriter(WritableByteChannel channel) throws IOException {
+        this(channel, true, ByteBuffer.allocateDirect(BUFFER_SIZE));
+    }
+
+    /**
+     * Headerless variant for chunks of a parallel export, formatting through the given buffer.
+     */
+    CsvUserExportWriter(WritableByteChannel channel, boolean header, ByteBuffer buffer) throws IOException {
+        this.channel = Objects.requireNonNull(channel, "Channel cannot be null");
+        this.buffer = buffer.clear();
+        if (header) {
+            putAscii(HEADER);
+            buffer.put(CRLF);
+        }
+    }
+
+    /**
+     * Create (or truncate) the file and write the header.
+     */
+    public static CsvUserExportWriter open(Path file) throws IOException {
+        return new CsvUserExportWriter(FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public void write(PagerDutyUser user) throws IOException {
+        field(user.id());
+        separator();
+        field(user.name());
+        separator();
+        field(user.email());
+        separator();
+        field(user.role());
+        separator();
+        field(user.timeZone());
+        separator();
+        if (user.invitationSent() != null) {
+            putAscii(user.invitationSent() ? "true" : "false");
+        }
+        separator();
+        field(user.jobTitle());
+
+        ensureRemaining(CRLF.length);
+        buffer.put(CRLF);
+        count++;
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            drain();
+        }
+    }
+
+    private void separator() throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) ',');
+    }
+
+    private void field(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            putUtf8(value);
+            return;
+        }
+
+        ensureRemaining(1);
+        buffer.put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '"') {
+                ensureRemaining(2);
+                buffer.put((byte) '"').put((byte) '"');
+            } else {
+                i = putChar(value, i);
+            }
+        }
+        ensureRemaining(1);
+        buffer.put((byte) '"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void putAscii(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            ensureRemaining(1);
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void putUtf8(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            i = putChar(value, i);
+        }
+    }
+
+    /**
+     * Encode the char at {@code i} (with its low surrogate, if any) as UTF-8.
+     *
+     * @return index of the last char consumed
+     */
+    private int putChar(String value, int i) throws IOException {
+        ensureRemaining(4);
+        var c = value.charAt(i);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(i + 1))) {
+            var codePoint = Character.toCodePoint(c, value.charAt(++i));
+            buffer.put((byte) (0xF0 | codePoint >> 18))
+                    .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                    .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                    .put((byte) (0x80 | codePoint & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');     // unpaired surrogate - not encodable, same as String.getBytes
+        } else {
+            buffer.put((byte) (0xE0 | c >> 12))
+                    .put((byte) (0x80 | c >> 6 & 0x3F))
+                    .put((byte) (0x80 | c & 0x3F));
+        }
+        return i;
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
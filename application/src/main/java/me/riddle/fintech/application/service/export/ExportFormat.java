@@ -0,0 +1,58 @@
+package me.riddle.fintech.application.service.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export file formats, each optionally gzip-compressed on the fly.
+ */
+public enum ExportFormat {
+    CSV("csv"),
+    JSON("json"),
+    NDJSON("ndjson"),
+    /** Compact interchange format, see {@link BinaryUserFormat} - read back with {@link BinaryUserReader} */
+    BINARY("pdub");
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension(boolean gzip) {
+        return gzip ? extension + ".gz" : extension;
+    }
+
+    /**
+     * Create (or truncate) the file and return a writer for it.
+     */
+    public UserExportWriter open(Path file, boolean gzip) throws IOException {
+        if (!gzip && this == CSV) {
+            return CsvUserExportWriter.open(file);      // straight to the FileChannel
+        }
+        if (!gzip && this == BINARY) {
+            return BinaryUserExportWriter.open(file);
+        }
+
+        OutputStream out = Files.newOutputStream(file);
+        try {
+            out = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : new BufferedOutputStream(out, BUFFER_SIZE);
+            return switch (this) {
+                case CSV -> new CsvUserExportWriter(Channels.newChannel(out));
+                case JSON -> new JsonUserExportWriter(out, false);
+                case NDJSON -> new JsonUserExportWriter(out, true);
+                case BINARY -> new BinaryUserExportWriter(Channels.newChannel(out));
+            };
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+}
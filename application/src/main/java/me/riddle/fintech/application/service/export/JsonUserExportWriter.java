@@ -0,0 +1,65 @@
+package me.riddle.fintech.application.service.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Streams users through one {@link JsonGenerator} - either as a single pretty-printed JSON array,
+ * or as NDJSON (one compact user per line, so the file can be split and processed in parallel).
+ * Nothing is buffered beyond the generator's own buffer; closing completes the document and the stream.
+ */
+public class JsonUserExportWriter implements UserExportWriter {
+
+    // Flushing after every value would push each user through gzip/disk on its own
+    static final ObjectWriter USER_WRITER = new ObjectMapper()
+            .writerFor(PagerDutyUser.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final JsonGenerator generator;
+    private final boolean ndjson;
+    private long count;
+
+    public JsonUserExportWriter(OutputStream out, boolean ndjson) throws IOException {
+        Objects.requireNonNull(out, "Output stream cannot be null");
+        this.generator = USER_WRITER.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        this.ndjson = ndjson;
+
+        if (ndjson) {
+            generator.setRootValueSeparator(null);     // newline written after each user instead
+        } else {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartArray();
+        }
+    }
+
+    @Override
+    public void write(PagerDutyUser user) throws IOException {
+        USER_WRITER.writeValue(generator, user);
+        if (ndjson) {
+            generator.writeRaw('\n');
+        }
+        count++;
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (generator) {
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+}
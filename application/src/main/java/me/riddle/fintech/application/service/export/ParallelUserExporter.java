@@ -0,0 +1,176 @@
+package me.riddle.fintech.application.service.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports an in-memory directory using every core. Users are cut into chunks, each chunk is formatted
+ * (and gzip-compressed) into its own buffer on a worker thread, and the buffers are written to the file
+ * in order with positional {@link FileChannel} writes as they complete.
+ * At most two chunks per worker are in flight, so memory stays bounded however large the export.
+ * <p>
+ * Output is identical to the sequential writers for CSV and NDJSON. JSON is the same array, but compact
+ * with one user per line instead of pretty-printed. Compressed output is a multi-member gzip file,
+ * readable by {@code gunzip} and {@link java.util.zip.GZIPInputStream}.
+ * {@link ExportFormat#BINARY} shares one dictionary across the file and is written sequentially.
+ */
+public class ParallelUserExporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 5_000;
+
+    private static final int CHUNK_BUFFER_SIZE = 1 << 16;
+
+    private final int parallelism;
+    private final int chunkSize;
+
+    public ParallelUserExporter() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelUserExporter(int parallelism, int chunkSize) {
+        if (parallelism <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Create (or truncate) the file and export all users to it.
+     *
+     * @return users written
+     */
+    public long export(List<? extends PagerDutyUser> users, ExportFormat format, Path file, boolean gzip)
+            throws IOException, InterruptedException {
+        Objects.requireNonNull(format, "Format cannot be null");
+
+        if (format == ExportFormat.BINARY) {
+            // One running string dictionary - the file cannot be cut into independent chunks
+            try (var writer = format.open(file, gzip)) {
+                writer.writeAll(users);
+            }
+            return users.size();
+        }
+
+        try (var channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             var executor = Executors.newFixedThreadPool(parallelism)) {
+
+            long position = write(channel, 0, fragment(gzip, out -> out.write(prefix(format))));
+
+            var inFlight = new ArrayDeque<Future<byte[]>>();
+            for (int from = 0; from < users.size(); from += chunkSize) {
+                var chunk = users.subList(from, Math.min(users.size(), from + chunkSize));
+                var first = from == 0;
+                inFlight.add(executor.submit(() -> fragment(gzip, out -> formatChunk(format, chunk, first, out))));
+
+                if (inFlight.size() >= parallelism * 2) {
+                    position = write(channel, position, await(inFlight.poll()));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                position = write(channel, position, await(inFlight.poll()));
+            }
+
+            write(channel, position, fragment(gzip, out -> out.write(suffix(format))));
+        }
+        return users.size();
+    }
+
+    @FunctionalInterface
+    private interface Formatter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Format into memory; compressed fragments are complete gzip members, so they concatenate.
+     */
+    private static byte[] fragment(boolean gzip, Formatter formatter) throws IOException {
+        var bytes = new ByteArrayOutputStream(CHUNK_BUFFER_SIZE);
+        try (var out = gzip ? new GZIPOutputStream(bytes, CHUNK_BUFFER_SIZE) : bytes) {
+            formatter.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void formatChunk(ExportFormat format, List<? extends PagerDutyUser> chunk, boolean first,
+                                    OutputStream out) throws IOException {
+        switch (format) {
+            case CSV -> {
+                try (var writer = new CsvUserExportWriter(Channels.newChannel(out), false,
+                        ByteBuffer.allocate(CHUNK_BUFFER_SIZE))) {
+                    writer.writeAll(chunk);
+                }
+            }
+            case NDJSON -> {
+                try (var writer = new JsonUserExportWriter(out, true)) {
+                    writer.writeAll(chunk);
+                }
+            }
+            case JSON -> {
+                try (var generator = JsonUserExportWriter.USER_WRITER.getFactory()
+                        .createGenerator(out, JsonEncoding.UTF8)) {
+                    generator.setRootValueSeparator(null);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        if (i > 0 || !first) {
+                            generator.writeRaw(",\n");
+                        }
+                        JsonUserExportWriter.USER_WRITER.writeValue(generator, chunk.get(i));
+                    }
+                }
+            }
+            case BINARY -> throw new IllegalStateException("Binary exports are written sequentially");
+        }
+    }
+
+    private static byte[] prefix(ExportFormat format) {
+        return switch (format) {
+            case CSV -> (CsvUserExportWriter.HEADER + "\r\n").getBytes(StandardCharsets.US_ASCII);
+            case JSON -> "[\n".getBytes(StandardCharsets.US_ASCII);
+            case NDJSON, BINARY -> new byte[0];
+        };
+    }
+
+    private static byte[] suffix(ExportFormat format) {
+        return format == ExportFormat.JSON ? "\n]\n".getBytes(StandardCharsets.US_ASCII) : new byte[0];
+    }
+
+    private static long write(FileChannel channel, long position, byte[] bytes) throws IOException {
+        var buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+
+    private static byte[] await(Future<byte[]> chunk) throws IOException, InterruptedException {
+        try {
+            return chunk.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Export chunk failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package me.riddle.fintech.application.service.export;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.application.service.sync.PageStitcher;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Exports the directory straight from the API: each page is written as soon as it arrives and then
+ * dropped, so memory stays constant however many users there are. No prior "load all" is needed.
+ * Pages are stitched by {@link PageStitcher}, so users added or removed mid-export are neither
+ * written twice nor skipped. Without a pause between pages, a fetcher that pipelines gets the pages
+ * ahead requested in {@linkplain PageFetcher#batchSize() batches}.
+ */
+public class StreamingUserExporter {
+
+    private final PageFetcher fetcher;
+    private final int pageSize;
+    private final Duration pauseBetweenPages;
+
+    public StreamingUserExporter(PageFetcher fetcher, int pageSize) {
+        this(fetcher, pageSize, Duration.ZERO);
+    }
+
+    public StreamingUserExporter(PageFetcher fetcher, int pageSize, Duration pauseBetweenPages) {
+        if (pageSize <= 0 || pageSize > 100) {
+            throw new IllegalArgumentException("Page size must be between 1 and 100");
+        }
+        this.fetcher = Objects.requireNonNull(fetcher, "Fetcher cannot be null");
+        this.pageSize = pageSize;
+        this.pauseBetweenPages = Objects.requireNonNull(pauseBetweenPages, "Pause cannot be null");
+    }
+
+    /**
+     * Progress callback, invoked after every written page.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        void onPage(long exported, Integer total);
+    }
+
+    /**
+     * Fetch every page and write it. The writer is not closed.
+     *
+     * @return users written
+     */
+    public long export(UserExportWriter writer) throws IOException, InterruptedException {
+        return export(writer, (exported, total) -> {});
+    }
+
+    public long export(UserExportWriter writer, Progress progress) throws IOException, InterruptedException {
+        var stitcher = new PageStitcher();
+        var pages = 0;
+        var batch = pauseBetweenPages.isZero() ? fetcher.batchSize() : 1;
+
+        while (!stitcher.isComplete()) {
+            if (pages++ > 0 && !pauseBetweenPages.isZero()) {
+                Thread.sleep(pauseBetweenPages);
+            }
+
+            var ahead = stitcher.fetchAhead(fetcher, pageSize, batch);
+            for (var i = 0; i < ahead.size() && (i == 0 || stitcher.expects(ahead.get(i))); i++) {
+                var page = ahead.get(i);
+                var fresh = stitcher.accept(page);
+                writer.writeAll(fresh.data());
+                progress.onPage(stitcher.users(), page.total());
+            }
+        }
+        return stitcher.users();
+    }
+}
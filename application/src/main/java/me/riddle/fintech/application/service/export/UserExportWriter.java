@@ -0,0 +1,27 @@
+package me.riddle.fintech.application.service.export;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Sink for exported users - one record at a time, so exports never need the whole directory in memory.
+ * Closing flushes and completes the output.
+ */
+public interface UserExportWriter extends Closeable {
+
+    void write(PagerDutyUser user) throws IOException;
+
+    default void writeAll(Collection<? extends PagerDutyUser> users) throws IOException {
+        for (var user : users) {
+            write(user);
+        }
+    }
+
+    /**
+     * Users written so far.
+     */
+    long count();
+}
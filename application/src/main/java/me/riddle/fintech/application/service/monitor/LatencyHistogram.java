@@ -0,0 +1,161 @@
+package me.riddle.fintech.application.service.monitor;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Log-linear latency histogram in microseconds: 16 linear buckets per power of two, so any recorded
+ * value is reported within about 6% of its true value. All buckets are allocated up front -
+ * recording is an array increment, no allocation. Values beyond ~12 days are clamped into the last
+ * bucket. Not thread-safe; see {@link ProbeStats}.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sumMicros;
+    private long maxMicros;
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000);
+    }
+
+    public void recordMicros(long micros) {
+        var value = Math.max(0, micros);
+        counts[index(value)]++;
+        count++;
+        sumMicros += value;
+        maxMicros = Math.max(maxMicros, value);
+    }
+
+    /**
+     * Add all of {@code other}'s values to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sumMicros += other.sumMicros;
+        maxMicros = Math.max(maxMicros, other.maxMicros);
+    }
+
+    /**
+     * Rebuild a histogram from {@link #buckets()} and its sum and maximum, e.g. from a stored baseline.
+     */
+    public static LatencyHistogram of(Map<Integer, Long> buckets, long sumMicros, long maxMicros) {
+        var histogram = new LatencyHistogram();
+        buckets.forEach((index, count) -> {
+            if (index < 0 || index >= BUCKETS || count < 0) {
+                throw new IllegalArgumentException("Invalid bucket " + index + "=" + count);
+            }
+            histogram.counts[index] += count;
+            histogram.count += count;
+        });
+        histogram.sumMicros = sumMicros;
+        histogram.maxMicros = maxMicros;
+        return histogram;
+    }
+
+    /**
+     * @return bucket index to count, non-empty buckets only
+     */
+    public Map<Integer, Long> buckets() {
+        var buckets = new TreeMap<Integer, Long>();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                buckets.put(i, counts[i]);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * @return values recorded in buckets entirely above {@code micros} - values sharing its bucket
+     * are not counted, so this never overstates
+     */
+    public long countAbove(long micros) {
+        var above = 0L;
+        for (int i = index(Math.max(0, micros)) + 1; i < BUCKETS; i++) {
+            above += counts[i];
+        }
+        return above;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sumMicros = 0;
+        maxMicros = 0;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long maxMicros() {
+        return maxMicros;
+    }
+
+    public double meanMicros() {
+        return count == 0 ? 0 : (double) sumMicros / count;
+    }
+
+    public long sumMicros() {
+        return sumMicros;
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return the value at or below which {@code percentile}% of recorded values fall (the upper
+     * edge of its bucket, never above the maximum), 0 when empty
+     */
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        var rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        var seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        var exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        var subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Highest value that falls into the bucket.
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        var exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        var subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        var shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+    }
+}
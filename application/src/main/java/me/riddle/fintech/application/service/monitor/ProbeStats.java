@@ -0,0 +1,121 @@
+package me.riddle.fintech.application.service.monitor;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Outcomes of one probe over sliding time windows. Time is cut into fixed slices held in a ring -
+ * each with its own {@link LatencyHistogram} and counters - and a window is the merge of its most
+ * recent slices, so it slides in slice-sized steps. Slices are reused in place as time moves on:
+ * recording never allocates. Latency is recorded for successful runs only, so fast failures
+ * cannot flatter the percentiles. Thread-safe.
+ */
+public final class ProbeStats {
+
+    /**
+     * Outcomes within one window.
+     *
+     * @param latency successful runs only - a copy, free to keep
+     */
+    public record Window(Duration length, long requests, long failures, LatencyHistogram latency) {
+
+        /**
+         * @return share of successful runs, NaN when there were none
+         */
+        public double availability() {
+            return requests == 0 ? Double.NaN : (double) (requests - failures) / requests;
+        }
+    }
+
+    private static final class Slice {
+        long start = Long.MIN_VALUE;
+        long requests;
+        long failures;
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private final long sliceMillis;
+    private final Slice[] slices;
+    private long totalRequests;
+    private long totalFailures;
+    private String lastError;
+
+    /**
+     * @param longestWindow the longest window that will be asked for
+     */
+    public ProbeStats(Duration slice, Duration longestWindow) {
+        Objects.requireNonNull(slice, "Slice cannot be null");
+        Objects.requireNonNull(longestWindow, "Window cannot be null");
+        if (slice.toMillis() <= 0 || longestWindow.compareTo(slice) < 0) {
+            throw new IllegalArgumentException("Slice must be positive and no longer than the window");
+        }
+        this.sliceMillis = slice.toMillis();
+        // One extra slice: the current one is only partly inside the window
+        var count = (int) ((longestWindow.toMillis() + sliceMillis - 1) / sliceMillis) + 1;
+        this.slices = new Slice[count];
+        for (int i = 0; i < count; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    public synchronized void recordSuccess(long atMillis, long latencyNanos) {
+        var slice = slice(atMillis);
+        slice.requests++;
+        slice.latency.recordNanos(latencyNanos);
+        totalRequests++;
+    }
+
+    public synchronized void recordFailure(long atMillis, String error) {
+        var slice = slice(atMillis);
+        slice.requests++;
+        slice.failures++;
+        totalRequests++;
+        totalFailures++;
+        lastError = error;
+    }
+
+    /**
+     * Outcomes of the slices overlapping the last {@code length} before {@code nowMillis}.
+     */
+    public synchronized Window window(Duration length, long nowMillis) {
+        var sinceMillis = nowMillis - length.toMillis();
+        var latency = new LatencyHistogram();
+        var requests = 0L;
+        var failures = 0L;
+        for (var slice : slices) {
+            if (slice.start != Long.MIN_VALUE && slice.start + sliceMillis > sinceMillis && slice.start <= nowMillis) {
+                requests += slice.requests;
+                failures += slice.failures;
+                latency.add(slice.latency);
+            }
+        }
+        return new Window(length, requests, failures, latency);
+    }
+
+    public synchronized long totalRequests() {
+        return totalRequests;
+    }
+
+    public synchronized long totalFailures() {
+        return totalFailures;
+    }
+
+    /**
+     * @return message of the most recent failure, or null if the probe never failed
+     */
+    public synchronized String lastError() {
+        return lastError;
+    }
+
+    private Slice slice(long atMillis) {
+        var start = Math.floorDiv(atMillis, sliceMillis) * sliceMillis;
+        var slice = slices[Math.floorMod(Math.floorDiv(atMillis, sliceMillis), slices.length)];
+        if (slice.start != start) {
+            slice.start = start;
+            slice.requests = 0;
+            slice.failures = 0;
+            slice.latency.reset();
+        }
+        return slice;
+    }
+}
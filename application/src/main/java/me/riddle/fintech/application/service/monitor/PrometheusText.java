@@ -0,0 +1,111 @@
+package me.riddle.fintech.application.service.monitor;
+
+import me.riddle.fintech.application.service.monitor.SyntheticMonitor.ProbeReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Probe reports in the Prometheus text exposition format - served over HTTP, or written to a file
+ * for node_exporter's textfile collector. Each probe and window becomes one label set; latency
+ * percentiles form a {@code summary} over the window's successful runs.
+ */
+public final class PrometheusText {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private PrometheusText() {
+    }
+
+    /**
+     * @param reportFailures reports that could not be delivered so far, see {@link SyntheticMonitor#reportFailures()}
+     */
+    public static String render(List<ProbeReport> reports, long reportFailures) {
+        var text = new StringBuilder(256 + reports.size() * 512);
+
+        header(text, "canary_probe_requests", "gauge", "Probe runs within the window");
+        reports.forEach(report -> sample(text, "canary_probe_requests", report, null, report.requests()));
+
+        header(text, "canary_probe_failures", "gauge", "Failed probe runs within the window");
+        reports.forEach(report -> sample(text, "canary_probe_failures", report, null, report.failures()));
+
+        header(text, "canary_probe_availability", "gauge", "Share of successful probe runs within the window");
+        reports.forEach(report -> sample(text, "canary_probe_availability", report, null, report.availability()));
+
+        header(text, "canary_probe_latency_seconds", "summary", "Latency of successful probe runs within the window");
+        for (var report : reports) {
+            long[] values = {report.p50Micros(), report.p90Micros(), report.p99Micros()};
+            for (int i = 0; i < QUANTILES.length; i++) {
+                sample(text, "canary_probe_latency_seconds", report, QUANTILES[i], values[i] / 1e6);
+            }
+            sample(text, "canary_probe_latency_seconds_count", report, null, report.requests() - report.failures());
+        }
+
+        header(text, "canary_probe_latency_max_seconds", "gauge", "Slowest successful probe run within the window");
+        reports.forEach(report -> sample(text, "canary_probe_latency_max_seconds", report, null, report.maxMicros() / 1e6));
+
+        header(text, "canary_report_failures", "counter", "Metrics reports that could not be delivered");
+        text.append("canary_report_failures ").append(reportFailures).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * Replace {@code file} with the rendered reports, atomically - a scraper never reads half a file.
+     */
+    public static void write(Path file, List<ProbeReport> reports, long reportFailures) throws IOException {
+        var target = file.toAbsolutePath();
+        var partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            Files.writeString(partial, render(reports, reportFailures), StandardCharsets.UTF_8);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * @return the window as a label value: {@code 30s}, {@code 5m}, {@code 1h}
+     */
+    public static String windowLabel(Duration window) {
+        var seconds = window.toSeconds();
+        if (seconds % 3600 == 0) {
+            return seconds / 3600 + "h";
+        }
+        if (seconds % 60 == 0) {
+            return seconds / 60 + "m";
+        }
+        return seconds + "s";
+    }
+
+    private static void header(StringBuilder text, String metric, String type, String help) {
+        text.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String metric, ProbeReport report, Double quantile, double value) {
+        text.append(metric).append("{probe=\"").append(escape(report.probe()))
+                .append("\",window=\"").append(windowLabel(report.window())).append('"');
+        if (quantile != null) {
+            text.append(",quantile=\"").append(quantile).append('"');
+        }
+        text.append("} ");
+        if (Double.isNaN(value)) {
+            text.append("NaN");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(String.format(Locale.ROOT, "%.6f", value));
+        }
+        text.append('\n');
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
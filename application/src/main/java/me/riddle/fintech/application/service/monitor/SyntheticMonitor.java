@@ -0,0 +1,204 @@
+package me.riddle.fintech.application.service.monitor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs probes on a fixed schedule and keeps per-probe latency and availability over sliding
+ * windows. Each run gets its own virtual thread, so a slow probe delays nothing else; between runs
+ * nothing executes but the scheduler's timer. Probe start times are spread across the interval so
+ * the probes do not hit the API in bursts. A probe still running when its next run is due counts
+ * that run as failed ("overrun") instead of piling up requests.
+ */
+public final class SyntheticMonitor implements AutoCloseable {
+
+    /**
+     * One check. Returning normally is success; any exception is a failure.
+     */
+    @FunctionalInterface
+    public interface ProbeAction {
+        void run() throws IOException, InterruptedException;
+    }
+
+    public record Probe(String name, ProbeAction action) {
+
+        public Probe {
+            Objects.requireNonNull(name, "Name cannot be null");
+            Objects.requireNonNull(action, "Action cannot be null");
+        }
+    }
+
+    /**
+     * One probe over one window. Latencies in microseconds, successful runs only.
+     */
+    public record ProbeReport(String probe, Duration window, long requests, long failures, double availability,
+                              long p50Micros, long p90Micros, long p99Micros, long maxMicros, String lastError) {
+    }
+
+    /**
+     * Receives reports on the scheduler's thread, every report interval. A failure is counted in
+     * {@link #reportFailures()} and the next report is attempted as usual.
+     */
+    @FunctionalInterface
+    public interface Reporter {
+        void report(List<ProbeReport> reports) throws IOException;
+    }
+
+    public static final Duration SLICE = Duration.ofSeconds(10);
+
+    private final Map<String, ProbeAction> probes = new LinkedHashMap<>();
+    private final Map<String, ProbeStats> stats = new LinkedHashMap<>();
+    private final Map<String, AtomicBoolean> running = new LinkedHashMap<>();
+    private final List<Duration> windows;
+    private final LongSupplier clockMillis;
+    private final AtomicLong reportFailures = new AtomicLong();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("canary-scheduler").factory());
+    private final ExecutorService runner =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("canary-probe-", 0).factory());
+
+    /**
+     * @param windows sliding windows to report, e.g. 1, 5 and 15 minutes
+     */
+    public SyntheticMonitor(List<Probe> probes, List<Duration> windows) {
+        this(probes, windows, SLICE, () -> System.nanoTime() / 1_000_000);
+    }
+
+    SyntheticMonitor(List<Probe> probes, List<Duration> windows, Duration slice, LongSupplier clockMillis) {
+        if (probes.isEmpty() || windows.isEmpty()) {
+            throw new IllegalArgumentException("Need at least one probe and one window");
+        }
+        this.windows = List.copyOf(windows);
+        this.clockMillis = Objects.requireNonNull(clockMillis, "Clock cannot be null");
+        var longest = this.windows.stream().max(Comparator.naturalOrder()).orElseThrow();
+        for (var probe : probes) {
+            if (this.probes.putIfAbsent(probe.name(), probe.action()) != null) {
+                throw new IllegalArgumentException("Duplicate probe: " + probe.name());
+            }
+            stats.put(probe.name(), new ProbeStats(slice, longest));
+            running.put(probe.name(), new AtomicBoolean());
+        }
+    }
+
+    /**
+     * Start running every probe once per {@code interval} and reporting every {@code reportInterval}.
+     */
+    public void start(Duration interval, Duration reportInterval, Reporter reporter) {
+        Objects.requireNonNull(reporter, "Reporter cannot be null");
+        if (interval.toMillis() <= 0 || reportInterval.toMillis() <= 0) {
+            throw new IllegalArgumentException("Intervals must be positive");
+        }
+        var names = new ArrayList<>(probes.keySet());
+        var stagger = interval.toMillis() / names.size();
+        for (int i = 0; i < names.size(); i++) {
+            var name = names.get(i);
+            scheduler.scheduleAtFixedRate(() -> dispatch(name), i * stagger, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                reporter.report(report());
+            } catch (IOException | RuntimeException e) {
+                // A failed report must not cancel the schedule - the next one will try again
+                reportFailures.incrementAndGet();
+            }
+        }, reportInterval.toMillis(), reportInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run one probe now, on a virtual thread. Returns immediately.
+     */
+    void dispatch(String name) {
+        var busy = running.get(name);
+        if (!busy.compareAndSet(false, true)) {
+            stats.get(name).recordFailure(clockMillis.getAsLong(), "overrun: previous run still in progress");
+            return;
+        }
+        runner.execute(() -> {
+            try {
+                runProbe(name);
+            } finally {
+                busy.set(false);
+            }
+        });
+    }
+
+    /**
+     * Run one probe on the calling thread and record the outcome.
+     */
+    void runProbe(String name) {
+        var probeStats = stats.get(name);
+        var started = System.nanoTime();
+        try {
+            probes.get(name).run();
+            probeStats.recordSuccess(clockMillis.getAsLong(), System.nanoTime() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();     // shutting down - not the API's fault
+        } catch (Exception e) {
+            probeStats.recordFailure(clockMillis.getAsLong(), e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Current outcomes for every probe and window, in probe then window order.
+     */
+    public List<ProbeReport> report() {
+        var now = clockMillis.getAsLong();
+        var reports = new ArrayList<ProbeReport>(stats.size() * windows.size());
+        stats.forEach((name, probeStats) -> {
+            var lastError = probeStats.lastError();
+            for (var length : windows) {
+                var window = probeStats.window(length, now);
+                var latency = window.latency();
+                reports.add(new ProbeReport(name, length, window.requests(), window.failures(), window.availability(),
+                        latency.valueAtPercentile(50), latency.valueAtPercentile(90), latency.valueAtPercentile(99),
+                        latency.maxMicros(), lastError));
+            }
+        });
+        return reports;
+    }
+
+    /**
+     * One probe's outcomes over the last {@code length}, with its full latency histogram.
+     */
+    public ProbeStats.Window window(String probe, Duration length) {
+        var probeStats = stats.get(probe);
+        if (probeStats == null) {
+            throw new IllegalArgumentException("Unknown probe: " + probe);
+        }
+        return probeStats.window(length, clockMillis.getAsLong());
+    }
+
+    /**
+     * Reports the reporter failed to deliver.
+     */
+    public long reportFailures() {
+        return reportFailures.get();
+    }
+
+    /**
+     * Stop scheduling and wait briefly for probes in flight.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        runner.shutdownNow();
+        try {
+            runner.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
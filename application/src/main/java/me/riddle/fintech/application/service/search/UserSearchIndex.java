@@ -0,0 +1,203 @@
+package me.riddle.fintech.application.service.search;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.util.*;
+
+/**
+ * In-memory substring/prefix search over name, email, job title and id.
+ * Fields are lower-cased once at indexing time and every trigram points to a sorted posting list,
+ * so a query intersects a handful of int arrays instead of scanning (and lower-casing) every user.
+ * Queries shorter than a trigram fall back to a scan of the pre-normalized fields.
+ * <p>
+ * Built incrementally - feed it pages as they load. Re-adding a user id replaces the old entry.
+ * Thread-safe: loading and searching may happen on different threads.
+ */
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+
+    // Field weights for ranking - a name hit beats an email hit beats a job title hit
+    private static final int[] FIELD_WEIGHTS = {4, 3, 2, 1};   // name, email, job title, id
+
+    private static final int EXACT = 8;
+    private static final int PREFIX = 4;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 1;
+
+    private final List<PagerDutyUser> users = new ArrayList<>();
+    private final List<String[]> normalized = new ArrayList<>();
+    private final Map<String, Integer> docById = new HashMap<>();
+    private final BitSet replaced = new BitSet();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    public synchronized void add(PagerDutyUser user) {
+        var doc = users.size();
+        var previous = docById.put(user.id(), doc);
+        if (previous != null) {
+            replaced.set(previous);
+        }
+
+        var fields = new String[]{
+                normalize(user.name()), normalize(user.email()), normalize(user.jobTitle()), normalize(user.id())
+        };
+        users.add(user);
+        normalized.add(fields);
+
+        for (var field : fields) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                postings.computeIfAbsent(gram(field, i), key -> new Postings()).add(doc);
+            }
+        }
+    }
+
+    public synchronized void addAll(Collection<? extends PagerDutyUser> users) {
+        users.forEach(this::add);
+    }
+
+    /**
+     * Users whose name, email, job title or id contain the query (case-insensitive), best matches first.
+     */
+    public synchronized List<PagerDutyUser> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        var term = normalize(query).strip();
+        if (term.isEmpty()) {
+            return List.of();
+        }
+
+        var hits = new ArrayList<Hit>();
+        var candidates = candidates(term);
+        for (int i = 0; i < candidates.size; i++) {
+            var doc = candidates.docs[i];
+            if (replaced.get(doc)) {
+                continue;
+            }
+            var score = score(normalized.get(doc), term);
+            if (score > 0) {
+                hits.add(new Hit(doc, score));
+            }
+        }
+
+        return hits.stream()
+                .sorted(Comparator.comparingInt(Hit::score).reversed()
+                        .thenComparing(hit -> normalized.get(hit.doc())[0]))
+                .limit(limit)
+                .map(hit -> users.get(hit.doc()))
+                .toList();
+    }
+
+    public synchronized int size() {
+        return docById.size();
+    }
+
+    public synchronized void clear() {
+        users.clear();
+        normalized.clear();
+        docById.clear();
+        replaced.clear();
+        postings.clear();
+    }
+
+    /**
+     * Docs that may contain the term - every trigram must be present (verified by {@link #score}).
+     */
+    private Postings candidates(String term) {
+        if (term.length() < GRAM) {
+            var all = new Postings();
+            for (int doc = 0; doc < users.size(); doc++) {
+                all.add(doc);
+            }
+            return all;
+        }
+
+        var lists = new ArrayList<Postings>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            var list = postings.get(gram(term, i));
+            if (list == null) {
+                return new Postings();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+
+        var result = lists.getFirst();
+        for (int i = 1; i < lists.size() && result.size > 0; i++) {
+            result = result.intersect(lists.get(i));
+        }
+        return result;
+    }
+
+    private static int score(String[] fields, String term) {
+        var best = 0;
+        for (int f = 0; f < fields.length; f++) {
+            var kind = matchKind(fields[f], term);
+            best = Math.max(best, kind * FIELD_WEIGHTS[f]);
+        }
+        return best;
+    }
+
+    private static int matchKind(String field, String term) {
+        var at = field.indexOf(term);
+        if (at < 0) {
+            return 0;
+        }
+        if (at == 0) {
+            return field.length() == term.length() ? EXACT : PREFIX;
+        }
+        // Start of a word ("doe" in "jane doe", "example" in "jane@example.com")?
+        for (; at > 0; at = field.indexOf(term, at + 1)) {
+            if (!Character.isLetterOrDigit(field.charAt(at - 1))) {
+                return WORD_PREFIX;
+            }
+        }
+        return SUBSTRING;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    private record Hit(int doc, int score) {
+    }
+
+    /**
+     * Growable sorted int list - docs are appended in increasing order.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;     // same trigram twice in one user
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        Postings intersect(Postings other) {
+            var result = new Postings();
+            int i = 0, j = 0;
+            while (i < size && j < other.size) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    result.add(docs[i]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+}
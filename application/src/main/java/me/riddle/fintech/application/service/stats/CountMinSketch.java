@@ -0,0 +1,98 @@
+package me.riddle.fintech.application.service.stats;
+
+import me.riddle.fintech.domain.model.store.Hashing;
+
+import java.util.Objects;
+
+/**
+ * Frequency estimator in fixed memory: {@code depth} rows of {@code width} counters.
+ * Never underestimates; with probability 1 - delta an estimate exceeds the true count by at most
+ * epsilon * {@link #total()}, where width = ⌈e/epsilon⌉ and depth = ⌈ln(1/delta)⌉.
+ * Sketches with the same dimensions merge by adding counters.
+ * Not thread-safe - build one per thread and {@link #merge}.
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long total;
+
+    /**
+     * @param epsilon overestimate bound as a fraction of the total count
+     * @param delta   probability of exceeding that bound
+     */
+    public static CountMinSketch withError(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Epsilon and delta must be between 0 and 1");
+        }
+        return new CountMinSketch((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[Math.multiplyExact(width, depth)];
+    }
+
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    public void add(String key, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        var hash = Hashing.hash64(Objects.requireNonNull(key, "Key cannot be null"));
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + bucket(hash, row)] += count;
+        }
+        total += count;
+    }
+
+    public long estimate(String key) {
+        var hash = Hashing.hash64(Objects.requireNonNull(key, "Key cannot be null"));
+        var estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + bucket(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+        return this;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Worst-case overestimate (with probability 1 - delta) at the current total.
+     */
+    public long errorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    public long memoryBytes() {
+        return (long) counters.length * Long.BYTES;
+    }
+
+    /**
+     * Row-specific bucket from one 64-bit hash (Kirsch-Mitzenmacher double hashing).
+     */
+    private int bucket(long hash, int row) {
+        var combined = (int) hash + row * (int) (hash >>> 32);
+        return Math.floorMod(combined, width);
+    }
+}
@@ -0,0 +1,121 @@
+package me.riddle.fintech.application.service.stats;
+
+import me.riddle.fintech.application.service.stats.DirectoryStatistics.Dimension;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.util.*;
+
+/**
+ * Approximate {@link DirectoryStatistics} in bounded memory, for directories (or several accounts)
+ * too big for exact per-key maps. Memory is fixed at construction, not proportional to users or keys:
+ * <ul>
+ *   <li>distinct emails and email domains - {@link HyperLogLog}, ±0.81% standard error;</li>
+ *   <li>top time zones, roles and job titles - {@link HeavyHitters}, overestimate ≤ users/{@value #TOP_K};</li>
+ *   <li>any key's count - {@link CountMinSketch}, overestimate ≤ 0.1% of the keys counted with 99%
+ *       probability; each user counts up to three (time zone, role, job title), so ≤ 0.3% of users.</li>
+ * </ul>
+ * A sketch holds about 140 KB whatever it has seen: feed pages into one with {@link #acceptAll}, and
+ * build one per thread or per account only where they really run in parallel, then {@link #merge} them.
+ */
+public class DirectorySketch {
+
+    static final int TOP_K = 64;
+
+    private static final Set<Dimension> RANKED = EnumSet.of(Dimension.TIME_ZONE, Dimension.ROLE, Dimension.JOB_TITLE);
+
+    private final HyperLogLog emails = new HyperLogLog();
+    private final HyperLogLog domains = new HyperLogLog();
+    private final Map<Dimension, HeavyHitters> topKeys = new EnumMap<>(Dimension.class);
+    private final CountMinSketch frequencies = CountMinSketch.withError(0.001, 0.01);
+    private long users;
+
+    public DirectorySketch() {
+        for (var dimension : RANKED) {
+            topKeys.put(dimension, new HeavyHitters(TOP_K));
+        }
+    }
+
+    public static DirectorySketch of(Collection<? extends PagerDutyUser> users) {
+        var sketch = new DirectorySketch();
+        sketch.acceptAll(users);
+        return sketch;
+    }
+
+    public void acceptAll(Collection<? extends PagerDutyUser> users) {
+        users.forEach(this::accept);
+    }
+
+    public void accept(PagerDutyUser user) {
+        users++;
+        if (user.email() != null) {
+            var email = user.email().toLowerCase(Locale.ROOT);
+            emails.add(email);
+            var at = email.lastIndexOf('@');
+            if (at >= 0) {
+                domains.add(email.substring(at + 1));
+            }
+        }
+        count(Dimension.TIME_ZONE, user.timeZone());
+        count(Dimension.ROLE, user.role());
+        count(Dimension.JOB_TITLE, user.jobTitle());
+    }
+
+    public DirectorySketch merge(DirectorySketch other) {
+        emails.merge(other.emails);
+        domains.merge(other.domains);
+        topKeys.forEach((dimension, hitters) -> hitters.merge(other.topKeys.get(dimension)));
+        frequencies.merge(other.frequencies);
+        users += other.users;
+        return this;
+    }
+
+    public long users() {
+        return users;
+    }
+
+    public long distinctEmails() {
+        return emails.estimate();
+    }
+
+    public long distinctDomains() {
+        return domains.estimate();
+    }
+
+    /**
+     * Relative standard error of the distinct counts.
+     */
+    public double distinctError() {
+        return emails.standardError();
+    }
+
+    /**
+     * Most frequent keys of a ranked dimension (time zone, role, job title).
+     */
+    public List<HeavyHitters.Entry> top(Dimension dimension, int limit) {
+        var hitters = topKeys.get(dimension);
+        if (hitters == null) {
+            throw new IllegalArgumentException("Dimension is not ranked: " + dimension);
+        }
+        return hitters.top(limit);
+    }
+
+    /**
+     * Approximate count of one key - never below the true count.
+     */
+    public long estimate(Dimension dimension, String key) {
+        return frequencies.estimate(dimension.name() + '\u0000' + key);
+    }
+
+    public long memoryBytes() {
+        // Heavy hitters hold at most TOP_K keys each - counted at a rough 100 bytes per entry
+        return emails.memoryBytes() + domains.memoryBytes() + frequencies.memoryBytes()
+                + (long) topKeys.size() * TOP_K * 100;
+    }
+
+    private void count(Dimension dimension, String key) {
+        if (key != null) {
+            topKeys.get(dimension).add(key);
+            frequencies.add(dimension.name() + '\u0000' + key);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package me.riddle.fintech.application.service.stats;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running per-dimension counts over a user directory.
+ * Safe to feed from several page-fetching threads at once: counters are {@link LongAdder}s in
+ * {@link ConcurrentHashMap}s, so concurrent increments of the same key do not contend on one lock.
+ * {@link #snapshot()} can be taken while a load is in progress - it is weakly consistent
+ * (it may miss users accepted concurrently) but never blocks writers.
+ */
+public class DirectoryStatistics {
+
+    public enum Dimension {
+        TIME_ZONE,
+        ROLE,
+        JOB_TITLE,
+        INVITATION_STATUS,
+        /** Keys of fields this client does not model - a signal the API has evolved */
+        UNKNOWN_FIELD
+    }
+
+    static final String INVITATION_SENT = "sent";
+    static final String INVITATION_NOT_SENT = "not sent";
+    static final String INVITATION_UNKNOWN = "unknown";
+
+    private final LongAdder users = new LongAdder();
+    private final Map<Dimension, ConcurrentHashMap<String, LongAdder>> counters = new EnumMap<>(Dimension.class);
+
+    public DirectoryStatistics() {
+        // Fixed key set, filled once - the EnumMap itself is never written after construction
+        for (var dimension : Dimension.values()) {
+            counters.put(dimension, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void accept(PagerDutyUser user) {
+        users.increment();
+        increment(Dimension.TIME_ZONE, user.timeZone());
+        increment(Dimension.ROLE, user.role());
+        increment(Dimension.JOB_TITLE, user.jobTitle());
+        increment(Dimension.INVITATION_STATUS, user.invitationSent() == null ? INVITATION_UNKNOWN
+                : user.invitationSent() ? INVITATION_SENT : INVITATION_NOT_SENT);
+        for (var key : user.unknownFields().keySet()) {
+            increment(Dimension.UNKNOWN_FIELD, key);
+        }
+    }
+
+    public void acceptAll(Collection<? extends PagerDutyUser> users) {
+        users.forEach(this::accept);
+    }
+
+    /**
+     * Start over, e.g. before reloading the directory. Not atomic with respect to concurrent
+     * {@link #accept} calls - reset between loads, not during one.
+     */
+    public void reset() {
+        users.reset();
+        counters.values().forEach(Map::clear);
+    }
+
+    public Snapshot snapshot() {
+        var counts = new EnumMap<Dimension, Map<String, Long>>(Dimension.class);
+        counters.forEach((dimension, values) -> {
+            var copy = new HashMap<String, Long>(values.size() * 2);
+            values.forEach((key, adder) -> copy.put(key, adder.sum()));
+            counts.put(dimension, Collections.unmodifiableMap(copy));
+        });
+        return new Snapshot(users.sum(), Collections.unmodifiableMap(counts), Instant.now());
+    }
+
+    private void increment(Dimension dimension, String key) {
+        if (key != null) {
+            counters.get(dimension).computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Point-in-time copy of the counters.
+     */
+    public record Snapshot(long users, Map<Dimension, Map<String, Long>> counts, Instant takenAt) {
+
+        public long count(Dimension dimension, String key) {
+            return counts.get(dimension).getOrDefault(key, 0L);
+        }
+
+        public Map<String, Long> counts(Dimension dimension) {
+            return counts.get(dimension);
+        }
+
+        /**
+         * Most frequent keys first, ties broken by key.
+         */
+        public List<Map.Entry<String, Long>> top(Dimension dimension, int limit) {
+            return counts.get(dimension).entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .toList();
+        }
+    }
+}
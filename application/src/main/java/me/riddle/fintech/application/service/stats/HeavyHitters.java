@@ -0,0 +1,120 @@
+package me.riddle.fintech.application.service.stats;
+
+import java.util.*;
+
+/**
+ * Top-K frequent keys in bounded memory (Space-Saving): at most {@code capacity} counters.
+ * Every key occurring more than total/capacity times is guaranteed to be tracked, and each
+ * reported count overestimates the true one by at most its {@link Entry#error()} (≤ total/capacity).
+ * Mergeable (Agarwal et al.), so per-page summaries can be built in parallel and combined.
+ * Not thread-safe - build one per thread and {@link #merge}.
+ */
+public final class HeavyHitters {
+
+    /**
+     * A tracked key - the true count lies in [count - error, count].
+     */
+    public record Entry(String key, long count, long error) {
+    }
+
+    private final int capacity;
+    private final Map<String, long[]> counters;     // key -> {count, error}
+    private long total;
+
+    public HeavyHitters(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    public void add(String key, long count) {
+        Objects.requireNonNull(key, "Key cannot be null");
+        total += count;
+
+        var counter = counters.get(key);
+        if (counter != null) {
+            counter[0] += count;
+        } else if (counters.size() < capacity) {
+            counters.put(key, new long[]{count, 0});
+        } else {
+            // Full: the newcomer takes over the smallest counter and inherits its count as error
+            var min = minEntry();
+            counters.remove(min.getKey());
+            var floor = min.getValue()[0];
+            counters.put(key, new long[]{floor + count, floor});
+        }
+    }
+
+    /**
+     * Fold another summary into this one - afterwards it summarizes both streams.
+     */
+    public HeavyHitters merge(HeavyHitters other) {
+        // A key missing from a full summary may still have occurred up to its smallest count
+        var thisFloor = floor();
+        var otherFloor = other.floor();
+
+        var merged = new HashMap<String, long[]>();
+        counters.forEach((key, counter) -> {
+            var theirs = other.counters.get(key);
+            merged.put(key, theirs != null
+                    ? new long[]{counter[0] + theirs[0], counter[1] + theirs[1]}
+                    : new long[]{counter[0] + otherFloor, counter[1] + otherFloor});
+        });
+        other.counters.forEach((key, theirs) -> merged.computeIfAbsent(key, k ->
+                new long[]{theirs[0] + thisFloor, theirs[1] + thisFloor}));
+
+        counters.clear();
+        merged.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed())
+                .limit(capacity)
+                .forEach(entry -> counters.put(entry.getKey(), entry.getValue()));
+        total += other.total;
+        return this;
+    }
+
+    /**
+     * Up to {@code limit} keys, most frequent first, ties broken by key.
+     */
+    public List<Entry> top(int limit) {
+        return counters.entrySet().stream()
+                .map(entry -> new Entry(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                .sorted(Comparator.comparingLong(Entry::count).reversed().thenComparing(Entry::key))
+                .limit(limit)
+                .toList();
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Upper bound on any reported overestimate.
+     */
+    public long maxError() {
+        return total / capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private long floor() {
+        return counters.size() < capacity ? 0 : minEntry().getValue()[0];
+    }
+
+    private Map.Entry<String, long[]> minEntry() {
+        Map.Entry<String, long[]> min = null;
+        for (var entry : counters.entrySet()) {
+            if (min == null || entry.getValue()[0] < min.getValue()[0]) {
+                min = entry;
+            }
+        }
+        return min;
+    }
+}
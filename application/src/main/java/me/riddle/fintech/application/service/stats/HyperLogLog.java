@@ -0,0 +1,93 @@
+package me.riddle.fintech.application.service.stats;
+
+import me.riddle.fintech.domain.model.store.Hashing;
+
+import java.util.Objects;
+
+/**
+ * Distinct-count estimator in fixed memory: 2^precision one-byte registers.
+ * Relative standard error is 1.04/sqrt(2^precision) - 0.81% at the default precision 14 (16 KiB),
+ * independent of how many values are added. Sketches with the same precision merge losslessly,
+ * so per-page or per-account sketches can be built in parallel and combined.
+ * Not thread-safe - build one per thread and {@link #merge}.
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 14;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void add(String value) {
+        var hash = Hashing.hash64(Objects.requireNonNull(value, "Value cannot be null"));
+        var register = (int) (hash >>> (64 - precision));
+        // Rank of the first set bit in the remaining bits; the sentinel caps it at 64 - precision + 1
+        var rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+        }
+    }
+
+    public long estimate() {
+        var m = registers.length;
+        var sum = 0.0;
+        var zeros = 0;
+        for (var register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        var estimate = alpha(m) * m * m / sum;
+        // Small-range correction: linear counting is more accurate while registers are still empty
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Fold another sketch into this one - afterwards it estimates the union.
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public double standardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public long memoryBytes() {
+        return registers.length;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package me.riddle.fintech.application.service.sync;
+
+import me.riddle.fintech.application.service.sync.ResumableUserSync.Checkpoint;
+
+import java.io.Serial;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs a {@link ResumableUserSync} on a virtual thread so the caller stays responsive.
+ * Progress can be polled at any time; {@link #cancel()} stops the load after the page in flight.
+ * Cancellation is cooperative - the sync log is never cut mid-write, every page delivered to the
+ * listener so far stays valid, and the next run of the same sync resumes where this one stopped.
+ */
+public class BackgroundUserLoad {
+
+    public enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * Snapshot of a running or finished load. Rates and ETA only count pages fetched from the API,
+     * not the ones replayed from the sync log.
+     */
+    public record Progress(State state, int pages, int replayedPages, long users, long fetchedUsers,
+                           Integer total, Duration elapsed) {
+
+        public double usersPerSecond() {
+            var seconds = elapsed.toNanos() / 1e9;
+            return seconds > 0 ? fetchedUsers / seconds : 0;
+        }
+
+        /**
+         * @return estimated time to completion, or null when the API reports no total or nothing was fetched yet
+         */
+        public Duration eta() {
+            var rate = usersPerSecond();
+            if (total == null || rate <= 0) {
+                return null;
+            }
+            return Duration.ofMillis((long) (Math.max(0, total - users) / rate * 1000));
+        }
+    }
+
+    private static final class Cancelled extends RuntimeException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        Cancelled() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final CompletableFuture<Checkpoint> result = new CompletableFuture<>();
+    private final long startedAt = System.nanoTime();
+
+    private volatile boolean cancelRequested;
+    private volatile State state = State.RUNNING;
+    private volatile int pages;
+    private volatile int replayedPages;
+    private volatile long users;
+    private volatile long fetchedUsers;
+    private volatile Integer total;
+    private volatile long finishedAt;
+    private volatile Exception failure;
+    private volatile Checkpoint checkpoint;
+
+    private BackgroundUserLoad() {
+    }
+
+    /**
+     * Start the sync in the background. The listener is called on the loading thread;
+     * {@code onFinish} too, once, whatever the outcome.
+     */
+    public static BackgroundUserLoad start(ResumableUserSync sync, ResumableUserSync.Listener listener,
+                                           Consumer<BackgroundUserLoad> onFinish) {
+        Objects.requireNonNull(sync, "Sync cannot be null");
+        Objects.requireNonNull(listener, "Listener cannot be null");
+        Objects.requireNonNull(onFinish, "Finish callback cannot be null");
+
+        var load = new BackgroundUserLoad();
+        Thread.ofVirtual().name("user-load").start(() -> load.run(sync, listener, onFinish));
+        return load;
+    }
+
+    private void run(ResumableUserSync sync, ResumableUserSync.Listener listener,
+                     Consumer<BackgroundUserLoad> onFinish) {
+        try {
+            checkpoint = sync.run((page, replayed) -> {
+                listener.onPage(page, replayed);
+                pages++;
+                users += page.itemCount();
+                if (replayed) {
+                    replayedPages++;
+                } else {
+                    fetchedUsers += page.itemCount();
+                }
+                if (page.total() != null) {
+                    total = page.total();
+                }
+                if (cancelRequested) {
+                    throw new Cancelled();
+                }
+            });
+            finish(State.COMPLETED);
+        } catch (Cancelled | InterruptedException e) {
+            finish(State.CANCELLED);
+        } catch (Exception e) {
+            failure = e;
+            finish(State.FAILED);
+        }
+
+        // Callback first, so whoever awaits the result also sees its effects
+        try {
+            onFinish.accept(this);
+        } finally {
+            switch (state) {
+                case COMPLETED -> result.complete(checkpoint);
+                case CANCELLED -> result.cancel(false);
+                default -> result.completeExceptionally(failure);
+            }
+        }
+    }
+
+    private void finish(State outcome) {
+        finishedAt = System.nanoTime();
+        state = outcome;
+    }
+
+    /**
+     * Ask the load to stop after the current page. Returns immediately.
+     */
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * @return where the sync finished, or null unless {@link State#COMPLETED}
+     */
+    public Checkpoint checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * @return why the load failed, or null unless {@link State#FAILED}
+     */
+    public Exception failure() {
+        return failure;
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public Progress progress() {
+        var end = state == State.RUNNING ? System.nanoTime() : finishedAt;
+        return new Progress(state, pages, replayedPages, users, fetchedUsers, total,
+                Duration.ofNanos(end - startedAt));
+    }
+
+    /**
+     * Wait for the load to finish.
+     *
+     * @throws CancellationException if it was cancelled
+     * @throws ExecutionException    wrapping the failure, if it failed
+     */
+    public Checkpoint await() throws InterruptedException, ExecutionException {
+        return result.get();
+    }
+}
@@ -0,0 +1,135 @@
+package me.riddle.fintech.application.service.sync;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fetches the whole directory with several page requests in flight.
+ * Consecutive windows overlap by one user, like {@link PageStitcher} pages: if the user at a
+ * window's first position is not the one that ended the previous window, the directory shifted
+ * between the two requests and users may have been skipped. That is reported as
+ * {@link Result#boundaryMismatches()} rather than corrected - callers needing an exact copy of a
+ * directory being edited fall back to the sequential {@link ResumableUserSync}.
+ * Users are returned in directory order, each once.
+ * <p>
+ * A fetcher that pipelines gets its windows in {@linkplain PageFetcher#batchSize() batches}, each
+ * batch one task, so {@code concurrency} counts requests in flight rather than tasks.
+ */
+public class ConcurrentUserFetch {
+
+    /**
+     * @param pages              requests made
+     * @param duplicates         users seen twice (beyond the expected boundary overlap) and dropped
+     * @param boundaryMismatches window boundaries where the directory was seen to shift
+     */
+    public record Result(List<PagerDutyUser> users, int pages, int duplicates, int boundaryMismatches) {
+
+        public boolean isConsistent() {
+            return boundaryMismatches == 0;
+        }
+    }
+
+    private final PageFetcher fetcher;
+    private final int pageSize;
+    private final int concurrency;
+
+    public ConcurrentUserFetch(PageFetcher fetcher, int pageSize, int concurrency) {
+        if (pageSize < 2 || pageSize > 100) {
+            throw new IllegalArgumentException("Page size must be between 2 and 100");
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        this.fetcher = Objects.requireNonNull(fetcher, "Fetcher cannot be null");
+        this.pageSize = pageSize;
+        this.concurrency = concurrency;
+    }
+
+    public Result fetchAll() throws IOException, InterruptedException {
+        var stride = pageSize - 1;
+        var batch = Math.min(fetcher.batchSize(), concurrency);
+        var tasks = Math.max(1, concurrency / batch);
+        var users = new ArrayList<PagerDutyUser>();
+        var seen = new HashSet<String>();
+        var pages = 0;
+        var duplicates = 0;
+        var mismatches = 0;
+        String boundaryId = null;
+
+        try (var executor = Executors.newFixedThreadPool(concurrency, Thread.ofVirtual().name("user-fetch-", 0).factory())) {
+            var inFlight = new ArrayDeque<Future<List<PagedResponse<PagerDutyUser>>>>();
+            var nextOffset = 0;
+            var done = false;
+
+            try {
+                while (!done) {
+                    while (inFlight.size() < tasks) {
+                        var offset = nextOffset;
+                        inFlight.add(executor.submit(() -> batch == 1
+                                ? List.of(fetcher.fetchPage(offset, pageSize))
+                                : fetcher.fetchPages(offset, stride, pageSize, batch)));
+                        nextOffset += stride * batch;
+                    }
+
+                    for (var page : await(inFlight.poll())) {
+                        pages++;
+                        var data = page.data();
+
+                        // The first user of every window after the first one should repeat the previous window's last
+                        var start = 0;
+                        if (page.offset() > 0) {
+                            if (!data.isEmpty() && data.getFirst().id() != null && data.getFirst().id().equals(boundaryId)) {
+                                start = 1;
+                            } else {
+                                mismatches++;
+                            }
+                        }
+                        for (int i = start; i < data.size(); i++) {
+                            var user = data.get(i);
+                            if (user.id() == null || seen.add(user.id())) {
+                                users.add(user);
+                            } else {
+                                duplicates++;
+                            }
+                        }
+                        boundaryId = data.isEmpty() ? null : data.getLast().id();
+
+                        if (!page.hasMorePages() || data.size() < pageSize) {
+                            done = true;
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                inFlight.forEach(future -> future.cancel(true));     // windows past the end, or after a failure
+            }
+        }
+        return new Result(users, pages, duplicates, mismatches);
+    }
+
+    private static List<PagedResponse<PagerDutyUser>> await(Future<List<PagedResponse<PagerDutyUser>>> page)
+            throws IOException, InterruptedException {
+        try {
+            return page.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Page fetch failed", e.getCause());
+        }
+    }
+}
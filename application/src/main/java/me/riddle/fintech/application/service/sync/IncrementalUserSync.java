@@ -0,0 +1,139 @@
+package me.riddle.fintech.application.service.sync;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.store.HashedUser;
+import me.riddle.fintech.domain.model.store.UserContentHash;
+import me.riddle.fintech.domain.model.store.UserSnapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Incremental directory sync: pages through the directory, hashes every user as it is parsed
+ * ({@link PageFetcher#fetchHashedPage}) and compares against the previous {@link UserSnapshot} -
+ * only added, changed and removed users are emitted, so downstream work is O(changes) rather than
+ * O(directory). The hashes are stored in the new snapshot as they are, never computed twice.
+ * <p>
+ * Two-phase: {@link #run()} computes the delta, {@link #commit()} makes the new directory the baseline.
+ * A consumer that crashes between the two simply gets the same changes again on the next run.
+ * Paging goes through {@link ResumableUserSync}, so an interrupted fetch resumes too.
+ */
+public class IncrementalUserSync {
+
+    private final PageFetcher fetcher;
+    private final Path snapshotPath;
+    private final Path syncLog;
+    private final int pageSize;
+    private final Duration pauseBetweenPages;
+
+    private List<HashedUser> pending;
+
+    public IncrementalUserSync(PageFetcher fetcher, Path snapshotPath, int pageSize) {
+        this(fetcher, snapshotPath, pageSize, Duration.ZERO);
+    }
+
+    public IncrementalUserSync(PageFetcher fetcher, Path snapshotPath, int pageSize, Duration pauseBetweenPages) {
+        this.fetcher = Objects.requireNonNull(fetcher, "Fetcher cannot be null");
+        this.snapshotPath = Objects.requireNonNull(snapshotPath, "Snapshot path cannot be null");
+        this.syncLog = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".sync.log");
+        this.pageSize = pageSize;
+        this.pauseBetweenPages = pauseBetweenPages;
+    }
+
+    /**
+     * Fetch the directory and diff it against the previous snapshot (everything is "added" without one).
+     */
+    public UserDelta run() throws IOException, InterruptedException {
+        var previous = Files.isRegularFile(snapshotPath) ? UserSnapshot.open(snapshotPath) : null;
+        var differ = new Differ(previous);
+
+        // Hashes travel beside the users; pages replayed from the log were parsed there and are hashed on arrival
+        var parsedHashes = new HashMap<String, Long>();
+        PageFetcher hashing = (offset, limit) -> {
+            var page = fetcher.fetchHashedPage(offset, limit);
+            var users = new ArrayList<PagerDutyUser>(page.itemCount());
+            for (var hashed : page.data()) {
+                parsedHashes.put(hashed.user().id(), hashed.contentHash());
+                users.add(hashed.user());
+            }
+            return new PagedResponse<>(page.limit(), page.offset(), page.more(), page.total(), users);
+        };
+
+        var sync = new ResumableUserSync(hashing, syncLog, pageSize, pauseBetweenPages);
+        if (sync.checkpoint().complete()) {
+            sync.reset();   // Finished but never committed - fetch fresh data rather than replay it
+        }
+        sync.run((page, replayed) -> {
+            for (var user : page.data()) {
+                var hash = parsedHashes.remove(user.id());
+                differ.accept(new HashedUser(user, hash != null ? hash : UserContentHash.of(user)));
+            }
+            parsedHashes.clear();   // overlap records the stitcher dropped
+        });
+
+        pending = differ.current;
+        return differ.finish();
+    }
+
+    /**
+     * Persist the directory fetched by the last {@link #run()} as the new baseline.
+     */
+    public void commit() throws IOException {
+        if (pending == null) {
+            throw new IllegalStateException("Nothing to commit - run the sync first");
+        }
+        UserSnapshot.writeHashed(snapshotPath, pending);
+        Files.deleteIfExists(syncLog);
+        pending = null;
+    }
+
+    /**
+     * Streaming comparison - each user is classified the moment its page arrives.
+     */
+    private static final class Differ {
+        private final UserSnapshot previous;
+        private final Map<String, Integer> previousRows;
+
+        private final List<HashedUser> current = new ArrayList<>();
+        private final List<PagerDutyUser> added = new ArrayList<>();
+        private final List<PagerDutyUser> changed = new ArrayList<>();
+        private int unchanged;
+
+        Differ(UserSnapshot previous) {
+            this.previous = previous;
+            var size = previous != null ? previous.size() : 0;
+            this.previousRows = HashMap.newHashMap(size);
+            for (int row = 0; row < size; row++) {
+                previousRows.put(previous.id(row), row);
+            }
+        }
+
+        void accept(HashedUser hashed) {
+            current.add(hashed);
+
+            var user = hashed.user();
+            var row = previousRows.remove(user.id());
+            if (row == null) {
+                added.add(user);
+            } else if (previous.contentHash(row) != hashed.contentHash()) {
+                changed.add(user);
+            } else {
+                unchanged++;
+            }
+        }
+
+        UserDelta finish() {
+            // Whatever was not seen this time is gone - decode only those rows
+            var removed = previousRows.values().stream()
+                    .sorted()
+                    .map(row -> previous.get(row))
+                    .toList();
+            return new UserDelta(added, changed, removed, unchanged);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package me.riddle.fintech.application.service.sync;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stitches offset pages of a directory that may be edited while it is being loaded.
+ * <p>
+ * Each page after the first is requested one record early, so its first record should be the
+ * boundary record we already hold:
+ * <ul>
+ *   <li>boundary seen - no shift, or users were inserted before it (duplicates are dropped);</li>
+ *   <li>boundary unseen - users were deleted before it and the window slid left past records
+ *       we never saw, so only the preceding window is re-fetched.</li>
+ * </ul>
+ * A page of a single record cannot overlap without fetching it again, so the page after it is
+ * taken as it comes - shifts across that one boundary go undetected rather than costing three
+ * requests per record.
+ * Deterministic: replaying the same pages yields the same users and next offset, which keeps
+ * {@link ResumableUserSync} logs resumable. Also used on its own by streaming exports.
+ */
+public final class PageStitcher {
+
+    private final CompactIdSet seen = new CompactIdSet();
+
+    private int nextOffset;
+    private boolean overlapping;
+    private boolean complete;
+    private int duplicates;
+    private int refetches;
+
+    /**
+     * Feed the page fetched at {@link #nextOffset()}.
+     *
+     * @return the page reduced to users not delivered before
+     */
+    public PagedResponse<PagerDutyUser> accept(PagedResponse<PagerDutyUser> page) {
+        var anchored = page.offset() == 0 || !overlapping
+                || (!page.isEmpty() && seen.contains(page.data().getFirst().id()));
+
+        // The overlapping boundary record is expected - anything else already seen is drift
+        var boundary = anchored && overlapping && page.offset() > 0 ? 1 : 0;
+
+        var fresh = new ArrayList<PagerDutyUser>(page.itemCount());
+        for (int i = 0; i < page.itemCount(); i++) {
+            var user = page.data().get(i);
+            if (seen.add(user.id())) {
+                fresh.add(user);
+            } else if (i >= boundary) {
+                duplicates++;
+            }
+        }
+
+        if (!anchored) {
+            // Shifted left under us - step back one window to pick up what slid past
+            refetches++;
+            complete = false;
+            nextOffset = Math.max(0, page.offset() - Math.max(1, page.limit()));
+            overlapping = true;
+        } else if (!page.hasMorePages()) {
+            complete = true;
+            nextOffset = page.offset() + page.itemCount();
+        } else if (page.isEmpty()) {
+            nextOffset = page.offset() + Math.max(1, page.limit());
+            overlapping = false;
+        } else {
+            // Overlap one record: it becomes the boundary check for the next page
+            overlapping = page.itemCount() > 1;
+            nextOffset = page.offset() + page.itemCount() - (overlapping ? 1 : 0);
+        }
+
+        return new PagedResponse<>(page.limit(), page.offset(), page.hasMorePages(), page.total(), fresh);
+    }
+
+    /**
+     * Fetch the next {@code pages} pages together, from the offsets this stitcher will ask for if
+     * every page comes back full and unshifted - a pipelining fetcher sends them all at once. The
+     * first page is always the next one; feed the others in order while {@link #expects} them, the
+     * rest were fetched in vain.
+     */
+    public List<PagedResponse<PagerDutyUser>> fetchAhead(PageFetcher fetcher, int limit, int pages)
+            throws IOException, InterruptedException {
+        if (pages <= 1) {
+            return List.of(fetcher.fetchPage(nextOffset, limit));
+        }
+        return fetcher.fetchPages(nextOffset, limit > 1 ? limit - 1 : 1, limit, pages);
+    }
+
+    /**
+     * Whether the page is the one to {@link #accept} next: the load is not complete and the page
+     * starts at {@link #nextOffset()}.
+     */
+    public boolean expects(PagedResponse<PagerDutyUser> page) {
+        return !complete && page.offset() == nextOffset;
+    }
+
+    public int nextOffset() {
+        return nextOffset;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public int users() {
+        return seen.size();
+    }
+
+    public int duplicates() {
+        return duplicates;
+    }
+
+    public int refetches() {
+        return refetches;
+    }
+}
@@ -0,0 +1,196 @@
+package me.riddle.fintech.application.service.sync;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Full-directory sync that survives crashes and rate limits.
+ * Every fetched page is appended to a local NDJSON log together with its offset/limit checkpoint
+ * and forced to disk before the next request. A new run replays the log and continues at the
+ * first offset that was never fetched - completed pages are never downloaded twice.
+ * A torn last line (crash mid-write) is truncated on recovery.
+ * <p>
+ * Pages are stitched by {@link PageStitcher}: ids are deduplicated and shifts caused by edits
+ * during the load are detected at page boundaries, so listeners see every user exactly once.
+ * Without a pause between pages, a fetcher that pipelines gets the pages ahead requested in
+ * {@linkplain PageFetcher#batchSize() batches}; pages a shift made useless are dropped unlogged.
+ */
+public class ResumableUserSync {
+
+    private static final byte NEWLINE = '\n';
+
+    private final PageFetcher fetcher;
+    private final Path logFile;
+    private final int pageSize;
+    private final Duration pauseBetweenPages;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ResumableUserSync(PageFetcher fetcher, Path logFile, int pageSize) {
+        this(fetcher, logFile, pageSize, Duration.ZERO);
+    }
+
+    public ResumableUserSync(PageFetcher fetcher, Path logFile, int pageSize, Duration pauseBetweenPages) {
+        if (pageSize <= 0 || pageSize > 100) {
+            throw new IllegalArgumentException("Page size must be between 1 and 100");
+        }
+        this.fetcher = Objects.requireNonNull(fetcher, "Fetcher cannot be null");
+        this.logFile = Objects.requireNonNull(logFile, "Log file cannot be null");
+        this.pageSize = pageSize;
+        this.pauseBetweenPages = Objects.requireNonNull(pauseBetweenPages, "Pause cannot be null");
+    }
+
+    /**
+     * Progress callback - invoked for replayed pages first, then for every freshly fetched page.
+     * Pages only carry users not delivered before.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onPage(PagedResponse<PagerDutyUser> page, boolean replayed);
+    }
+
+    /**
+     * Where a sync stands - {@code nextOffset} is the next offset to request.
+     * {@code duplicates} and {@code refetches} count the drift seen while paging.
+     */
+    public record Checkpoint(int nextOffset, int pages, int users, Integer total, boolean complete,
+                             int duplicates, int refetches) {
+
+        static final Checkpoint EMPTY = new Checkpoint(0, 0, 0, null, false, 0, 0);
+
+        static Checkpoint of(PageStitcher stitcher, int pages, Integer total) {
+            return new Checkpoint(stitcher.nextOffset(), pages, stitcher.users(), total,
+                    stitcher.isComplete(), stitcher.duplicates(), stitcher.refetches());
+        }
+
+        public boolean isResumed() {
+            return pages > 0 && !complete;
+        }
+    }
+
+    /**
+     * Inspect the log without fetching anything.
+     */
+    public Checkpoint checkpoint() throws IOException {
+        return replay(new PageStitcher(), (page, replayed) -> {});
+    }
+
+    /**
+     * Replay the log, then fetch the remaining pages until the API reports no more.
+     * On failure the log keeps every completed page and the exception propagates.
+     */
+    public Checkpoint run(Listener listener) throws IOException, InterruptedException {
+        var stitcher = new PageStitcher();
+        var checkpoint = replay(stitcher, listener);
+        // A pause paces the requests - bursts of pipelined pages would defeat it
+        var batch = pauseBetweenPages.isZero() ? fetcher.batchSize() : 1;
+
+        try (var channel = FileChannel.open(logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+
+            while (!checkpoint.complete()) {
+                if (checkpoint.pages() > 0 && !pauseBetweenPages.isZero()) {
+                    Thread.sleep(pauseBetweenPages);
+                }
+
+                var ahead = stitcher.fetchAhead(fetcher, pageSize, batch);
+                for (var i = 0; i < ahead.size() && (i == 0 || stitcher.expects(ahead.get(i))); i++) {
+                    var page = ahead.get(i);
+                    append(channel, page);
+                    var fresh = stitcher.accept(page);
+                    checkpoint = Checkpoint.of(stitcher, checkpoint.pages() + 1, page.total());
+                    listener.onPage(fresh, false);
+                }
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Forget all progress - the next run starts at offset 0.
+     */
+    public void reset() throws IOException {
+        Files.deleteIfExists(logFile);
+    }
+
+    private void append(FileChannel channel, PagedResponse<PagerDutyUser> page) throws IOException {
+        var entry = new LogEntry(page.offset(), page.limit(), page.hasMorePages(), page.total(), page.data());
+        var json = objectMapper.writeValueAsBytes(entry);
+
+        var buffer = ByteBuffer.allocate(json.length + 1).put(json).put(NEWLINE).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private Checkpoint replay(PageStitcher stitcher, Listener listener) throws IOException {
+        if (!Files.exists(logFile)) {
+            return Checkpoint.EMPTY;
+        }
+
+        var checkpoint = Checkpoint.EMPTY;
+        long validBytes = 0;
+        var lineNumber = 0;
+
+        try (var in = new BufferedInputStream(Files.newInputStream(logFile))) {
+            var line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b != NEWLINE) {
+                    line.write(b);
+                    continue;
+                }
+                lineNumber++;
+
+                LogEntry entry;
+                try {
+                    entry = objectMapper.readValue(line.toByteArray(), LogEntry.class);
+                } catch (IOException e) {
+                    throw new IOException("Corrupt sync log " + logFile + " at line " + lineNumber, e);
+                }
+                var page = entry.toPage();
+                var fresh = stitcher.accept(page);
+                checkpoint = Checkpoint.of(stitcher, checkpoint.pages() + 1, page.total());
+                listener.onPage(fresh, true);
+
+                validBytes += line.size() + 1;
+                line.reset();
+            }
+        }
+
+        // Torn write from a crash - drop the partial line so appends stay well-formed
+        if (validBytes < Files.size(logFile)) {
+            try (var channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+            }
+        }
+        return checkpoint;
+    }
+
+    private record LogEntry(
+            @JsonProperty("offset") int offset,
+            @JsonProperty("limit") int limit,
+            @JsonProperty("more") boolean more,
+            @JsonProperty("total") Integer total,
+            @JsonProperty("users") List<PagerDutyUser> users
+    ) {
+        PagedResponse<PagerDutyUser> toPage() {
+            return new PagedResponse<>(limit, offset, more, total, users != null ? users : List.of());
+        }
+    }
+}
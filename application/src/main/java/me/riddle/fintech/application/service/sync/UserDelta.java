@@ -0,0 +1,74 @@
+package me.riddle.fintech.application.service.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difference between two directory snapshots - what downstream consumers actually need to process.
+ * {@code removed} carries the last known state of each deleted user.
+ */
+public record UserDelta(
+        List<PagerDutyUser> added,
+        List<PagerDutyUser> changed,
+        List<PagerDutyUser> removed,
+        int unchanged
+) {
+
+    public UserDelta {
+        added = List.copyOf(added);
+        changed = List.copyOf(changed);
+        removed = List.copyOf(removed);
+
+        if (unchanged < 0) {
+            throw new IllegalArgumentException("Unchanged count cannot be negative");
+        }
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    public int changeCount() {
+        return added.size() + changed.size() + removed.size();
+    }
+
+    /**
+     * Write the delta as newline-delimited JSON: one {@code {"change": ..., "user": {...}}} object per line.
+     */
+    public void writeNdjson(OutputStream out) throws IOException {
+        var writer = new ObjectMapper().writer();
+        for (var user : added) {
+            writeLine(out, writer, "added", user);
+        }
+        for (var user : changed) {
+            writeLine(out, writer, "changed", user);
+        }
+        for (var user : removed) {
+            writeLine(out, writer, "removed", user);
+        }
+        out.flush();
+    }
+
+    private static void writeLine(OutputStream out, ObjectWriter writer, String change, PagerDutyUser user) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("change", change);
+        line.put("user", user);
+        out.write(writer.writeValueAsBytes(line));
+        out.write('\n');
+    }
+
+    /**
+     * Summary for logging.
+     */
+    public String getSummaryLoggingInfo() {
+        return String.format("added=%d, changed=%d, removed=%d, unchanged=%d",
+                added.size(), changed.size(), removed.size(), unchanged);
+    }
+}
@@ -0,0 +1,101 @@
+package me.riddle.fintech.application.service.transport;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reusable byte buffers in power-of-two size classes. Direct buffers are expensive to allocate and
+ * only freed by the GC, so a transport that parses every response into a fresh one would pay for
+ * it twice; here they go round instead. Buffers above the largest class are allocated and dropped.
+ * Thread-safe: buffers are acquired on one thread and released on another.
+ */
+final class BufferPool {
+
+    static final int MIN_SIZE = 16 * 1024;
+    static final int MAX_POOLED_SIZE = 4 * 1024 * 1024;
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+    private static final int CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_SHIFT + 1;
+
+    private final boolean direct;
+    private final int maxPerClass;
+    private final List<ConcurrentLinkedQueue<ByteBuffer>> free = new ArrayList<>(CLASSES);
+    private final AtomicInteger[] freeCounts = new AtomicInteger[CLASSES];
+    private final AtomicLong allocations = new AtomicLong();
+
+    /**
+     * @param maxPerClass idle buffers kept per size class; more are left to the GC
+     */
+    BufferPool(boolean direct, int maxPerClass) {
+        if (maxPerClass < 0) {
+            throw new IllegalArgumentException("Buffers per class cannot be negative");
+        }
+        this.direct = direct;
+        this.maxPerClass = maxPerClass;
+        for (int i = 0; i < CLASSES; i++) {
+            free.add(new ConcurrentLinkedQueue<>());
+            freeCounts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * A cleared buffer of at least {@code capacity} bytes.
+     */
+    ByteBuffer acquire(int capacity) {
+        var index = index(capacity);
+        if (index >= 0) {
+            var buffer = free.get(index).poll();
+            if (buffer != null) {
+                freeCounts[index].decrementAndGet();
+                return buffer.clear();
+            }
+        }
+        var size = index >= 0 ? MIN_SIZE << index : capacity;
+        allocations.incrementAndGet();
+        return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+
+    /**
+     * Return a buffer from {@link #acquire}. Others - wrong size or kind - are ignored, so callers
+     * need not track where a buffer came from. The buffer must not be used afterwards.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() != direct || buffer.isReadOnly()) {
+            return;
+        }
+        var capacity = buffer.capacity();
+        var index = index(capacity);
+        if (index < 0 || MIN_SIZE << index != capacity) {
+            return;
+        }
+        if (freeCounts[index].incrementAndGet() > maxPerClass) {
+            freeCounts[index].decrementAndGet();
+            return;
+        }
+        free.get(index).offer(buffer);
+    }
+
+    boolean direct() {
+        return direct;
+    }
+
+    /**
+     * Buffers allocated so far - what the pool could not serve from its free lists.
+     */
+    long allocations() {
+        return allocations.get();
+    }
+
+    private static int index(int capacity) {
+        if (capacity > MAX_POOLED_SIZE) {
+            return -1;
+        }
+        if (capacity <= MIN_SIZE) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,23 @@
+package me.riddle.fintech.application.service.transport;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Where a connection goes - requests to the same endpoint may share one.
+ */
+record Endpoint(boolean secure, String host, int port) {
+
+    static Endpoint of(URI uri) {
+        var scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        var secure = switch (scheme) {
+            case "https" -> true;
+            case "http" -> false;
+            default -> throw new IllegalArgumentException("Unsupported scheme: " + uri.getScheme());
+        };
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("No host in " + uri);
+        }
+        return new Endpoint(secure, uri.getHost(), uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80);
+    }
+}
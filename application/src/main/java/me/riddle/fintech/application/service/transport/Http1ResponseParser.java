@@ -0,0 +1,461 @@
+package me.riddle.fintech.application.service.transport;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Incremental HTTP/1.1 response parser: bytes go in as they arrive, in pieces of any size, and
+ * {@link #feed} reports when a whole response has been read. Understands Content-Length, chunked
+ * transfer coding and bodies delimited by connection close; skips 1xx interim responses. Bytes past
+ * the end of the response are left in the input, so pipelined responses can be parsed one after
+ * another from the same buffer.
+ * <p>
+ * Headers are matched byte by byte and the body buffer is kept across {@link #reset()}, so parsing
+ * a stream of similar responses allocates nothing once the buffer has grown. With a
+ * {@link BufferPool}, bodies go into pooled buffers and can be handed off with {@link #detachBody()}
+ * while the parser moves on to the next response. Not thread-safe.
+ */
+final class Http1ResponseParser {
+
+    static final int MAX_BODY = 64 * 1024 * 1024;
+    private static final int MAX_LINE = 8 * 1024;
+    private static final int MAX_HEADER_BYTES = 64 * 1024;
+
+    private static final byte[] CONTENT_LENGTH = ascii("content-length");
+    private static final byte[] TRANSFER_ENCODING = ascii("transfer-encoding");
+    private static final byte[] CONNECTION = ascii("connection");
+    private static final byte[] CHUNKED = ascii("chunked");
+    private static final byte[] CLOSE = ascii("close");
+    private static final byte[] KEEP_ALIVE = ascii("keep-alive");
+
+    private enum State {
+        STATUS_LINE, HEADERS, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILERS, UNTIL_CLOSE, DONE
+    }
+
+    private final byte[] line = new byte[MAX_LINE];
+    private int lineLength;
+    private int headerBytes;
+
+    private State state = State.STATUS_LINE;
+    private boolean http10;
+    private int status;
+    private long contentLength;
+    private boolean chunked;
+    private boolean keepAlive;
+    private long remaining;
+    private final BufferPool pool;
+    private final ByteBuffer empty = ByteBuffer.allocate(0);
+    // Null after detachBody() until the next body byte needs a home
+    private ByteBuffer body;
+
+    Http1ResponseParser() {
+        this(16 * 1024);
+    }
+
+    Http1ResponseParser(int initialBodyCapacity) {
+        this.pool = null;
+        this.body = ByteBuffer.allocate(initialBodyCapacity);
+        resetHeaders();
+    }
+
+    /**
+     * Bodies go into buffers from {@code pool}; the first is taken when the first body arrives.
+     */
+    Http1ResponseParser(BufferPool pool) {
+        this.pool = pool;
+        resetHeaders();
+    }
+
+    /**
+     * Consume bytes from {@code input} until the response is complete or the input runs out.
+     *
+     * @return true once the whole response has been read; remaining input belongs to the next one
+     */
+    boolean feed(ByteBuffer input) throws IOException {
+        if (state == State.DONE) {
+            return true;
+        }
+        while (state != State.DONE && input.hasRemaining()) {
+            switch (state) {
+                case STATUS_LINE -> {
+                    if (readLine(input)) {
+                        // Tolerate blank lines between responses, as RFC 9112 asks
+                        if (lineLength > 0) {
+                            statusLine();
+                            state = State.HEADERS;
+                        }
+                        lineLength = 0;
+                    }
+                }
+                case HEADERS -> {
+                    if (readLine(input)) {
+                        if (lineLength == 0) {
+                            endOfHeaders();
+                        } else {
+                            header();
+                        }
+                        lineLength = 0;
+                    }
+                }
+                case BODY, CHUNK_DATA -> {
+                    var count = (int) Math.min(remaining, input.remaining());
+                    copy(input, count);
+                    remaining -= count;
+                    if (remaining == 0) {
+                        state = state == State.BODY ? State.DONE : State.CHUNK_END;
+                    }
+                }
+                case UNTIL_CLOSE -> copy(input, input.remaining());
+                case CHUNK_SIZE -> {
+                    if (readLine(input)) {
+                        remaining = chunkSize();
+                        lineLength = 0;
+                        if (remaining == 0) {
+                            state = State.TRAILERS;
+                            headerBytes = 0;    // trailers get the headers' budget again
+                        } else {
+                            state = State.CHUNK_DATA;
+                            ensureCapacity(remaining);
+                        }
+                    }
+                }
+                case CHUNK_END -> {
+                    if (readLine(input)) {
+                        if (lineLength != 0) {
+                            throw new ProtocolException("Missing CRLF after chunk");
+                        }
+                        state = State.CHUNK_SIZE;
+                    }
+                }
+                case TRAILERS -> {
+                    if (readLine(input)) {
+                        if (lineLength == 0) {
+                            state = State.DONE;
+                        }
+                        lineLength = 0;
+                    }
+                }
+                default -> throw new IllegalStateException(state.name());
+            }
+        }
+        if (state == State.DONE) {
+            finish();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The connection was closed by the server.
+     *
+     * @return true if that completed the response, which only a body without a declared length allows
+     * @throws EOFException if the response was cut short
+     */
+    boolean endOfStream() throws IOException {
+        if (state == State.UNTIL_CLOSE) {
+            state = State.DONE;
+            finish();
+            return true;
+        }
+        if (state == State.DONE) {
+            return true;
+        }
+        throw new EOFException(started() ? "Connection closed mid-response" : "Connection closed before response");
+    }
+
+    /**
+     * @return true once any byte of the current response has been consumed
+     */
+    boolean started() {
+        return state != State.STATUS_LINE || lineLength > 0;
+    }
+
+    boolean complete() {
+        return state == State.DONE;
+    }
+
+    int status() {
+        return status;
+    }
+
+    /**
+     * The body of a complete response, between position and limit. Overwritten after {@link #reset()}.
+     */
+    ByteBuffer body() {
+        return body;
+    }
+
+    /**
+     * Take the body of a complete response, leaving the parser without one. A pooled body goes back
+     * to the pool once the new owner is done with it.
+     */
+    ByteBuffer detachBody() {
+        if (state != State.DONE) {
+            throw new IllegalStateException("Response not complete");
+        }
+        var detached = body;
+        body = null;
+        return detached;
+    }
+
+    /**
+     * Return the body buffer to the pool, if there is one. The parser stays usable.
+     */
+    void release() {
+        if (pool != null && body != null) {
+            pool.release(body);
+            body = null;
+        }
+    }
+
+    /**
+     * @return whether the connection can carry another request after this response
+     */
+    boolean keepAlive() {
+        return keepAlive && state == State.DONE;
+    }
+
+    /**
+     * Prepare for the next response, keeping the body buffer.
+     */
+    void reset() {
+        state = State.STATUS_LINE;
+        lineLength = 0;
+        if (body != null) {
+            body.clear();
+        }
+        resetHeaders();
+    }
+
+    private void resetHeaders() {
+        headerBytes = 0;
+        status = 0;
+        contentLength = -1;
+        chunked = false;
+        keepAlive = true;
+        remaining = 0;
+    }
+
+    private boolean readLine(ByteBuffer input) throws ProtocolException {
+        while (input.hasRemaining()) {
+            var b = input.get();
+            // Chunk framing is body, however many chunks there are - only header lines count
+            if (state != State.CHUNK_SIZE && state != State.CHUNK_END && ++headerBytes > MAX_HEADER_BYTES) {
+                throw new ProtocolException("Response headers too large");
+            }
+            if (b == '\n') {
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                return true;
+            }
+            if (lineLength == line.length) {
+                throw new ProtocolException("Response line too long");
+            }
+            line[lineLength++] = b;
+        }
+        return false;
+    }
+
+    private void statusLine() throws ProtocolException {
+        // HTTP/1.1 200 OK
+        if (lineLength < 12 || !startsWith("HTTP/1.") || line[8] != ' ') {
+            throw new ProtocolException("Malformed status line");
+        }
+        http10 = line[7] == '0';
+        keepAlive = !http10;
+        status = 0;
+        for (int i = 9; i < 12; i++) {
+            var digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new ProtocolException("Malformed status code");
+            }
+            status = status * 10 + digit;
+        }
+    }
+
+    private void header() throws ProtocolException {
+        var colon = indexOf((byte) ':');
+        if (colon <= 0) {
+            throw new ProtocolException("Malformed header line");
+        }
+        var start = colon + 1;
+        while (start < lineLength && (line[start] == ' ' || line[start] == '\t')) {
+            start++;
+        }
+        var end = lineLength;
+        while (end > start && (line[end - 1] == ' ' || line[end - 1] == '\t')) {
+            end--;
+        }
+        if (nameIs(colon, CONTENT_LENGTH)) {
+            contentLength = parseDecimal(start, end);
+        } else if (nameIs(colon, TRANSFER_ENCODING)) {
+            // The final coding decides the framing: "gzip, chunked" is chunked too
+            chunked = endsWithIgnoreCase(end, CHUNKED);
+        } else if (nameIs(colon, CONNECTION)) {
+            if (containsIgnoreCase(start, end, CLOSE)) {
+                keepAlive = false;
+            } else if (http10 && containsIgnoreCase(start, end, KEEP_ALIVE)) {
+                keepAlive = true;
+            }
+        }
+    }
+
+    private void endOfHeaders() throws IOException {
+        if (status >= 100 && status < 200) {
+            // Interim response; the real one follows
+            state = State.STATUS_LINE;
+            resetHeaders();
+            return;
+        }
+        if (status == 204 || status == 304) {
+            state = State.DONE;
+        } else if (chunked) {
+            state = State.CHUNK_SIZE;
+        } else if (contentLength >= 0) {
+            if (contentLength > MAX_BODY) {
+                throw new ProtocolException("Response body too large: " + contentLength + " bytes");
+            }
+            remaining = contentLength;
+            ensureCapacity(contentLength);
+            state = contentLength == 0 ? State.DONE : State.BODY;
+        } else {
+            keepAlive = false;
+            state = State.UNTIL_CLOSE;
+        }
+    }
+
+    private long chunkSize() throws ProtocolException {
+        long size = 0;
+        var digits = 0;
+        for (int i = 0; i < lineLength; i++) {
+            var b = line[i];
+            int digit;
+            if (b >= '0' && b <= '9') {
+                digit = b - '0';
+            } else if (b >= 'a' && b <= 'f') {
+                digit = b - 'a' + 10;
+            } else if (b >= 'A' && b <= 'F') {
+                digit = b - 'A' + 10;
+            } else if (b == ';' || b == ' ' || b == '\t') {
+                break;      // chunk extensions are ignored
+            } else {
+                throw new ProtocolException("Malformed chunk size");
+            }
+            size = size * 16 + digit;
+            if (++digits > 8 || size > MAX_BODY) {
+                throw new ProtocolException("Chunk too large");
+            }
+        }
+        if (digits == 0) {
+            throw new ProtocolException("Malformed chunk size");
+        }
+        return size;
+    }
+
+    private long parseDecimal(int start, int end) throws ProtocolException {
+        if (start == end || end - start > 18) {
+            throw new ProtocolException("Malformed Content-Length");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            var digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new ProtocolException("Malformed Content-Length");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private void copy(ByteBuffer input, int count) throws ProtocolException {
+        ensureCapacity(count);
+        var limit = input.limit();
+        input.limit(input.position() + count);
+        body.put(input);
+        input.limit(limit);
+    }
+
+    private void finish() {
+        if (body == null) {
+            body = empty;
+        }
+        body.flip();
+    }
+
+    private void ensureCapacity(long additional) throws ProtocolException {
+        if (additional <= 0 || body != null && body != empty && body.remaining() >= additional) {
+            return;
+        }
+        var position = body == null ? 0 : body.position();
+        var needed = position + additional;
+        if (needed > MAX_BODY) {
+            throw new ProtocolException("Response body too large: more than " + MAX_BODY + " bytes");
+        }
+        var capacity = (int) Math.min(MAX_BODY, Math.max(needed, body == null ? 0 : body.capacity() * 2L));
+        var grown = pool != null ? pool.acquire(capacity) : ByteBuffer.allocate(capacity);
+        if (body != null) {
+            body.flip();
+            grown.put(body);
+            if (pool != null) {
+                pool.release(body);
+            }
+        }
+        body = grown;
+    }
+
+    private boolean startsWith(String prefix) {
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte b) {
+        for (int i = 0; i < lineLength; i++) {
+            if (line[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean nameIs(int length, byte[] name) {
+        return length == name.length && regionMatches(0, name);
+    }
+
+    private boolean endsWithIgnoreCase(int end, byte[] suffix) {
+        return end >= suffix.length && regionMatches(end - suffix.length, suffix);
+    }
+
+    private boolean containsIgnoreCase(int start, int end, byte[] token) {
+        for (int i = start; i + token.length <= end; i++) {
+            if (regionMatches(i, token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionMatches(int offset, byte[] lowerCase) {
+        for (int i = 0; i < lowerCase.length; i++) {
+            var b = line[offset + i];
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != lowerCase[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
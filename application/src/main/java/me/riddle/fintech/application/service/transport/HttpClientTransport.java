@@ -0,0 +1,68 @@
+package me.riddle.fintech.application.service.transport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link java.net.http.HttpClient} - HTTP/2 where the server offers it, connection pooling built in.
+ * The request timeout of {@link HttpRequest} only covers the response headers, so the whole exchange
+ * is awaited against the deadline and cancelled when it passes.
+ */
+public class HttpClientTransport implements HttpTransport {
+
+    private final HttpClient httpClient;
+
+    public HttpClientTransport(Duration connectTimeout) {
+        this(HttpClient.newBuilder().connectTimeout(connectTimeout).build());
+    }
+
+    public HttpClientTransport(HttpClient httpClient) {
+        this.httpClient = Objects.requireNonNull(httpClient, "HTTP client cannot be null");
+    }
+
+    @Override
+    public <T> T get(URI uri, Map<String, String> headers, Duration timeout, BodyParser<T> parser)
+            throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(uri).timeout(timeout).GET();
+        headers.forEach(request::header);
+
+        var exchange = httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> response;
+        try {
+            response = exchange.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            exchange.cancel(true);
+            throw new HttpTimeoutException("Response timed out");
+        } catch (InterruptedException e) {
+            exchange.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+        return parser.parse(response.statusCode(), ByteBuffer.wrap(response.body()));
+    }
+
+    @Override
+    public Kind kind() {
+        return Kind.HTTP_CLIENT;
+    }
+
+    @Override
+    public void close() {
+        httpClient.shutdownNow();
+    }
+}
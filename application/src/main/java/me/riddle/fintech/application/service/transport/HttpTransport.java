@@ -0,0 +1,172 @@
+package me.riddle.fintech.application.service.transport;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * How {@link me.riddle.fintech.application.service.dto.PagerDutyUserService} talks HTTP. Only GET is
+ * needed. Implementations are thread-safe and reuse connections where they can.
+ * <p>
+ * The response body is handed to a {@link BodyParser} instead of being returned, so a transport can
+ * lend out a buffer it reuses - the body is only valid during the call.
+ */
+public interface HttpTransport extends AutoCloseable {
+
+    /**
+     * Turns a response into a result. {@code body} holds the whole body between its position and
+     * limit; it must not be kept after returning.
+     */
+    @FunctionalInterface
+    interface BodyParser<T> {
+        T parse(int status, ByteBuffer body) throws IOException;
+    }
+
+    /**
+     * Targets of a batch, written on demand - so one reusable buffer can hold each in turn.
+     */
+    @FunctionalInterface
+    interface Targets {
+        /**
+         * @return path and query of request {@code request}; only valid until the next call
+         */
+        CharSequence target(int request);
+    }
+
+    /**
+     * Available transports, by the name used to select them at runtime.
+     */
+    enum Kind {
+        HTTP_CLIENT("httpclient"),
+        URL_CONNECTION("urlconnection"),
+        SOCKET("socket"),
+        NIO("nio");
+
+        /**
+         * Pooled keep-alive sockets: a warm request allocates next to nothing beyond its parse.
+         */
+        public static final Kind DEFAULT = SOCKET;
+        public static final String PROPERTY = "pagerduty.transport";
+        public static final String ENVIRONMENT = "PAGERDUTY_TRANSPORT";
+
+        private final String id;
+
+        Kind(String id) {
+            this.id = id;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public HttpTransport create(Duration connectTimeout) {
+            return switch (this) {
+                case HTTP_CLIENT -> new HttpClientTransport(connectTimeout);
+                case URL_CONNECTION -> new UrlConnectionTransport(connectTimeout);
+                case SOCKET -> new SocketTransport(connectTimeout);
+                case NIO -> new NioTransport(connectTimeout);
+            };
+        }
+
+        public static Kind of(String id) {
+            for (var kind : values()) {
+                if (kind.id.equals(id.trim().toLowerCase(Locale.ROOT))) {
+                    return kind;
+                }
+            }
+            var known = Arrays.stream(values()).map(Kind::id).collect(Collectors.joining(", "));
+            throw new IllegalArgumentException("Unknown transport: " + id + " (" + known + ")");
+        }
+
+        /**
+         * The transport named by the {@value #PROPERTY} system property or the {@value #ENVIRONMENT}
+         * environment variable, {@link #DEFAULT} when neither is set.
+         */
+        public static Kind fromEnvironment() {
+            var id = System.getProperty(PROPERTY, System.getenv(ENVIRONMENT));
+            return id == null || id.isBlank() ? DEFAULT : of(id);
+        }
+    }
+
+    /**
+     * Send a GET and parse the response - whatever its status; telling errors apart is the parser's job.
+     *
+     * @param timeout for the whole response
+     */
+    <T> T get(URI uri, Map<String, String> headers, Duration timeout, BodyParser<T> parser)
+            throws IOException, InterruptedException;
+
+    /**
+     * Send a GET built from a template - see {@link RequestTemplate}. Transports that write HTTP/1.1
+     * themselves encode it straight into their send buffer; by default it goes through {@link URI}.
+     *
+     * @param target path and query below the template's base URL; not kept after the request is sent
+     */
+    default <T> T get(RequestTemplate template, CharSequence target, Duration timeout, BodyParser<T> parser)
+            throws IOException, InterruptedException {
+        return get(template.uri(target), template.headers(), timeout, parser);
+    }
+
+    /**
+     * Send several GETs and parse the responses in order. Transports that can pipeline send them all
+     * up front; the rest send one after another.
+     *
+     * @param timeout for all of the responses
+     */
+    default <T> List<T> getAll(List<URI> uris, Map<String, String> headers, Duration timeout, BodyParser<T> parser)
+            throws IOException, InterruptedException {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var results = new ArrayList<T>(uris.size());
+        for (var uri : uris) {
+            results.add(get(uri, headers, left(deadline), parser));
+        }
+        return results;
+    }
+
+    /**
+     * Send {@code requests} GETs built from a template, as {@link #getAll(List, Map, Duration, BodyParser)}.
+     * Each target is asked for just before its request is encoded or sent, and not kept afterwards.
+     *
+     * @param timeout for all of the responses
+     */
+    default <T> List<T> getAll(RequestTemplate template, int requests, Targets targets, Duration timeout,
+                               BodyParser<T> parser) throws IOException, InterruptedException {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var results = new ArrayList<T>(requests);
+        for (int request = 0; request < requests; request++) {
+            results.add(get(template, targets.target(request), left(deadline), parser));
+        }
+        return results;
+    }
+
+    /**
+     * Requests {@link #getAll} usefully sends at once - 1 for transports that send them one after another.
+     */
+    default int batchSize() {
+        return 1;
+    }
+
+    Kind kind();
+
+    private static Duration left(long deadline) throws SocketTimeoutException {
+        var left = Duration.ofNanos(deadline - System.nanoTime());
+        if (left.isNegative() || left.isZero()) {
+            throw new SocketTimeoutException("Responses timed out");
+        }
+        return left;
+    }
+
+    /**
+     * Release pooled connections. Requests in flight may fail.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,426 @@
+package me.riddle.fintech.application.service.transport;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One non-blocking HTTP/1.1 connection of {@link NioTransport}, driven by its event loop and
+ * touched by no other thread. Requests are written as soon as they are queued, without waiting for
+ * earlier responses (pipelining); responses are matched to them in order. All buffers are direct
+ * and pooled: requests are staged in {@code outbound}, received bytes - decrypted, with TLS - land
+ * in {@code inbound} and bodies are parsed into pooled buffers handed to the waiting callers.
+ * <p>
+ * TLS runs through an {@link SSLEngine} with hostname verification. Its delegated tasks run on the
+ * event loop - they are short for the client side of a handshake.
+ */
+final class NioConnection {
+
+    enum State {
+        CONNECTING, HANDSHAKING, OPEN, CLOSED
+    }
+
+    private static final ByteBuffer NO_DATA = ByteBuffer.allocate(0);
+
+    final Endpoint endpoint;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final BufferPool pool;
+    private final SSLEngine engine;
+    private final Http1ResponseParser parser;
+    private final ArrayDeque<NioExchange> inFlight = new ArrayDeque<>();
+    private final long connectDeadline;
+
+    private State state = State.CONNECTING;
+    // The server announced it will close: no more requests, and unanswered ones go elsewhere
+    private boolean closing;
+    // All in write mode: bytes are appended at position
+    private ByteBuffer outbound;
+    private ByteBuffer inbound;
+    private ByteBuffer netIn;
+    private ByteBuffer netOut;
+
+    /**
+     * Start connecting; the connection registers itself with {@code selector}.
+     *
+     * @param sslContext for {@code https} endpoints, unused otherwise
+     * @param connectDeadline for connect and TLS handshake, in {@link System#nanoTime()} terms
+     */
+    NioConnection(Selector selector, Endpoint endpoint, InetSocketAddress address, SSLContext sslContext,
+                  BufferPool pool, long connectDeadline) throws IOException {
+        this.endpoint = endpoint;
+        this.pool = pool;
+        this.connectDeadline = connectDeadline;
+        this.parser = new Http1ResponseParser(pool);
+
+        var applicationBuffer = BufferPool.MIN_SIZE;
+        if (endpoint.secure()) {
+            engine = sslContext.createSSLEngine(endpoint.host(), endpoint.port());
+            engine.setUseClientMode(true);
+            var parameters = engine.getSSLParameters();
+            parameters.setEndpointIdentificationAlgorithm("HTTPS");
+            engine.setSSLParameters(parameters);
+            var session = engine.getSession();
+            applicationBuffer = Math.max(applicationBuffer, session.getApplicationBufferSize());
+            netIn = pool.acquire(session.getPacketBufferSize());
+            netOut = pool.acquire(session.getPacketBufferSize());
+        } else {
+            engine = null;
+        }
+        inbound = pool.acquire(applicationBuffer);
+        outbound = pool.acquire(BufferPool.MIN_SIZE);
+
+        channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            key = channel.register(selector, 0, this);
+            if (channel.connect(address)) {
+                connected();
+            } else {
+                key.interestOps(SelectionKey.OP_CONNECT);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    State state() {
+        return state;
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return whether another request may be queued behind those in flight
+     */
+    boolean accepts(int pipelineDepth) {
+        return state != State.CLOSED && !closing && inFlight.size() < pipelineDepth;
+    }
+
+    /**
+     * @return true once the connection should be given up - the server is closing it
+     */
+    boolean closing() {
+        return closing;
+    }
+
+    /**
+     * @return true if part of the oldest outstanding response has arrived
+     */
+    boolean responseStarted() {
+        return parser.started();
+    }
+
+    /**
+     * @return why the connection is overdue, or null if it is not
+     */
+    String overdue(long now) {
+        if ((state == State.CONNECTING || state == State.HANDSHAKING) && now - connectDeadline >= 0) {
+            return state == State.CONNECTING ? "Connect timed out" : "TLS handshake timed out";
+        }
+        var oldest = inFlight.peekFirst();
+        return oldest != null && oldest.expired(now) ? "Response timed out" : null;
+    }
+
+    /**
+     * Queue a request and write it as soon as the connection allows.
+     */
+    void send(NioExchange exchange) throws IOException {
+        inFlight.addLast(exchange);
+        if (outbound.remaining() < exchange.request.length) {
+            var grown = pool.acquire(outbound.position() + exchange.request.length);
+            outbound.flip();
+            grown.put(outbound);
+            pool.release(outbound);
+            outbound = grown;
+        }
+        outbound.put(exchange.request);
+        if (state == State.OPEN) {
+            flush();
+        }
+    }
+
+    void onConnectable() throws IOException {
+        if (channel.finishConnect()) {
+            connected();
+        }
+    }
+
+    void onWritable() throws IOException {
+        if (state == State.HANDSHAKING) {
+            handshake();
+        } else if (state == State.OPEN) {
+            flush();
+        }
+    }
+
+    void onReadable() throws IOException {
+        if (state == State.HANDSHAKING) {
+            handshake();
+            return;
+        }
+        if (state != State.OPEN) {
+            return;
+        }
+        var target = engine == null ? inbound : netIn;
+        var read = channel.read(target);
+        if (read == -1) {
+            endOfStream();
+        } else if (engine == null) {
+            deliver();
+        } else {
+            unwrap();
+        }
+    }
+
+    /**
+     * Close the channel and return the buffers to the pool.
+     *
+     * @return requests still waiting for a response, oldest first
+     */
+    List<NioExchange> close() {
+        state = State.CLOSED;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing more to do with it
+        }
+        parser.release();
+        pool.release(inbound);
+        pool.release(outbound);
+        pool.release(netIn);
+        pool.release(netOut);
+        inbound = outbound = netIn = netOut = null;
+
+        var unanswered = new ArrayList<>(inFlight);
+        inFlight.clear();
+        return unanswered;
+    }
+
+    private void connected() throws IOException {
+        if (engine == null) {
+            state = State.OPEN;
+            flush();
+        } else {
+            state = State.HANDSHAKING;
+            engine.beginHandshake();
+            handshake();
+        }
+    }
+
+    private void handshake() throws IOException {
+        while (true) {
+            switch (engine.getHandshakeStatus()) {
+                case NEED_TASK -> runDelegatedTasks();
+                case NEED_WRAP -> {
+                    if (!flushNet()) {
+                        interest(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    var result = engine.wrap(NO_DATA, netOut);
+                    if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                        throw new SSLException("TLS closed during handshake");
+                    }
+                }
+                case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+                    if (!flushNet()) {
+                        interest(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    netIn.flip();
+                    SSLEngineResult result;
+                    try {
+                        result = engine.unwrap(netIn, inbound);
+                    } finally {
+                        netIn.compact();
+                    }
+                    if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                        throw new SSLException("TLS closed during handshake");
+                    }
+                    if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                        var read = channel.read(netIn);
+                        if (read == -1) {
+                            throw new EOFException("Connection closed during TLS handshake");
+                        }
+                        if (read == 0) {
+                            interest(SelectionKey.OP_READ);
+                            return;
+                        }
+                    }
+                }
+                default -> {
+                    state = State.OPEN;
+                    flush();
+                    if (netIn.position() > 0) {
+                        unwrap();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write what is pending - for TLS, encrypting queued requests first.
+     */
+    private void flush() throws IOException {
+        if (engine == null) {
+            outbound.flip();
+            channel.write(outbound);
+            outbound.compact();
+            interest(SelectionKey.OP_READ | (outbound.position() > 0 ? SelectionKey.OP_WRITE : 0));
+            return;
+        }
+        while (flushNet()) {
+            if (outbound.position() == 0 && engine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_WRAP) {
+                break;
+            }
+            outbound.flip();
+            SSLEngineResult result;
+            try {
+                result = engine.wrap(outbound, netOut);
+            } finally {
+                outbound.compact();
+            }
+            runDelegatedTasks();
+            if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                throw new SSLException("TLS session closed");
+            }
+            if (result.bytesProduced() == 0 && result.getStatus() != SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                break;
+            }
+        }
+        var pending = netOut.position() > 0 || outbound.position() > 0;
+        interest(SelectionKey.OP_READ | (pending ? SelectionKey.OP_WRITE : 0));
+    }
+
+    /**
+     * @return true if every encrypted byte has been written
+     */
+    private boolean flushNet() throws IOException {
+        if (netOut.position() == 0) {
+            return true;
+        }
+        netOut.flip();
+        try {
+            channel.write(netOut);
+            return !netOut.hasRemaining();
+        } finally {
+            netOut.compact();
+        }
+    }
+
+    /**
+     * Decrypt what has arrived and parse it. The buffers hold at least one TLS record each, so
+     * neither needs to grow: an overflowing {@code inbound} is drained into the parser first.
+     */
+    private void unwrap() throws IOException {
+        netIn.flip();
+        try {
+            while (netIn.hasRemaining() && state == State.OPEN) {
+                var result = engine.unwrap(netIn, inbound);
+                runDelegatedTasks();
+                switch (result.getStatus()) {
+                    case BUFFER_UNDERFLOW -> {
+                        return;
+                    }
+                    case BUFFER_OVERFLOW -> {
+                        if (inbound.position() == 0 || closing) {
+                            return;
+                        }
+                    }
+                    case CLOSED -> {
+                        deliver();
+                        endOfStream();
+                        return;
+                    }
+                    default -> {
+                    }
+                }
+                deliver();
+                if (engine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_WRAP) {
+                    flush();    // post-handshake message, e.g. a key update
+                }
+            }
+        } finally {
+            if (netIn != null) {
+                netIn.compact();
+            }
+        }
+    }
+
+    /**
+     * Parse whatever is in {@code inbound}, completing exchanges in order.
+     */
+    private void deliver() throws IOException {
+        inbound.flip();
+        try {
+            while (inbound.hasRemaining() && !closing) {
+                if (inFlight.isEmpty()) {
+                    throw new ProtocolException("Response data without a request");
+                }
+                if (!parser.feed(inbound)) {
+                    break;
+                }
+                respond();
+            }
+        } finally {
+            inbound.compact();
+        }
+    }
+
+    private void respond() {
+        var exchange = inFlight.pollFirst();
+        var keepAlive = parser.keepAlive();
+        exchange.complete(parser.status(), parser.detachBody(), pool);
+        parser.reset();
+        if (!keepAlive) {
+            // The server processes nothing behind this response - resending those is no retry
+            closing = true;
+            inFlight.forEach(unanswered -> unanswered.attempts--);
+        }
+    }
+
+    private void endOfStream() throws IOException {
+        if (!inFlight.isEmpty() && parser.started() && parser.endOfStream()) {
+            respond();
+        }
+        closing = true;
+        if (!inFlight.isEmpty() && parser.started()) {
+            throw new EOFException("Connection closed mid-response");
+        }
+    }
+
+    private void runDelegatedTasks() {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private void interest(int ops) {
+        if (key.isValid() && key.interestOps() != ops) {
+            key.interestOps(ops);
+        }
+    }
+}
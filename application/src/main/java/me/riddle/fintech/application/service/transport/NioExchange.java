@@ -0,0 +1,115 @@
+package me.riddle.fintech.application.service.transport;
+
+import me.riddle.fintech.application.service.transport.HttpTransport.BodyParser;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One request of {@link NioTransport}, from the caller's thread to the event loop and back. The
+ * outcome is claimed exactly once: by the loop completing or failing it, or by the caller giving
+ * up - whoever loses the race with a completed body returns the body to the pool.
+ */
+final class NioExchange {
+
+    private static final int PENDING = 0;
+    private static final int FINISHED = 1;
+    private static final int CANCELLED = 2;
+
+    final Endpoint endpoint;
+    final byte[] request;
+    final long deadline;
+    // Event loop only
+    int attempts;
+
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private final CountDownLatch done = new CountDownLatch(1);
+    private int status;
+    private ByteBuffer body;
+    private IOException failure;
+
+    /**
+     * @param deadline in {@link System#nanoTime()} terms
+     */
+    NioExchange(Endpoint endpoint, byte[] request, long deadline) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.deadline = deadline;
+    }
+
+    void complete(int status, ByteBuffer body, BufferPool pool) {
+        if (state.compareAndSet(PENDING, FINISHED)) {
+            this.status = status;
+            this.body = body;
+            done.countDown();
+        } else {
+            pool.release(body);
+        }
+    }
+
+    void fail(IOException failure) {
+        if (state.compareAndSet(PENDING, FINISHED)) {
+            this.failure = failure;
+            done.countDown();
+        }
+    }
+
+    /**
+     * @return true once completed, failed or abandoned - nothing more to do for it
+     */
+    boolean finished() {
+        return state.get() != PENDING;
+    }
+
+    boolean expired(long now) {
+        return now - deadline >= 0;
+    }
+
+    /**
+     * Wait for the response until the deadline and parse it on the calling thread.
+     */
+    <T> T await(BodyParser<T> parser, BufferPool pool) throws IOException, InterruptedException {
+        boolean arrived;
+        try {
+            var left = deadline - System.nanoTime();
+            arrived = left > 0 && done.await(left, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            abandon(pool);
+            throw e;
+        }
+        if (!arrived) {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                throw new SocketTimeoutException("Response timed out");
+            }
+            done.await();       // finished just now - the outcome is set or about to be
+        }
+        if (failure != null) {
+            throw new IOException(failure.getMessage(), failure);
+        }
+        try {
+            return parser.parse(status, body);
+        } finally {
+            pool.release(body);
+            body = null;
+        }
+    }
+
+    /**
+     * The caller no longer wants the response.
+     */
+    void abandon(BufferPool pool) {
+        if (!state.compareAndSet(PENDING, CANCELLED) && state.get() == FINISHED) {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            pool.release(body);
+            body = null;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package me.riddle.fintech.application.service.transport;
+
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking HTTP/1.1: one event-loop thread drives a few {@link java.nio.channels.SocketChannel}s
+ * per host through a {@link Selector}, however many callers there are. A request goes to an idle
+ * connection, else to a new one up to {@code connectionsPerHost}, else it is pipelined behind the
+ * requests already in flight on the least busy connection, up to {@code pipelineDepth} deep.
+ * {@link #getAll} sends a whole batch - say consecutive pages - up front, so it costs a handful of
+ * writes and round trips instead of one of each per request.
+ * <p>
+ * Bodies are parsed into pooled direct buffers and handed to the {@link BodyParser} on the caller's
+ * thread, so JSON parsing never holds up the loop. Requests cut off by a connection closing - a
+ * stale keep-alive, {@code Connection: close} mid-pipeline - are resent, as GETs may be, at most
+ * {@value #MAX_ATTEMPTS} times; those queued behind a {@code Connection: close} are resent freely,
+ * as the server never saw them. TLS via {@link javax.net.ssl.SSLEngine}; plain TCP for {@code http}.
+ */
+public class NioTransport implements HttpTransport {
+
+    public static final int DEFAULT_CONNECTIONS_PER_HOST = 4;
+    public static final int DEFAULT_PIPELINE_DEPTH = 8;
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final long SELECT_MILLIS = 50;
+    private static final long RESOLVE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int POOLED_PER_CLASS = 256;
+
+    /**
+     * Connections and queued requests of one endpoint. The address is resolved on callers' threads,
+     * so DNS never blocks the loop; everything else belongs to the loop.
+     */
+    private static final class Host {
+        final Endpoint endpoint;
+        final List<NioConnection> connections = new ArrayList<>();
+        final ArrayDeque<NioExchange> waiting = new ArrayDeque<>();
+        volatile InetSocketAddress address;
+        volatile long resolvedAt;
+
+        Host(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void resolve() throws UnknownHostException {
+            var now = System.nanoTime();
+            if (address == null || now - resolvedAt > RESOLVE_NANOS) {
+                var resolved = new InetSocketAddress(endpoint.host(), endpoint.port());
+                if (resolved.isUnresolved()) {
+                    throw new UnknownHostException(endpoint.host());
+                }
+                address = resolved;
+                resolvedAt = now;
+            }
+        }
+    }
+
+    private final long connectTimeoutNanos;
+    private final int connectionsPerHost;
+    private final int pipelineDepth;
+    private final SSLContext sslContext;
+    private final BufferPool pool = new BufferPool(true, POOLED_PER_CLASS);
+    private final Selector selector;
+    private final Thread loop;
+    private final ConcurrentLinkedQueue<NioExchange> submissions = new ConcurrentLinkedQueue<>();
+    private final Map<Endpoint, Host> hosts = new ConcurrentHashMap<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final RequestTemplate.Cache templates = new RequestTemplate.Cache();
+    private volatile boolean closed;
+
+    public NioTransport(Duration connectTimeout) {
+        this(connectTimeout, DEFAULT_CONNECTIONS_PER_HOST, DEFAULT_PIPELINE_DEPTH, defaultSslContext());
+    }
+
+    /**
+     * @param pipelineDepth requests in flight per connection; 1 turns pipelining off
+     */
+    public NioTransport(Duration connectTimeout, int connectionsPerHost, int pipelineDepth, SSLContext sslContext) {
+        if (connectionsPerHost < 1 || pipelineDepth < 1) {
+            throw new IllegalArgumentException("Connections and pipeline depth must be at least 1");
+        }
+        this.connectTimeoutNanos = connectTimeout.toNanos();
+        this.connectionsPerHost = connectionsPerHost;
+        this.pipelineDepth = pipelineDepth;
+        this.sslContext = sslContext;
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open selector", e);
+        }
+        this.loop = Thread.ofPlatform().name("pagerduty-nio").daemon().start(this::run);
+    }
+
+    @Override
+    public <T> T get(URI uri, Map<String, String> headers, Duration timeout, BodyParser<T> parser)
+            throws IOException, InterruptedException {
+        return get(templates.of(uri, headers), RequestTemplate.target(uri), timeout, parser);
+    }
+
+    /**
+     * The request is encoded into an array of its own: it is written on the loop, and kept until
+     * answered in case it has to be resent.
+     */
+    @Override
+    public <T> T get(RequestTemplate template, CharSequence target, Duration timeout, BodyParser<T> parser)
+            throws IOException, InterruptedException {
+        return submit(template.endpoint(), template.encode(target), System.nanoTime() + timeout.toNanos())
+                .await(parser, pool);
+    }
+
+    /**
+     * All requests are queued at once and pipelined; responses are parsed in order as they arrive.
+     * On the first failure the rest are abandoned.
+     */
+    @Override
+    public <T> List<T> getAll(List<URI> uris, Map<String, String> headers, Duration timeout, BodyParser<T> parser)
+            throws IOException, InterruptedException {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var exchanges = new ArrayList<NioExchange>(uris.size());
+        for (var uri : uris) {
+            var template = templates.of(uri, headers);
+            exchanges.add(submit(template.endpoint(), template.encode(RequestTemplate.target(uri)), deadline));
+        }
+        return awaitAll(exchanges, parser);
+    }
+
+    /**
+     * As {@link #getAll(List, Map, Duration, BodyParser)}; each target is encoded as soon as it is written.
+     */
+    @Override
+    public <T> List<T> getAll(RequestTemplate template, int requests, Targets targets, Duration timeout,
+                              BodyParser<T> parser) throws IOException, InterruptedException {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        var exchanges = new ArrayList<NioExchange>(requests);
+        for (int request = 0; request < requests; request++) {
+            exchanges.add(submit(template.endpoint(), template.encode(targets.target(request)), deadline));
+        }
+        return awaitAll(exchanges, parser);
+    }
+
+    private <T> List<T> awaitAll(List<NioExchange> exchanges, BodyParser<T> parser)
+            throws IOException, InterruptedException {
+        var results = new ArrayList<T>(exchanges.size());
+        var next = 0;
+        try {
+            for (; next < exchanges.size(); next++) {
+                results.add(exchanges.get(next).await(parser, pool));
+            }
+            return results;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            for (int i = next + 1; i < exchanges.size(); i++) {
+                exchanges.get(i).abandon(pool);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A full pipeline on every connection to a host.
+     */
+    @Override
+    public int batchSize() {
+        return connectionsPerHost * pipelineDepth;
+    }
+
+    @Override
+    public Kind kind() {
+        return Kind.NIO;
+    }
+
+    /**
+     * Connections opened so far, including replacements for closed ones.
+     */
+    long connectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    /**
+     * Direct buffers allocated so far - flat once the pool has warmed up.
+     */
+    long bufferAllocations() {
+        return pool.allocations();
+    }
+
+    /**
+     * Stop the event loop, close every connection and fail the requests still pending.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+        try {
+            loop.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private NioExchange submit(Endpoint endpoint, byte[] request, long deadline) throws IOException {
+        if (closed) {
+            throw new IOException("Transport closed");
+        }
+        hosts.computeIfAbsent(endpoint, Host::new).resolve();
+        var exchange = new NioExchange(endpoint, request, deadline);
+        submissions.add(exchange);
+        selector.wakeup();
+        if (closed && submissions.remove(exchange)) {
+            throw new IOException("Transport closed");
+        }
+        return exchange;
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select(this::handle, SELECT_MILLIS);
+                NioExchange exchange;
+                while ((exchange = submissions.poll()) != null) {
+                    hosts.get(exchange.endpoint).waiting.addLast(exchange);
+                }
+                var now = System.nanoTime();
+                for (var host : hosts.values()) {
+                    for (var connection : List.copyOf(host.connections)) {
+                        var overdue = connection.overdue(now);
+                        if (overdue != null) {
+                            abandon(connection, new SocketTimeoutException(overdue));
+                        }
+                    }
+                    dispatch(host, now);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The selector itself failed - nothing can be served any more
+            closed = true;
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;     // its connection was given up earlier in this round
+        }
+        var connection = (NioConnection) key.attachment();
+        try {
+            var ready = key.readyOps();
+            if ((ready & SelectionKey.OP_CONNECT) != 0) {
+                connection.onConnectable();
+            }
+            if ((ready & SelectionKey.OP_WRITE) != 0 && key.isValid()) {
+                connection.onWritable();
+            }
+            if ((ready & SelectionKey.OP_READ) != 0 && key.isValid()) {
+                connection.onReadable();
+            }
+            if (connection.closing()) {
+                abandon(connection, new IOException("Server closed the connection"));
+            }
+        } catch (IOException e) {
+            abandon(connection, e);
+        } catch (RuntimeException e) {
+            abandon(connection, new IOException(e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Hand queued requests to connections, opening new ones as allowed.
+     */
+    private void dispatch(Host host, long now) {
+        while (!host.waiting.isEmpty()) {
+            var exchange = host.waiting.peekFirst();
+            if (exchange.finished()) {
+                host.waiting.pollFirst();
+                continue;
+            }
+            if (exchange.expired(now)) {
+                host.waiting.pollFirst();
+                exchange.fail(new SocketTimeoutException("Timed out waiting for a connection"));
+                continue;
+            }
+            NioConnection connection;
+            try {
+                connection = pick(host);
+            } catch (IOException e) {
+                host.waiting.pollFirst();
+                exchange.fail(e);
+                continue;
+            }
+            if (connection == null) {
+                return;     // every connection is full - wait for responses
+            }
+            host.waiting.pollFirst();
+            exchange.attempts++;
+            try {
+                connection.send(exchange);
+            } catch (IOException e) {
+                abandon(connection, e);
+            }
+        }
+    }
+
+    private NioConnection pick(Host host) throws IOException {
+        NioConnection best = null;
+        for (var connection : host.connections) {
+            if (connection.accepts(pipelineDepth) && (best == null || connection.inFlight() < best.inFlight())) {
+                best = connection;
+            }
+        }
+        if (best != null && best.inFlight() == 0) {
+            return best;
+        }
+        if (host.connections.size() < connectionsPerHost) {
+            var connection = new NioConnection(selector, host.endpoint, host.address, sslContext, pool,
+                    System.nanoTime() + connectTimeoutNanos);
+            connectionsOpened.incrementAndGet();
+            host.connections.add(connection);
+            return connection;
+        }
+        return best;
+    }
+
+    /**
+     * Close a connection and requeue its unanswered requests - in order, ahead of newer ones - or
+     * fail those out of time or attempts.
+     */
+    private void abandon(NioConnection connection, IOException cause) {
+        var host = hosts.get(connection.endpoint);
+        host.connections.remove(connection);
+        var unanswered = connection.close();
+        var now = System.nanoTime();
+        for (int i = unanswered.size() - 1; i >= 0; i--) {
+            var exchange = unanswered.get(i);
+            if (exchange.finished()) {
+                continue;
+            }
+            if (exchange.attempts < MAX_ATTEMPTS && !exchange.expired(now)) {
+                host.waiting.addFirst(exchange);
+            } else {
+                exchange.fail(cause);
+            }
+        }
+    }
+
+    private void shutdown() {
+        var failure = new IOException("Transport closed");
+        for (var host : hosts.values()) {
+            for (var connection : host.connections) {
+                connection.close().forEach(exchange -> exchange.fail(failure));
+            }
+            host.connections.clear();
+            host.waiting.forEach(exchange -> exchange.fail(failure));
+            host.waiting.clear();
+        }
+        NioExchange exchange;
+        while ((exchange = submissions.poll()) != null) {
+            exchange.fail(failure);
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // Closing anyway
+        }
+    }
+
+    private static SSLContext defaultSslContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No default TLS context", e);
+        }
+    }
+}
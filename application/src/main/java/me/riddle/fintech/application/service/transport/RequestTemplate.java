@@ -0,0 +1,158 @@
+package me.riddle.fintech.application.service.transport;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * GETs to one base URL with fixed headers, prepared once: a request only adds its target - the
+ * path and query below the base URL. Transports that speak HTTP/1.1 themselves copy the encoded
+ * request line and headers around the target straight into their send buffer, so a request costs
+ * no {@link URI}, no strings and no header map; the others build a {@link URI} as before.
+ * Immutable and thread-safe.
+ */
+public final class RequestTemplate {
+
+    private static final byte[] GET = "GET ".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final String baseUrl;
+    private final Map<String, String> headers;
+    private final Endpoint endpoint;
+    private final byte[] basePath;
+    // " HTTP/1.1", Host and the fixed headers, through the empty line
+    private final byte[] head;
+
+    /**
+     * @param baseUrl e.g. {@code https://api.pagerduty.com}, optionally with a path, without a trailing slash
+     * @throws IllegalArgumentException if the URL is not plain {@code http} or {@code https}, or a
+     *                                  header would break the request apart
+     */
+    public RequestTemplate(String baseUrl, Map<String, String> headers) {
+        Objects.requireNonNull(baseUrl, "Base URL cannot be null");
+        var base = URI.create(baseUrl);
+        if (base.getRawQuery() != null || base.getRawFragment() != null || baseUrl.endsWith("/")) {
+            throw new IllegalArgumentException("Base URL cannot have a query, fragment or trailing slash: " + baseUrl);
+        }
+        this.baseUrl = baseUrl;
+        this.headers = Map.copyOf(headers);
+        this.endpoint = Endpoint.of(base);
+        this.basePath = (base.getRawPath() == null ? "" : base.getRawPath()).getBytes(StandardCharsets.ISO_8859_1);
+
+        var text = new StringBuilder(256);
+        text.append(" HTTP/1.1\r\nHost: ").append(base.getHost());
+        if (base.getPort() != -1) {
+            text.append(':').append(base.getPort());
+        }
+        text.append("\r\n");
+        this.headers.forEach((name, value) -> {
+            if (name.indexOf('\r') >= 0 || name.indexOf('\n') >= 0 || value.indexOf('\r') >= 0 || value.indexOf('\n') >= 0) {
+                throw new IllegalArgumentException("Header contains a line break: " + name);
+            }
+            text.append(name).append(": ").append(value).append("\r\n");
+        });
+        text.append("\r\n");
+        this.head = text.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * The template and target of an absolute URI, for callers that have nothing prepared.
+     */
+    static RequestTemplate of(URI uri, Map<String, String> headers) {
+        var origin = uri.getScheme() + "://" + uri.getRawAuthority();
+        return new RequestTemplate(origin, headers);
+    }
+
+    /**
+     * Templates for the origins and header sets requested by URI, so only the first request to each
+     * prepares one. Past {@value #MAX_SIZE} combinations it starts over rather than grow.
+     */
+    static final class Cache {
+        private static final int MAX_SIZE = 64;
+
+        private record Key(String scheme, String authority, Map<String, String> headers) {
+        }
+
+        private final Map<Key, RequestTemplate> templates = new ConcurrentHashMap<>();
+
+        RequestTemplate of(URI uri, Map<String, String> headers) {
+            var template = templates.get(new Key(uri.getScheme(), uri.getRawAuthority(), headers));
+            if (template == null) {
+                template = RequestTemplate.of(uri, headers);
+                if (templates.size() >= MAX_SIZE) {
+                    templates.clear();
+                }
+                // Keyed by the template's own copy - the caller's map may change later
+                templates.put(new Key(uri.getScheme(), uri.getRawAuthority(), template.headers()), template);
+            }
+            return template;
+        }
+    }
+
+    /**
+     * @return path and query of an absolute URI, as {@link #of(URI, Map)} expects them
+     */
+    static String target(URI uri) {
+        var path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        return uri.getRawQuery() == null ? path : path + '?' + uri.getRawQuery();
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public Map<String, String> headers() {
+        return headers;
+    }
+
+    /**
+     * @param target path and query below the base URL, e.g. {@code /users?offset=0}, percent-encoded
+     */
+    public URI uri(CharSequence target) {
+        return URI.create(baseUrl + target);
+    }
+
+    Endpoint endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return bytes {@link #write} puts down for this target
+     * @throws IllegalArgumentException if the target holds anything but printable ASCII
+     */
+    int length(CharSequence target) {
+        for (int i = 0; i < target.length(); i++) {
+            var c = target.charAt(i);
+            if (c <= ' ' || c >= 0x7f) {
+                throw new IllegalArgumentException("Target must be percent-encoded: " + target);
+            }
+        }
+        var path = basePath.length + target.length();
+        return GET.length + (path == 0 ? 1 : path) + head.length;
+    }
+
+    /**
+     * Encode the request at the buffer's position, which must have {@link #length} bytes left.
+     */
+    void write(CharSequence target, ByteBuffer into) {
+        into.put(GET).put(basePath);
+        if (basePath.length + target.length() == 0) {
+            into.put((byte) '/');
+        }
+        for (int i = 0; i < target.length(); i++) {
+            into.put((byte) target.charAt(i));
+        }
+        into.put(head);
+    }
+
+    /**
+     * The request as a byte array of its own, for requests that outlive the caller's target.
+     */
+    byte[] encode(CharSequence target) {
+        var request = ByteBuffer.allocate(length(target));
+        write(target, request);
+        return request.array();
+    }
+}
@@ -0,0 +1,239 @@
+package me.riddle.fintech.application.service.transport;
+
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plain HTTP/1.1 over blocking sockets, written by hand: one request per connection at a time,
+ * idle connections kept per host for reuse. Responses are read with {@link Http1ResponseParser}
+ * into a buffer owned by the connection, and requests are encoded into another, so a warm connection
+ * sends and receives without allocating. TLS for {@code https}, with the usual hostname
+ * verification; plain TCP for {@code http}.
+ * <p>
+ * A reused connection the server has quietly closed fails before any response byte arrives; such
+ * a request is sent once more on a fresh connection, which is safe as GET is idempotent.
+ */
+public class SocketTransport implements HttpTransport {
+
+    static final int MAX_IDLE_PER_HOST = 8;
+    private static final int READ_BUFFER = 16 * 1024;
+    private static final int REQUEST_BUFFER = 1024;
+
+    private static final class Connection {
+        final Endpoint endpoint;
+        final Socket socket;
+        final InputStream in;
+        final OutputStream out;
+        final byte[] readBuffer = new byte[READ_BUFFER];
+        final ByteBuffer input = ByteBuffer.wrap(readBuffer);
+        final Http1ResponseParser parser = new Http1ResponseParser();
+        ByteBuffer request = ByteBuffer.allocate(REQUEST_BUFFER);
+        boolean reused;
+        // Last read timeout set, in milliseconds - setting it boxes, so only changes are passed on
+        int soTimeout = -1;
+
+        Connection(Endpoint endpoint, Socket socket) throws IOException {
+            this.endpoint = endpoint;
+            this.socket = socket;
+            this.in = socket.getInputStream();
+            this.out = socket.getOutputStream();
+        }
+
+        /**
+         * @return the connection's request buffer, cleared, with room for {@code length} bytes
+         */
+        ByteBuffer request(int length) {
+            if (request.capacity() < length) {
+                request = ByteBuffer.allocate(Math.max(length, request.capacity() * 2));
+            }
+            return request.clear();
+        }
+
+        void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing more to do with it
+            }
+        }
+    }
+
+    private final int connectTimeoutMillis;
+    private final Map<Endpoint, ArrayDeque<Connection>> idle = new HashMap<>();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final RequestTemplate.Cache templates = new RequestTemplate.Cache();
+    private boolean closed;
+
+    public SocketTransport(Duration connectTimeout) {
+        this.connectTimeoutMillis = (int) connectTimeout.toMillis();
+    }
+
+    @Override
+    public <T> T get(URI uri, Map<String, String> headers, Duration timeout, BodyParser<T> parser) throws IOException {
+        return get(templates.of(uri, headers), RequestTemplate.target(uri), timeout, parser);
+    }
+
+    /**
+     * The request is encoded into a buffer the connection keeps, so a warm connection sends it
+     * without allocating.
+     */
+    @Override
+    public <T> T get(RequestTemplate template, CharSequence target, Duration timeout, BodyParser<T> parser)
+            throws IOException {
+        var endpoint = template.endpoint();
+        var length = template.length(target);
+        var deadline = System.nanoTime() + timeout.toNanos();
+
+        var connection = take(endpoint);
+        if (connection == null) {
+            connection = open(endpoint);
+        }
+        try {
+            exchange(connection, template, target, length, deadline);
+        } catch (IOException e) {
+            connection.closeQuietly();
+            if (!connection.reused || connection.parser.started()) {
+                throw e;
+            }
+            connection = open(endpoint);
+            try {
+                exchange(connection, template, target, length, deadline);
+            } catch (IOException retryFailure) {
+                connection.closeQuietly();
+                throw retryFailure;
+            }
+        }
+
+        var response = connection.parser;
+        try {
+            return parser.parse(response.status(), response.body());
+        } finally {
+            release(connection);
+        }
+    }
+
+    @Override
+    public Kind kind() {
+        return Kind.SOCKET;
+    }
+
+    /**
+     * Connections opened so far, including replacements for stale ones.
+     */
+    long connectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    @Override
+    public void close() {
+        synchronized (idle) {
+            closed = true;
+            idle.values().forEach(connections -> connections.forEach(Connection::closeQuietly));
+            idle.clear();
+        }
+    }
+
+    private void exchange(Connection connection, RequestTemplate template, CharSequence target, int length,
+                          long deadline) throws IOException {
+        var parser = connection.parser;
+        parser.reset();
+        var request = connection.request(length);
+        template.write(target, request);
+        connection.out.write(request.array(), 0, request.position());
+        connection.out.flush();
+
+        while (true) {
+            var left = (deadline - System.nanoTime()) / 1_000_000;
+            if (left <= 0) {
+                throw new SocketTimeoutException("Response timed out");
+            }
+            // Whole seconds down, so requests with the same timeout keep the one already set; a read
+            // timing out early just comes round again with less left
+            var millis = (int) Math.min(Integer.MAX_VALUE, left < 1_000 ? left : left - left % 1_000);
+            if (millis != connection.soTimeout) {
+                connection.socket.setSoTimeout(millis);
+                connection.soTimeout = millis;
+            }
+            int read;
+            try {
+                read = connection.in.read(connection.readBuffer);
+            } catch (SocketTimeoutException e) {
+                continue;
+            }
+            if (read == -1) {
+                parser.endOfStream();
+                return;
+            }
+            connection.input.clear().limit(read);
+            if (parser.feed(connection.input)) {
+                if (connection.input.hasRemaining()) {
+                    // More than we asked for - the connection's state is unknown, don't reuse it
+                    connection.closeQuietly();
+                }
+                return;
+            }
+        }
+    }
+
+    private Connection open(Endpoint endpoint) throws IOException {
+        var socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(endpoint.host(), endpoint.port()), connectTimeoutMillis);
+            if (endpoint.secure()) {
+                var factory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+                var tls = (SSLSocket) factory.createSocket(socket, endpoint.host(), endpoint.port(), true);
+                var parameters = tls.getSSLParameters();
+                parameters.setEndpointIdentificationAlgorithm("HTTPS");
+                tls.setSSLParameters(parameters);
+                tls.setSoTimeout(connectTimeoutMillis);
+                tls.startHandshake();
+                socket = tls;
+            }
+            connectionsOpened.incrementAndGet();
+            return new Connection(endpoint, socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private Connection take(Endpoint endpoint) {
+        synchronized (idle) {
+            var connections = idle.get(endpoint);
+            var connection = connections == null ? null : connections.pollFirst();
+            if (connection != null) {
+                connection.reused = true;
+            }
+            return connection;
+        }
+    }
+
+    private void release(Connection connection) {
+        if (connection.socket.isClosed() || !connection.parser.keepAlive()) {
+            connection.closeQuietly();
+            return;
+        }
+        synchronized (idle) {
+            var connections = idle.computeIfAbsent(connection.endpoint, key -> new ArrayDeque<>());
+            if (closed || connections.size() >= MAX_IDLE_PER_HOST) {
+                connection.closeQuietly();
+            } else {
+                connections.addFirst(connection);
+            }
+        }
+    }
+}
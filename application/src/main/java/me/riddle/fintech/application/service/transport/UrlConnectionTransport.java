@@ -0,0 +1,77 @@
+package me.riddle.fintech.application.service.transport;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HttpURLConnection} - HTTP/1.1 only. Connections are kept alive by the JDK's own cache,
+ * which is why the body, error or not, is always read to the end and closed.
+ * <p>
+ * The connection's read timeout only bounds each read, so a server trickling the body could hold a
+ * request far past its timeout; a watchdog disconnects it at the deadline instead.
+ */
+public class UrlConnectionTransport implements HttpTransport {
+
+    private final int connectTimeoutMillis;
+    private final ScheduledExecutorService deadlines =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("urlconnection-deadline").factory());
+
+    public UrlConnectionTransport(Duration connectTimeout) {
+        this.connectTimeoutMillis = (int) connectTimeout.toMillis();
+    }
+
+    @Override
+    public <T> T get(URI uri, Map<String, String> headers, Duration timeout, BodyParser<T> parser)
+            throws IOException {
+        var connection = (HttpURLConnection) uri.toURL().openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(connectTimeoutMillis);
+        connection.setReadTimeout((int) timeout.toMillis());
+        connection.setUseCaches(false);
+        headers.forEach(connection::setRequestProperty);
+
+        var deadline = deadlines.schedule(connection::disconnect, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        int status;
+        byte[] body;
+        try {
+            status = connection.getResponseCode();
+            var stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (stream == null) {
+                body = new byte[0];
+            } else {
+                try (stream) {
+                    body = stream.readAllBytes();
+                }
+            }
+        } catch (IOException e) {
+            if (deadline.isDone()) {
+                var timedOut = new SocketTimeoutException("Response timed out");
+                timedOut.initCause(e);
+                throw timedOut;
+            }
+            throw e;
+        } finally {
+            deadline.cancel(false);
+        }
+        return parser.parse(status, ByteBuffer.wrap(body));
+    }
+
+    @Override
+    public Kind kind() {
+        return Kind.URL_CONNECTION;
+    }
+
+    @Override
+    public void close() {
+        // The JDK owns the keep-alive cache - only the watchdog is ours
+        deadlines.shutdownNow();
+    }
+}
@@ -0,0 +1,110 @@
+package me.riddle.fintech.application.service.baseline;
+
+import me.riddle.fintech.application.service.baseline.RunResult.Key;
+import me.riddle.fintech.application.service.monitor.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaselineStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final Key SYNC = new Key("sync", 100, 4, 1, "socket");
+    private static final Key PROBE = new Key("get_user", 1, 1, 1, "httpclient");
+
+    private static RunResult run(Key key, int index, double throughput) {
+        var latency = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            latency.recordMicros(i * 1_000L + index);
+        }
+        return new RunResult(key, Instant.parse("2026-10-01T00:00:00Z").plusSeconds(index), latency, throughput);
+    }
+
+    @Test
+    void testMissingFileIsAnEmptyBaseline() throws IOException {
+        assertTrue(new BaselineStore(tempDir.resolve("none.json")).runs(SYNC).isEmpty());
+    }
+
+    @Test
+    void testRoundTripKeepsTheHistogram() throws IOException {
+        var store = new BaselineStore(tempDir.resolve("baselines").resolve("sync.json"));
+        var run = run(SYNC, 1, 1234.5);
+
+        store.append(run);
+        var stored = store.runs(SYNC);
+
+        assertEquals(1, stored.size());
+        var read = stored.getFirst();
+        assertEquals(SYNC, read.key());
+        assertEquals(run.recordedAt(), read.recordedAt());
+        assertEquals(1234.5, read.throughput());
+        assertEquals(run.latency().buckets(), read.latency().buckets());
+        assertEquals(run.latency().valueAtPercentile(99), read.latency().valueAtPercentile(99));
+        assertEquals(run.latency().maxMicros(), read.latency().maxMicros());
+        assertTrue(Files.readString(store.file()).contains("\"p99Micros\""), "readable percentiles");
+    }
+
+    @Test
+    void testUnmeasuredThroughputStaysNaN() throws IOException {
+        var store = new BaselineStore(tempDir.resolve("baseline.json"));
+
+        store.append(run(PROBE, 1, Double.NaN));
+
+        assertTrue(Double.isNaN(store.runs(PROBE).getFirst().throughput()));
+    }
+
+    @Test
+    void testKeepsOnlyRecentRunsPerKey() throws IOException {
+        var store = new BaselineStore(tempDir.resolve("baseline.json"), 3);
+        store.append(run(PROBE, 0, Double.NaN));
+        for (int i = 1; i <= 5; i++) {
+            store.append(run(SYNC, i, 1000 + i));
+        }
+
+        var runs = store.runs(SYNC);
+        assertEquals(3, runs.size());
+        assertEquals(1003.0, runs.getFirst().throughput(), "oldest first");
+        assertEquals(1005.0, runs.getLast().throughput());
+        assertEquals(1, store.runs(PROBE).size(), "other keys untouched");
+        assertFalse(Files.exists(tempDir.resolve("baseline.json.part")));
+    }
+
+    @Test
+    void testRunsOverOtherTransportsAreKeptApart() throws IOException {
+        var store = new BaselineStore(tempDir.resolve("baseline.json"));
+        var nio = new Key("sync", 100, 4, 4, "nio");
+        store.append(run(SYNC, 0, 1000));
+        store.append(run(nio, 1, 3000));
+
+        assertEquals(1000.0, store.runs(SYNC).getFirst().throughput());
+        assertEquals(3000.0, store.runs(nio).getFirst().throughput());
+    }
+
+    @Test
+    void testRunsStoredWithoutTransportUsedTheDefaultClient() throws IOException {
+        var file = tempDir.resolve("baseline.json");
+        Files.writeString(file, """
+                {"version": 1, "runs": [{"operation": "sync", "pageSize": 100, "concurrency": 4,
+                  "recordedAt": "2026-10-01T00:00:00Z", "throughput": 1000.0, "count": 0, "sumMicros": 0, "maxMicros": 0}]}
+                """);
+
+        assertEquals(1, new BaselineStore(file).runs(new Key("sync", 100, 4, 1, "httpclient")).size());
+        assertEquals(0, new BaselineStore(file).runs(SYNC).size());
+    }
+
+    @Test
+    void testRejectsUnknownVersion() throws IOException {
+        var file = tempDir.resolve("baseline.json");
+        Files.writeString(file, "{\"version\": 7, \"runs\": []}");
+
+        assertThrows(IOException.class, () -> new BaselineStore(file).runs(SYNC));
+    }
+}
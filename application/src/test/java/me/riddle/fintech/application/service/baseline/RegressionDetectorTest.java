@@ -0,0 +1,142 @@
+package me.riddle.fintech.application.service.baseline;
+
+import me.riddle.fintech.application.service.baseline.RegressionDetector.Finding;
+import me.riddle.fintech.application.service.baseline.RegressionDetector.LatencySlo;
+import me.riddle.fintech.application.service.baseline.RegressionDetector.Metric;
+import me.riddle.fintech.application.service.baseline.RegressionDetector.Thresholds;
+import me.riddle.fintech.application.service.baseline.RunResult.Key;
+import me.riddle.fintech.application.service.monitor.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegressionDetectorTest {
+
+    private static final Key KEY = new Key("sync", 100, 4, 1, "socket");
+
+    /**
+     * Log-normal latencies around {@code medianMillis}, like real request latencies.
+     */
+    private static RunResult run(long seed, double medianMillis, int samples, double throughput) {
+        var random = new Random(seed);
+        var latency = new LatencyHistogram();
+        for (int i = 0; i < samples; i++) {
+            latency.recordMicros((long) (medianMillis * 1_000 * Math.exp(0.3 * random.nextGaussian())));
+        }
+        return new RunResult(KEY, Instant.parse("2026-10-01T00:00:00Z").plusSeconds(seed), latency, throughput);
+    }
+
+    private static List<RunResult> baseline(int runs) {
+        var baseline = new ArrayList<RunResult>();
+        for (int i = 0; i < runs; i++) {
+            baseline.add(run(i, 100, 500, 1_000 + 10 * (i % 3)));
+        }
+        return baseline;
+    }
+
+    private static Finding finding(RegressionDetector.Verdict verdict, Metric metric) {
+        return verdict.findings().stream().filter(finding -> finding.metric() == metric).findFirst().orElseThrow();
+    }
+
+    @Test
+    void testBinomialUpperTail() {
+        assertEquals(56.0 / 1024, RegressionDetector.binomialUpperTail(10, 8, 0.5), 1e-12);
+        assertEquals(1.0, RegressionDetector.binomialUpperTail(10, 0, 0.5));
+        assertEquals(0.0, RegressionDetector.binomialUpperTail(10, 11, 0.5));
+        // Large n must not underflow: P(X >= 5000) for Binomial(10000, 0.5) is a little over one half
+        assertEquals(0.504, RegressionDetector.binomialUpperTail(10_000, 5_000, 0.5), 0.001);
+    }
+
+    @Test
+    void testSameDistributionIsNotARegression() {
+        var verdict = new RegressionDetector().compare(run(99, 100, 500, 1_005), baseline(5));
+
+        assertTrue(verdict.ok(), verdict.summary());
+        assertEquals(5, verdict.baselineRuns());
+        assertEquals(3, verdict.findings().size());
+    }
+
+    @Test
+    void testSlowerRunIsARegression() {
+        var verdict = new RegressionDetector().compare(run(99, 150, 500, 1_005), baseline(5));
+
+        assertTrue(verdict.regressed(), verdict.summary());
+        var p50 = finding(verdict, Metric.P50);
+        assertTrue(p50.regressed());
+        assertTrue(p50.pValue() < 0.01);
+        assertEquals(0.5, p50.change(), 0.1);
+        assertTrue(finding(verdict, Metric.P99).regressed());
+        assertFalse(finding(verdict, Metric.THROUGHPUT).regressed());
+        assertTrue(verdict.summary().contains("REGRESSION"));
+    }
+
+    @Test
+    void testSmallShiftIsNotARegression() {
+        var verdict = new RegressionDetector().compare(run(99, 104, 20_000, Double.NaN), baseline(5));
+
+        var p50 = finding(verdict, Metric.P50);
+        assertFalse(p50.regressed(), verdict.summary());
+        assertTrue(p50.pValue() < 0.01, "significant with this many samples");
+        assertEquals("significant but small", p50.note());
+    }
+
+    @Test
+    void testShiftWithinPastSpreadIsNotARegression() {
+        var baseline = new ArrayList<>(baseline(4));
+        baseline.add(run(50, 160, 500, 1_000));     // one slow day on record
+
+        var verdict = new RegressionDetector().compare(run(99, 130, 500, Double.NaN), baseline);
+
+        var p50 = finding(verdict, Metric.P50);
+        assertFalse(p50.regressed(), verdict.summary());
+        assertEquals("within the spread of past runs", p50.note());
+    }
+
+    @Test
+    void testThroughputDropNeedsEnoughRuns() {
+        var few = new RegressionDetector().compare(run(99, 100, 500, 500), baseline(2));
+        var throughput = finding(few, Metric.THROUGHPUT);
+        assertFalse(throughput.regressed());
+        assertTrue(throughput.note().startsWith("needs"));
+
+        var enough = new RegressionDetector().compare(run(99, 100, 500, 500), baseline(5));
+        assertTrue(finding(enough, Metric.THROUGHPUT).regressed(), enough.summary());
+    }
+
+    @Test
+    void testNoBaselineOnlyEvaluatesSlo() {
+        var detector = new RegressionDetector(Thresholds.DEFAULT, List.of(new LatencySlo(99, Duration.ofMillis(120))));
+
+        var verdict = detector.compare(run(99, 100, 500, 1_000), List.of());
+
+        assertTrue(verdict.findings().isEmpty());
+        assertFalse(verdict.regressed());
+        assertTrue(verdict.sloBreached());
+        assertTrue(verdict.sloBreaches().getFirst().startsWith("p99 <= 120 ms: "), verdict.sloBreaches().toString());
+    }
+
+    @Test
+    void testOtherKeysAreIgnored() {
+        var other = new RunResult(new Key("sync", 50, 4, 1, "socket"), Instant.now(), run(1, 10, 500, 1).latency(), 5_000);
+
+        var verdict = new RegressionDetector().compare(run(99, 100, 500, 1_000), List.of(other));
+
+        assertEquals(0, verdict.baselineRuns());
+        assertTrue(verdict.ok());
+    }
+
+    @Test
+    void testRejectsInvalidThresholds() {
+        assertThrows(IllegalArgumentException.class, () -> new Thresholds(0, 0.1, 0.1, 0.1, 3));
+        assertThrows(IllegalArgumentException.class, () -> new Thresholds(0.01, -0.1, 0.1, 0.1, 3));
+        assertThrows(IllegalArgumentException.class, () -> new Thresholds(0.01, 0.1, 0.1, 1, 3));
+        assertThrows(IllegalArgumentException.class, () -> new Thresholds(0.01, 0.1, 0.1, 0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LatencySlo(0, Duration.ofMillis(1)));
+    }
+}
@@ -0,0 +1,153 @@
+package me.riddle.fintech.application.service.cache;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCacheTest {
+
+    private static final Duration LONG_AGO = Duration.ofMinutes(10);
+
+    /**
+     * 100-user directory that records which offsets were fetched.
+     */
+    private static class Directory implements PageFetcher {
+        final List<Integer> fetched = new ArrayList<>();
+        final Set<Integer> failing = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public synchronized PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException {
+            fetched.add(offset);
+            if (failing.contains(offset)) {
+                throw new IOException("HTTP 429");
+            }
+            var data = new ArrayList<PagerDutyUser>();
+            for (int i = offset; i < Math.min(100, offset + limit); i++) {
+                data.add(new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user"));
+            }
+            return new PagedResponse<>(limit, offset, offset + limit < 100, 100, data);
+        }
+    }
+
+    @Test
+    void testNavigationPrefetchesNeighbours() throws Exception {
+        var directory = new Directory();
+        var cache = new PageCache(directory, 16, LONG_AGO, Runnable::run);
+
+        cache.navigate(20, 10);
+
+        assertEquals(List.of(20, 30, 10), directory.fetched);
+        assertEquals(30, cache.navigate(30, 10).offset());
+        assertEquals(10, cache.fetchPage(10, 10).offset());
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void testRepeatedJumpStrideIsPredicted() throws Exception {
+        var directory = new Directory();
+        var cache = new PageCache(directory, 16, LONG_AGO, Runnable::run);
+
+        cache.navigate(0, 10);
+        cache.navigate(40, 10);     // jumped 4 pages - expect another jump of 4
+        directory.fetched.clear();
+
+        cache.navigate(80, 10);
+        assertFalse(directory.fetched.contains(80), "80 was prefetched: " + directory.fetched);
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void testPageSizeIsPartOfTheKey() throws Exception {
+        var directory = new Directory();
+        var cache = new PageCache(directory, 16, LONG_AGO, Runnable::run);
+
+        cache.fetchPage(0, 10);
+        assertEquals(25, cache.fetchPage(0, 25).itemCount());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() throws Exception {
+        var directory = new Directory();
+        var cache = new PageCache(directory, 2, LONG_AGO, Runnable::run);
+
+        cache.fetchPage(0, 10);
+        cache.fetchPage(10, 10);
+        cache.fetchPage(0, 10);     // 10 is now the eldest
+        cache.fetchPage(20, 10);
+
+        assertEquals(2, cache.size());
+        cache.fetchPage(0, 10);
+        cache.fetchPage(10, 10);
+        assertEquals(List.of(0, 10, 20, 10), directory.fetched);
+    }
+
+    @Test
+    void testStalePagesAreRefetched() throws Exception {
+        var directory = new Directory();
+        var cache = new PageCache(directory, 16, Duration.ZERO, Runnable::run);
+
+        cache.fetchPage(0, 10);
+        Thread.sleep(1);
+        cache.fetchPage(0, 10);
+
+        assertEquals(List.of(0, 0), directory.fetched);
+    }
+
+    @Test
+    void testFailedPrefetchIsRetriedOnDemand() throws Exception {
+        var directory = new Directory();
+        directory.failing.add(10);
+        var cache = new PageCache(directory, 16, LONG_AGO, Runnable::run);
+
+        cache.navigate(0, 10);      // prefetch of 10 fails quietly
+        assertThrows(IOException.class, () -> cache.fetchPage(10, 10));
+
+        directory.failing.clear();
+        assertEquals(10, cache.fetchPage(10, 10).offset());
+    }
+
+    @Test
+    void testInFlightPrefetchIsAwaitedNotDuplicated() throws Exception {
+        var release = new CountDownLatch(1);
+        var calls = new AtomicInteger();
+        PageFetcher slow = (offset, limit) -> {
+            calls.incrementAndGet();
+            release.await();
+            return new PagedResponse<>(limit, offset, false, 10, List.of());
+        };
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var cache = new PageCache(slow, 16, LONG_AGO, executor);
+            cache.prefetch(0, 10);
+            cache.prefetch(0, 10);
+
+            var reader = Thread.ofVirtual().start(() -> {
+                try {
+                    cache.fetchPage(0, 10);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            release.countDown();
+            reader.join();
+
+            assertEquals(1, calls.get());
+            assertEquals(1, cache.hits());
+        }
+    }
+}
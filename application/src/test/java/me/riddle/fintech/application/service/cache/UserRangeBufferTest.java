@@ -0,0 +1,144 @@
+package me.riddle.fintech.application.service.cache;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRangeBufferTest {
+
+    private static final Duration LONG_AGO = Duration.ofMinutes(10);
+
+    /**
+     * Directory of the given size that records every request made to it.
+     */
+    private static class Directory implements PageFetcher {
+        final List<String> requests = new ArrayList<>();
+        int size;
+
+        Directory(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) {
+            requests.add(offset + "+" + limit);
+            var data = new ArrayList<PagerDutyUser>();
+            for (int i = offset; i < Math.min(size, offset + limit); i++) {
+                data.add(user(i));
+            }
+            return new PagedResponse<>(limit, offset, offset + limit < size, null, data);
+        }
+    }
+
+    private static PagerDutyUser user(int i) {
+        return new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user");
+    }
+
+    private static List<String> ids(PagedResponse<PagerDutyUser> page) {
+        return page.data().stream().map(PagerDutyUser::id).toList();
+    }
+
+    @Test
+    void testAnyPageSizeIsSlicedFromOneMaximalFetch() throws Exception {
+        var directory = new Directory(250);
+        var buffer = new UserRangeBuffer(directory, LONG_AGO);
+
+        assertEquals(List.of("P20", "P21", "P22", "P23", "P24"), ids(buffer.fetchPage(20, 5)));
+        assertEquals(10, buffer.fetchPage(30, 10).itemCount());
+        assertEquals(25, buffer.fetchPage(75, 25).itemCount());
+
+        assertEquals(List.of("20+100"), directory.requests);
+        assertEquals(100, buffer.cached());
+    }
+
+    @Test
+    void testOnlyMissingRangesAreFetched() throws Exception {
+        var directory = new Directory(250);
+        var buffer = new UserRangeBuffer(directory, LONG_AGO);
+
+        buffer.fetchPage(0, 100);
+        buffer.fetchPage(150, 100);
+        var page = buffer.fetchPage(90, 70);
+
+        assertEquals(70, page.itemCount());
+        assertEquals("P90", page.data().getFirst().id());
+        assertEquals("P159", page.data().getLast().id());
+        assertEquals(List.of("0+100", "150+100", "100+100"), directory.requests);
+    }
+
+    @Test
+    void testEndOfDirectoryIsRemembered() throws Exception {
+        var directory = new Directory(42);
+        var buffer = new UserRangeBuffer(directory, LONG_AGO);
+
+        var last = buffer.fetchPage(40, 10);
+        assertEquals(2, last.itemCount());
+        assertFalse(last.hasMorePages());
+
+        assertTrue(buffer.covers(40, 10));
+        assertTrue(buffer.fetchPage(60, 10).isEmpty());
+        assertTrue(buffer.fetchPage(30, 10).hasMorePages());
+        assertEquals(List.of("40+100", "30+100"), directory.requests);
+    }
+
+    @Test
+    void testShrunkDirectoryDropsUsersPastTheEnd() throws Exception {
+        var directory = new Directory(200);
+        var buffer = new UserRangeBuffer(directory, LONG_AGO);
+        buffer.fetchPage(100, 100);
+
+        directory.size = 50;
+        buffer.fetchPage(0, 10);
+
+        assertEquals(50, buffer.cached());
+        assertTrue(buffer.fetchPage(100, 10).isEmpty());
+    }
+
+    @Test
+    void testLoadServesEverythingLocally() throws Exception {
+        var directory = new Directory(0);
+        var buffer = new UserRangeBuffer(directory, LONG_AGO);
+        buffer.load(List.of(user(0), user(1), user(2)));
+
+        var page = buffer.fetchPage(2, 7);
+        assertEquals(List.of("P2"), ids(page));
+        assertFalse(page.hasMorePages());
+        assertEquals(3, page.total());
+        assertTrue(directory.requests.isEmpty());
+
+        buffer.invalidate();
+        assertFalse(buffer.covers(0, 1));
+    }
+
+    @Test
+    void testExpiredUsersAreFetchedAgain() throws Exception {
+        var directory = new Directory(30);
+        var buffer = new UserRangeBuffer(directory, Duration.ZERO);
+        var cache = new PageCache(buffer, 16, Duration.ZERO, Runnable::run);
+
+        cache.fetchPage(0, 10);
+        Thread.sleep(1);
+        cache.fetchPage(0, 10);
+
+        assertEquals(List.of("0+100", "0+100"), directory.requests, "the cache's refetch must reach the API");
+        assertFalse(buffer.covers(0, 10));
+        assertEquals(30, buffer.cached());
+    }
+
+    @Test
+    void testEmptyPageClaimingMoreIsRejected() {
+        var buffer = new UserRangeBuffer((offset, limit) -> new PagedResponse<>(limit, offset, true, null, List.of()),
+                LONG_AGO);
+
+        assertThrows(IOException.class, () -> buffer.fetchPage(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> buffer.fetchPage(-1, 10));
+    }
+}
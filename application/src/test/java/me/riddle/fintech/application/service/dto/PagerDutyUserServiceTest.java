@@ -1,15 +1,24 @@
 package me.riddle.fintech.application.service.dto;
 
+import me.riddle.fintech.application.service.transport.HttpTransport;
 import me.riddle.fintech.domain.model.dto.PagedResponse;
 import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.dto.UserField;
+import me.riddle.fintech.domain.model.dto.UserInclude;
+import me.riddle.fintech.domain.model.store.HashedUser;
+import me.riddle.fintech.domain.model.store.UserContentHash;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandler;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -191,12 +200,271 @@ class PagerDutyUserServiceTest {
         assertEquals(123, user.getUnknownField("another_new_field"));
     }
 
+    @Test
+    void testSearchUsersSendsEncodedQuery() throws IOException, InterruptedException {
+        // Arrange
+        String usersJson = """
+            {
+                "users": [
+                    {
+                        "id": "P123456",
+                        "type": "user",
+                        "name": "John Doe",
+                        "email": "john@example.com"
+                    }
+                ],
+                "limit": 25,
+                "offset": 0,
+                "more": false,
+                "total": 1
+            }
+            """;
+        stubHttpClient.setResponse(usersJson, 200);
+
+        // Act
+        PagedResponse<PagerDutyUser> page = service.searchUsers(" john doe&co ", 0, 25);
+
+        // Assert
+        assertEquals("P123456", page.data().getFirst().id());
+        assertEquals("query=john%20doe%26co&offset=0&limit=25", stubHttpClient.lastRequest.uri().getRawQuery());
+    }
+
+    @Test
+    void testGetUsersPageRequestsIncludes() throws IOException, InterruptedException {
+        // Arrange - included resources come back inline on every user
+        String usersJson = """
+            {
+                "users": [
+                    {
+                        "id": "P123456",
+                        "type": "user",
+                        "name": "John Doe",
+                        "contact_methods": [
+                            {"id": "PC1", "type": "phone_contact_method", "address": "5551234", "country_code": 1}
+                        ],
+                        "teams": [
+                            {"id": "PT1", "type": "team", "name": "Platform"}
+                        ]
+                    }
+                ],
+                "limit": 100,
+                "offset": 0,
+                "more": false,
+                "total": 1
+            }
+            """;
+        stubHttpClient.setResponse(usersJson, 200);
+
+        // Act
+        var page = service.getUsersPage(0, 100, Set.of(UserInclude.TEAMS, UserInclude.CONTACT_METHODS));
+
+        // Assert
+        assertEquals("offset=0&limit=100&include%5B%5D=contact_methods&include%5B%5D=teams",
+                stubHttpClient.lastRequest.uri().getRawQuery());
+        var user = page.data().getFirst();
+        assertEquals("5551234", user.contactMethods().getFirst().getAttribute("address"));
+        assertEquals("Platform", user.teams().getFirst().getAttribute("name"));
+    }
+
+    @Test
+    void testGetUserRequestsIncludes() throws IOException, InterruptedException {
+        stubHttpClient.setResponse("""
+            {"user": {"id": "P123456", "type": "user", "notification_rules": [{"id": "PN1", "type": "assignment_notification_rule", "urgency": "high"}]}}
+            """, 200);
+
+        var user = service.getUser("P123456", Set.of(UserInclude.NOTIFICATION_RULES));
+
+        assertEquals("/users/P123456", stubHttpClient.lastRequest.uri().getPath());
+        assertEquals("include%5B%5D=notification_rules", stubHttpClient.lastRequest.uri().getRawQuery());
+        assertEquals("high", user.notificationRules().getFirst().getAttribute("urgency"));
+    }
+
+    @Test
+    void testGetUsersPageProjectedParsesOnlySelectedFields() throws IOException, InterruptedException {
+        // Arrange - unselected, nested and unknown fields must all be skipped
+        String usersJson = """
+            {
+                "users": [
+                    {
+                        "id": "P123456",
+                        "type": "user",
+                        "name": "John Doe",
+                        "email": "john@example.com",
+                        "time_zone": "America/New_York",
+                        "role": "admin",
+                        "invitation_sent": true,
+                        "contact_methods": [{"id": "PC1", "type": "email_contact_method_reference"}],
+                        "new_field": {"nested": [1, 2, {"deep": "x"}]}
+                    },
+                    {
+                        "id": "P789012",
+                        "type": "user",
+                        "time_zone": null,
+                        "role": "user"
+                    }
+                ],
+                "limit": 25,
+                "offset": 50,
+                "more": true,
+                "total": 142,
+                "future_envelope_field": {"a": 1}
+            }
+            """;
+        stubHttpClient.setResponse(usersJson, 200);
+
+        // Act
+        var page = service.getUsersPageProjected(50, 25, Set.of(UserField.TIME_ZONE, UserField.ROLE));
+
+        // Assert
+        assertEquals(25, page.limit());
+        assertEquals(50, page.offset());
+        assertTrue(page.hasMorePages());
+        assertEquals(142, page.total());
+
+        var first = page.data().getFirst();
+        assertEquals("P123456", first.id());
+        assertEquals("user", first.type());
+        assertEquals("America/New_York", first.timeZone());
+        assertEquals("admin", first.role());
+        assertNull(first.name());
+        assertNull(first.email());
+        assertNull(first.invitationSent());
+        assertFalse(first.hasUnknownFields());
+
+        var second = page.data().get(1);
+        assertNull(second.timeZone());
+        assertEquals("user", second.role());
+    }
+
+    @Test
+    void testGetUsersPageProjectedRejectsMalformedPage() {
+        stubHttpClient.setResponse("[1, 2]", 200);
+
+        assertThrows(IOException.class, () -> service.getUsersPageProjected(0, 25, Set.of(UserField.ROLE)));
+        assertThrows(IllegalArgumentException.class, () -> service.getUsersPageProjected(0, 0, Set.of()));
+    }
+
+    @Test
+    void testGetUsersPageProjectedRejectsUsersWithoutId() {
+        stubHttpClient.setResponse("""
+            {"users": [{"type": "user", "role": "admin"}], "limit": 25, "offset": 0, "more": false}
+            """, 200);
+
+        var exception = assertThrows(IOException.class, () -> service.getUsersPageProjected(0, 25, Set.of(UserField.ROLE)));
+        assertTrue(exception.getMessage().startsWith("User without id"), exception.getMessage());
+
+        stubHttpClient.setResponse("""
+            {"users": [{"id": "P1", "role": "admin"}], "limit": 25, "offset": 0, "more": false}
+            """, 200);
+        assertThrows(IOException.class, () -> service.getUsersPageProjected(0, 25, Set.of(UserField.ROLE)));
+    }
+
+    @Test
+    void testGetUsersPageHashedHashesEveryUserAsParsed() throws IOException, InterruptedException {
+        stubHttpClient.setResponse("""
+            {"users": [
+                {"id": "P1", "type": "user", "name": "Ann", "teams": [{"id": "T1"}]},
+                {"id": "P2", "type": "user", "name": "Bob"}
+            ], "limit": 25, "offset": 25, "more": false, "total": 27}
+            """, 200);
+
+        var hashed = service.getUsersPageHashed(25, 25);
+        var plain = service.getUsersPage(25, 25);
+
+        assertEquals(25, hashed.offset());
+        assertFalse(hashed.hasMorePages());
+        assertEquals(27, hashed.total());
+        assertEquals(plain.data(), hashed.data().stream().map(HashedUser::user).toList());
+        for (var user : hashed.data()) {
+            assertEquals(UserContentHash.of(user.user()), user.contentHash());
+        }
+        assertEquals("offset=25&limit=25", stubHttpClient.lastRequest.uri().getRawQuery());
+    }
+
+    @Test
+    void testFetchHashedPageChecksStatusAndLimit() {
+        stubHttpClient.setResponse("Unauthorized", 401);
+
+        PageFetcher fetcher = service;
+
+        assertThrows(IOException.class, () -> fetcher.fetchHashedPage(0, 25));
+        assertThrows(IllegalArgumentException.class, () -> fetcher.fetchHashedPage(0, 0));
+    }
+
+    @Test
+    void testGetUsersPagesRequestsConsecutiveOffsets() throws IOException, InterruptedException {
+        stubHttpClient.setResponse("""
+            {"users": [{"id": "P1", "type": "user", "name": "Ann"}], "limit": 25, "offset": 0, "more": true}
+            """, 200);
+
+        var pages = service.getUsersPages(0, 25, 3);
+
+        assertEquals(3, pages.size());
+        assertEquals("P1", pages.get(2).data().getFirst().id());
+        assertEquals("offset=50&limit=25", stubHttpClient.lastRequest.uri().getRawQuery());
+    }
+
+    @Test
+    void testFetchPagesStepsByStride() throws IOException, InterruptedException {
+        stubHttpClient.setResponse("""
+            {"users": [{"id": "P1", "type": "user", "name": "Ann"}], "limit": 25, "offset": 0, "more": true}
+            """, 200);
+
+        var pages = service.fetchPages(10, 24, 25, 3);
+
+        assertEquals(3, pages.size());
+        assertEquals("offset=58&limit=25", stubHttpClient.lastRequest.uri().getRawQuery());
+        assertThrows(IllegalArgumentException.class, () -> service.fetchPages(0, 0, 25, 3));
+    }
+
+    @Test
+    void testGetUsersPagesValidatesArgumentsAndStatus() {
+        assertThrows(IllegalArgumentException.class, () -> service.getUsersPages(0, 101, 3));
+        assertThrows(IllegalArgumentException.class, () -> service.getUsersPages(0, 25, 0));
+
+        stubHttpClient.setResponse("Too Many Requests", 429);
+        var exception = assertThrows(IOException.class, () -> service.getUsersPages(0, 25, 2));
+        assertTrue(exception.getMessage().contains("429"));
+    }
+
+    @Test
+    void testCloseLeavesATransportPassedInOpen() {
+        var closed = new int[1];
+        var transport = new HttpTransport() {
+            @Override
+            public <T> T get(URI uri, Map<String, String> headers, Duration timeout, BodyParser<T> parser) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Kind kind() {
+                return Kind.SOCKET;
+            }
+
+            @Override
+            public void close() {
+                closed[0]++;
+            }
+        };
+
+        new PagerDutyUserService("token", transport).close();
+
+        assertEquals(0, closed[0], "the caller owns it");
+    }
+
+    @Test
+    void testSearchUsersValidatesArguments() {
+        assertThrows(IllegalArgumentException.class, () -> service.searchUsers("  ", 0, 25));
+        assertThrows(IllegalArgumentException.class, () -> service.searchUsers("john", 0, 101));
+    }
+
     /**
      * Simple stub implementation of HttpClient for testing.
      */
     private static class StubHttpClient extends HttpClient {
         private String responseBody = "";
         private int statusCode = 200;
+        private HttpRequest lastRequest;
 
         void setResponse(String body, int code) {
             this.responseBody = body;
@@ -204,19 +472,52 @@ class PagerDutyUserServiceTest {
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> responseBodyHandler) {
+            lastRequest = request;
+            return new StubHttpResponse<>(body(responseBodyHandler), statusCode);
+        }
 
-            return (HttpResponse<T>) new StubHttpResponse(responseBody, statusCode);
+        /**
+         * Run the canned body through the caller's handler, as the real client does.
+         */
+        private <T> T body(BodyHandler<T> responseBodyHandler) {
+            var subscriber = responseBodyHandler.apply(new HttpResponse.ResponseInfo() {
+                @Override
+                public int statusCode() {
+                    return statusCode;
+                }
+
+                @Override
+                public java.net.http.HttpHeaders headers() {
+                    return java.net.http.HttpHeaders.of(java.util.Map.of(), (k, v) -> true);
+                }
+
+                @Override
+                public Version version() {
+                    return Version.HTTP_1_1;
+                }
+            });
+            subscriber.onSubscribe(new java.util.concurrent.Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onNext(java.util.List.of(java.nio.ByteBuffer.wrap(responseBody.getBytes(java.nio.charset.StandardCharsets.UTF_8))));
+            subscriber.onComplete();
+            return subscriber.getBody().toCompletableFuture().join();
         }
 
         @Override
         public <T> java.util.concurrent.CompletableFuture<HttpResponse<T>> sendAsync(
                 HttpRequest request, BodyHandler<T> responseBodyHandler) {
+            lastRequest = request;
             // Return a completed future with our stub response -- exactly as is
-            //noinspection unchecked
             return java.util.concurrent.CompletableFuture.completedFuture(
-                    (HttpResponse<T>) new StubHttpResponse(responseBody, statusCode));
+                    new StubHttpResponse<>(body(responseBodyHandler), statusCode));
         }
 
         @Override
@@ -224,9 +525,8 @@ class PagerDutyUserServiceTest {
                 HttpRequest request, BodyHandler<T> responseBodyHandler,
                 HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
             // Return a completed future with our stub response (ignoring push promises) - exactly as is
-            //noinspection unchecked
             return java.util.concurrent.CompletableFuture.completedFuture(
-                    (HttpResponse<T>) new StubHttpResponse(responseBody, statusCode));
+                    new StubHttpResponse<>(body(responseBodyHandler), statusCode));
         }
 
         @Override
@@ -280,11 +580,11 @@ class PagerDutyUserServiceTest {
      * DO NOT make this immutable!
      */
     @SuppressWarnings("ClassCanBeRecord")
-    private static class StubHttpResponse implements HttpResponse<String> {
-        private final String body;
+    private static class StubHttpResponse<T> implements HttpResponse<T> {
+        private final T body;
         private final int statusCode;
 
-        StubHttpResponse(String body, int statusCode) {
+        StubHttpResponse(T body, int statusCode) {
             this.body = body;
             this.statusCode = statusCode;
         }
@@ -295,7 +595,7 @@ class PagerDutyUserServiceTest {
         }
 
         @Override
-        public String body() {
+        public T body() {
             return body;
         }
 
@@ -307,7 +607,7 @@ class PagerDutyUserServiceTest {
         }
 
         @Override
-        public java.util.Optional<HttpResponse<String>> previousResponse() {
+        public java.util.Optional<HttpResponse<T>> previousResponse() {
             return java.util.Optional.empty();
         }
 
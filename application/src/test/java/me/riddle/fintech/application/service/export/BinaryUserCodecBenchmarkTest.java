@@ -0,0 +1,107 @@
+package me.riddle.fintech.application.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Size and encode/decode throughput of the binary export against NDJSON.
+ * Opt-in, and only meaningful on a quiet machine: {@code BENCHMARKS=true ./gradlew :application:test}
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARKS", matches = "true")
+class BinaryUserCodecBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryUserCodecBenchmarkTest.class);
+
+    private static final int USERS = 200_000;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    private static List<PagerDutyUser> directory() {
+        String[] zones = {"America/New_York", "Europe/London", "Asia/Tokyo", "Australia/Sydney", "America/Los_Angeles"};
+        var users = new ArrayList<PagerDutyUser>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new PagerDutyUser("P" + Integer.toString(i * 7919, 36).toUpperCase(), "User Number " + i,
+                    "user" + i + "@team" + i % 40 + ".example.com", "User Number " + i, "user",
+                    "https://api.pagerduty.com/users/P" + i, "https://acme.pagerduty.com/users/P" + i,
+                    "https://secure.gravatar.com/avatar/" + Integer.toHexString(i * 31) + ".png?d=mm&r=PG",
+                    "purple", i % 20 == 0 ? "admin" : "user", null, i % 9 != 0, "Engineer " + i % 25,
+                    zones[i % zones.length],
+                    i % 4 == 0 ? Map.of("license", Map.of("id", "PL1", "type", "license_reference")) : Map.of()));
+        }
+        return users;
+    }
+
+    @Test
+    void benchmarkAgainstNdjson() throws Exception {
+        var users = directory();
+        var binary = tempDir.resolve("users.pdub");
+        var ndjson = tempDir.resolve("users.ndjson");
+        var objectMapper = new ObjectMapper();
+
+        long binaryEncode = Long.MAX_VALUE, binaryDecode = Long.MAX_VALUE;
+        long jsonEncode = Long.MAX_VALUE, jsonDecode = Long.MAX_VALUE;
+
+        // Best of N - the first rounds double as JIT warm-up
+        for (int round = 0; round < ROUNDS; round++) {
+            var start = System.nanoTime();
+            try (var writer = ExportFormat.BINARY.open(binary, false)) {
+                writer.writeAll(users);
+            }
+            binaryEncode = Math.min(binaryEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            try (var writer = ExportFormat.NDJSON.open(ndjson, false)) {
+                writer.writeAll(users);
+            }
+            jsonEncode = Math.min(jsonEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            var reader = BinaryUserReader.open(binary);
+            var decoded = 0;
+            while (reader.read() != null) {
+                decoded++;
+            }
+            binaryDecode = Math.min(binaryDecode, System.nanoTime() - start);
+            assertEquals(USERS, decoded);
+
+            start = System.nanoTime();
+            try (var lines = Files.lines(ndjson)) {
+                assertEquals(USERS, lines.map(line -> {
+                    try {
+                        return objectMapper.readValue(line, PagerDutyUser.class);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).count());
+            }
+            jsonDecode = Math.min(jsonDecode, System.nanoTime() - start);
+        }
+
+        log.info("{} users - binary {} KiB, ndjson {} KiB", USERS, Files.size(binary) / 1024, Files.size(ndjson) / 1024);
+        log.info("encode: binary {} users/s, ndjson {} users/s", rate(binaryEncode), rate(jsonEncode));
+        log.info("decode: binary {} users/s, ndjson {} users/s", rate(binaryDecode), rate(jsonDecode));
+
+        assertTrue(Files.size(binary) < Files.size(ndjson));
+    }
+
+    private static long rate(long nanos) {
+        return USERS * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,165 @@
+package me.riddle.fintech.application.service.export;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryUserCodecTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<PagerDutyUser> users(int count) {
+        var users = new ArrayList<PagerDutyUser>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> unknown = i % 3 == 0
+                    ? Map.of("license", "full", "teams", List.of(Map.of("id", "PT" + i % 5, "type", "team_reference")))
+                    : Map.of();
+            users.add(new PagerDutyUser("P" + i, "Zoë " + i + " 🚀", "u" + i + "@example.com", "Zoë " + i, "user",
+                    "https://api.pagerduty.com/users/P" + i, null, null, i % 2 == 0 ? "purple" : null,
+                    i % 10 == 0 ? "admin" : "user", null, i % 4 == 0 ? null : i % 2 == 0,
+                    "Engineer " + i % 7, "Europe/London", unknown));
+        }
+        return users;
+    }
+
+    private static List<PagerDutyUser> readAll(BinaryUserReader reader) throws IOException {
+        var users = new ArrayList<PagerDutyUser>();
+        for (var user = reader.read(); user != null; user = reader.read()) {
+            users.add(user);
+        }
+        return users;
+    }
+
+    @Test
+    void testRoundTripsUsersIncludingUnknownFields() throws Exception {
+        var file = tempDir.resolve("users.pdub");
+        var expected = users(20_000);     // several buffer drains
+
+        try (var writer = BinaryUserExportWriter.open(file)) {
+            writer.writeAll(expected);
+        }
+
+        var reader = BinaryUserReader.open(file);
+        assertEquals(expected, readAll(reader));
+        assertEquals(20_000, reader.records());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void testSkipStillRegistersDictionaryStrings() throws Exception {
+        var file = tempDir.resolve("users.pdub");
+        var expected = users(100);
+        try (var writer = BinaryUserExportWriter.open(file)) {
+            writer.writeAll(expected);
+        }
+
+        var reader = BinaryUserReader.open(file);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(reader.skip());
+        }
+
+        // Roles, job titles and time zones were all first defined alongside skipped records
+        assertEquals(expected.subList(50, 100), readAll(reader));
+        assertFalse(reader.skip());
+    }
+
+    @Test
+    void testGzipExportDecodesAfterInflating() throws Exception {
+        var file = tempDir.resolve("users.pdub.gz");
+        var expected = users(1_000);
+        try (var writer = ExportFormat.BINARY.open(file, true)) {
+            writer.writeAll(expected);
+        }
+
+        byte[] bytes;
+        try (var in = new GZIPInputStream(Files.newInputStream(file))) {
+            bytes = in.readAllBytes();
+        }
+        assertEquals(expected, readAll(new BinaryUserReader(ByteBuffer.wrap(bytes))));
+    }
+
+    @Test
+    void testSmallerThanNdjson() throws Exception {
+        var users = users(5_000);
+        var binary = tempDir.resolve("users.pdub");
+        var ndjson = tempDir.resolve("users.ndjson");
+        try (var writer = ExportFormat.BINARY.open(binary, false)) {
+            writer.writeAll(users);
+        }
+        try (var writer = ExportFormat.NDJSON.open(ndjson, false)) {
+            writer.writeAll(users);
+        }
+
+        assertTrue(Files.size(binary) < Files.size(ndjson) * 0.7,
+                "binary=" + Files.size(binary) + " ndjson=" + Files.size(ndjson));
+    }
+
+    @Test
+    void testRejectsForeignAndTruncatedFiles() throws Exception {
+        var json = ByteBuffer.wrap("{\"users\":[]}".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> new BinaryUserReader(json));
+
+        var file = tempDir.resolve("users.pdub");
+        try (var writer = BinaryUserExportWriter.open(file)) {
+            writer.writeAll(users(10));
+        }
+        var bytes = Files.readAllBytes(file);
+        var truncated = new BinaryUserReader(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 20)));
+
+        assertThrows(IOException.class, () -> readAll(truncated));
+    }
+
+    @Test
+    void testRejectsCorruptLengthsWithIOException() throws Exception {
+        var tooLong = new byte[]{BinaryUserFormat.TAG_USER, -1, -1, -1, -1, -1};
+        var negative = new byte[]{BinaryUserFormat.TAG_STRING, -1, -1, -1, -1, 0x0F};
+        var pastTheEnd = new byte[]{BinaryUserFormat.TAG_STRING, 0x7F, 'a'};
+
+        for (var frame : List.of(tooLong, negative, pastTheEnd)) {
+            var reader = new BinaryUserReader(withHeader(frame));
+            assertThrows(IOException.class, () -> readAll(reader));
+            assertThrows(IOException.class, () -> new BinaryUserReader(withHeader(frame)).skip());
+        }
+    }
+
+    @Test
+    void testAnyCorruptByteFailsWithIOExceptionOnly() throws Exception {
+        var file = tempDir.resolve("users.pdub");
+        try (var writer = BinaryUserExportWriter.open(file)) {
+            writer.writeAll(users(6));
+        }
+        var bytes = Files.readAllBytes(file);
+
+        for (int i = 8; i < bytes.length; i++) {
+            for (var value : new byte[]{-1, -128, 0x7F}) {
+                var corrupt = bytes.clone();
+                corrupt[i] = value;
+                try {
+                    readAll(new BinaryUserReader(ByteBuffer.wrap(corrupt)));
+                } catch (IOException expected) {
+                    // reported as corrupt - the only acceptable failure
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer withHeader(byte[] frames) {
+        return ByteBuffer.allocate(8 + frames.length)
+                .putInt(BinaryUserFormat.MAGIC).putShort(BinaryUserFormat.VERSION).putShort((short) 0)
+                .put(frames).flip();
+    }
+}
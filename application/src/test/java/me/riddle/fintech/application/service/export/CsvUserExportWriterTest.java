@@ -0,0 +1,80 @@
+package me.riddle.fintech.application.service.export;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvUserExportWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static PagerDutyUser user(String id, String name, Boolean invitationSent, String jobTitle) {
+        return new PagerDutyUser(id, name, id.toLowerCase() + "@example.com", null, "user", null, null, null,
+                null, "user", null, invitationSent, jobTitle, "Europe/London", Map.of());
+    }
+
+    @Test
+    void testWritesRfc4180Rows() throws Exception {
+        var file = tempDir.resolve("users.csv");
+        try (var writer = CsvUserExportWriter.open(file)) {
+            writer.write(user("P1", "Doe, Jane", true, "SRE"));
+            writer.write(user("P2", "John \"JJ\" Smith", false, "Line one\nline two"));
+            writer.write(new PagerDutyUser("P3", null, null, "user"));
+            assertEquals(3, writer.count());
+        }
+
+        assertEquals(CsvUserExportWriter.HEADER + "\r\n"
+                        + "P1,\"Doe, Jane\",p1@example.com,user,Europe/London,true,SRE\r\n"
+                        + "P2,\"John \"\"JJ\"\" Smith\",p2@example.com,user,Europe/London,false,\"Line one\nline two\"\r\n"
+                        + "P3,,,,,,\r\n",
+                Files.readString(file));
+    }
+
+    @Test
+    void testEncodesUtf8IncludingSurrogatePairs() throws Exception {
+        var file = tempDir.resolve("users.csv");
+        var name = "Zoë Łukasz 李雷 🚀";
+        try (var writer = CsvUserExportWriter.open(file)) {
+            writer.write(user("P1", name, null, null));
+        }
+
+        var row = Files.readAllLines(file, StandardCharsets.UTF_8).get(1);
+        assertEquals("P1," + name + ",p1@example.com,user,Europe/London,,", row);
+    }
+
+    @Test
+    void testRowsSpanningBufferDrainsAreIntact() throws Exception {
+        var file = tempDir.resolve("users.csv");
+        var users = 30_000;     // ~2 MiB - several buffer drains
+        try (var writer = CsvUserExportWriter.open(file)) {
+            for (int i = 0; i < users; i++) {
+                writer.write(user("P" + i, "Ünïcödé Nåme " + i, i % 2 == 0, "Engineer"));
+            }
+        }
+
+        var lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(users + 1, lines.size());
+        assertEquals("P29999,Ünïcödé Nåme 29999,p29999@example.com,user,Europe/London,false,Engineer",
+                lines.getLast());
+    }
+
+    @Test
+    void testTruncatesExistingFile() throws Exception {
+        var file = tempDir.resolve("users.csv");
+        Files.writeString(file, "x".repeat(10_000));
+
+        try (var ignored = CsvUserExportWriter.open(file)) {
+            // header only
+        }
+
+        assertEquals(CsvUserExportWriter.HEADER + "\r\n", Files.readString(file));
+    }
+}
@@ -0,0 +1,52 @@
+package me.riddle.fintech.application.service.export;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportFormatTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] gunzip(Path file) throws IOException {
+        try (var in = new GZIPInputStream(Files.newInputStream(file))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void writeUsers(ExportFormat format, Path file, boolean gzip, int count) throws IOException {
+        try (var writer = format.open(file, gzip)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user"));
+            }
+        }
+    }
+
+    @Test
+    void testGzipMatchesPlainOutput() throws Exception {
+        for (var format : ExportFormat.values()) {
+            var plain = tempDir.resolve("users." + format.extension(false));
+            var compressed = tempDir.resolve("users." + format.extension(true));
+
+            writeUsers(format, plain, false, 2_000);
+            writeUsers(format, compressed, true, 2_000);
+
+            assertArrayEquals(Files.readAllBytes(plain), gunzip(compressed), format.name());
+            assertTrue(Files.size(compressed) < Files.size(plain), format.name());
+        }
+    }
+
+    @Test
+    void testExtensions() {
+        assertEquals("csv", ExportFormat.CSV.extension(false));
+        assertEquals("ndjson.gz", ExportFormat.NDJSON.extension(true));
+    }
+}
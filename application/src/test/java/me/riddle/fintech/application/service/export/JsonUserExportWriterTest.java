@@ -0,0 +1,72 @@
+package me.riddle.fintech.application.service.export;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonUserExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static List<PagerDutyUser> users(int count) {
+        var users = new ArrayList<PagerDutyUser>();
+        for (int i = 0; i < count; i++) {
+            users.add(new PagerDutyUser("P" + i, "User \"" + i + "\"\n", "u" + i + "@example.com", null, "user",
+                    null, null, null, null, "user", null, i % 2 == 0, null, "Europe/London",
+                    Map.of("license", "full")));
+        }
+        return users;
+    }
+
+    @Test
+    void testJsonArrayRoundTrips() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var expected = users(50);
+
+        try (var writer = new JsonUserExportWriter(out, false)) {
+            writer.writeAll(expected);
+            assertEquals(50, writer.count());
+        }
+
+        var actual = objectMapper.readValue(out.toByteArray(), new TypeReference<List<PagerDutyUser>>() {});
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testEmptyJsonArray() throws Exception {
+        var out = new ByteArrayOutputStream();
+
+        try (var ignored = new JsonUserExportWriter(out, false)) {
+            // nothing written
+        }
+
+        assertEquals(List.of(), objectMapper.readValue(out.toByteArray(), List.class));
+    }
+
+    @Test
+    void testNdjsonHasOneUserPerLine() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var expected = users(3);
+
+        try (var writer = new JsonUserExportWriter(out, true)) {
+            writer.writeAll(expected);
+        }
+
+        var text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.endsWith("\n"));
+        var lines = text.split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(expected.get(i), objectMapper.readValue(lines[i], PagerDutyUser.class));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package me.riddle.fintech.application.service.export;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelUserExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<PagerDutyUser> users(int count) {
+        var users = new ArrayList<PagerDutyUser>();
+        for (int i = 0; i < count; i++) {
+            users.add(new PagerDutyUser("P" + i, "Üser, \"" + i + "\"", "u" + i + "@example.com", null, "user",
+                    null, null, null, null, "user", null, i % 2 == 0, "SRE", "Europe/London", Map.of()));
+        }
+        return users;
+    }
+
+    private Path sequential(ExportFormat format, List<PagerDutyUser> users) throws IOException {
+        var file = tempDir.resolve("sequential." + format.extension(false));
+        try (var writer = format.open(file, false)) {
+            writer.writeAll(users);
+        }
+        return file;
+    }
+
+    @Test
+    void testCsvAndNdjsonMatchSequentialOutput() throws Exception {
+        var users = users(10_007);     // ragged last chunk
+        var exporter = new ParallelUserExporter(4, 1_000);
+
+        for (var format : List.of(ExportFormat.CSV, ExportFormat.NDJSON)) {
+            var parallel = tempDir.resolve("parallel." + format.extension(false));
+
+            assertEquals(users.size(), exporter.export(users, format, parallel, false));
+
+            assertEquals(-1, Files.mismatch(sequential(format, users), parallel), format.name());
+        }
+    }
+
+    @Test
+    void testJsonIsOneValidArray() throws Exception {
+        var users = users(2_500);
+        var file = tempDir.resolve("users.json");
+
+        new ParallelUserExporter(3, 1_000).export(users, ExportFormat.JSON, file, false);
+
+        var parsed = new ObjectMapper().readValue(file.toFile(), new TypeReference<List<PagerDutyUser>>() {});
+        assertEquals(users, parsed);
+    }
+
+    @Test
+    void testGzipMembersConcatenate() throws Exception {
+        var users = users(5_000);
+        var file = tempDir.resolve("users.csv.gz");
+
+        new ParallelUserExporter(4, 700).export(users, ExportFormat.CSV, file, true);
+
+        try (var in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertEquals(Files.readString(sequential(ExportFormat.CSV, users)),
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testEmptyExportAndValidation() throws Exception {
+        var file = tempDir.resolve("empty.json");
+        new ParallelUserExporter(2, 10).export(List.of(), ExportFormat.JSON, file, false);
+
+        assertEquals(List.of(), new ObjectMapper().readValue(file.toFile(), List.class));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelUserExporter(0, 10));
+    }
+}
@@ -0,0 +1,78 @@
+package me.riddle.fintech.application.service.export;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingUserExporterTest {
+
+    private static PageFetcher directory(int size) {
+        var users = new ArrayList<PagerDutyUser>();
+        for (int i = 0; i < size; i++) {
+            users.add(new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user"));
+        }
+        return (offset, limit) -> {
+            var end = Math.min(size, offset + limit);
+            var data = offset < end ? users.subList(offset, end) : List.<PagerDutyUser>of();
+            return new PagedResponse<>(limit, offset, end < size, size, data);
+        };
+    }
+
+    /**
+     * Collects ids - also proves the exporter never needs more than the writer keeps.
+     */
+    private static class RecordingWriter implements UserExportWriter {
+        final List<String> ids = new ArrayList<>();
+        boolean closed;
+
+        @Override
+        public void write(PagerDutyUser user) {
+            ids.add(user.id());
+        }
+
+        @Override
+        public long count() {
+            return ids.size();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    void testWritesEveryUserOncePageByPage() throws Exception {
+        var writer = new RecordingWriter();
+        var progress = new ArrayList<Long>();
+
+        var exported = new StreamingUserExporter(directory(250), 100)
+                .export(writer, (count, total) -> progress.add(count));
+
+        assertEquals(250, exported);
+        assertEquals(250, writer.ids.size());
+        assertEquals(250, writer.ids.stream().distinct().count());
+        assertEquals(250L, progress.getLast());
+        assertFalse(writer.closed);
+    }
+
+    @Test
+    void testEmptyDirectory() throws Exception {
+        var writer = new RecordingWriter();
+
+        assertEquals(0, new StreamingUserExporter(directory(0), 100).export(writer));
+        assertTrue(writer.ids.isEmpty());
+    }
+
+    @Test
+    void testValidatesPageSize() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamingUserExporter(directory(1), 0));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingUserExporter(directory(1), 101));
+    }
+}
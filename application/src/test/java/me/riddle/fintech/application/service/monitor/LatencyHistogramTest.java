@@ -0,0 +1,127 @@
+package me.riddle.fintech.application.service.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        var histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(99));
+        assertEquals(0.0, histogram.meanMicros());
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        var histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10; micros++) {
+            histogram.recordMicros(micros);
+        }
+
+        assertEquals(5, histogram.valueAtPercentile(50));
+        assertEquals(10, histogram.valueAtPercentile(100));
+        assertEquals(1, histogram.valueAtPercentile(0));
+        assertEquals(5.5, histogram.meanMicros(), 1e-9);
+    }
+
+    @Test
+    void testPercentilesWithinBucketPrecision() {
+        var histogram = new LatencyHistogram();
+        var random = new Random(42);
+        var values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + (long) (random.nextDouble() * 2_000_000);     // 1 ms to 2 s
+            histogram.recordNanos(values[i] * 1_000);
+        }
+        Arrays.sort(values);
+
+        for (var percentile : new double[]{50, 90, 99, 99.9}) {
+            var exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            var reported = histogram.valueAtPercentile(percentile);
+            assertTrue(reported >= exact, "never under-reports p" + percentile);
+            assertTrue(reported <= exact * 1.07, "p" + percentile + ": " + reported + " vs " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.maxMicros());
+        assertEquals(values[values.length - 1], histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void testBucketsAreContiguous() {
+        for (int index = 0; index < LatencyHistogram.BUCKETS - 1; index++) {
+            var upper = LatencyHistogram.upperBound(index);
+            assertEquals(index, LatencyHistogram.index(upper));
+            assertEquals(index + 1, LatencyHistogram.index(upper + 1));
+        }
+    }
+
+    @Test
+    void testHugeAndNegativeValuesAreClamped() {
+        var histogram = new LatencyHistogram();
+        histogram.recordMicros(Long.MAX_VALUE);
+        histogram.recordNanos(-5);
+
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, histogram.maxMicros());
+    }
+
+    @Test
+    void testAddAndReset() {
+        var a = new LatencyHistogram();
+        var b = new LatencyHistogram();
+        a.recordMicros(100);
+        b.recordMicros(300);
+        b.recordMicros(500);
+
+        a.add(b);
+        assertEquals(3, a.count());
+        assertEquals(500, a.maxMicros());
+        assertEquals(300, a.valueAtPercentile(50), 300 * 0.07);
+
+        a.reset();
+        assertEquals(0, a.count());
+        assertEquals(0, a.maxMicros());
+    }
+
+    @Test
+    void testBucketsRoundTrip() {
+        var histogram = new LatencyHistogram();
+        for (long micros = 1; micros < 1_000_000; micros *= 3) {
+            histogram.recordMicros(micros);
+        }
+
+        var copy = LatencyHistogram.of(histogram.buckets(), histogram.sumMicros(), histogram.maxMicros());
+
+        assertEquals(histogram.count(), copy.count());
+        assertEquals(histogram.valueAtPercentile(90), copy.valueAtPercentile(90));
+        assertEquals(histogram.meanMicros(), copy.meanMicros());
+        assertThrows(IllegalArgumentException.class, () -> LatencyHistogram.of(Map.of(-1, 1L), 0, 0));
+    }
+
+    @Test
+    void testCountAboveSkipsTheValuesOwnBucket() {
+        var histogram = new LatencyHistogram();
+        histogram.recordMicros(1_000);
+        histogram.recordMicros(1_010);     // same bucket as 1000
+        histogram.recordMicros(5_000);
+
+        assertEquals(1, histogram.countAbove(1_000));
+        assertEquals(3, histogram.countAbove(0));
+        assertEquals(0, histogram.countAbove(5_000));
+    }
+
+    @Test
+    void testRejectsInvalidPercentile() {
+        var histogram = new LatencyHistogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(101));
+        assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(-1));
+    }
+}
@@ -0,0 +1,70 @@
+package me.riddle.fintech.application.service.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbeStatsTest {
+
+    private static final Duration SLICE = Duration.ofSeconds(10);
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+    private static final Duration FIVE_MINUTES = Duration.ofMinutes(5);
+
+    @Test
+    void testWindowCountsRecentOutcomes() {
+        var stats = new ProbeStats(SLICE, FIVE_MINUTES);
+        stats.recordSuccess(1_000, 20_000_000);
+        stats.recordSuccess(2_000, 40_000_000);
+        stats.recordFailure(3_000, "IOException: 503");
+
+        var window = stats.window(MINUTE, 5_000);
+
+        assertEquals(3, window.requests());
+        assertEquals(1, window.failures());
+        assertEquals(2.0 / 3, window.availability(), 1e-9);
+        assertEquals(2, window.latency().count(), "failures carry no latency");
+        assertEquals(40_000, window.latency().maxMicros());
+        assertEquals("IOException: 503", stats.lastError());
+    }
+
+    @Test
+    void testOldOutcomesSlideOutOfShortWindowOnly() {
+        var stats = new ProbeStats(SLICE, FIVE_MINUTES);
+        stats.recordFailure(0, "down");
+        stats.recordSuccess(150_000, 1_000_000);
+
+        var now = 155_000L;
+        assertEquals(1, stats.window(MINUTE, now).requests());
+        assertEquals(1.0, stats.window(MINUTE, now).availability());
+        assertEquals(2, stats.window(FIVE_MINUTES, now).requests());
+        assertEquals(0.5, stats.window(FIVE_MINUTES, now).availability());
+    }
+
+    @Test
+    void testSlicesAreReusedAfterTheRingWraps() {
+        var stats = new ProbeStats(SLICE, MINUTE);
+        for (long at = 0; at < 3_600_000; at += 5_000) {
+            stats.recordSuccess(at, 1_000_000);
+        }
+
+        var window = stats.window(MINUTE, 3_600_000);
+        assertTrue(window.requests() >= 12 && window.requests() <= 14, "about a minute's worth: " + window.requests());
+        assertEquals(720, stats.totalRequests());
+    }
+
+    @Test
+    void testEmptyWindowHasNoAvailability() {
+        var stats = new ProbeStats(SLICE, MINUTE);
+
+        assertTrue(Double.isNaN(stats.window(MINUTE, 0).availability()));
+        assertNull(stats.lastError());
+    }
+
+    @Test
+    void testRejectsInvalidSlices() {
+        assertThrows(IllegalArgumentException.class, () -> new ProbeStats(Duration.ZERO, MINUTE));
+        assertThrows(IllegalArgumentException.class, () -> new ProbeStats(FIVE_MINUTES, MINUTE));
+    }
+}
@@ -0,0 +1,55 @@
+package me.riddle.fintech.application.service.monitor;
+
+import me.riddle.fintech.application.service.monitor.SyntheticMonitor.ProbeReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrometheusTextTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<ProbeReport> REPORTS = List.of(
+            new ProbeReport("get_user", Duration.ofMinutes(1), 4, 1, 0.75, 120_000, 180_000, 250_500, 251_000, "timeout"),
+            new ProbeReport("users_page_offset_0", Duration.ofMinutes(15), 0, 0, Double.NaN, 0, 0, 0, 0, null));
+
+    @Test
+    void testRendersEveryProbeAndWindow() {
+        var text = PrometheusText.render(REPORTS, 0);
+
+        assertTrue(text.contains("# TYPE canary_probe_availability gauge\n"));
+        assertTrue(text.contains("# TYPE canary_probe_latency_seconds summary\n"));
+        assertTrue(text.contains("canary_probe_latency_seconds_count{probe=\"get_user\",window=\"1m\"} 3\n"), text);
+        assertTrue(text.contains("# TYPE canary_report_failures counter\ncanary_report_failures 0\n"), text);
+        assertTrue(text.contains("canary_probe_requests{probe=\"get_user\",window=\"1m\"} 4\n"), text);
+        assertTrue(text.contains("canary_probe_availability{probe=\"get_user\",window=\"1m\"} 0.750000\n"), text);
+        assertTrue(text.contains("canary_probe_latency_seconds{probe=\"get_user\",window=\"1m\",quantile=\"0.99\"} 0.250500\n"), text);
+        assertTrue(text.contains("canary_probe_availability{probe=\"users_page_offset_0\",window=\"15m\"} NaN\n"), text);
+    }
+
+    @Test
+    void testWindowLabels() {
+        assertEquals("30s", PrometheusText.windowLabel(Duration.ofSeconds(30)));
+        assertEquals("5m", PrometheusText.windowLabel(Duration.ofMinutes(5)));
+        assertEquals("1h", PrometheusText.windowLabel(Duration.ofHours(1)));
+    }
+
+    @Test
+    void testWriteReplacesFile() throws Exception {
+        var file = tempDir.resolve("canary.prom");
+        Files.writeString(file, "stale");
+
+        PrometheusText.write(file, REPORTS, 2);
+
+        assertEquals(PrometheusText.render(REPORTS, 2), Files.readString(file));
+        assertTrue(Files.readString(file).contains("\ncanary_report_failures 2\n"));
+        assertFalse(Files.exists(tempDir.resolve("canary.prom.part")));
+    }
+}
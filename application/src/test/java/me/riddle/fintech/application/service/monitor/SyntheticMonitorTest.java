@@ -0,0 +1,124 @@
+package me.riddle.fintech.application.service.monitor;
+
+import me.riddle.fintech.application.service.monitor.SyntheticMonitor.Probe;
+import me.riddle.fintech.application.service.monitor.SyntheticMonitor.ProbeReport;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticMonitorTest {
+
+    private static final List<Duration> WINDOWS = List.of(Duration.ofMinutes(1), Duration.ofMinutes(5));
+
+    @Test
+    void testRecordsSuccessAndFailurePerProbe() {
+        var clock = new AtomicLong(1_000);
+        var calls = new AtomicInteger();
+        try (var monitor = new SyntheticMonitor(List.of(
+                new Probe("ok", () -> {}),
+                new Probe("flaky", () -> {
+                    if (calls.incrementAndGet() % 2 == 0) {
+                        throw new IOException("Failed to get users: 503");
+                    }
+                })), WINDOWS, Duration.ofSeconds(10), clock::get)) {
+
+            for (int i = 0; i < 4; i++) {
+                monitor.runProbe("ok");
+                monitor.runProbe("flaky");
+                clock.addAndGet(5_000);
+            }
+
+            var reports = monitor.report();
+            assertEquals(4, reports.size(), "probe x window");
+            var ok = reports.getFirst();
+            assertEquals("ok", ok.probe());
+            assertEquals(Duration.ofMinutes(1), ok.window());
+            assertEquals(4, ok.requests());
+            assertEquals(1.0, ok.availability());
+            assertNull(ok.lastError());
+
+            var flaky = reports.get(2);
+            assertEquals("flaky", flaky.probe());
+            assertEquals(2, flaky.failures());
+            assertEquals(0.5, flaky.availability());
+            assertEquals("IOException: Failed to get users: 503", flaky.lastError());
+        }
+    }
+
+    @Test
+    void testRunsOnScheduleAndReports() throws Exception {
+        var runs = new AtomicInteger();
+        var threads = new CopyOnWriteArrayList<Boolean>();
+        var reported = new CountDownLatch(2);
+        var lastReport = new CopyOnWriteArrayList<ProbeReport>();
+
+        try (var monitor = new SyntheticMonitor(List.of(new Probe("tick", () -> {
+            runs.incrementAndGet();
+            threads.add(Thread.currentThread().isVirtual());
+        })), WINDOWS)) {
+            monitor.start(Duration.ofMillis(10), Duration.ofMillis(50), reports -> {
+                lastReport.clear();
+                lastReport.addAll(reports);
+                reported.countDown();
+            });
+
+            assertTrue(reported.await(5, TimeUnit.SECONDS));
+        }
+
+        assertTrue(runs.get() >= 3, "runs: " + runs.get());
+        assertFalse(threads.contains(false), "probes run on virtual threads");
+        assertEquals("tick", lastReport.getFirst().probe());
+        assertTrue(lastReport.getFirst().requests() > 0);
+    }
+
+    @Test
+    void testOverrunCountsAsFailure() throws Exception {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        try (var monitor = new SyntheticMonitor(List.of(new Probe("hung", () -> {
+            started.countDown();
+            release.await();
+        })), WINDOWS)) {
+
+            monitor.dispatch("hung");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            monitor.dispatch("hung");
+            release.countDown();
+
+            var report = monitor.report().getFirst();
+            assertEquals(1, report.failures());
+            assertTrue(report.lastError().startsWith("overrun"));
+        }
+    }
+
+    @Test
+    void testFailingReporterKeepsTheSchedule() throws Exception {
+        var attempts = new CountDownLatch(3);
+        try (var monitor = new SyntheticMonitor(List.of(new Probe("ok", () -> {})), WINDOWS)) {
+            monitor.start(Duration.ofMillis(10), Duration.ofMillis(10), reports -> {
+                attempts.countDown();
+                throw new IOException("disk full");
+            });
+
+            assertTrue(attempts.await(5, TimeUnit.SECONDS));
+            assertTrue(monitor.reportFailures() >= 2);
+        }
+    }
+
+    @Test
+    void testRejectsInvalidSetup() {
+        var probe = new Probe("ok", () -> {});
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticMonitor(List.of(), WINDOWS));
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticMonitor(List.of(probe), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticMonitor(List.of(probe, probe), WINDOWS));
+    }
+}
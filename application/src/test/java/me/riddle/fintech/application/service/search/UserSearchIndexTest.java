@@ -0,0 +1,85 @@
+package me.riddle.fintech.application.service.search;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTest {
+
+    private static PagerDutyUser user(String id, String name, String email, String jobTitle) {
+        return new PagerDutyUser(id, name, email, null, "user", null, null, null,
+                null, null, null, null, jobTitle, null, Map.of());
+    }
+
+    private static List<String> ids(List<PagerDutyUser> users) {
+        return users.stream().map(PagerDutyUser::id).toList();
+    }
+
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    {
+        index.addAll(List.of(
+                user("P001", "Jane Doe", "jane.doe@example.com", "SRE"),
+                user("P002", "John Smith", "jsmith@example.com", "Backend Engineer"),
+                user("P003", "Mary Janeway", "captain@example.com", "Engineering Manager"),
+                user("P004", "Bob Stone", "bob@doe-industries.com", null)
+        ));
+    }
+
+    @Test
+    void testSubstringMatchesAcrossFieldsCaseInsensitively() {
+        // "Engineering Manager" starts with it, "Backend Engineer" only has it as a later word
+        assertEquals(List.of("P003", "P002"), ids(index.search("ENGINEER", 10)));
+        assertEquals(List.of("P004"), ids(index.search("industries", 10)));
+        assertEquals(List.of("P003"), ids(index.search("p003", 10)));
+    }
+
+    @Test
+    void testRanksNameHitsAndPrefixesFirst() {
+        // "jane" prefixes Jane Doe's name, is inside Mary Janeway's name
+        assertEquals(List.of("P001", "P003"), ids(index.search("jane", 10)));
+        // "doe" is a word in a name before it is a word in an email domain
+        assertEquals(List.of("P001", "P004"), ids(index.search("doe", 10)));
+    }
+
+    @Test
+    void testShortQueriesFallBackToScan() {
+        assertEquals(List.of("P001"), ids(index.search("sr", 10)));
+        assertEquals(4, index.search("e", 10).size());
+    }
+
+    @Test
+    void testAllTrigramsMustMatch() {
+        // Every trigram exists somewhere, but not as one substring
+        assertTrue(index.search("janesmith", 10).isEmpty());
+        assertTrue(index.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    void testLimitAndBlankQuery() {
+        assertEquals(2, index.search("example", 2).size());
+        assertTrue(index.search("   ", 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.search("jane", 0));
+    }
+
+    @Test
+    void testReAddingUserReplacesOldEntry() {
+        index.add(user("P001", "Jane Roe", "jane.roe@example.com", "SRE"));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of("P004"), ids(index.search("doe", 10)));
+        assertEquals(List.of("P001"), ids(index.search("roe", 10)));
+    }
+
+    @Test
+    void testClear() {
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertTrue(index.search("jane", 10).isEmpty());
+    }
+}
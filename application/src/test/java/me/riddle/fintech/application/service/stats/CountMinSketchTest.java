@@ -0,0 +1,51 @@
+package me.riddle.fintech.application.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void testNeverUnderestimatesAndStaysWithinBound() {
+        var sketch = CountMinSketch.withError(0.01, 0.01);
+        // Zipf-ish: key i occurs 1000 / (i + 1) times
+        for (int i = 0; i < 500; i++) {
+            sketch.add("key" + i, 1000 / (i + 1));
+        }
+
+        var bound = sketch.errorBound();
+        var violations = 0;
+        for (int i = 0; i < 500; i++) {
+            var estimate = sketch.estimate("key" + i);
+            var actual = 1000 / (i + 1);
+            assertTrue(estimate >= actual);
+            if (estimate - actual > bound) {
+                violations++;
+            }
+        }
+        assertTrue(violations <= 5, "At most ~delta of the keys may exceed the bound");
+    }
+
+    @Test
+    void testMergeAddsCounts() {
+        var left = new CountMinSketch(256, 4);
+        var right = new CountMinSketch(256, 4);
+        left.add("Europe/London", 3);
+        right.add("Europe/London", 4);
+        right.add("Asia/Tokyo");
+
+        left.merge(right);
+
+        assertEquals(8, left.total());
+        assertTrue(left.estimate("Europe/London") >= 7);
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new CountMinSketch(128, 4)));
+    }
+
+    @Test
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> CountMinSketch.withError(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(8, 2).add("k", -1));
+    }
+}
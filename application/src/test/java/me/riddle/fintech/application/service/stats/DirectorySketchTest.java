@@ -0,0 +1,64 @@
+package me.riddle.fintech.application.service.stats;
+
+import me.riddle.fintech.application.service.stats.DirectoryStatistics.Dimension;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectorySketchTest {
+
+    private static List<PagerDutyUser> page(int from, int to) {
+        var users = new ArrayList<PagerDutyUser>();
+        for (int i = from; i < to; i++) {
+            users.add(new PagerDutyUser("P" + i, "User " + i, "User" + i + "@team" + (i % 50) + ".example.com",
+                    null, "user", null, null, null, null, i % 100 == 0 ? "admin" : "user", null, null,
+                    "Engineer " + (i % 7), i % 3 == 0 ? "Europe/London" : "America/New_York", Map.of()));
+        }
+        return users;
+    }
+
+    @Test
+    void testMergedPageSketchesMatchDirectory() {
+        var merged = new DirectorySketch();
+        for (int from = 0; from < 20_000; from += 100) {
+            merged.merge(DirectorySketch.of(page(from, from + 100)));
+        }
+
+        assertEquals(20_000, merged.users());
+        assertEquals(20_000, merged.distinctEmails(), 4 * merged.distinctError() * 20_000);
+        assertEquals(50, merged.distinctDomains(), 2);
+
+        var zones = merged.top(Dimension.TIME_ZONE, 2);
+        assertEquals("America/New_York", zones.getFirst().key());
+        assertEquals(13_333, zones.getFirst().count(), merged.users() / DirectorySketch.TOP_K);
+
+        var admins = merged.estimate(Dimension.ROLE, "admin");
+        assertTrue(admins >= 200 && admins <= 200 + 20, "admins=" + admins);
+    }
+
+    @Test
+    void testAcceptingPagesMatchesMergingPageSketches() {
+        var merged = new DirectorySketch();
+        var accepted = new DirectorySketch();
+        for (int from = 0; from < 1_000; from += 100) {
+            merged.merge(DirectorySketch.of(page(from, from + 100)));
+            accepted.acceptAll(page(from, from + 100));
+        }
+
+        assertEquals(merged.users(), accepted.users());
+        assertEquals(merged.distinctEmails(), accepted.distinctEmails());
+        assertEquals(merged.estimate(Dimension.ROLE, "admin"), accepted.estimate(Dimension.ROLE, "admin"));
+        assertEquals(merged.top(Dimension.JOB_TITLE, 7), accepted.top(Dimension.JOB_TITLE, 7));
+    }
+
+    @Test
+    void testUnrankedDimensionIsRejected() {
+        var sketch = DirectorySketch.of(page(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> sketch.top(Dimension.UNKNOWN_FIELD, 5));
+    }
+}
@@ -0,0 +1,101 @@
+package me.riddle.fintech.application.service.stats;
+
+import me.riddle.fintech.application.service.stats.DirectoryStatistics.Dimension;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryStatisticsTest {
+
+    private static PagerDutyUser user(int i) {
+        var zone = i % 3 == 0 ? "Europe/London" : "America/New_York";
+        var invited = i % 4 == 0 ? null : i % 2 == 0;
+        return new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", null, "user", null, null, null,
+                null, i % 10 == 0 ? "admin" : "user", null, invited, "SRE", zone,
+                i % 5 == 0 ? Map.of("license", "full") : Map.of());
+    }
+
+    @Test
+    void testCountsAllDimensions() {
+        var statistics = new DirectoryStatistics();
+        for (int i = 0; i < 12; i++) {
+            statistics.accept(user(i));
+        }
+
+        var snapshot = statistics.snapshot();
+        assertEquals(12, snapshot.users());
+        assertEquals(4, snapshot.count(Dimension.TIME_ZONE, "Europe/London"));
+        assertEquals(8, snapshot.count(Dimension.TIME_ZONE, "America/New_York"));
+        assertEquals(2, snapshot.count(Dimension.ROLE, "admin"));
+        assertEquals(12, snapshot.count(Dimension.JOB_TITLE, "SRE"));
+        assertEquals(3, snapshot.count(Dimension.INVITATION_STATUS, DirectoryStatistics.INVITATION_UNKNOWN));
+        assertEquals(3, snapshot.count(Dimension.INVITATION_STATUS, DirectoryStatistics.INVITATION_SENT));
+        assertEquals(6, snapshot.count(Dimension.INVITATION_STATUS, DirectoryStatistics.INVITATION_NOT_SENT));
+        assertEquals(3, snapshot.count(Dimension.UNKNOWN_FIELD, "license"));
+        assertEquals(0, snapshot.count(Dimension.ROLE, "observer"));
+    }
+
+    @Test
+    void testTopOrdersByCountThenKey() {
+        var statistics = new DirectoryStatistics();
+        for (int i = 0; i < 12; i++) {
+            statistics.accept(user(i));
+        }
+
+        var top = statistics.snapshot().top(Dimension.TIME_ZONE, 1);
+        assertEquals(1, top.size());
+        assertEquals("America/New_York", top.getFirst().getKey());
+    }
+
+    @Test
+    void testSnapshotIsDetachedAndResetStartsOver() {
+        var statistics = new DirectoryStatistics();
+        statistics.accept(user(1));
+        var before = statistics.snapshot();
+
+        statistics.accept(user(2));
+        statistics.reset();
+
+        assertEquals(1, before.users());
+        assertEquals(1, before.count(Dimension.JOB_TITLE, "SRE"));
+        assertEquals(0, statistics.snapshot().users());
+        assertTrue(statistics.snapshot().counts(Dimension.JOB_TITLE).isEmpty());
+    }
+
+    @Test
+    void testConcurrentFeedsLoseNoCounts() throws Exception {
+        var statistics = new DirectoryStatistics();
+        var pages = 16;
+        var pageSize = 500;
+
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var futures = new ArrayList<Future<?>>();
+            for (int p = 0; p < pages; p++) {
+                var page = new ArrayList<PagerDutyUser>();
+                for (int i = 0; i < pageSize; i++) {
+                    page.add(user(p * pageSize + i));
+                }
+                futures.add(executor.submit(() -> statistics.acceptAll(page)));
+            }
+            // Snapshots while loading must not fail or block
+            statistics.snapshot();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        var snapshot = statistics.snapshot();
+        assertEquals(pages * pageSize, snapshot.users());
+        assertEquals(pages * pageSize, snapshot.count(Dimension.JOB_TITLE, "SRE"));
+        var zones = snapshot.counts(Dimension.TIME_ZONE).values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(pages * pageSize, zones);
+        assertEquals(List.of(), snapshot.top(Dimension.ROLE, 0));
+    }
+}
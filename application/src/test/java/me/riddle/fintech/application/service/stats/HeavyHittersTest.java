@@ -0,0 +1,66 @@
+package me.riddle.fintech.application.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    /**
+     * Three heavy keys buried in a long tail of unique ones.
+     */
+    private static HeavyHitters skewedStream(int capacity, String prefix) {
+        var hitters = new HeavyHitters(capacity);
+        for (int i = 0; i < 10_000; i++) {
+            hitters.add(switch (i % 10) {
+                case 0, 1, 2, 3 -> "America/New_York";
+                case 4, 5 -> "Europe/London";
+                case 6 -> "Asia/Tokyo";
+                default -> prefix + i;
+            });
+        }
+        return hitters;
+    }
+
+    @Test
+    void testFindsHeavyKeysWithBoundedError() {
+        var hitters = skewedStream(16, "tail");
+
+        var top = hitters.top(3);
+
+        assertEquals(List.of("America/New_York", "Europe/London", "Asia/Tokyo"),
+                top.stream().map(HeavyHitters.Entry::key).toList());
+        assertEquals(10_000, hitters.total());
+        for (var entry : top) {
+            assertTrue(entry.error() <= hitters.maxError());
+        }
+        // True count within [count - error, count]
+        var newYork = top.getFirst();
+        assertTrue(newYork.count() - newYork.error() <= 4_000 && 4_000 <= newYork.count());
+    }
+
+    @Test
+    void testMergeKeepsHeavyKeys() {
+        var merged = skewedStream(16, "left").merge(skewedStream(16, "right"));
+
+        var top = merged.top(3);
+
+        assertEquals("America/New_York", top.getFirst().key());
+        assertEquals(20_000, merged.total());
+        var newYork = top.getFirst();
+        assertTrue(newYork.count() - newYork.error() <= 8_000 && 8_000 <= newYork.count());
+    }
+
+    @Test
+    void testExactWhileUnderCapacity() {
+        var hitters = new HeavyHitters(8);
+        hitters.add("admin", 2);
+        hitters.add("user", 5);
+
+        assertEquals(List.of(new HeavyHitters.Entry("user", 5, 0), new HeavyHitters.Entry("admin", 2, 0)),
+                hitters.top(10));
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters(0));
+    }
+}
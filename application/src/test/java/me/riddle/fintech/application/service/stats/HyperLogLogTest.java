@@ -0,0 +1,47 @@
+package me.riddle.fintech.application.service.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void testEstimateWithinErrorBound() {
+        for (var distinct : new int[]{10, 1_000, 200_000}) {
+            var sketch = new HyperLogLog();
+            for (int i = 0; i < distinct; i++) {
+                sketch.add("user" + i + "@example.com");
+                sketch.add("user" + i + "@example.com");      // duplicates do not count
+            }
+
+            // 4 standard errors - effectively never flaky, still tight
+            var tolerance = Math.max(1, 4 * sketch.standardError() * distinct);
+            assertEquals(distinct, sketch.estimate(), tolerance, "distinct=" + distinct);
+        }
+    }
+
+    @Test
+    void testMergeEstimatesUnion() {
+        var left = new HyperLogLog();
+        var right = new HyperLogLog();
+        for (int i = 0; i < 60_000; i++) {
+            left.add("k" + i);
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            right.add("k" + i);
+        }
+
+        var union = left.merge(right).estimate();
+
+        assertEquals(100_000, union, 4 * left.standardError() * 100_000);
+    }
+
+    @Test
+    void testFixedMemoryAndValidation() {
+        assertEquals(16 * 1024, new HyperLogLog().memoryBytes());
+        assertEquals(0, new HyperLogLog().estimate());
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(10).merge(new HyperLogLog(12)));
+    }
+}
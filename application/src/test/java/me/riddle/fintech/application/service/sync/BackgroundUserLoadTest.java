@@ -0,0 +1,130 @@
+package me.riddle.fintech.application.service.sync;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.application.service.sync.BackgroundUserLoad.Progress;
+import me.riddle.fintech.application.service.sync.BackgroundUserLoad.State;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackgroundUserLoadTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * 100-user directory; request number {@code holdAtRequest} waits until released.
+     */
+    private static class HeldDirectory implements PageFetcher {
+        final CountDownLatch reached = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        int requests;
+        int holdAtRequest = -1;
+        int failAtRequest = -1;
+
+        @Override
+        public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException, InterruptedException {
+            var request = requests++;
+            if (request == holdAtRequest) {
+                reached.countDown();
+                release.await();
+            }
+            if (request == failAtRequest) {
+                throw new IOException("Failed to get users: 429");
+            }
+            var data = new ArrayList<PagerDutyUser>();
+            for (int i = offset; i < Math.min(100, offset + limit); i++) {
+                data.add(new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user"));
+            }
+            return new PagedResponse<>(limit, offset, offset + limit < 100, 100, data);
+        }
+    }
+
+    @Test
+    void testCompletesInTheBackground() throws Exception {
+        var users = Collections.synchronizedList(new ArrayList<PagerDutyUser>());
+        var finished = new ArrayList<State>();
+        var sync = new ResumableUserSync(new HeldDirectory(), tempDir.resolve("sync.log"), 10);
+
+        var load = BackgroundUserLoad.start(sync, (page, replayed) -> users.addAll(page.data()),
+                done -> finished.add(done.state()));
+        var checkpoint = load.await();
+
+        assertEquals(100, users.size());
+        assertEquals(load.progress().pages(), checkpoint.pages());
+        assertEquals(List.of(State.COMPLETED), finished);
+        assertSame(checkpoint, load.checkpoint());
+        assertEquals(100, load.progress().users());
+        assertFalse(load.isRunning());
+    }
+
+    @Test
+    void testCancelKeepsDeliveredPagesAndResumes() throws Exception {
+        var log = tempDir.resolve("sync.log");
+        var directory = new HeldDirectory();
+        directory.holdAtRequest = 3;
+        var users = Collections.synchronizedList(new ArrayList<PagerDutyUser>());
+
+        var load = BackgroundUserLoad.start(new ResumableUserSync(directory, log, 10),
+                (page, replayed) -> users.addAll(page.data()), done -> {});
+        directory.reached.await();
+        assertTrue(load.isRunning());
+        assertEquals(3, load.progress().pages());
+
+        load.cancel();
+        directory.release.countDown();
+        assertThrows(CancellationException.class, load::await);
+
+        // The page in flight still counts - it is in the log and was delivered
+        assertEquals(State.CANCELLED, load.state());
+        assertEquals(4, load.progress().pages());
+        assertEquals(load.progress().users(), users.size());
+        var kept = users.size();
+
+        users.clear();
+        var resumed = BackgroundUserLoad.start(new ResumableUserSync(new HeldDirectory(), log, 10),
+                (page, replayed) -> users.addAll(page.data()), done -> {});
+        resumed.await();
+        assertEquals(100, users.size());
+        assertEquals(4, resumed.progress().replayedPages());
+        assertEquals(100 - kept, resumed.progress().fetchedUsers());
+    }
+
+    @Test
+    void testFailureIsReportedNotThrown() throws Exception {
+        var directory = new HeldDirectory();
+        directory.failAtRequest = 5;
+
+        var load = BackgroundUserLoad.start(new ResumableUserSync(directory, tempDir.resolve("sync.log"), 10),
+                (page, replayed) -> {}, done -> {});
+
+        var e = assertThrows(ExecutionException.class, load::await);
+        assertInstanceOf(IOException.class, e.getCause());
+        assertEquals(State.FAILED, load.state());
+        assertSame(e.getCause(), load.failure());
+        assertEquals(5, load.progress().pages());
+    }
+
+    @Test
+    void testEtaFromTotalAndRate() {
+        var progress = new Progress(State.RUNNING, 5, 0, 500, 500, 2_000, Duration.ofSeconds(10));
+
+        assertEquals(50.0, progress.usersPerSecond(), 1e-9);
+        assertEquals(Duration.ofSeconds(30), progress.eta());
+        assertNull(new Progress(State.RUNNING, 5, 0, 500, 500, null, Duration.ofSeconds(10)).eta());
+        assertNull(new Progress(State.RUNNING, 5, 5, 500, 0, 2_000, Duration.ofSeconds(10)).eta());
+    }
+}
@@ -0,0 +1,60 @@
+package me.riddle.fintech.application.service.sync;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactIdSetTest {
+
+    @Test
+    void testAddAndContains() {
+        var set = new CompactIdSet();
+
+        assertTrue(set.add("P123456"));
+        assertFalse(set.add("P123456"));
+
+        assertTrue(set.contains("P123456"));
+        assertFalse(set.contains("P654321"));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        var set = new CompactIdSet(4);
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(set.add("P" + i));
+        }
+
+        assertEquals(100_000, set.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(set.contains("P" + i));
+        }
+        assertFalse(set.contains("P100000"));
+    }
+
+    @Test
+    void testFootprintIsCompact() {
+        var set = new CompactIdSet();
+        for (int i = 0; i < 100_000; i++) {
+            set.add("PXYZ" + i);
+        }
+
+        // At most 4 slots of 8 bytes per id, even right after a resize
+        assertTrue(set.memoryBytes() <= 100_000L * 32);
+    }
+
+    @Test
+    void testEmptyStringIsAValidId() {
+        var set = new CompactIdSet();
+
+        assertTrue(set.add(""));
+        assertTrue(set.contains(""));
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CompactIdSet(-1));
+        assertThrows(NullPointerException.class, () -> new CompactIdSet().add(null));
+    }
+}
@@ -0,0 +1,153 @@
+package me.riddle.fintech.application.service.sync;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentUserFetchTest {
+
+    /**
+     * Thread-safe in-memory directory with slow responses, so requests overlap.
+     * Can fail at an offset, or be edited right before the n-th request is served.
+     */
+    private static class StubDirectory implements PageFetcher {
+        private final List<PagerDutyUser> users = new ArrayList<>();
+        private int requests;
+        private int inFlight;
+        private int maxInFlight;
+        private int failAtOffset = -1;
+        private int editBeforeRequest = -1;
+        private int batchSize = 1;
+        private final List<Integer> batches = new ArrayList<>();
+
+        StubDirectory(int size) {
+            for (int i = 0; i < size; i++) {
+                users.add(new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user"));
+            }
+        }
+
+        @Override
+        public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException, InterruptedException {
+            synchronized (this) {
+                maxInFlight = Math.max(maxInFlight, ++inFlight);
+            }
+            try {
+                Thread.sleep(5);
+                synchronized (this) {
+                    if (requests++ == editBeforeRequest) {
+                        users.remove(3);
+                    }
+                    if (offset == failAtOffset) {
+                        throw new IOException("Failed to get users: 429");
+                    }
+                    var end = Math.min(users.size(), offset + limit);
+                    var data = offset < end ? List.copyOf(users.subList(offset, end)) : List.<PagerDutyUser>of();
+                    return new PagedResponse<>(limit, offset, end < users.size(), null, data);
+                }
+            } finally {
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+
+        @Override
+        public List<PagedResponse<PagerDutyUser>> fetchPages(int offset, int stride, int limit, int pages)
+                throws IOException, InterruptedException {
+            synchronized (this) {
+                batches.add(pages);
+            }
+            return PageFetcher.super.fetchPages(offset, stride, limit, pages);
+        }
+
+        @Override
+        public int batchSize() {
+            return batchSize;
+        }
+    }
+
+    @Test
+    void testFetchesEveryUserOnceInOrder() throws Exception {
+        var directory = new StubDirectory(95);
+
+        var result = new ConcurrentUserFetch(directory, 10, 4).fetchAll();
+
+        assertEquals(directory.users, result.users());
+        assertEquals(11, result.pages());     // windows overlap by one boundary user
+        assertEquals(0, result.duplicates());
+        assertTrue(result.isConsistent());
+        assertTrue(directory.maxInFlight > 1, "requests should overlap");
+        assertTrue(directory.maxInFlight <= 4);
+    }
+
+    @Test
+    void testPipeliningFetcherGetsWindowsInBatches() throws Exception {
+        var directory = new StubDirectory(95);
+        directory.batchSize = 4;     // pipelines like the NIO transport
+
+        var result = new ConcurrentUserFetch(directory, 10, 8).fetchAll();
+
+        assertEquals(directory.users, result.users());
+        assertEquals(11, result.pages());
+        assertTrue(result.isConsistent());
+        assertFalse(directory.batches.isEmpty());
+        assertTrue(directory.batches.stream().allMatch(pages -> pages == 4), "batches are capped at the fetcher's size");
+        assertTrue(directory.maxInFlight <= 2, "eight requests in flight take two batches");
+    }
+
+    @Test
+    void testExactMultipleOfStrideEndsOnShortPage() throws Exception {
+        var directory = new StubDirectory(100);
+
+        var result = new ConcurrentUserFetch(directory, 10, 3).fetchAll();
+
+        assertEquals(directory.users, result.users());
+        assertTrue(result.isConsistent());
+    }
+
+    @Test
+    void testEmptyDirectory() throws Exception {
+        var result = new ConcurrentUserFetch(new StubDirectory(0), 10, 4).fetchAll();
+
+        assertTrue(result.users().isEmpty());
+        assertEquals(1, result.pages());
+        assertTrue(result.isConsistent());
+    }
+
+    @Test
+    void testDetectsDirectoryShiftDuringFetch() throws Exception {
+        var directory = new StubDirectory(100);
+        // Some windows are served before the deletion, the rest after - at least one boundary disagrees
+        directory.editBeforeRequest = 2;
+
+        var result = new ConcurrentUserFetch(directory, 10, 4).fetchAll();
+
+        assertFalse(result.isConsistent());
+        assertTrue(result.boundaryMismatches() > 0);
+    }
+
+    @Test
+    void testFailurePropagates() {
+        var directory = new StubDirectory(100);
+        directory.failAtOffset = 27;
+
+        var e = assertThrows(IOException.class, () -> new ConcurrentUserFetch(directory, 10, 4).fetchAll());
+        assertTrue(e.getMessage().contains("429"));
+    }
+
+    @Test
+    void testRejectsInvalidSettings() {
+        var directory = new StubDirectory(1);
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentUserFetch(directory, 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentUserFetch(directory, 101, 4));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentUserFetch(directory, 10, 0));
+        assertThrows(NullPointerException.class, () -> new ConcurrentUserFetch(null, 10, 4));
+    }
+}
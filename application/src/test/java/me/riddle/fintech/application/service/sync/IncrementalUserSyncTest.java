@@ -0,0 +1,159 @@
+package me.riddle.fintech.application.service.sync;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import me.riddle.fintech.domain.model.store.HashedUser;
+import me.riddle.fintech.domain.model.store.UserSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalUserSyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<PagerDutyUser> directory = new ArrayList<>();
+
+    private final PageFetcher fetcher = (offset, limit) -> {
+        var end = Math.min(directory.size(), offset + limit);
+        var data = offset < end ? directory.subList(offset, end) : List.<PagerDutyUser>of();
+        return new PagedResponse<>(limit, offset, end < directory.size(), directory.size(), data);
+    };
+
+    private static PagerDutyUser user(int i) {
+        return new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user");
+    }
+
+    private IncrementalUserSync baseline(int size) throws Exception {
+        for (int i = 0; i < size; i++) {
+            directory.add(user(i));
+        }
+        var sync = new IncrementalUserSync(fetcher, tempDir.resolve("users.snapshot"), 4);
+        sync.run();
+        sync.commit();
+        return sync;
+    }
+
+    @Test
+    void testFirstRunReportsEverythingAdded() throws Exception {
+        directory.add(user(1));
+        directory.add(user(2));
+
+        var delta = new IncrementalUserSync(fetcher, tempDir.resolve("users.snapshot"), 4).run();
+
+        assertEquals(2, delta.added().size());
+        assertTrue(delta.changed().isEmpty());
+        assertTrue(delta.removed().isEmpty());
+    }
+
+    @Test
+    void testUnchangedDirectoryYieldsEmptyDelta() throws Exception {
+        var sync = baseline(10);
+
+        var delta = sync.run();
+
+        assertTrue(delta.isEmpty());
+        assertEquals(10, delta.unchanged());
+    }
+
+    @Test
+    void testDetectsAddedChangedAndRemoved() throws Exception {
+        var sync = baseline(10);
+
+        directory.set(3, new PagerDutyUser("P3", "Renamed", "u3@example.com", "user"));
+        directory.set(7, user(7).withUnknownField("teams", List.of("T1")));
+        var removed = directory.remove(5);
+        directory.add(user(42));
+
+        var delta = sync.run();
+
+        assertEquals(List.of(user(42)), delta.added());
+        assertEquals(List.of("P3", "P7"), delta.changed().stream().map(PagerDutyUser::id).toList());
+        assertEquals(List.of(removed), delta.removed());
+        assertEquals(7, delta.unchanged());
+        assertEquals(4, delta.changeCount());
+    }
+
+    @Test
+    void testDeltaRepeatsUntilCommitted() throws Exception {
+        var sync = baseline(5);
+        directory.add(user(99));
+
+        assertEquals(1, sync.run().added().size());
+        assertEquals(1, sync.run().added().size());
+
+        sync.commit();
+        assertTrue(sync.run().isEmpty());
+    }
+
+    @Test
+    void testDuplicatesFromOffsetDriftAreIgnored() throws Exception {
+        var sync = baseline(6);
+        directory.add(4, user(3));      // user 3 served twice across pages
+
+        var delta = sync.run();
+
+        assertTrue(delta.isEmpty());
+    }
+
+    @Test
+    void testUsesHashesComputedWhileParsing() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            directory.add(user(i));
+        }
+        var hashedCalls = new int[1];
+        var parsing = new PageFetcher() {
+            @Override
+            public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) {
+                throw new AssertionError("Pages must be fetched with their hashes");
+            }
+
+            @Override
+            public PagedResponse<HashedUser> fetchHashedPage(int offset, int limit) throws IOException, InterruptedException {
+                hashedCalls[0]++;
+                var page = fetcher.fetchPage(offset, limit);
+                return new PagedResponse<>(page.limit(), page.offset(), page.more(), page.total(),
+                        page.data().stream().map(user -> new HashedUser(user, user.id().hashCode())).toList());
+            }
+        };
+        var snapshot = tempDir.resolve("users.snapshot");
+        var sync = new IncrementalUserSync(parsing, snapshot, 4);
+
+        assertEquals(6, sync.run().added().size());
+        sync.commit();
+
+        assertTrue(hashedCalls[0] > 0);
+        assertEquals("P4".hashCode(), UserSnapshot.open(snapshot).contentHash(4), "stored as parsed, not recomputed");
+        assertTrue(sync.run().isEmpty());
+    }
+
+    @Test
+    void testCommitRequiresRun() {
+        var sync = new IncrementalUserSync(fetcher, tempDir.resolve("users.snapshot"), 4);
+
+        assertThrows(IllegalStateException.class, sync::commit);
+    }
+
+    @Test
+    void testNdjsonOutput() throws Exception {
+        var sync = baseline(2);
+        directory.add(user(2));
+
+        var out = new ByteArrayOutputStream();
+        sync.run().writeNdjson(out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].startsWith("{\"change\":\"added\",\"user\":{\"id\":\"P2\""));
+    }
+}
@@ -0,0 +1,240 @@
+package me.riddle.fintech.application.service.sync;
+
+import me.riddle.fintech.application.service.dto.PageFetcher;
+import me.riddle.fintech.domain.model.dto.PagedResponse;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableUserSyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * In-memory directory that can be told to fail (e.g. rate limit) at a given offset,
+     * or to be edited right before a given request.
+     */
+    private static class StubDirectory implements PageFetcher {
+        private final List<PagerDutyUser> users = new ArrayList<>();
+        private final List<Integer> requestedOffsets = new ArrayList<>();
+        private int failAtOffset = -1;
+        private int editBeforeRequest = -1;
+        private Runnable edit = () -> {};
+        private int batchSize = 1;
+
+        StubDirectory(int size) {
+            for (int i = 0; i < size; i++) {
+                users.add(new PagerDutyUser("P" + i, "User " + i, "u" + i + "@example.com", "user"));
+            }
+        }
+
+        @Override
+        public PagedResponse<PagerDutyUser> fetchPage(int offset, int limit) throws IOException {
+            if (requestedOffsets.size() == editBeforeRequest) {
+                edit.run();
+            }
+            requestedOffsets.add(offset);
+            if (offset == failAtOffset) {
+                failAtOffset = -1;
+                throw new IOException("Failed to get users: 429");
+            }
+            var end = Math.min(users.size(), offset + limit);
+            var data = offset < end ? users.subList(offset, end) : List.<PagerDutyUser>of();
+            return new PagedResponse<>(limit, offset, end < users.size(), users.size(), data);
+        }
+
+        @Override
+        public int batchSize() {
+            return batchSize;
+        }
+    }
+
+    @Test
+    void testFullSyncDeliversEveryUserOnce() throws Exception {
+        var directory = new StubDirectory(95);
+        var sync = new ResumableUserSync(directory, tempDir.resolve("sync.log"), 10);
+        var received = new ArrayList<PagerDutyUser>();
+
+        var checkpoint = sync.run((page, replayed) -> received.addAll(page.data()));
+
+        assertTrue(checkpoint.complete());
+        assertEquals(11, checkpoint.pages());     // pages overlap by one boundary record
+        assertEquals(95, checkpoint.users());
+        assertEquals(directory.users, received);
+    }
+
+    @Test
+    void testResumesAfterFailureWithoutRefetchingCompletedPages() throws Exception {
+        var directory = new StubDirectory(50);
+        directory.failAtOffset = 27;
+        var log = tempDir.resolve("sync.log");
+
+        var firstRun = new ArrayList<PagerDutyUser>();
+        assertThrows(IOException.class, () ->
+                new ResumableUserSync(directory, log, 10).run((page, replayed) -> firstRun.addAll(page.data())));
+        assertEquals(28, firstRun.size());
+
+        var sync = new ResumableUserSync(directory, log, 10);
+        var partial = sync.checkpoint();
+        assertTrue(partial.isResumed());
+        assertEquals(27, partial.nextOffset());
+
+        directory.requestedOffsets.clear();
+        var replayedUsers = new ArrayList<PagerDutyUser>();
+        var fetchedUsers = new ArrayList<PagerDutyUser>();
+        var checkpoint = sync.run((page, replayed) -> (replayed ? replayedUsers : fetchedUsers).addAll(page.data()));
+
+        assertTrue(checkpoint.complete());
+        assertEquals(List.of(27, 36, 45), directory.requestedOffsets);
+        assertEquals(28, replayedUsers.size());
+        assertEquals(22, fetchedUsers.size());
+    }
+
+    @Test
+    void testCompletedLogIsNotFetchedAgain() throws Exception {
+        var directory = new StubDirectory(15);
+        var sync = new ResumableUserSync(directory, tempDir.resolve("sync.log"), 10);
+        sync.run((page, replayed) -> {});
+
+        directory.requestedOffsets.clear();
+        var checkpoint = sync.run((page, replayed) -> assertTrue(replayed));
+
+        assertTrue(checkpoint.complete());
+        assertTrue(directory.requestedOffsets.isEmpty());
+    }
+
+    @Test
+    void testTornLastLineIsTruncated() throws Exception {
+        var directory = new StubDirectory(25);
+        var log = tempDir.resolve("sync.log");
+        directory.failAtOffset = 18;
+        assertThrows(IOException.class, () -> new ResumableUserSync(directory, log, 10).run((page, replayed) -> {}));
+
+        // Simulate a crash halfway through appending the next page
+        Files.writeString(log, "{\"offset\":18,\"limit\":10,\"mo", StandardOpenOption.APPEND);
+
+        var sync = new ResumableUserSync(directory, log, 10);
+        assertEquals(18, sync.checkpoint().nextOffset());
+
+        var checkpoint = sync.run((page, replayed) -> {});
+        assertTrue(checkpoint.complete());
+        assertEquals(25, checkpoint.users());
+    }
+
+    @Test
+    void testInsertionsDuringLoadAreDeduplicated() throws Exception {
+        var directory = new StubDirectory(30);
+        // Two users created at the top of the directory before the second page is requested
+        directory.editBeforeRequest = 1;
+        directory.edit = () -> {
+            directory.users.add(0, new PagerDutyUser("NEW1", "New 1", "n1@example.com", "user"));
+            directory.users.add(0, new PagerDutyUser("NEW2", "New 2", "n2@example.com", "user"));
+        };
+        var received = new ArrayList<PagerDutyUser>();
+
+        var checkpoint = new ResumableUserSync(directory, tempDir.resolve("sync.log"), 10)
+                .run((page, replayed) -> received.addAll(page.data()));
+
+        var ids = received.stream().map(PagerDutyUser::id).toList();
+        assertEquals(30, ids.size());
+        assertEquals(30, ids.stream().distinct().count());
+        assertEquals(2, checkpoint.duplicates());
+        assertEquals(0, checkpoint.refetches());
+    }
+
+    @Test
+    void testDeletionsDuringLoadRefetchOnlyTheAffectedWindow() throws Exception {
+        var directory = new StubDirectory(40);
+        // Three already-loaded users deleted before the third request - the window slides left
+        directory.editBeforeRequest = 2;
+        directory.edit = () -> directory.users.subList(2, 5).clear();
+        var received = new ArrayList<PagerDutyUser>();
+
+        var checkpoint = new ResumableUserSync(directory, tempDir.resolve("sync.log"), 10)
+                .run((page, replayed) -> received.addAll(page.data()));
+
+        // Nobody who still exists was skipped
+        var ids = received.stream().map(PagerDutyUser::id).toList();
+        assertTrue(ids.containsAll(directory.users.stream().map(PagerDutyUser::id).toList()));
+        assertEquals(ids.size(), ids.stream().distinct().count());
+        assertEquals(1, checkpoint.refetches());
+        assertTrue(directory.requestedOffsets.size() < 8, "Expected a local re-fetch, not a full re-scan");
+    }
+
+    @Test
+    void testPagesFetchedAheadOfAShiftAreDropped() throws Exception {
+        var directory = new StubDirectory(40);
+        directory.batchSize = 4;
+        directory.editBeforeRequest = 2;
+        directory.edit = () -> directory.users.subList(2, 5).clear();
+        var log = tempDir.resolve("sync.log");
+        var received = new ArrayList<PagerDutyUser>();
+
+        var checkpoint = new ResumableUserSync(directory, log, 10).run((page, replayed) -> received.addAll(page.data()));
+
+        assertEquals(List.of(0, 9, 18, 27), directory.requestedOffsets.subList(0, 4), "the first four windows in one batch");
+        var ids = received.stream().map(PagerDutyUser::id).toList();
+        assertTrue(ids.containsAll(directory.users.stream().map(PagerDutyUser::id).toList()));
+        assertEquals(ids.size(), ids.stream().distinct().count());
+        assertEquals(1, checkpoint.refetches());
+
+        // Only accepted pages were logged, so a replay delivers the same users
+        var replayed = new ArrayList<PagerDutyUser>();
+        var resumed = new ResumableUserSync(directory, log, 10).run((page, fromLog) -> replayed.addAll(page.data()));
+        assertEquals(received, replayed);
+        assertEquals(checkpoint, resumed);
+    }
+
+    @Test
+    void testSingleUserPagesAreNotRefetched() throws Exception {
+        var directory = new StubDirectory(5);
+        var received = new ArrayList<PagerDutyUser>();
+
+        var checkpoint = new ResumableUserSync(directory, tempDir.resolve("sync.log"), 1)
+                .run((page, replayed) -> received.addAll(page.data()));
+
+        assertTrue(checkpoint.complete());
+        assertEquals(directory.users, received);
+        assertEquals(List.of(0, 1, 2, 3, 4), directory.requestedOffsets, "one request per user");
+        assertEquals(0, checkpoint.refetches(), "no shift to report");
+        assertEquals(0, checkpoint.duplicates());
+    }
+
+    @Test
+    void testCorruptLineIsReported() throws Exception {
+        var log = tempDir.resolve("sync.log");
+        Files.writeString(log, "not json\n");
+
+        var sync = new ResumableUserSync(new StubDirectory(5), log, 10);
+        var exception = assertThrows(IOException.class, sync::checkpoint);
+        assertTrue(exception.getMessage().contains("line 1"));
+    }
+
+    @Test
+    void testResetStartsOver() throws Exception {
+        var directory = new StubDirectory(5);
+        var sync = new ResumableUserSync(directory, tempDir.resolve("sync.log"), 10);
+        sync.run((page, replayed) -> {});
+
+        sync.reset();
+
+        assertEquals(0, sync.checkpoint().pages());
+    }
+
+    @Test
+    void testValidatesPageSize() {
+        var log = tempDir.resolve("sync.log");
+        assertThrows(IllegalArgumentException.class, () -> new ResumableUserSync(new StubDirectory(1), log, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ResumableUserSync(new StubDirectory(1), log, 101));
+    }
+}
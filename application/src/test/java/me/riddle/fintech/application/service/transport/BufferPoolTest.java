@@ -0,0 +1,73 @@
+package me.riddle.fintech.application.service.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferPoolTest {
+
+    @Test
+    void roundsUpToSizeClasses() {
+        var pool = new BufferPool(true, 4);
+        assertEquals(BufferPool.MIN_SIZE, pool.acquire(1).capacity());
+        assertEquals(BufferPool.MIN_SIZE, pool.acquire(BufferPool.MIN_SIZE).capacity());
+        assertEquals(BufferPool.MIN_SIZE * 2, pool.acquire(BufferPool.MIN_SIZE + 1).capacity());
+        assertEquals(1 << 20, pool.acquire((1 << 20) - 7).capacity());
+        assertTrue(pool.acquire(100).isDirect());
+    }
+
+    @Test
+    void reusesReleasedBuffersCleared() {
+        var pool = new BufferPool(true, 4);
+        var buffer = pool.acquire(20_000);
+        buffer.put(new byte[100]).flip();
+        pool.release(buffer);
+
+        var again = pool.acquire(30_000);
+        assertSame(buffer, again);
+        assertEquals(0, again.position());
+        assertEquals(again.capacity(), again.limit());
+        assertEquals(1, pool.allocations());
+    }
+
+    @Test
+    void keepsAtMostTheConfiguredNumberPerClass() {
+        var pool = new BufferPool(false, 2);
+        var buffers = new ByteBuffer[3];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = pool.acquire(10);
+        }
+        for (var buffer : buffers) {
+            pool.release(buffer);
+        }
+        pool.acquire(10);
+        pool.acquire(10);
+        assertEquals(3, pool.allocations());
+        pool.acquire(10);
+        assertEquals(4, pool.allocations());
+    }
+
+    @Test
+    void ignoresBuffersItCannotReuse() {
+        var pool = new BufferPool(true, 4);
+        pool.release(ByteBuffer.allocate(BufferPool.MIN_SIZE));                  // heap, not direct
+        pool.release(ByteBuffer.allocateDirect(BufferPool.MIN_SIZE + 1));        // not a size class
+        pool.release(ByteBuffer.allocateDirect(BufferPool.MIN_SIZE).asReadOnlyBuffer());
+        pool.release(null);
+
+        pool.acquire(10);
+        assertEquals(1, pool.allocations());
+    }
+
+    @Test
+    void allocatesOversizedBuffersExactlyAndDropsThem() {
+        var pool = new BufferPool(true, 4);
+        var huge = pool.acquire(BufferPool.MAX_POOLED_SIZE + 1);
+        assertEquals(BufferPool.MAX_POOLED_SIZE + 1, huge.capacity());
+        pool.release(huge);
+        pool.acquire(BufferPool.MAX_POOLED_SIZE + 1);
+        assertEquals(2, pool.allocations());
+    }
+}
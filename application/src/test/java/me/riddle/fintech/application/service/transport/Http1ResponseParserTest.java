@@ -0,0 +1,198 @@
+package me.riddle.fintech.application.service.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Http1ResponseParserTest {
+
+    private static final String FIXED = "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: 13\r\n\r\n{\"users\":[]}\n";
+    private static final String CHUNKED = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+            + "5;name=value\r\nhello\r\n7\r\n, world\r\n0\r\nX-Trailer: yes\r\n\r\n";
+
+    @Test
+    void parsesContentLengthBody() throws IOException {
+        var parser = new Http1ResponseParser();
+        assertTrue(parser.feed(ascii(FIXED)));
+        assertEquals(200, parser.status());
+        assertEquals("{\"users\":[]}\n", text(parser.body()));
+        assertTrue(parser.keepAlive());
+    }
+
+    @Test
+    void parsesChunkedBodyIgnoringExtensionsAndTrailers() throws IOException {
+        var parser = new Http1ResponseParser();
+        assertTrue(parser.feed(ascii(CHUNKED)));
+        assertEquals("hello, world", text(parser.body()));
+        assertTrue(parser.keepAlive());
+    }
+
+    @Test
+    void manySmallChunksDoNotCountAsHeaders() throws IOException {
+        // 20,000 ten-byte chunks: their framing alone is well over the 64 KiB header limit
+        var response = new StringBuilder("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n");
+        for (int i = 0; i < 20_000; i++) {
+            response.append("a\r\n0123456789\r\n");
+        }
+        response.append("0\r\nX-Trailer: yes\r\n\r\n");
+
+        var parser = new Http1ResponseParser();
+        assertTrue(parser.feed(ascii(response.toString())));
+        assertEquals(200_000, parser.body().remaining());
+
+        var trailers = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n0\r\n"
+                + ("X-Trailer: " + "x".repeat(1000) + "\r\n").repeat(70) + "\r\n";
+        var e = assertThrows(ProtocolException.class, () -> new Http1ResponseParser().feed(ascii(trailers)));
+        assertEquals("Response headers too large", e.getMessage());
+    }
+
+    @Test
+    void sameResultWhateverTheInputIsSplitInto() throws IOException {
+        for (var response : new String[]{FIXED, CHUNKED}) {
+            var expected = new Http1ResponseParser();
+            expected.feed(ascii(response));
+            var expectedBody = text(expected.body());
+
+            for (int size = 1; size <= response.length(); size++) {
+                var parser = new Http1ResponseParser(4);
+                var bytes = response.getBytes(StandardCharsets.US_ASCII);
+                var done = false;
+                for (int from = 0; from < bytes.length; from += size) {
+                    assertFalse(done, "completed early with pieces of " + size);
+                    done = parser.feed(ByteBuffer.wrap(bytes, from, Math.min(size, bytes.length - from)));
+                }
+                assertTrue(done, "pieces of " + size);
+                assertEquals(expectedBody, text(parser.body()), "pieces of " + size);
+            }
+        }
+    }
+
+    @Test
+    void leavesPipelinedResponsesInTheInput() throws IOException {
+        var input = ascii(FIXED + CHUNKED + FIXED.replace("200 OK", "404 Not Found"));
+        var parser = new Http1ResponseParser();
+        var statuses = new int[3];
+        var bodies = new String[3];
+        for (int i = 0; i < 3; i++) {
+            parser.reset();
+            assertTrue(parser.feed(input));
+            statuses[i] = parser.status();
+            bodies[i] = text(parser.body());
+        }
+        assertFalse(input.hasRemaining());
+        assertArrayEquals(new int[]{200, 200, 404}, statuses);
+        assertEquals("hello, world", bodies[1]);
+        assertEquals(bodies[0], bodies[2]);
+    }
+
+    @Test
+    void bodyWithoutLengthEndsWithTheConnection() throws IOException {
+        var parser = new Http1ResponseParser();
+        assertFalse(parser.feed(ascii("HTTP/1.1 200 OK\r\nConnection: close\r\n\r\npartial")));
+        assertFalse(parser.feed(ascii(" body")));
+        assertTrue(parser.endOfStream());
+        assertEquals("partial body", text(parser.body()));
+        assertFalse(parser.keepAlive());
+    }
+
+    @Test
+    void truncatedResponseFails() throws IOException {
+        var parser = new Http1ResponseParser();
+        assertFalse(parser.feed(ascii("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nabc")));
+        assertThrows(EOFException.class, parser::endOfStream);
+
+        var idle = new Http1ResponseParser();
+        assertFalse(idle.started());
+        assertThrows(EOFException.class, idle::endOfStream);
+    }
+
+    @Test
+    void honoursConnectionHeaderAndHttp10Defaults() throws IOException {
+        var close = new Http1ResponseParser();
+        close.feed(ascii("HTTP/1.1 200 OK\r\nCONNECTION: Close\r\ncontent-length: 0\r\n\r\n"));
+        assertFalse(close.keepAlive());
+
+        var http10 = new Http1ResponseParser();
+        http10.feed(ascii("HTTP/1.0 200 OK\r\nContent-Length: 0\r\n\r\n"));
+        assertFalse(http10.keepAlive());
+
+        var http10KeepAlive = new Http1ResponseParser();
+        http10KeepAlive.feed(ascii("HTTP/1.0 200 OK\r\nConnection: keep-alive\r\nContent-Length: 0\r\n\r\n"));
+        assertTrue(http10KeepAlive.keepAlive());
+    }
+
+    @Test
+    void skipsInterimResponsesAndHandlesBodylessStatuses() throws IOException {
+        var parser = new Http1ResponseParser();
+        assertTrue(parser.feed(ascii("HTTP/1.1 100 Continue\r\n\r\nHTTP/1.1 204 No Content\r\n\r\n")));
+        assertEquals(204, parser.status());
+        assertEquals(0, parser.body().remaining());
+    }
+
+    @Test
+    void rejectsMalformedResponses() {
+        assertThrows(ProtocolException.class, () -> new Http1ResponseParser().feed(ascii("SMTP ready\r\n")));
+        assertThrows(ProtocolException.class, () -> new Http1ResponseParser().feed(ascii("HTTP/1.1 2x0 OK\r\n")));
+        assertThrows(ProtocolException.class, () ->
+                new Http1ResponseParser().feed(ascii("HTTP/1.1 200 OK\r\nContent-Length: -1\r\n\r\n")));
+        assertThrows(ProtocolException.class, () ->
+                new Http1ResponseParser().feed(ascii("HTTP/1.1 200 OK\r\nContent-Length: 999999999999\r\n\r\n")));
+        assertThrows(ProtocolException.class, () ->
+                new Http1ResponseParser().feed(ascii("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nzz\r\n")));
+    }
+
+    @Test
+    void keepsItsBodyBufferAcrossResponses() throws IOException {
+        var parser = new Http1ResponseParser();
+        parser.feed(ascii(FIXED));
+        var buffer = parser.body();
+        parser.reset();
+        parser.feed(ascii(FIXED));
+        assertSame(buffer, parser.body());
+    }
+
+    @Test
+    void handsOffPooledBodiesAndTakesFreshOnes() throws IOException {
+        var pool = new BufferPool(true, 4);
+        var parser = new Http1ResponseParser(pool);
+        var input = ascii(FIXED + CHUNKED);
+
+        assertTrue(parser.feed(input));
+        var first = parser.detachBody();
+        parser.reset();
+        assertTrue(parser.feed(input));
+        var second = parser.detachBody();
+
+        assertNotSame(first, second);
+        assertTrue(first.isDirect());
+        assertEquals("{\"users\":[]}\n", text(first));
+        assertEquals("hello, world", text(second));
+
+        pool.release(first);
+        parser.reset();
+        assertTrue(parser.feed(ascii(FIXED)));
+        assertSame(first, parser.body());
+        assertEquals(2, pool.allocations());
+    }
+
+    @Test
+    void detachingNeedsACompleteResponse() throws IOException {
+        var parser = new Http1ResponseParser(new BufferPool(false, 4));
+        parser.feed(ascii("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nabc"));
+        assertThrows(IllegalStateException.class, parser::detachBody);
+    }
+
+    private static ByteBuffer ascii(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String text(ByteBuffer body) {
+        return StandardCharsets.UTF_8.decode(body.duplicate()).toString();
+    }
+}
@@ -0,0 +1,303 @@
+package me.riddle.fintech.application.service.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import me.riddle.fintech.application.service.dto.PagerDutyUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Map<String, String> HEADERS = Map.of("Authorization", "Token token=secret", "Accept", "application/json");
+    private static final int ALLOCATION_ROUNDS = 5;
+    private static final int CALLS_PER_ROUND = 200;
+
+    @FunctionalInterface
+    private interface Call {
+        void run(int i) throws Exception;
+    }
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private String baseUrl;
+    private final AtomicReference<String> lastAuthorization = new AtomicReference<>();
+    private final Map<String, Boolean> remotePorts = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverThreads);
+        server.createContext("/users", exchange -> {
+            lastAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            remotePorts.put(String.valueOf(exchange.getRemoteAddress().getPort()), true);
+            var query = exchange.getRequestURI().getRawQuery();
+            var offset = query == null ? 0 : Integer.parseInt(query.replaceAll(".*offset=(\\d+).*", "$1"));
+            var body = page(offset, 3).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.createContext("/chunked", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (var out = exchange.getResponseBody()) {
+                for (int i = 0; i < 100; i++) {
+                    out.write(("line " + i + "\n").getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                }
+            }
+        });
+        server.createContext("/trickle", exchange -> {
+            // Each byte arrives well within a read timeout; the whole body never within the deadline
+            exchange.sendResponseHeaders(200, 100);
+            try (var out = exchange.getResponseBody()) {
+                for (int i = 0; i < 100; i++) {
+                    out.write('x');
+                    out.flush();
+                    Thread.sleep(20);
+                }
+            } catch (InterruptedException | IOException e) {
+                // the client gave up
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            var body = "{\"error\":\"not found\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void everyTransportReturnsStatusBodyAndSendsHeaders() throws Exception {
+        for (var kind : HttpTransport.Kind.values()) {
+            try (var transport = kind.create(TIMEOUT)) {
+                var body = transport.get(URI.create(baseUrl + "/users?offset=0&limit=3"), HEADERS, TIMEOUT,
+                        (status, buffer) -> {
+                            assertEquals(200, status, kind.id());
+                            return StandardCharsets.UTF_8.decode(buffer).toString();
+                        });
+                assertEquals(page(0, 3), body, kind.id());
+                assertEquals("Token token=secret", lastAuthorization.get(), kind.id());
+                assertEquals(kind, transport.kind());
+            }
+        }
+    }
+
+    @Test
+    void everyTransportReadsChunkedBodies() throws Exception {
+        var expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            expected.append("line ").append(i).append('\n');
+        }
+        for (var kind : HttpTransport.Kind.values()) {
+            try (var transport = kind.create(TIMEOUT)) {
+                var body = transport.get(URI.create(baseUrl + "/chunked"), HEADERS, TIMEOUT,
+                        (status, buffer) -> StandardCharsets.US_ASCII.decode(buffer).toString());
+                assertEquals(expected.toString(), body, kind.id());
+            }
+        }
+    }
+
+    @Test
+    void everyTransportHandsErrorStatusesToTheParser() throws Exception {
+        for (var kind : HttpTransport.Kind.values()) {
+            try (var transport = kind.create(TIMEOUT)) {
+                assertEquals(404, status(transport, "/missing"), kind.id());
+            }
+        }
+    }
+
+    @Test
+    void everyTransportEnforcesTheWholeResponseDeadline() throws Exception {
+        for (var kind : HttpTransport.Kind.values()) {
+            try (var transport = kind.create(TIMEOUT)) {
+                var start = System.nanoTime();
+                assertThrows(IOException.class, () -> transport.get(URI.create(baseUrl + "/trickle"), HEADERS,
+                        Duration.ofMillis(300), (status, body) -> status), kind.id());
+                var elapsed = Duration.ofNanos(System.nanoTime() - start);
+                assertTrue(elapsed.toMillis() < 1_500, kind.id() + " took " + elapsed.toMillis() + " ms");
+            }
+        }
+    }
+
+    @Test
+    void serviceWorksOverEveryTransport() throws Exception {
+        for (var kind : HttpTransport.Kind.values()) {
+            try (var transport = kind.create(TIMEOUT)) {
+                var service = new PagerDutyUserService("secret", transport, baseUrl);
+                var page = service.getUsersPage(6, 3);
+                assertEquals(3, page.data().size(), kind.id());
+                assertEquals("P6", page.data().getFirst().id(), kind.id());
+                assertTrue(page.more(), kind.id());
+            }
+        }
+    }
+
+    @Test
+    void socketTransportReusesConnections() throws Exception {
+        try (var transport = new SocketTransport(TIMEOUT)) {
+            for (int i = 0; i < 20; i++) {
+                assertEquals(200, status(transport, "/users?offset=" + i));
+            }
+            assertEquals(1, transport.connectionsOpened());
+            assertEquals(1, remotePorts.size());
+        }
+    }
+
+    @Test
+    void socketTransportReplacesConnectionsTheServerClosed() throws Exception {
+        try (var transport = new SocketTransport(TIMEOUT)) {
+            assertEquals(200, status(transport, "/users"));
+
+            // A new server on the same port knows nothing of the pooled connection
+            var port = server.getAddress().getPort();
+            server.stop(0);
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/users", exchange -> {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            });
+            server.start();
+
+            assertEquals(204, status(transport, "/users"));
+            assertEquals(2, transport.connectionsOpened());
+        }
+    }
+
+    @Test
+    void socketTransportIsSafeToShareBetweenThreads() throws Exception {
+        try (var transport = new SocketTransport(TIMEOUT);
+             var executor = Executors.newFixedThreadPool(4)) {
+            var results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 40; i++) {
+                var offset = i;
+                results.add(executor.submit(() -> transport.get(URI.create(baseUrl + "/users?offset=" + offset), HEADERS,
+                        TIMEOUT, (status, buffer) -> StandardCharsets.UTF_8.decode(buffer).toString())));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(page(i, 3), results.get(i).get());
+            }
+            assertTrue(transport.connectionsOpened() <= 4);
+        }
+    }
+
+    @Test
+    void socketTransportSendsWarmRequestsWithoutAllocating() throws Exception {
+        try (var server = new LocalHttpServer(page(0, 3).getBytes(StandardCharsets.UTF_8));
+             var transport = new SocketTransport(TIMEOUT)) {
+            var template = new RequestTemplate("http://127.0.0.1:" + server.port(), HEADERS);
+            var target = new StringBuilder();
+            HttpTransport.BodyParser<Object> parser = (status, body) -> null;
+
+            var perRequest = allocatedPerCall(i -> {
+                target.setLength(0);
+                transport.get(template, target.append("/users?offset=").append(i), TIMEOUT, parser);
+            });
+            assertTrue(perRequest < 64, perRequest + " B/request");
+        }
+    }
+
+    @Test
+    void servicePageRequestsAllocateLittleBeyondTheJsonParse() throws Exception {
+        // An empty page: what is left is Jackson's parser and context - some 800 bytes - and the page itself
+        var empty = "{\"users\":[],\"limit\":25,\"offset\":0,\"more\":false,\"total\":null}";
+        try (var server = new LocalHttpServer(empty.getBytes(StandardCharsets.UTF_8));
+             var transport = HttpTransport.Kind.DEFAULT.create(TIMEOUT)) {
+            var service = new PagerDutyUserService("secret", transport, "http://127.0.0.1:" + server.port());
+
+            var perRequest = allocatedPerCall(i -> service.getUsersPage(i, 25));
+            assertTrue(perRequest < 1_536, perRequest + " B/request");
+        }
+    }
+
+    @Test
+    void servicePageBatchesAllocateLittleBeyondTheJsonParse() throws Exception {
+        var empty = "{\"users\":[],\"limit\":25,\"offset\":0,\"more\":false,\"total\":null}";
+        try (var server = new LocalHttpServer(empty.getBytes(StandardCharsets.UTF_8));
+             var transport = HttpTransport.Kind.DEFAULT.create(TIMEOUT)) {
+            var service = new PagerDutyUserService("secret", transport, "http://127.0.0.1:" + server.port());
+
+            // Four page parses and the list of pages - targets share one builder, and no URI is built
+            var perBatch = allocatedPerCall(i -> service.getUsersPages(i, 25, 4));
+            assertTrue(perBatch < 4 * 1_536, perBatch + " B/batch of 4");
+        }
+    }
+
+    @Test
+    void kindIsChosenByName() {
+        assertEquals(HttpTransport.Kind.SOCKET, HttpTransport.Kind.of("socket"));
+        assertEquals(HttpTransport.Kind.URL_CONNECTION, HttpTransport.Kind.of(" URLConnection "));
+        assertEquals(HttpTransport.Kind.HTTP_CLIENT, HttpTransport.Kind.of("httpclient"));
+        assertEquals(HttpTransport.Kind.SOCKET, HttpTransport.Kind.DEFAULT, "pooled, and guarded against allocating below");
+        assertThrows(IllegalArgumentException.class, () -> HttpTransport.Kind.of("carrier-pigeon"));
+    }
+
+    @Test
+    void socketTransportRejectsUnsupportedSchemesAndHeaderInjection() {
+        try (var transport = new SocketTransport(TIMEOUT)) {
+            assertThrows(IllegalArgumentException.class, () ->
+                    transport.get(URI.create("ftp://127.0.0.1/"), HEADERS, TIMEOUT, (code, buffer) -> code));
+            assertThrows(IllegalArgumentException.class, () ->
+                    transport.get(URI.create(baseUrl + "/users"), Map.of("X-Evil", "a\r\nHost: elsewhere"), TIMEOUT,
+                            (code, buffer) -> code));
+        }
+    }
+
+    /**
+     * Bytes the calling thread allocates per call - the least of several rounds, so rounds still
+     * running interpreted or disturbed by JIT compilation do not count.
+     */
+    private static long allocatedPerCall(Call call) throws Exception {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var least = Long.MAX_VALUE;
+        var calls = 0;
+        for (int round = 0; round < ALLOCATION_ROUNDS; round++) {
+            var before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < CALLS_PER_ROUND; i++) {
+                call.run(calls++);
+            }
+            least = Math.min(least, (threads.getCurrentThreadAllocatedBytes() - before) / CALLS_PER_ROUND);
+        }
+        return least;
+    }
+
+    private int status(HttpTransport transport, String path) throws Exception {
+        return transport.get(URI.create(baseUrl + path), HEADERS, TIMEOUT, (code, buffer) -> code);
+    }
+
+    static String page(int offset, int limit) {
+        var users = new ArrayList<String>();
+        for (int i = offset; i < offset + limit; i++) {
+            users.add("{\"id\":\"P" + i + "\",\"type\":\"user\",\"name\":\"User " + i + "\",\"email\":\"user" + i + "@example.com\"}");
+        }
+        return "{\"users\":[" + String.join(",", users) + "],\"limit\":" + limit + ",\"offset\":" + offset
+                + ",\"more\":true,\"total\":null}";
+    }
+}
@@ -0,0 +1,178 @@
+package me.riddle.fintech.application.service.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Minimal keep-alive HTTP/1.1 server for transport tests and benchmarks: answers every request with
+ * a body chosen by its target, written in one go, so the server costs next to nothing and never
+ * stalls on Nagle's algorithm the way a header-then-body server does. Pipelined requests are
+ * answered in order. Can close connections after a number of requests, or never answer at all.
+ */
+final class LocalHttpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Function<String, byte[]> bodies;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+    private volatile int requestsPerConnection = Integer.MAX_VALUE;
+    private volatile boolean silent;
+
+    LocalHttpServer(byte[] body) throws IOException {
+        this(target -> body);
+    }
+
+    LocalHttpServer(Function<String, byte[]> bodies) throws IOException {
+        this(new ServerSocket(0, 128, InetAddress.getLoopbackAddress()), bodies);
+    }
+
+    /**
+     * @param serverSocket bound and ready to accept, e.g. an {@link javax.net.ssl.SSLServerSocket}
+     */
+    LocalHttpServer(ServerSocket serverSocket, Function<String, byte[]> bodies) {
+        this.serverSocket = serverSocket;
+        this.bodies = bodies;
+        Thread.ofVirtual().name("local-http-accept").start(this::acceptLoop);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    long connections() {
+        return connections.get();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    /**
+     * Most requests that arrived in a single read - above 1 means they were pipelined.
+     */
+    int largestBatch() {
+        return largestBatch.get();
+    }
+
+    /**
+     * Answer the n-th request on each connection with {@code Connection: close}, then close it.
+     */
+    void closeAfter(int requestsPerConnection) {
+        this.requestsPerConnection = requestsPerConnection;
+    }
+
+    /**
+     * Read requests but never answer them.
+     */
+    void silent(boolean silent) {
+        this.silent = silent;
+    }
+
+    /**
+     * Close every open connection, as a server dropping idle keep-alives would.
+     */
+    void dropConnections() throws IOException {
+        for (var socket : open) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        dropConnections();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                var socket = serverSocket.accept();
+                connections.incrementAndGet();
+                open.add(socket);
+                Thread.ofVirtual().name("local-http-connection").start(() -> serve(socket));
+            } catch (IOException e) {
+                return;     // closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            var in = socket.getInputStream();
+            var out = socket.getOutputStream();
+            var buffer = new byte[8192];
+            var requestLine = new StringBuilder();
+            var inRequestLine = true;
+            // Bytes of "\r\n\r\n" matched so far, carried across reads
+            var matched = 0;
+            var served = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                var targets = new ArrayList<String>();
+                for (int i = 0; i < read; i++) {
+                    var b = buffer[i];
+                    if (inRequestLine) {
+                        if (b == '\r' || b == '\n') {
+                            inRequestLine = false;
+                        } else {
+                            requestLine.append((char) b);
+                        }
+                    }
+                    matched = b == (matched % 2 == 0 ? '\r' : '\n') ? matched + 1 : b == '\r' ? 1 : 0;
+                    if (matched == 4) {
+                        var parts = requestLine.toString().split(" ");
+                        targets.add(parts.length > 1 ? parts[1] : "/");
+                        requestLine.setLength(0);
+                        inRequestLine = true;
+                        matched = 0;
+                    }
+                }
+                requests.addAndGet(targets.size());
+                largestBatch.accumulateAndGet(targets.size(), Math::max);
+                if (silent || targets.isEmpty()) {
+                    continue;
+                }
+                var batch = new ByteArrayOutputStream();
+                var closing = false;
+                for (var target : targets) {
+                    closing = ++served >= requestsPerConnection;
+                    var body = bodies.apply(target);
+                    var head = "HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: " + body.length
+                            + (closing ? "\r\nConnection: close" : "") + "\r\n\r\n";
+                    batch.write(head.getBytes(StandardCharsets.US_ASCII));
+                    batch.write(body);
+                    if (closing) {
+                        break;
+                    }
+                }
+                out.write(batch.toByteArray());
+                out.flush();
+                if (closing) {
+                    // Drain what the client already pipelined: closing with unread input would send
+                    // a reset that can destroy the responses just written
+                    socket.shutdownOutput();
+                    in.transferTo(OutputStream.nullOutputStream());
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Client went away
+        } finally {
+            open.remove(socket);
+        }
+    }
+}
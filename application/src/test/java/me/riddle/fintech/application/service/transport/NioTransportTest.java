@@ -0,0 +1,290 @@
+package me.riddle.fintech.application.service.transport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioTransportTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final Map<String, String> HEADERS = Map.of("Accept", "application/json");
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @TempDir
+    Path tempDir;
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (var resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void pipelinesBatchOnOneConnection() throws Exception {
+        var server = echoServer();
+        var transport = transport(1, 8, null);
+
+        var uris = new ArrayList<URI>();
+        for (int i = 0; i < 20; i++) {
+            uris.add(URI.create("http://127.0.0.1:" + server.port() + "/users?offset=" + i * 25));
+        }
+        var bodies = transport.getAll(uris, HEADERS, TIMEOUT, NioTransportTest::text);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("/users?offset=" + i * 25, bodies.get(i));
+        }
+        assertEquals(1, server.connections());
+        assertEquals(1, transport.connectionsOpened());
+        assertTrue(server.largestBatch() > 1, "requests should have been pipelined");
+    }
+
+    @Test
+    void pipelinesTemplateBatchWrittenThroughOneBuffer() throws Exception {
+        var server = echoServer();
+        var transport = transport(1, 8, null);
+        var template = new RequestTemplate("http://127.0.0.1:" + server.port(), HEADERS);
+        var target = new StringBuilder();
+
+        var bodies = transport.getAll(template, 20, request -> {
+            target.setLength(0);
+            return target.append("/users?offset=").append(request * 25);
+        }, TIMEOUT, NioTransportTest::text);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("/users?offset=" + i * 25, bodies.get(i));
+        }
+        assertEquals(1, transport.connectionsOpened());
+        assertTrue(server.largestBatch() > 1, "requests should have been pipelined");
+    }
+
+    @Test
+    void spreadsConcurrentCallersOverConnections() throws Exception {
+        var server = echoServer();
+        var transport = transport(2, 4, null);
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var results = new ArrayList<Future<String>>();
+            for (int i = 0; i < 200; i++) {
+                var path = "/users/P" + i;
+                results.add(executor.submit(() -> transport.get(URI.create("http://127.0.0.1:" + server.port() + path),
+                        HEADERS, TIMEOUT, NioTransportTest::text)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("/users/P" + i, results.get(i).get());
+            }
+        }
+        assertTrue(transport.connectionsOpened() <= 2);
+        assertEquals(200, server.requests());
+    }
+
+    @Test
+    void resendsRequestsCutOffByConnectionClose() throws Exception {
+        var server = echoServer();
+        // Five connections: requests queued behind a close do not use up their attempts
+        server.closeAfter(2);
+        var transport = transport(1, 8, null);
+
+        var uris = new ArrayList<URI>();
+        for (int i = 0; i < 10; i++) {
+            uris.add(URI.create("http://127.0.0.1:" + server.port() + "/page/" + i));
+        }
+        var bodies = transport.getAll(uris, HEADERS, TIMEOUT, NioTransportTest::text);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("/page/" + i, bodies.get(i));
+        }
+        assertTrue(transport.connectionsOpened() >= 5);
+    }
+
+    @Test
+    void replacesConnectionsTheServerDropped() throws Exception {
+        var server = echoServer();
+        var transport = transport(1, 8, null);
+        var uri = URI.create("http://127.0.0.1:" + server.port() + "/users");
+
+        assertEquals("/users", transport.get(uri, HEADERS, TIMEOUT, NioTransportTest::text));
+        server.dropConnections();
+        assertEquals("/users", transport.get(uri, HEADERS, TIMEOUT, NioTransportTest::text));
+        assertEquals(2, transport.connectionsOpened());
+    }
+
+    @Test
+    void timesOutOnSilentServerAndStaysUsable() throws Exception {
+        var silent = echoServer();
+        silent.silent(true);
+        var server = echoServer();
+        var transport = transport(1, 8, null);
+
+        var started = System.nanoTime();
+        assertThrows(IOException.class, () -> transport.get(URI.create("http://127.0.0.1:" + silent.port() + "/"),
+                HEADERS, Duration.ofMillis(300), NioTransportTest::text));
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).toMillis() < 3_000);
+
+        assertEquals("/ok", transport.get(URI.create("http://127.0.0.1:" + server.port() + "/ok"), HEADERS, TIMEOUT,
+                NioTransportTest::text));
+    }
+
+    @Test
+    void closeFailsPendingAndLaterRequests() throws Exception {
+        var silent = echoServer();
+        silent.silent(true);
+        var transport = new NioTransport(TIMEOUT);
+        var uri = URI.create("http://127.0.0.1:" + silent.port() + "/");
+
+        var failure = new AtomicReference<Throwable>();
+        var caller = Thread.ofVirtual().start(() -> {
+            try {
+                transport.get(uri, HEADERS, Duration.ofSeconds(30), NioTransportTest::text);
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        while (silent.requests() == 0) {
+            Thread.sleep(10);
+        }
+        transport.close();
+        caller.join(Duration.ofSeconds(5));
+
+        assertInstanceOf(IOException.class, failure.get());
+        assertThrows(IOException.class, () -> transport.get(uri, HEADERS, TIMEOUT, NioTransportTest::text));
+    }
+
+    @Test
+    void readsBodiesLargerThanThePooledSizes() throws Exception {
+        var large = new byte[5 * 1024 * 1024];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) ('a' + i % 26);
+        }
+        var server = server(target -> target.endsWith("large") ? large : target.getBytes(StandardCharsets.US_ASCII));
+        var transport = transport(1, 8, null);
+
+        var body = transport.get(URI.create("http://127.0.0.1:" + server.port() + "/large"), HEADERS, TIMEOUT,
+                (status, buffer) -> {
+                    var bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    return bytes;
+                });
+        assertArrayEquals(large, body);
+        assertEquals("/small", transport.get(URI.create("http://127.0.0.1:" + server.port() + "/small"), HEADERS,
+                TIMEOUT, NioTransportTest::text));
+    }
+
+    @Test
+    void reusesPooledBuffersOnceWarm() throws Exception {
+        var server = echoServer();
+        var transport = transport(1, 8, null);
+        var uri = URI.create("http://127.0.0.1:" + server.port() + "/users");
+
+        for (int i = 0; i < 50; i++) {
+            transport.get(uri, HEADERS, TIMEOUT, NioTransportTest::text);
+        }
+        var warm = transport.bufferAllocations();
+        for (int i = 0; i < 200; i++) {
+            transport.get(uri, HEADERS, TIMEOUT, NioTransportTest::text);
+        }
+        assertEquals(warm, transport.bufferAllocations());
+    }
+
+    @Test
+    void speaksTlsAndVerifiesHostnames() throws Exception {
+        var keyStore = selfSignedKeyStore();
+        var serverContext = SSLContext.getInstance("TLS");
+        var keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, PASSWORD);
+        serverContext.init(keyManagers.getKeyManagers(), null, null);
+        var clientContext = SSLContext.getInstance("TLS");
+        var trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagers.init(keyStore);
+        clientContext.init(null, trustManagers.getTrustManagers(), null);
+
+        var serverSocket = serverContext.getServerSocketFactory().createServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        var server = new LocalHttpServer(serverSocket, target -> target.getBytes(StandardCharsets.US_ASCII));
+        resources.add(server);
+        var transport = transport(2, 8, clientContext);
+
+        assertEquals("/secure", transport.get(URI.create("https://127.0.0.1:" + server.port() + "/secure"), HEADERS,
+                TIMEOUT, NioTransportTest::text));
+
+        var uris = new ArrayList<URI>();
+        for (int i = 0; i < 30; i++) {
+            uris.add(URI.create("https://127.0.0.1:" + server.port() + "/page/" + i));
+        }
+        var bodies = transport.getAll(uris, HEADERS, TIMEOUT, NioTransportTest::text);
+        for (int i = 0; i < 30; i++) {
+            assertEquals("/page/" + i, bodies.get(i));
+        }
+
+        // The certificate names 127.0.0.1 only
+        assertThrows(IOException.class, () -> transport.get(URI.create("https://localhost:" + server.port() + "/"),
+                HEADERS, TIMEOUT, NioTransportTest::text));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new NioTransport(TIMEOUT, 0, 8, null));
+        assertThrows(IllegalArgumentException.class, () -> new NioTransport(TIMEOUT, 4, 0, null));
+    }
+
+    private NioTransport transport(int connections, int depth, SSLContext sslContext) {
+        var transport = new NioTransport(TIMEOUT, connections, depth, sslContext);
+        resources.add(transport);
+        return transport;
+    }
+
+    private LocalHttpServer echoServer() throws IOException {
+        return server(target -> target.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private LocalHttpServer server(Function<String, byte[]> bodies) throws IOException {
+        var server = new LocalHttpServer(bodies);
+        resources.add(server);
+        return server;
+    }
+
+    private KeyStore selfSignedKeyStore() throws Exception {
+        var file = tempDir.resolve("local.p12");
+        var keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        var process = new ProcessBuilder(keytool.toString(), "-genkeypair", "-alias", "local", "-keyalg", "EC",
+                "-groupname", "secp256r1", "-dname", "CN=127.0.0.1", "-ext", "san=ip:127.0.0.1", "-validity", "2",
+                "-keystore", file.toString(), "-storetype", "PKCS12", "-storepass", "changeit", "-keypass", "changeit")
+                .redirectErrorStream(true).start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), output);
+
+        var keyStore = KeyStore.getInstance("PKCS12");
+        try (var in = Files.newInputStream(file)) {
+            keyStore.load(in, PASSWORD);
+        }
+        return keyStore;
+    }
+
+    private static String text(int status, ByteBuffer body) {
+        assertEquals(200, status);
+        return StandardCharsets.US_ASCII.decode(body).toString();
+    }
+}
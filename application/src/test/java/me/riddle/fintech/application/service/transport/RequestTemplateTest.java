@@ -0,0 +1,103 @@
+package me.riddle.fintech.application.service.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTemplateTest {
+
+    private static final Map<String, String> HEADERS = Map.of("Accept", "application/json");
+
+    @Test
+    void encodesRequestLineHostAndHeaders() {
+        var template = new RequestTemplate("https://api.example.com", Map.of("Authorization", "Token token=secret"));
+
+        assertEquals("GET /users?offset=25&limit=25 HTTP/1.1\r\nHost: api.example.com\r\n"
+                        + "Authorization: Token token=secret\r\n\r\n",
+                text(template, "/users?offset=25&limit=25"));
+        assertEquals(new Endpoint(true, "api.example.com", 443), template.endpoint());
+    }
+
+    @Test
+    void keepsBasePathAndExplicitPort() {
+        var template = new RequestTemplate("http://127.0.0.1:8080/api/v2", HEADERS);
+
+        assertEquals("GET /api/v2/users HTTP/1.1\r\nHost: 127.0.0.1:8080\r\nAccept: application/json\r\n\r\n",
+                text(template, "/users"));
+        assertEquals(URI.create("http://127.0.0.1:8080/api/v2/users?limit=1"), template.uri("/users?limit=1"));
+        assertEquals(new Endpoint(false, "127.0.0.1", 8080), template.endpoint());
+    }
+
+    @Test
+    void emptyTargetRequestsTheRoot() {
+        var template = new RequestTemplate("http://localhost", HEADERS);
+
+        assertTrue(text(template, "").startsWith("GET / HTTP/1.1\r\n"));
+    }
+
+    @Test
+    void writesIntoTheBufferAtItsPosition() {
+        var template = new RequestTemplate("http://localhost", HEADERS);
+        var target = new StringBuilder("/users?offset=").append(100);
+        var buffer = ByteBuffer.allocate(256).put((byte) 'x');
+
+        template.write(target, buffer);
+
+        assertEquals(1 + template.length(target), buffer.position());
+        assertArrayEquals(template.encode(target), Arrays.copyOfRange(buffer.array(), 1, buffer.position()));
+    }
+
+    @Test
+    void matchesTheTargetOfAnAbsoluteUri() {
+        var uri = URI.create("http://localhost:9000/users/P1?include%5B%5D=teams");
+        var template = RequestTemplate.of(uri, HEADERS);
+
+        assertEquals("/users/P1?include%5B%5D=teams", RequestTemplate.target(uri));
+        assertEquals(uri, template.uri(RequestTemplate.target(uri)));
+    }
+
+    @Test
+    void cacheReusesTemplatesPerOriginAndHeaders() {
+        var cache = new RequestTemplate.Cache();
+        var headers = new HashMap<>(HEADERS);
+        var template = cache.of(URI.create("http://127.0.0.1:8080/users?offset=0"), headers);
+
+        assertSame(template, cache.of(URI.create("http://127.0.0.1:8080/users/P1"), HEADERS));
+        assertNotSame(template, cache.of(URI.create("http://127.0.0.1:8081/users"), HEADERS));
+        headers.put("Accept", "text/plain");
+        var other = cache.of(URI.create("http://127.0.0.1:8080/users"), headers);
+        assertNotSame(template, other);
+        assertEquals("text/plain", other.headers().get("Accept"));
+        assertSame(template, cache.of(URI.create("http://127.0.0.1:8080/users"), HEADERS));
+    }
+
+    @Test
+    void rejectsTargetsThatAreNotPercentEncoded() {
+        var template = new RequestTemplate("http://localhost", HEADERS);
+
+        assertThrows(IllegalArgumentException.class, () -> template.length("/users?query=Jane Doe"));
+        assertThrows(IllegalArgumentException.class, () -> template.length("/users\r\nHost: elsewhere"));
+        assertThrows(IllegalArgumentException.class, () -> template.length("/users?query=José"));
+    }
+
+    @Test
+    void rejectsBadBaseUrlsAndHeaders() {
+        assertThrows(IllegalArgumentException.class, () -> new RequestTemplate("ftp://localhost", HEADERS));
+        assertThrows(IllegalArgumentException.class, () -> new RequestTemplate("http://localhost/", HEADERS));
+        assertThrows(IllegalArgumentException.class, () -> new RequestTemplate("http://localhost?a=b", HEADERS));
+        assertThrows(IllegalArgumentException.class, () ->
+                new RequestTemplate("http://localhost", Map.of("X-Evil", "a\r\nHost: elsewhere")));
+        assertThrows(NullPointerException.class, () -> new RequestTemplate(null, HEADERS));
+    }
+
+    private static String text(RequestTemplate template, CharSequence target) {
+        return new String(template.encode(target), StandardCharsets.ISO_8859_1);
+    }
+}
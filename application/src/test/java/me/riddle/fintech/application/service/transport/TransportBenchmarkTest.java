@@ -0,0 +1,120 @@
+package me.riddle.fintech.application.service.transport;
+
+import me.riddle.fintech.application.service.monitor.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency, throughput - from several threads, and from one thread sending batches - and allocation
+ * of each transport against a local server serving a full 100-user page. Parsing is left out - the parser only counts bytes - so only the HTTP stack is
+ * compared. Single requests are sent from a {@link RequestTemplate}, as the service sends them. Allocation is given for the calling thread and for the whole JVM; the latter includes
+ * the in-process server, which costs every transport the same.
+ * Opt-in, and only meaningful on a quiet machine: {@code BENCHMARKS=true ./gradlew :application:test}
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARKS", matches = "true")
+class TransportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TransportBenchmarkTest.class);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Map<String, String> HEADERS = Map.of("Authorization", "Token token=benchmark", "Accept", "application/json");
+    private static final int WARMUP = 2_000;
+    private static final int REQUESTS = 5_000;
+    private static final int THREADS = 4;
+    private static final int BATCH = 20;
+    private static final String TARGET = "/users?offset=0&limit=100";
+
+    @Test
+    void compareTransports() throws Exception {
+        var page = HttpTransportTest.page(0, 100).getBytes(StandardCharsets.UTF_8);
+        try (var server = new LocalHttpServer(page)) {
+            compare(server, page);
+        }
+    }
+
+    private static void compare(LocalHttpServer server, byte[] page) throws Exception {
+        var template = new RequestTemplate("http://127.0.0.1:" + server.port(), HEADERS);
+        var uri = template.uri(TARGET);
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (var kind : HttpTransport.Kind.values()) {
+            try (var transport = kind.create(TIMEOUT)) {
+                for (int i = 0; i < WARMUP; i++) {
+                    assertEquals(page.length, fetch(transport, template));
+                }
+
+                var latency = new LatencyHistogram();
+                var threadBytes = threads.getCurrentThreadAllocatedBytes();
+                var jvmBytes = threads.getTotalThreadAllocatedBytes();
+                for (int i = 0; i < REQUESTS; i++) {
+                    var start = System.nanoTime();
+                    fetch(transport, template);
+                    latency.recordNanos(System.nanoTime() - start);
+                }
+                threadBytes = threads.getCurrentThreadAllocatedBytes() - threadBytes;
+                jvmBytes = threads.getTotalThreadAllocatedBytes() - jvmBytes;
+
+                var perSecond = throughput(transport, template);
+                var batchedPerSecond = batchedThroughput(transport, uri);
+                log.info("{}: p50 {} us, p99 {} us, max {} us | {} req/s on {} threads, {} req/s in batches of {} | "
+                                + "{} B/request caller, {} B/request JVM",
+                        String.format("%-13s", kind.id()), latency.valueAtPercentile(50), latency.valueAtPercentile(99),
+                        latency.maxMicros(), String.format("%.0f", perSecond), THREADS,
+                        String.format("%.0f", batchedPerSecond), BATCH, threadBytes / REQUESTS, jvmBytes / REQUESTS);
+            }
+        }
+    }
+
+    private static double throughput(HttpTransport transport, RequestTemplate template) throws Exception {
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (int t = 0; t < THREADS; t++) {
+                tasks.add(() -> {
+                    for (int i = 0; i < REQUESTS / THREADS; i++) {
+                        fetch(transport, template);
+                    }
+                    return null;
+                });
+            }
+            var start = System.nanoTime();
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            return (REQUESTS / THREADS * THREADS) / ((System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * One thread, {@link HttpTransport#getAll} - pipelined where the transport can.
+     */
+    private static double batchedThroughput(HttpTransport transport, URI uri) throws Exception {
+        var batch = Collections.nCopies(BATCH, uri);
+        var start = System.nanoTime();
+        for (int i = 0; i < REQUESTS / BATCH; i++) {
+            var sizes = transport.getAll(batch, HEADERS, TIMEOUT, (status, body) -> body.remaining());
+            assertEquals(BATCH, sizes.size());
+        }
+        return (REQUESTS / BATCH * BATCH) / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static int fetch(HttpTransport transport, RequestTemplate template) throws Exception {
+        return transport.get(template, TARGET, TIMEOUT, (status, body) -> {
+            assertEquals(200, status);
+            return body.remaining();
+        });
+    }
+}
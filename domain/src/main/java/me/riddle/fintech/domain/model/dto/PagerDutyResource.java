@@ -0,0 +1,65 @@
+package me.riddle.fintech.domain.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A related PagerDuty object nested in a user - a contact method, notification rule or team.
+ * Without {@code include[]} the API only sends a reference (type {@code *_reference}: id, summary, links);
+ * with it the full object, whose type-specific fields ({@code address}, {@code urgency}, ...) land in
+ * {@code attributes}.
+ */
+public record PagerDutyResource(
+        @JsonProperty("id") String id,
+        @JsonProperty("type") String type,
+        @JsonProperty("summary") String summary,
+        @JsonProperty("self") String self,
+        @JsonProperty("html_url") String htmlUrl,
+
+        @JsonAnyGetter Map<String, Object> attributes
+) {
+
+    public PagerDutyResource {
+        Objects.requireNonNull(type, "Resource type cannot be null");
+        attributes = attributes != null ? Map.copyOf(attributes) : Map.of();
+    }
+
+    /**
+     * Build from the generic map Jackson produced for a nested object.
+     */
+    public static PagerDutyResource from(Map<?, ?> json) {
+        var attributes = new HashMap<String, Object>();
+        json.forEach((key, value) -> {
+            if (value != null) {
+                attributes.put(String.valueOf(key), value);
+            }
+        });
+
+        return new PagerDutyResource(
+                text(attributes.remove("id")),
+                Objects.requireNonNullElse(text(attributes.remove("type")), "unknown"),
+                text(attributes.remove("summary")),
+                text(attributes.remove("self")),
+                text(attributes.remove("html_url")),
+                attributes);
+    }
+
+    /**
+     * True if only the reference was sent - request the matching include to get the full object.
+     */
+    public boolean isReference() {
+        return type.endsWith("_reference");
+    }
+
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -102,4 +103,39 @@ public record PagerDutyUser(
     public Object getUnknownField(String fieldName) {
         return unknownFields.get(fieldName);
     }
+
+    /**
+     * Contact methods - full objects when fetched with {@link UserInclude#CONTACT_METHODS}, references otherwise.
+     */
+    public List<PagerDutyResource> contactMethods() {
+        return related(UserInclude.CONTACT_METHODS);
+    }
+
+    /**
+     * Notification rules - full objects when fetched with {@link UserInclude#NOTIFICATION_RULES}.
+     */
+    public List<PagerDutyResource> notificationRules() {
+        return related(UserInclude.NOTIFICATION_RULES);
+    }
+
+    /**
+     * Teams - full objects when fetched with {@link UserInclude#TEAMS}.
+     */
+    public List<PagerDutyResource> teams() {
+        return related(UserInclude.TEAMS);
+    }
+
+    /**
+     * Related resources are not modelled as components - they arrive through {@code unknownFields},
+     * so a user round-trips unchanged whether or not they were expanded.
+     */
+    public List<PagerDutyResource> related(UserInclude include) {
+        if (!(unknownFields.get(include.fieldName()) instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream()
+                .filter(Map.class::isInstance)
+                .map(item -> PagerDutyResource.from((Map<?, ?>) item))
+                .toList();
+    }
 }
\ No newline at end of file
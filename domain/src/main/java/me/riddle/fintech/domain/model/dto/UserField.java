@@ -0,0 +1,46 @@
+package me.riddle.fintech.domain.model.dto;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The known {@link PagerDutyUser} fields, in component order, for projected (sparse) parsing.
+ */
+public enum UserField {
+    ID("id"),
+    NAME("name"),
+    EMAIL("email"),
+    SUMMARY("summary"),
+    TYPE("type"),
+    SELF("self"),
+    HTML_URL("html_url"),
+    AVATAR_URL("avatar_url"),
+    COLOR("color"),
+    ROLE("role"),
+    DESCRIPTION("description"),
+    INVITATION_SENT("invitation_sent"),
+    JOB_TITLE("job_title"),
+    TIME_ZONE("time_zone");
+
+    private static final Map<String, UserField> BY_JSON_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(UserField::jsonName, Function.identity()));
+
+    private final String jsonName;
+
+    UserField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    /**
+     * @return the field, or null for unknown/nested fields
+     */
+    public static UserField forJsonName(String jsonName) {
+        return BY_JSON_NAME.get(jsonName);
+    }
+}
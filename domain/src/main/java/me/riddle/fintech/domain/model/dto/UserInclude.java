@@ -0,0 +1,24 @@
+package me.riddle.fintech.domain.model.dto;
+
+/**
+ * Related resources the users endpoints can expand inline via {@code include[]},
+ * saving one request per user.
+ */
+public enum UserInclude {
+    CONTACT_METHODS("contact_methods"),
+    NOTIFICATION_RULES("notification_rules"),
+    TEAMS("teams");
+
+    private final String fieldName;
+
+    UserInclude(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    /**
+     * Name used both as {@code include[]} value and as the user field carrying the expansion.
+     */
+    public String fieldName() {
+        return fieldName;
+    }
+}
@@ -0,0 +1,430 @@
+package me.riddle.fintech.domain.model.store;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Off-heap columnar store for large PagerDuty user directories.
+ * Free-text fields are packed as UTF-8 into direct buffers with offset tables,
+ * low-cardinality fields (type, role, time zone) are dictionary-encoded.
+ * The heap only holds buffer headers and dictionaries - users are materialized on demand.
+ * NOTE: Direct {@link ByteBuffer} rather than {@code MemorySegment} - FFM is still preview on Java 21.
+ */
+public final class ColumnarUserStore implements Iterable<PagerDutyUser> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> UNKNOWN_FIELDS_TYPE = new TypeReference<>() {};
+
+    private static final byte BOOLEAN_NULL = 0;
+    private static final byte BOOLEAN_FALSE = 1;
+    private static final byte BOOLEAN_TRUE = 2;
+
+    private final int size;
+
+    private final TextColumn id;
+    private final TextColumn name;
+    private final TextColumn email;
+    private final TextColumn summary;
+    private final TextColumn self;
+    private final TextColumn htmlUrl;
+    private final TextColumn avatarUrl;
+    private final TextColumn color;
+    private final TextColumn description;
+    private final TextColumn jobTitle;
+    private final TextColumn unknownFields;     // JSON encoded, null when empty
+
+    private final DictionaryColumn type;
+    private final DictionaryColumn role;
+    private final DictionaryColumn timeZone;
+
+    private final ByteBuffer invitationSent;
+
+    private ColumnarUserStore(Builder builder) {
+        this.size = builder.size;
+        this.id = builder.id.seal();
+        this.name = builder.name.seal();
+        this.email = builder.email.seal();
+        this.summary = builder.summary.seal();
+        this.self = builder.self.seal();
+        this.htmlUrl = builder.htmlUrl.seal();
+        this.avatarUrl = builder.avatarUrl.seal();
+        this.color = builder.color.seal();
+        this.description = builder.description.seal();
+        this.jobTitle = builder.jobTitle.seal();
+        this.unknownFields = builder.unknownFields.seal();
+        this.type = builder.type.seal();
+        this.role = builder.role.seal();
+        this.timeZone = builder.timeZone.seal();
+        this.invitationSent = DirectBuffers.trim(builder.invitationSent, builder.size);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Pack a collection of users in one go.
+     */
+    public static ColumnarUserStore of(Collection<? extends PagerDutyUser> users) {
+        return builder().addAll(users).build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Materialize the user at the given index as a regular (heap) record.
+     */
+    public PagerDutyUser get(int index) {
+        return view(index).toUser();
+    }
+
+    /**
+     * Flyweight view positioned at the given index.
+     * Reuse it via {@link UserView#moveTo(int)} to walk the store without materializing records.
+     */
+    public UserView view(int index) {
+        return new UserView().moveTo(index);
+    }
+
+    /**
+     * Bytes held outside the heap by all columns.
+     */
+    public long offHeapBytes() {
+        return id.bytes() + name.bytes() + email.bytes() + summary.bytes() + self.bytes()
+                + htmlUrl.bytes() + avatarUrl.bytes() + color.bytes() + description.bytes()
+                + jobTitle.bytes() + unknownFields.bytes()
+                + type.bytes() + role.bytes() + timeZone.bytes()
+                + invitationSent.capacity();
+    }
+
+    public Stream<PagerDutyUser> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    @Override
+    public Iterator<PagerDutyUser> iterator() {
+        return stream().iterator();
+    }
+
+    private void checkIndex(int index) {
+        Objects.checkIndex(index, size);
+    }
+
+    /**
+     * Flyweight cursor over the store - accessors decode straight from the columns.
+     * Dictionary-encoded fields return shared instances and never allocate.
+     * Not thread-safe; create one view per thread.
+     */
+    public final class UserView {
+        private int index;
+
+        private UserView() {
+        }
+
+        public UserView moveTo(int index) {
+            checkIndex(index);
+            this.index = index;
+            return this;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String id() {
+            return id.get(index);
+        }
+
+        public String name() {
+            return name.get(index);
+        }
+
+        public String email() {
+            return email.get(index);
+        }
+
+        public String summary() {
+            return summary.get(index);
+        }
+
+        public String type() {
+            return type.get(index);
+        }
+
+        public String self() {
+            return self.get(index);
+        }
+
+        public String htmlUrl() {
+            return htmlUrl.get(index);
+        }
+
+        public String avatarUrl() {
+            return avatarUrl.get(index);
+        }
+
+        public String color() {
+            return color.get(index);
+        }
+
+        public String role() {
+            return role.get(index);
+        }
+
+        public String description() {
+            return description.get(index);
+        }
+
+        public Boolean invitationSent() {
+            return switch (invitationSent.get(index)) {
+                case BOOLEAN_TRUE -> Boolean.TRUE;
+                case BOOLEAN_FALSE -> Boolean.FALSE;
+                default -> null;
+            };
+        }
+
+        public String jobTitle() {
+            return jobTitle.get(index);
+        }
+
+        public String timeZone() {
+            return timeZone.get(index);
+        }
+
+        public boolean hasUnknownFields() {
+            return !unknownFields.isNull(index);
+        }
+
+        public Map<String, Object> unknownFields() {
+            var json = unknownFields.getBytes(index);
+            if (json == null) {
+                return Map.of();
+            }
+            try {
+                return MAPPER.readValue(json, UNKNOWN_FIELDS_TYPE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupt unknown fields at index " + index, e);
+            }
+        }
+
+        /**
+         * Materialize the current position as a heap record.
+         */
+        public PagerDutyUser toUser() {
+            return new PagerDutyUser(id(), name(), email(), summary(), type(), self(), htmlUrl(),
+                    avatarUrl(), color(), role(), description(), invitationSent(), jobTitle(),
+                    timeZone(), unknownFields());
+        }
+    }
+
+    /**
+     * Incrementally packs users into growable direct buffers - feed it page by page.
+     * Not thread-safe.
+     */
+    public static final class Builder {
+        private int size;
+
+        private final TextColumn id = new TextColumn();
+        private final TextColumn name = new TextColumn();
+        private final TextColumn email = new TextColumn();
+        private final TextColumn summary = new TextColumn();
+        private final TextColumn self = new TextColumn();
+        private final TextColumn htmlUrl = new TextColumn();
+        private final TextColumn avatarUrl = new TextColumn();
+        private final TextColumn color = new TextColumn();
+        private final TextColumn description = new TextColumn();
+        private final TextColumn jobTitle = new TextColumn();
+        private final TextColumn unknownFields = new TextColumn();
+
+        private final DictionaryColumn type = new DictionaryColumn();
+        private final DictionaryColumn role = new DictionaryColumn();
+        private final DictionaryColumn timeZone = new DictionaryColumn();
+
+        private ByteBuffer invitationSent = DirectBuffers.allocate(DirectBuffers.INITIAL_CAPACITY);
+
+        private boolean built;
+
+        private Builder() {
+        }
+
+        public Builder add(PagerDutyUser user) {
+            Objects.requireNonNull(user, "User cannot be null");
+            if (built) {
+                throw new IllegalStateException("Store already built");
+            }
+
+            id.append(user.id());
+            name.append(user.name());
+            email.append(user.email());
+            summary.append(user.summary());
+            self.append(user.self());
+            htmlUrl.append(user.htmlUrl());
+            avatarUrl.append(user.avatarUrl());
+            color.append(user.color());
+            description.append(user.description());
+            jobTitle.append(user.jobTitle());
+            unknownFields.appendBytes(user.hasUnknownFields() ? toJson(user.unknownFields()) : null);
+
+            type.append(user.type());
+            role.append(user.role());
+            timeZone.append(user.timeZone());
+
+            invitationSent = DirectBuffers.ensureCapacity(invitationSent, size + 1);
+            invitationSent.put(size, user.invitationSent() == null ? BOOLEAN_NULL
+                    : user.invitationSent() ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+
+            size++;
+            return this;
+        }
+
+        public Builder addAll(Collection<? extends PagerDutyUser> users) {
+            users.forEach(this::add);
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Seal the columns into exact-size buffers. The builder cannot be reused afterwards.
+         */
+        public ColumnarUserStore build() {
+            if (built) {
+                throw new IllegalStateException("Store already built");
+            }
+            built = true;
+            return new ColumnarUserStore(this);
+        }
+
+        private static byte[] toJson(Map<String, Object> fields) {
+            try {
+                return MAPPER.writeValueAsBytes(fields);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException("Unknown fields are not serializable", e);
+            }
+        }
+    }
+
+    /**
+     * UTF-8 string column: one data buffer plus a table of end offsets.
+     * Null is encoded as the bitwise complement of the (unchanged) end offset.
+     */
+    static final class TextColumn {
+        private ByteBuffer data = DirectBuffers.allocate(DirectBuffers.INITIAL_CAPACITY);
+        private ByteBuffer ends = DirectBuffers.allocate(DirectBuffers.INITIAL_CAPACITY);
+        private int rows;
+        private int position;
+
+        void append(String value) {
+            appendBytes(value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+        }
+
+        void appendBytes(byte[] value) {
+            ends = DirectBuffers.ensureCapacity(ends, (rows + 1) * Integer.BYTES);
+            if (value == null) {
+                ends.putInt(rows * Integer.BYTES, ~position);
+            } else {
+                data = DirectBuffers.ensureCapacity(data, position + value.length);
+                data.put(position, value);
+                position += value.length;
+                ends.putInt(rows * Integer.BYTES, position);
+            }
+            rows++;
+        }
+
+        TextColumn seal() {
+            data = DirectBuffers.trim(data, position);
+            ends = DirectBuffers.trim(ends, rows * Integer.BYTES);
+            return this;
+        }
+
+        boolean isNull(int row) {
+            return ends.getInt(row * Integer.BYTES) < 0;
+        }
+
+        byte[] getBytes(int row) {
+            var end = ends.getInt(row * Integer.BYTES);
+            if (end < 0) {
+                return null;
+            }
+            var start = row == 0 ? 0 : decode(ends.getInt((row - 1) * Integer.BYTES));
+            var bytes = new byte[end - start];
+            data.get(start, bytes);
+            return bytes;
+        }
+
+        String get(int row) {
+            var bytes = getBytes(row);
+            return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+        }
+
+        long bytes() {
+            return (long) data.capacity() + ends.capacity();
+        }
+
+        private static int decode(int end) {
+            return end < 0 ? ~end : end;
+        }
+    }
+
+    /**
+     * Dictionary-encoded column with 16-bit codes off-heap and the (small) dictionary on heap.
+     */
+    static final class DictionaryColumn {
+        private static final int NULL_CODE = 0xFFFF;
+        private static final int MAX_ENTRIES = NULL_CODE;
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private ByteBuffer values = DirectBuffers.allocate(DirectBuffers.INITIAL_CAPACITY);
+        private int rows;
+
+        void append(String value) {
+            var code = NULL_CODE;
+            if (value != null) {
+                code = codes.computeIfAbsent(value, key -> {
+                    if (dictionary.size() >= MAX_ENTRIES) {
+                        throw new IllegalStateException(
+                                "Dictionary column exceeded " + MAX_ENTRIES + " distinct values");
+                    }
+                    dictionary.add(key);
+                    return dictionary.size() - 1;
+                });
+            }
+            values = DirectBuffers.ensureCapacity(values, (rows + 1) * Character.BYTES);
+            values.putChar(rows * Character.BYTES, (char) code);
+            rows++;
+        }
+
+        DictionaryColumn seal() {
+            values = DirectBuffers.trim(values, rows * Character.BYTES);
+            return this;
+        }
+
+        String get(int row) {
+            int code = values.getChar(row * Character.BYTES);
+            return code == NULL_CODE ? null : dictionary.get(code);
+        }
+
+        long bytes() {
+            return values.capacity();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package me.riddle.fintech.domain.model.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Growable direct buffer helpers for the off-heap stores.
+ * All access is absolute - buffer positions and limits are never relied upon.
+ */
+final class DirectBuffers {
+
+    static final int INITIAL_CAPACITY = 4 * 1024;
+
+    private DirectBuffers() {
+    }
+
+    static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Return a buffer with at least {@code required} bytes, doubling (and copying) when needed.
+     */
+    static ByteBuffer ensureCapacity(ByteBuffer buffer, int required) {
+        if (required < 0) {
+            throw new IllegalStateException("Off-heap column exceeded 2 GiB");
+        }
+        if (required <= buffer.capacity()) {
+            return buffer;
+        }
+        var capacity = Math.max(required, (int) Math.min(Integer.MAX_VALUE - 8L, buffer.capacity() * 2L));
+        return copy(buffer, capacity, buffer.capacity());
+    }
+
+    /**
+     * Shrink to exactly {@code used} bytes so sealed stores have a predictable footprint.
+     */
+    static ByteBuffer trim(ByteBuffer buffer, int used) {
+        return used == buffer.capacity() ? buffer : copy(buffer, used, used);
+    }
+
+    private static ByteBuffer copy(ByteBuffer source, int capacity, int length) {
+        var target = allocate(capacity);
+        target.put(0, source, 0, length);
+        return target;
+    }
+}
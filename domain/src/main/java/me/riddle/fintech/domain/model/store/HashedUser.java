@@ -0,0 +1,20 @@
+package me.riddle.fintech.domain.model.store;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.util.Objects;
+
+/**
+ * A user together with its {@link UserContentHash}, computed once - ideally as its page is parsed -
+ * so comparing and snapshotting it never hashes it again.
+ */
+public record HashedUser(PagerDutyUser user, long contentHash) {
+
+    public HashedUser {
+        Objects.requireNonNull(user, "User cannot be null");
+    }
+
+    public static HashedUser of(PagerDutyUser user) {
+        return new HashedUser(user, UserContentHash.of(user));
+    }
+}
@@ -0,0 +1,36 @@
+package me.riddle.fintech.domain.model.store;
+
+/**
+ * The one 64-bit hash of the project: id sets, content hashes and sketches all use it, so merged
+ * sketches and stored hashes agree wherever they were computed.
+ */
+public final class Hashing {
+
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    /**
+     * FNV-1a 64 over the UTF-16 chars, finished with the MurmurHash3 fmix64 avalanche
+     * so every output bit is usable for register and bucket selection.
+     */
+    public static long hash64(String value) {
+        var h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return fmix64(h);
+    }
+
+    static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
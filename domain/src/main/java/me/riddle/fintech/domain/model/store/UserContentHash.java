@@ -0,0 +1,121 @@
+package me.riddle.fintech.domain.model.store;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stable 64-bit content hash of a {@link PagerDutyUser}, unknown fields included.
+ * Independent of map ordering and of the numeric type Jackson picked (123 as Integer or Long hash alike),
+ * so the same user parsed on different days hashes the same.
+ * FNV-1a over a tagged canonical encoding, finished like {@link Hashing#hash64}.
+ */
+public final class UserContentHash {
+
+    // Type tags keep "null", "" and structural boundaries from colliding
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_NUMBER = 2;
+    private static final int TAG_BOOLEAN = 3;
+    private static final int TAG_MAP = 4;
+    private static final int TAG_LIST = 5;
+    private static final int TAG_END = 6;
+
+    private long hash = Hashing.FNV_OFFSET;
+
+    private UserContentHash() {
+    }
+
+    public static long of(PagerDutyUser user) {
+        var h = new UserContentHash();
+        h.value(user.id());
+        h.value(user.name());
+        h.value(user.email());
+        h.value(user.summary());
+        h.value(user.type());
+        h.value(user.self());
+        h.value(user.htmlUrl());
+        h.value(user.avatarUrl());
+        h.value(user.color());
+        h.value(user.role());
+        h.value(user.description());
+        h.value(user.invitationSent());
+        h.value(user.jobTitle());
+        h.value(user.timeZone());
+        h.value(user.unknownFields());
+        return Hashing.fmix64(h.hash);
+    }
+
+    private void value(Object value) {
+        switch (value) {
+            case null -> tag(TAG_NULL);
+            case String s -> {
+                tag(TAG_STRING);
+                chars(s);
+            }
+            case Boolean b -> {
+                tag(TAG_BOOLEAN);
+                mix(b ? 1 : 0);
+            }
+            case Number n -> {
+                tag(TAG_NUMBER);
+                chars(canonicalNumber(n));
+            }
+            case Map<?, ?> map -> {
+                tag(TAG_MAP);
+                var sorted = new TreeMap<String, Object>();
+                map.forEach((k, v) -> sorted.put(String.valueOf(k), v));
+                sorted.forEach((k, v) -> {
+                    chars(k);
+                    value(v);
+                });
+                tag(TAG_END);
+            }
+            case Collection<?> list -> {
+                tag(TAG_LIST);
+                list.forEach(this::value);
+                tag(TAG_END);
+            }
+            default -> {
+                tag(TAG_STRING);
+                chars(value.toString());
+            }
+        }
+    }
+
+    private static String canonicalNumber(Number n) {
+        if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+            return Long.toString(n.longValue());
+        }
+        try {
+            var decimal = new BigDecimal(n.toString()).stripTrailingZeros();
+            return decimal.scale() <= 0 ? decimal.toBigInteger().toString() : decimal.toPlainString();
+        } catch (NumberFormatException e) {
+            return n.toString();    // NaN, Infinity
+        }
+    }
+
+    private void tag(int tag) {
+        mix(tag);
+    }
+
+    private void chars(String s) {
+        mix(s.length() >>> 24);
+        mix(s.length() >>> 16);
+        mix(s.length() >>> 8);
+        mix(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            var c = s.charAt(i);
+            mix(c >>> 8);
+            mix(c);
+        }
+    }
+
+    private void mix(int octet) {
+        hash ^= octet & 0xFF;
+        hash *= Hashing.FNV_PRIME;
+    }
+}
@@ -0,0 +1,342 @@
+package me.riddle.fintech.domain.model.store;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compact, memory-mapped binary snapshot of the user directory for warm starts.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ *   header  : magic, version, record width, record count, created-at, string table offset
+ *   records : count x fixed-width rows of string-table references, invitation flag, content hash
+ *   strings : deduplicated UTF-8 string table - count, end offsets, bytes
+ * </pre>
+ * Reading maps the file and decodes users lazily; nothing is parsed up front.
+ * Ids and {@link UserContentHash content hashes} can be read without decoding whole users.
+ */
+public final class UserSnapshot {
+
+    public static final int MAGIC = 0x50445553;                 // "PDUS"
+    public static final short VERSION = 2;                      // 2: content hash per record
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> UNKNOWN_FIELDS_TYPE = new TypeReference<>() {};
+
+    // id, name, email, summary, type, self, html_url, avatar_url, color, role,
+    // description, job_title, time_zone, unknown fields (JSON)
+    private static final int STRING_FIELDS = 14;
+    private static final int NULL_REF = -1;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int INVITATION_AT = STRING_FIELDS * Integer.BYTES;
+    private static final int HASH_AT = INVITATION_AT + Integer.BYTES;              // invitation flag is padded
+    static final int RECORD_BYTES = HASH_AT + Long.BYTES;
+
+    private static final int WRITE_CHUNK = 64 * 1024;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final Instant createdAt;
+    private final int stringCount;
+    private final int stringIndex;      // absolute position of the string end-offset table
+    private final int stringData;       // absolute position of the string bytes
+
+    private UserSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a user snapshot");
+        }
+        var version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        if (buffer.getShort(6) != RECORD_BYTES) {
+            throw new IOException("Unexpected snapshot record width: " + buffer.getShort(6));
+        }
+
+        this.count = buffer.getInt(8);
+        this.createdAt = Instant.ofEpochMilli(buffer.getLong(12));
+        var stringTable = buffer.getLong(20);
+
+        if (count < 0 || stringTable != HEADER_BYTES + (long) count * RECORD_BYTES
+                || stringTable + Integer.BYTES > buffer.capacity()) {
+            throw new IOException("Corrupt snapshot header");
+        }
+
+        this.stringCount = buffer.getInt((int) stringTable);
+        this.stringIndex = (int) stringTable + Integer.BYTES;
+        var data = stringIndex + (long) stringCount * Integer.BYTES;
+        if (stringCount < 0 || data > buffer.capacity()) {
+            throw new IOException("Corrupt snapshot string table");
+        }
+        this.stringData = (int) data;
+
+        // Checked once here, so string() can trust every offset
+        var dataBytes = buffer.capacity() - stringData;
+        var previous = 0;
+        for (int ref = 0; ref < stringCount; ref++) {
+            var end = endOf(ref);
+            if (end < previous || end > dataBytes) {
+                throw new IOException("Corrupt snapshot string offset: " + ref);
+            }
+            previous = end;
+        }
+    }
+
+    /**
+     * Memory-map an existing snapshot. The file channel is closed right away; the mapping stays valid.
+     */
+    public static UserSnapshot open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GiB: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new UserSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Write a snapshot atomically - a temp file is written next to the target and moved over it.
+     */
+    public static void write(Path path, Collection<? extends PagerDutyUser> users) throws IOException {
+        write(path, users, user -> user, UserContentHash::of);
+    }
+
+    /**
+     * Write a snapshot of users hashed earlier - the hashes are stored as they are, not recomputed.
+     */
+    public static void writeHashed(Path path, Collection<HashedUser> users) throws IOException {
+        write(path, users, HashedUser::user, HashedUser::contentHash);
+    }
+
+    private static <T> void write(Path path, Collection<T> users, Function<T, PagerDutyUser> user,
+                                  ToLongFunction<T> contentHash) throws IOException {
+        var target = path.toAbsolutePath();
+        var temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+        try {
+            try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeTo(channel, users, user, contentHash);
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static <T> void writeTo(FileChannel channel, Collection<T> users, Function<T, PagerDutyUser> userOf,
+                                    ToLongFunction<T> contentHash) throws IOException {
+        var strings = new StringTable();
+        var chunk = ByteBuffer.allocate(WRITE_CHUNK);
+
+        var header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) RECORD_BYTES)
+                .putInt(users.size())
+                .putLong(System.currentTimeMillis())
+                .putLong(HEADER_BYTES + (long) users.size() * RECORD_BYTES)
+                .putInt(0)
+                .flip();
+        writeFully(channel, header);
+
+        for (var item : users) {
+            var user = userOf.apply(item);
+            if (chunk.remaining() < RECORD_BYTES) {
+                writeFully(channel, chunk.flip());
+                chunk.clear();
+            }
+            chunk.putInt(strings.ref(user.id()))
+                    .putInt(strings.ref(user.name()))
+                    .putInt(strings.ref(user.email()))
+                    .putInt(strings.ref(user.summary()))
+                    .putInt(strings.ref(user.type()))
+                    .putInt(strings.ref(user.self()))
+                    .putInt(strings.ref(user.htmlUrl()))
+                    .putInt(strings.ref(user.avatarUrl()))
+                    .putInt(strings.ref(user.color()))
+                    .putInt(strings.ref(user.role()))
+                    .putInt(strings.ref(user.description()))
+                    .putInt(strings.ref(user.jobTitle()))
+                    .putInt(strings.ref(user.timeZone()))
+                    .putInt(strings.ref(user.hasUnknownFields() ? toJson(user.unknownFields()) : null))
+                    .put(encodeBoolean(user.invitationSent()))
+                    .put(new byte[Integer.BYTES - 1])
+                    .putLong(contentHash.applyAsLong(item));
+        }
+        writeFully(channel, chunk.flip());
+
+        strings.writeTo(channel);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * When the snapshot was written - useful to decide how stale a warm start is.
+     */
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * Decode the user at the given index straight from the mapping.
+     */
+    public PagerDutyUser get(int index) {
+        Objects.checkIndex(index, count);
+        var row = HEADER_BYTES + index * RECORD_BYTES;
+
+        var unknownFieldsJson = string(buffer.getInt(row + 13 * Integer.BYTES));
+
+        return new PagerDutyUser(
+                string(buffer.getInt(row)),
+                string(buffer.getInt(row + Integer.BYTES)),
+                string(buffer.getInt(row + 2 * Integer.BYTES)),
+                string(buffer.getInt(row + 3 * Integer.BYTES)),
+                string(buffer.getInt(row + 4 * Integer.BYTES)),
+                string(buffer.getInt(row + 5 * Integer.BYTES)),
+                string(buffer.getInt(row + 6 * Integer.BYTES)),
+                string(buffer.getInt(row + 7 * Integer.BYTES)),
+                string(buffer.getInt(row + 8 * Integer.BYTES)),
+                string(buffer.getInt(row + 9 * Integer.BYTES)),
+                string(buffer.getInt(row + 10 * Integer.BYTES)),
+                decodeBoolean(buffer.get(row + INVITATION_AT)),
+                string(buffer.getInt(row + 11 * Integer.BYTES)),
+                string(buffer.getInt(row + 12 * Integer.BYTES)),
+                unknownFieldsJson != null ? fromJson(unknownFieldsJson) : Map.of());
+    }
+
+    /**
+     * The id at the given index, without decoding the rest of the user.
+     */
+    public String id(int index) {
+        Objects.checkIndex(index, count);
+        return string(buffer.getInt(HEADER_BYTES + index * RECORD_BYTES));
+    }
+
+    /**
+     * The content hash recorded when the snapshot was written.
+     */
+    public long contentHash(int index) {
+        Objects.checkIndex(index, count);
+        return buffer.getLong(HEADER_BYTES + index * RECORD_BYTES + HASH_AT);
+    }
+
+    public Stream<PagerDutyUser> stream() {
+        return IntStream.range(0, count).mapToObj(this::get);
+    }
+
+    /**
+     * Materialize every user - the warm-start path for callers that work on lists.
+     */
+    public List<PagerDutyUser> toList() {
+        return stream().toList();
+    }
+
+    private String string(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        if (ref < 0 || ref >= stringCount) {
+            throw new IllegalStateException("Corrupt snapshot string reference: " + ref);
+        }
+        var start = ref == 0 ? 0 : endOf(ref - 1);
+        var bytes = new byte[endOf(ref) - start];
+        buffer.get(stringData + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int endOf(int ref) {
+        return buffer.getInt(stringIndex + ref * Integer.BYTES);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    private static byte encodeBoolean(Boolean value) {
+        return value == null ? 0 : value ? (byte) 2 : (byte) 1;
+    }
+
+    private static Boolean decodeBoolean(byte value) {
+        return switch (value) {
+            case 2 -> Boolean.TRUE;
+            case 1 -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    private static String toJson(Map<String, Object> fields) {
+        try {
+            return MAPPER.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Unknown fields are not serializable", e);
+        }
+    }
+
+    private static Map<String, Object> fromJson(String json) {
+        try {
+            return MAPPER.readValue(json, UNKNOWN_FIELDS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Corrupt unknown fields in snapshot", e);
+        }
+    }
+
+    /**
+     * Deduplicating string table - repeated roles, time zones, colors and types are stored once.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final List<Integer> ends = new ArrayList<>();
+
+        int ref(String value) {
+            if (value == null) {
+                return NULL_REF;
+            }
+            return refs.computeIfAbsent(value, key -> {
+                bytes.writeBytes(key.getBytes(StandardCharsets.UTF_8));
+                ends.add(bytes.size());
+                return ends.size() - 1;
+            });
+        }
+
+        void writeTo(FileChannel channel) throws IOException {
+            var index = ByteBuffer.allocate(Integer.BYTES * (ends.size() + 1)).putInt(ends.size());
+            ends.forEach(index::putInt);
+            writeFully(channel, index.flip());
+            writeFully(channel, ByteBuffer.wrap(bytes.toByteArray()));
+        }
+    }
+}
@@ -140,4 +140,47 @@ class PagerDutyUserTest {
         assertNull(user.email());
         assertFalse(user.hasUnknownFields());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIncludedResourcesAreExposed() throws Exception {
+        String json = """
+            {
+                "id": "PXYZ789",
+                "type": "user",
+                "name": "Jane Smith",
+                "contact_methods": [
+                    {
+                        "id": "PC1",
+                        "type": "email_contact_method",
+                        "summary": "Work",
+                        "address": "jane@example.com",
+                        "label": "Work"
+                    }
+                ],
+                "teams": [
+                    {
+                        "id": "PT1",
+                        "type": "team_reference",
+                        "summary": "Platform"
+                    }
+                ]
+            }
+            """;
+
+        var user = objectMapper.readValue(json, PagerDutyUser.class);
+
+        var contactMethod = user.contactMethods().getFirst();
+        assertEquals("PC1", contactMethod.id());
+        assertEquals("email_contact_method", contactMethod.type());
+        assertEquals("jane@example.com", contactMethod.getAttribute("address"));
+        assertFalse(contactMethod.isReference());
+
+        assertTrue(user.teams().getFirst().isReference());
+        assertEquals("Platform", user.teams().getFirst().summary());
+        assertTrue(user.notificationRules().isEmpty());
+
+        // Expansions stay in unknownFields, so the user serializes back unchanged
+        var roundTrip = objectMapper.readValue(objectMapper.writeValueAsString(user), PagerDutyUser.class);
+        assertEquals(user, roundTrip);
+    }
+}
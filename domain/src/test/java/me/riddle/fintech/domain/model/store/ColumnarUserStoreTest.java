@@ -0,0 +1,133 @@
+package me.riddle.fintech.domain.model.store;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarUserStoreTest {
+
+    private static PagerDutyUser fullUser(String id, String timeZone) {
+        return new PagerDutyUser(id, "Jürgen Doe", id.toLowerCase() + "@example.com",
+                "Summary", "user", "https://api.pagerduty.com/users/" + id,
+                "https://app.pagerduty.com/users/" + id, "https://avatar.com/j.jpg",
+                "purple", "admin", "On-call lead ☎", Boolean.FALSE, "Engineer",
+                timeZone, Map.of());
+    }
+
+    @Test
+    void testRoundTripPreservesAllFields() {
+        var original = fullUser("P123456", "Europe/Berlin");
+
+        var store = ColumnarUserStore.of(List.of(original));
+
+        assertEquals(1, store.size());
+        assertEquals(original, store.get(0));
+    }
+
+    @Test
+    void testNullOptionalFields() {
+        var minimal = new PagerDutyUser("P1", null, null, "user");
+
+        var store = ColumnarUserStore.of(List.of(minimal, fullUser("P2", "UTC")));
+
+        assertEquals(minimal, store.get(0));
+        assertNull(store.view(0).invitationSent());
+        assertNull(store.view(0).timeZone());
+        assertEquals("UTC", store.view(1).timeZone());
+    }
+
+    @Test
+    void testEmptyStringsAreNotNull() {
+        var user = new PagerDutyUser("P1", "", "", "user");
+
+        var restored = ColumnarUserStore.of(List.of(user)).get(0);
+
+        assertEquals("", restored.name());
+        assertEquals("", restored.email());
+    }
+
+    @Test
+    void testUnknownFieldsRoundTrip() {
+        var user = new PagerDutyUser("P1", "Name", "e@x.com", "user")
+                .withUnknownField("new_field", "new_value")
+                .withUnknownField("another_new_field", 123);
+
+        var view = ColumnarUserStore.of(List.of(user)).view(0);
+
+        assertTrue(view.hasUnknownFields());
+        assertEquals("new_value", view.unknownFields().get("new_field"));
+        assertEquals(123, view.unknownFields().get("another_new_field"));
+    }
+
+    @Test
+    void testDictionaryColumnsShareInstances() {
+        var store = ColumnarUserStore.of(List.of(fullUser("P1", "UTC"), fullUser("P2", "UTC")));
+
+        assertSame(store.view(0).timeZone(), store.view(1).timeZone());
+        assertSame(store.view(0).role(), store.view(1).role());
+    }
+
+    @Test
+    void testBuilderGrowsAcrossPages() {
+        var builder = ColumnarUserStore.builder();
+        var expected = new ArrayList<PagerDutyUser>();
+
+        for (int page = 0; page < 50; page++) {
+            var users = new ArrayList<PagerDutyUser>();
+            for (int i = 0; i < 100; i++) {
+                users.add(fullUser("P" + (page * 100 + i), "Zone/" + (i % 7)));
+            }
+            builder.addAll(users);
+            expected.addAll(users);
+        }
+
+        var store = builder.build();
+
+        assertEquals(5000, store.size());
+        assertEquals(expected, store.stream().toList());
+        assertTrue(store.offHeapBytes() > 0);
+    }
+
+    @Test
+    void testFlyweightViewMovesWithoutMaterializing() {
+        var store = ColumnarUserStore.of(List.of(fullUser("P1", "UTC"), fullUser("P2", "Asia/Tokyo")));
+
+        var view = store.view(0);
+        assertEquals("P1", view.id());
+
+        view.moveTo(1);
+        assertEquals("P2", view.id());
+        assertEquals("Asia/Tokyo", view.timeZone());
+        assertEquals(Boolean.FALSE, view.invitationSent());
+    }
+
+    @Test
+    void testIndexOutOfBounds() {
+        var store = ColumnarUserStore.of(List.of(fullUser("P1", "UTC")));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> store.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.view(-1));
+    }
+
+    @Test
+    void testBuilderCannotBeReused() {
+        var builder = ColumnarUserStore.builder().add(fullUser("P1", "UTC"));
+        builder.build();
+
+        assertThrows(IllegalStateException.class, builder::build);
+        assertThrows(IllegalStateException.class, () -> builder.add(fullUser("P2", "UTC")));
+    }
+
+    @Test
+    void testEmptyStore() {
+        var store = ColumnarUserStore.of(List.of());
+
+        assertTrue(store.isEmpty());
+        assertEquals(0, store.stream().count());
+    }
+}
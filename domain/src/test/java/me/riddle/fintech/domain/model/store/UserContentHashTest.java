@@ -0,0 +1,96 @@
+package me.riddle.fintech.domain.model.store;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserContentHashTest {
+
+    private final PagerDutyUser user = new PagerDutyUser("P1", "Jane", "jane@example.com", "user");
+
+    @Test
+    void testEqualUsersHashEqual() {
+        var copy = new PagerDutyUser("P1", "Jane", "jane@example.com", "user");
+
+        assertEquals(UserContentHash.of(user), UserContentHash.of(copy));
+    }
+
+    @Test
+    void testAnyFieldChangeChangesHash() {
+        var renamed = new PagerDutyUser("P1", "Jane Doe", "jane@example.com", "user");
+        var moved = new PagerDutyUser("P1", "Jane", "jane@example.com", null, "user",
+                null, null, null, null, null, null, null, null, "Europe/Paris", Map.of());
+
+        assertNotEquals(UserContentHash.of(user), UserContentHash.of(renamed));
+        assertNotEquals(UserContentHash.of(user), UserContentHash.of(moved));
+    }
+
+    @Test
+    void testNullAndEmptyDiffer() {
+        var nullName = new PagerDutyUser("P1", null, "jane@example.com", "user");
+        var emptyName = new PagerDutyUser("P1", "", "jane@example.com", "user");
+
+        assertNotEquals(UserContentHash.of(nullName), UserContentHash.of(emptyName));
+    }
+
+    @Test
+    void testFieldBoundariesMatter() {
+        var a = new PagerDutyUser("P1", "ab", "c", "user");
+        var b = new PagerDutyUser("P1", "a", "bc", "user");
+
+        assertNotEquals(UserContentHash.of(a), UserContentHash.of(b));
+    }
+
+    @Test
+    void testEveryLengthByteIsEncoded() {
+        // Both encode as ["", ...512 bytes...] if a length of 256 were mistaken for 0
+        var spliced = "\u0100\u0100\u6101\u00fc" + "b".repeat(252);
+        var a = new PagerDutyUser("P1", null, null, "user").withUnknownField("tags", List.of(spliced));
+        var b = new PagerDutyUser("P1", null, null, "user").withUnknownField("tags", List.of("", "a", "b".repeat(252)));
+
+        assertNotEquals(UserContentHash.of(a), UserContentHash.of(b));
+    }
+
+    @Test
+    void testUnknownFieldsAreIncluded() {
+        var extended = user.withUnknownField("teams", List.of("T1"));
+        var otherTeam = user.withUnknownField("teams", List.of("T2"));
+
+        assertNotEquals(UserContentHash.of(user), UserContentHash.of(extended));
+        assertNotEquals(UserContentHash.of(extended), UserContentHash.of(otherTeam));
+    }
+
+    @Test
+    void testUnknownFieldOrderDoesNotMatter() {
+        var first = new LinkedHashMap<String, Object>();
+        first.put("a", 1);
+        first.put("b", Map.of("x", true, "y", "z"));
+        var second = new LinkedHashMap<String, Object>();
+        second.put("b", Map.of("y", "z", "x", true));
+        second.put("a", 1);
+
+        assertEquals(
+                UserContentHash.of(withUnknown(first)),
+                UserContentHash.of(withUnknown(second)));
+    }
+
+    @Test
+    void testNumericTypeDoesNotMatter() {
+        assertEquals(
+                UserContentHash.of(user.withUnknownField("n", 123)),
+                UserContentHash.of(user.withUnknownField("n", 123L)));
+        assertEquals(
+                UserContentHash.of(user.withUnknownField("d", 1.50)),
+                UserContentHash.of(user.withUnknownField("d", new java.math.BigDecimal("1.5"))));
+    }
+
+    private PagerDutyUser withUnknown(Map<String, Object> fields) {
+        return new PagerDutyUser("P1", "Jane", "jane@example.com", null, "user",
+                null, null, null, null, null, null, null, null, null, fields);
+    }
+}
@@ -0,0 +1,153 @@
+package me.riddle.fintech.domain.model.store;
+
+import me.riddle.fintech.domain.model.dto.PagerDutyUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static PagerDutyUser user(String id, String role) {
+        return new PagerDutyUser(id, "Name " + id, id + "@example.com", "Summary", "user",
+                null, null, null, "purple", role, null, Boolean.TRUE, "Engineer",
+                "Europe/London", Map.of());
+    }
+
+    @Test
+    void testWriteAndReadBack() throws IOException {
+        var users = List.of(
+                user("P1", "admin"),
+                new PagerDutyUser("P2", null, null, "user"),
+                user("P3", "limited_user").withUnknownField("teams", List.of("T1", "T2")));
+        var path = tempDir.resolve("users.snapshot");
+
+        UserSnapshot.write(path, users);
+        var snapshot = UserSnapshot.open(path);
+
+        assertEquals(3, snapshot.size());
+        assertEquals(users.get(0), snapshot.get(0));
+        assertEquals(users.get(1), snapshot.get(1));
+        assertEquals(List.of("T1", "T2"), snapshot.get(2).getUnknownField("teams"));
+        assertFalse(snapshot.createdAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void testIdsAndContentHashesWithoutDecoding() throws IOException {
+        var users = List.of(user("P1", "admin"), user("P2", "observer"));
+        var path = tempDir.resolve("hashes.snapshot");
+
+        UserSnapshot.write(path, users);
+        var snapshot = UserSnapshot.open(path);
+
+        assertEquals("P2", snapshot.id(1));
+        assertEquals(UserContentHash.of(users.get(0)), snapshot.contentHash(0));
+        assertEquals(UserContentHash.of(users.get(1)), snapshot.contentHash(1));
+    }
+
+    @Test
+    void testWriteHashedStoresTheGivenHashes() throws IOException {
+        var users = List.of(HashedUser.of(user("P1", "admin")), new HashedUser(user("P2", "observer"), 42L));
+        var path = tempDir.resolve("hashed.snapshot");
+
+        UserSnapshot.writeHashed(path, users);
+        var snapshot = UserSnapshot.open(path);
+
+        assertEquals(users.get(1).user(), snapshot.get(1));
+        assertEquals(UserContentHash.of(users.get(0).user()), snapshot.contentHash(0));
+        assertEquals(42L, snapshot.contentHash(1));
+    }
+
+    @Test
+    void testStringTableDeduplicatesRepeatedValues() throws IOException {
+        var users = new ArrayList<PagerDutyUser>();
+        for (int i = 0; i < 1000; i++) {
+            users.add(user("P" + i, "admin"));
+        }
+        var path = tempDir.resolve("dedup.snapshot");
+
+        UserSnapshot.write(path, users);
+
+        // Fixed-width rows dominate; repeated strings are stored once
+        var rowsOnly = 1000L * UserSnapshot.RECORD_BYTES;
+        assertTrue(Files.size(path) < rowsOnly * 2);
+        assertEquals(users, UserSnapshot.open(path).toList());
+    }
+
+    @Test
+    void testEmptySnapshot() throws IOException {
+        var path = tempDir.resolve("empty.snapshot");
+
+        UserSnapshot.write(path, List.of());
+        var snapshot = UserSnapshot.open(path);
+
+        assertTrue(snapshot.isEmpty());
+        assertEquals(List.of(), snapshot.toList());
+    }
+
+    @Test
+    void testOverwriteReplacesPreviousSnapshot() throws IOException {
+        var path = tempDir.resolve("users.snapshot");
+
+        UserSnapshot.write(path, List.of(user("P1", "admin"), user("P2", "admin")));
+        UserSnapshot.write(path, List.of(user("P3", "observer")));
+
+        var snapshot = UserSnapshot.open(path);
+        assertEquals(1, snapshot.size());
+        assertEquals("P3", snapshot.get(0).id());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "Temp files must not be left behind");
+        }
+    }
+
+    @Test
+    void testRejectsForeignFile() throws IOException {
+        var path = tempDir.resolve("garbage.snapshot");
+        Files.writeString(path, "definitely not a snapshot, but long enough for a header");
+
+        assertThrows(IOException.class, () -> UserSnapshot.open(path));
+    }
+
+    @Test
+    void testRejectsCorruptStringOffsets() throws IOException {
+        var path = tempDir.resolve("corrupt.snapshot");
+        UserSnapshot.write(path, List.of(user("P1", "admin"), user("P2", "observer")));
+        var bytes = Files.readAllBytes(path);
+        var firstOffset = (int) ByteBuffer.wrap(bytes).getLong(20) + Integer.BYTES;
+
+        for (var offset : new int[]{-1, bytes.length, 0}) {
+            var corrupt = bytes.clone();
+            // The last write makes the second offset smaller than the first
+            ByteBuffer.wrap(corrupt).putInt(firstOffset + (offset == 0 ? Integer.BYTES : 0), offset);
+            Files.write(path, corrupt);
+
+            var e = assertThrows(IOException.class, () -> UserSnapshot.open(path));
+            assertTrue(e.getMessage().contains("Corrupt snapshot string"), e.getMessage());
+        }
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> UserSnapshot.open(path));
+    }
+
+    @Test
+    void testIndexOutOfBounds() throws IOException {
+        var path = tempDir.resolve("one.snapshot");
+        UserSnapshot.write(path, List.of(user("P1", "admin")));
+
+        var snapshot = UserSnapshot.open(path);
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1));
+    }
+}